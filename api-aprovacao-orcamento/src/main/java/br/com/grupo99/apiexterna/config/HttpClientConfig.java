@@ -0,0 +1,98 @@
+package br.com.grupo99.apiexterna.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Cliente HTTP compartilhado pelas chamadas ao oficina-service.
+ *
+ * Usa o Apache HttpClient 5 com pool de conexões keep-alive (limite total e por rota), timeouts de
+ * conexão, de espera por uma conexão do pool e de resposta, e suporte a PATCH. O uso do pool é
+ * publicado no Micrometer ({@code httpcomponents.httpclient.pool.*}) e a latência das chamadas
+ * em {@code http.client.requests}, pela instrumentação do {@link RestTemplateBuilder}.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${http.client.max-conexoes:100}")
+    private int maxConexoes;
+
+    @Value("${http.client.max-conexoes-por-rota:50}")
+    private int maxConexoesPorRota;
+
+    @Value("${http.client.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${http.client.pool-timeout:1s}")
+    private Duration poolTimeout;
+
+    @Value("${http.client.read-timeout:5s}")
+    private Duration readTimeout;
+
+    @Value("${http.client.idle-timeout:30s}")
+    private Duration idleTimeout;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConexoes)
+                .setMaxConnPerRoute(maxConexoesPorRota)
+                .setDefaultConnectionConfig(connectionConfig())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "oficina-service").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig())
+                // Novas tentativas ficam com a fila de aprovações; repetir 503/429 aqui só aumentaria a carga
+                // sobre um serviço degradado e esconderia a falha do circuit breaker
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build();
+    }
+
+    ConnectionConfig connectionConfig() {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(readTimeout))
+                // Conexões paradas há mais de 2s são validadas antes do reuso
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .setTimeToLive(TimeValue.ofMinutes(5))
+                .build();
+    }
+
+    RequestConfig requestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(poolTimeout))
+                .setResponseTimeout(Timeout.of(readTimeout))
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient httpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+    }
+}
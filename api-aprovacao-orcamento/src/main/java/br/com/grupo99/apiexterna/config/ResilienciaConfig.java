@@ -0,0 +1,117 @@
+package br.com.grupo99.apiexterna.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker e bulkhead das chamadas ao oficina-service.
+ *
+ * O circuit breaker avalia as últimas {@code janela} chamadas: abre quando a taxa de falhas (erro de
+ * rede, 5xx, 408 ou 429) ou a de chamadas acima de {@code limite-lenta} passa do limite, rejeita
+ * tudo durante {@code espera-aberto} e depois libera algumas chamadas de teste (meio aberto). Os
+ * demais 4xx são respostas do serviço e não contam como falha.
+ *
+ * O bulkhead é um semáforo que limita as chamadas simultâneas; sem espera configurada, a chamada
+ * excedente é rejeitada na hora em vez de prender a thread. Estado, chamadas e rejeições são
+ * publicados em {@code resilience4j.*} e cada mudança de estado em
+ * {@code oficina.circuitbreaker.transicoes} (tags {@code de} e {@code para}).
+ */
+@Configuration
+public class ResilienciaConfig {
+
+    static final String OFICINA_SERVICE = "oficina-service";
+
+    private static final Logger log = LoggerFactory.getLogger(ResilienciaConfig.class);
+
+    @Value("${resiliencia.oficina.janela:20}")
+    private int janela;
+
+    @Value("${resiliencia.oficina.chamadas-minimas:10}")
+    private int chamadasMinimas;
+
+    @Value("${resiliencia.oficina.taxa-falhas:50}")
+    private float taxaFalhas;
+
+    @Value("${resiliencia.oficina.taxa-lentas:80}")
+    private float taxaLentas;
+
+    @Value("${resiliencia.oficina.limite-lenta:2s}")
+    private Duration limiteLenta;
+
+    @Value("${resiliencia.oficina.espera-aberto:30s}")
+    private Duration esperaAberto;
+
+    @Value("${resiliencia.oficina.chamadas-meio-aberto:3}")
+    private int chamadasMeioAberto;
+
+    @Value("${resiliencia.oficina.max-concorrentes:20}")
+    private int maxConcorrentes;
+
+    @Value("${resiliencia.oficina.espera-bulkhead:0ms}")
+    private Duration esperaBulkhead;
+
+    @Bean
+    public CircuitBreaker oficinaCircuitBreaker(MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(janela)
+                .minimumNumberOfCalls(chamadasMinimas)
+                .failureRateThreshold(taxaFalhas)
+                .slowCallRateThreshold(taxaLentas)
+                .slowCallDurationThreshold(limiteLenta)
+                .waitDurationInOpenState(esperaAberto)
+                // Sem isso o circuito só sai de aberto na próxima chamada, e o encaminhador não chama com ele aberto
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .permittedNumberOfCallsInHalfOpenState(chamadasMeioAberto)
+                .recordException(ResilienciaConfig::falhaDoServico)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+
+        CircuitBreaker circuitBreaker = registry.circuitBreaker(OFICINA_SERVICE);
+        circuitBreaker.getEventPublisher().onStateTransition(evento -> {
+            CircuitBreaker.StateTransition transicao = evento.getStateTransition();
+            meterRegistry.counter("oficina.circuitbreaker.transicoes",
+                    "de", transicao.getFromState().name(), "para", transicao.getToState().name()).increment();
+            log.warn("Circuit breaker do oficina-service: {} -> {}", transicao.getFromState(), transicao.getToState());
+        });
+        return circuitBreaker;
+    }
+
+    @Bean
+    public Bulkhead oficinaBulkhead(MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcorrentes)
+                .maxWaitDuration(esperaBulkhead)
+                .build());
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry.bulkhead(OFICINA_SERVICE);
+    }
+
+    /**
+     * Erros do cliente indicam resposta do serviço (ordem inexistente, transição recusada), exceto
+     * 408 e 429, que indicam sobrecarga.
+     */
+    static boolean falhaDoServico(Throwable erro) {
+        if (erro instanceof HttpClientErrorException e) {
+            return e.getStatusCode().isSameCodeAs(HttpStatus.REQUEST_TIMEOUT)
+                    || e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return true;
+    }
+}
@@ -4,6 +4,7 @@ import br.com.grupo99.apiexterna.dto.AprovacaoOrcamentoRequestDTO;
 import br.com.grupo99.apiexterna.domain.AprovacaoOrcamento;
 import br.com.grupo99.apiexterna.presenter.AprovacaoOrcamentoResponseDTO;
 import br.com.grupo99.apiexterna.service.AprovacaoOrcamentoService;
+import br.com.grupo99.apiexterna.service.IdempotenciaAprovacoes;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
@@ -13,15 +14,20 @@ import jakarta.validation.Valid;
 public class AprovacaoOrcamentoController {
 
     private final AprovacaoOrcamentoService service;
+    private final IdempotenciaAprovacoes idempotencia;
 
-    public AprovacaoOrcamentoController(AprovacaoOrcamentoService service) {
+    public AprovacaoOrcamentoController(AprovacaoOrcamentoService service, IdempotenciaAprovacoes idempotencia) {
         this.service = service;
+        this.idempotencia = idempotencia;
     }
 
     @PostMapping
-    public ResponseEntity<AprovacaoOrcamentoResponseDTO> receberNotificacao(@RequestBody @Valid AprovacaoOrcamentoRequestDTO dto) {
+    public ResponseEntity<AprovacaoOrcamentoResponseDTO> receberNotificacao(
+            @RequestBody @Valid AprovacaoOrcamentoRequestDTO dto,
+            @RequestHeader(value = "Idempotency-Key", required = false) String chaveIdempotencia) {
         AprovacaoOrcamento aprovacao = new AprovacaoOrcamento(dto.getOrdemServicoId(), dto.isAprovado(), dto.getMotivoRecusa());
-        AprovacaoOrcamentoResponseDTO response = service.processarNotificacao(aprovacao);
-        return ResponseEntity.ok(response);
+        AprovacaoOrcamentoResponseDTO response = idempotencia.processar(aprovacao, chaveIdempotencia,
+                () -> service.processarNotificacao(aprovacao));
+        return ResponseEntity.accepted().body(response);
     }
 }
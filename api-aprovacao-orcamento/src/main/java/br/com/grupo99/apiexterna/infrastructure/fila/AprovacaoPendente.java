@@ -0,0 +1,16 @@
+package br.com.grupo99.apiexterna.infrastructure.fila;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Aprovação aguardando encaminhamento ao oficina-service. A {@code versao} muda a cada nova
+ * notificação da mesma ordem, para que o encaminhamento de uma versão antiga não apague a nova.
+ */
+public record AprovacaoPendente(UUID ordemServicoId, boolean aprovado, String motivoRecusa, long versao,
+                                int tentativas, Instant recebidaEm) {
+
+    public String status() {
+        return aprovado ? "EM_EXECUCAO" : "CANCELADA";
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.grupo99.apiexterna.infrastructure.fila;
+
+import br.com.grupo99.apiexterna.domain.AprovacaoOrcamento;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fila durável das notificações de aprovação, na tabela {@code aprovacao_pendente} do H2 embarcado.
+ *
+ * Há no máximo uma linha por ordem de serviço: uma nova notificação da mesma ordem substitui a
+ * anterior ainda não encaminhada (vale a última), incrementa a versão e zera as tentativas.
+ * A fila é local à instância, então essa garantia pressupõe uma única réplica da aplicação.
+ */
+@Repository
+public class FilaAprovacaoRepository {
+
+    static final String PENDENTE = "PENDENTE";
+    static final String DESCARTADA = "DESCARTADA";
+
+    private static final RowMapper<AprovacaoPendente> MAPPER = (rs, i) -> new AprovacaoPendente(
+            rs.getObject("ordem_servico_id", UUID.class),
+            rs.getBoolean("aprovado"),
+            rs.getString("motivo_recusa"),
+            rs.getLong("versao"),
+            rs.getInt("tentativas"),
+            rs.getTimestamp("recebida_em").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FilaAprovacaoRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Grava a notificação. Retorna {@code true} se ela substituiu outra da mesma ordem ainda pendente;
+     * uma aprovação descartada da mesma ordem volta para a fila, mas não conta como substituída.
+     */
+    public boolean enfileirar(AprovacaoOrcamento aprovacao, Instant agora) {
+        for (int tentativa = 0; ; tentativa++) {
+            int pendentes = jdbcTemplate.update(
+                    "UPDATE aprovacao_pendente SET aprovado = ?, motivo_recusa = ?, versao = versao + 1, "
+                            + "tentativas = 0, proxima_tentativa = ?, ultimo_erro = NULL "
+                            + "WHERE ordem_servico_id = ? AND status = ?",
+                    aprovacao.isAprovado(), aprovacao.getMotivoRecusa(), Timestamp.from(agora),
+                    aprovacao.getOrdemServicoId(), PENDENTE);
+            if (pendentes > 0) {
+                return true;
+            }
+            int descartadas = jdbcTemplate.update(
+                    "UPDATE aprovacao_pendente SET aprovado = ?, motivo_recusa = ?, versao = versao + 1, "
+                            + "tentativas = 0, proxima_tentativa = ?, ultimo_erro = NULL, recebida_em = ?, status = ? "
+                            + "WHERE ordem_servico_id = ? AND status = ?",
+                    aprovacao.isAprovado(), aprovacao.getMotivoRecusa(), Timestamp.from(agora), Timestamp.from(agora),
+                    PENDENTE, aprovacao.getOrdemServicoId(), DESCARTADA);
+            if (descartadas > 0) {
+                return false;
+            }
+            try {
+                jdbcTemplate.update(
+                        "INSERT INTO aprovacao_pendente (ordem_servico_id, aprovado, motivo_recusa, versao, tentativas, "
+                                + "status, recebida_em, proxima_tentativa) VALUES (?, ?, ?, 1, 0, ?, ?, ?)",
+                        aprovacao.getOrdemServicoId(), aprovacao.isAprovado(), aprovacao.getMotivoRecusa(),
+                        PENDENTE, Timestamp.from(agora), Timestamp.from(agora));
+                return false;
+            } catch (DuplicateKeyException e) {
+                // Outra notificação da mesma ordem foi inserida em paralelo; atualiza a linha dela
+                if (tentativa > 0) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Pendentes com tentativa vencida, das mais antigas para as mais novas.
+     */
+    public List<AprovacaoPendente> proximas(int limite, Instant agora) {
+        return jdbcTemplate.query(
+                "SELECT ordem_servico_id, aprovado, motivo_recusa, versao, tentativas, recebida_em "
+                        + "FROM aprovacao_pendente WHERE status = ? AND proxima_tentativa <= ? "
+                        + "ORDER BY proxima_tentativa LIMIT ?",
+                MAPPER, PENDENTE, Timestamp.from(agora), limite);
+    }
+
+    /**
+     * Remove a aprovação encaminhada, a menos que uma notificação mais nova tenha chegado nesse meio tempo.
+     */
+    public void concluir(AprovacaoPendente aprovacao) {
+        jdbcTemplate.update("DELETE FROM aprovacao_pendente WHERE ordem_servico_id = ? AND versao = ?",
+                aprovacao.ordemServicoId(), aprovacao.versao());
+    }
+
+    public void reagendar(AprovacaoPendente aprovacao, Instant proximaTentativa, String erro) {
+        jdbcTemplate.update(
+                "UPDATE aprovacao_pendente SET tentativas = tentativas + 1, proxima_tentativa = ?, ultimo_erro = ? "
+                        + "WHERE ordem_servico_id = ? AND versao = ?",
+                Timestamp.from(proximaTentativa), erro, aprovacao.ordemServicoId(), aprovacao.versao());
+    }
+
+    /**
+     * Adia o envio sem contar uma tentativa (a chamada foi recusada antes de chegar ao oficina-service).
+     */
+    public void adiar(AprovacaoPendente aprovacao, Instant proximaTentativa) {
+        jdbcTemplate.update(
+                "UPDATE aprovacao_pendente SET proxima_tentativa = ? WHERE ordem_servico_id = ? AND versao = ?",
+                Timestamp.from(proximaTentativa), aprovacao.ordemServicoId(), aprovacao.versao());
+    }
+
+    /**
+     * Tira a aprovação da fila sem apagá-la, para análise (ex.: ordem inexistente ou transição recusada).
+     */
+    public void descartar(AprovacaoPendente aprovacao, String erro) {
+        jdbcTemplate.update(
+                "UPDATE aprovacao_pendente SET status = ?, tentativas = tentativas + 1, ultimo_erro = ? "
+                        + "WHERE ordem_servico_id = ? AND versao = ?",
+                DESCARTADA, erro, aprovacao.ordemServicoId(), aprovacao.versao());
+    }
+
+    public long profundidade() {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM aprovacao_pendente WHERE status = ?", Long.class, PENDENTE);
+        return total == null ? 0 : total;
+    }
+
+    public long descartadas() {
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM aprovacao_pendente WHERE status = ?", Long.class, DESCARTADA);
+        return total == null ? 0 : total;
+    }
+
+    /**
+     * Instante da notificação pendente mais antiga, ou {@code null} com a fila vazia.
+     */
+    public Instant maisAntiga() {
+        Timestamp recebidaEm = jdbcTemplate.queryForObject(
+                "SELECT MIN(recebida_em) FROM aprovacao_pendente WHERE status = ?", Timestamp.class, PENDENTE);
+        return recebidaEm == null ? null : recebidaEm.toInstant();
+    }
+}
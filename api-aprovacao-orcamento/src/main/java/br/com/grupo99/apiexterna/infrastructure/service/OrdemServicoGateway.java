@@ -1,5 +1,7 @@
 package br.com.grupo99.apiexterna.infrastructure.service;
 
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
@@ -7,12 +9,26 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Chamadas ao oficina-service, passando pelo bulkhead e pelo circuit breaker. Com o circuito
+ * aberto ou o limite de chamadas simultâneas atingido a chamada falha na hora com
+ * {@link io.github.resilience4j.circuitbreaker.CallNotPermittedException} ou
+ * {@link io.github.resilience4j.bulkhead.BulkheadFullException}.
+ */
 @Component
 public class OrdemServicoGateway {
     @Value("${api.principal.url}")
     private String apiPrincipalUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public OrdemServicoGateway(RestTemplate restTemplate, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
 
     public void atualizarStatusOrdemServico(UUID ordemServicoId, String status, String motivoRecusa) {
         Map<String, Object> body = new HashMap<>();
@@ -20,11 +36,20 @@ public class OrdemServicoGateway {
         if (motivoRecusa != null) {
             body.put("motivoRecusa", motivoRecusa);
         }
-        restTemplate.patchForObject(
+        Runnable chamada = () -> restTemplate.patchForObject(
             apiPrincipalUrl + "/api/v1/ordens-servico/" + ordemServicoId + "/status",
             body,
             Void.class
         );
+        // Bulkhead por fora: rejeição por excesso de chamadas não conta como falha do serviço
+        Bulkhead.decorateRunnable(bulkhead, CircuitBreaker.decorateRunnable(circuitBreaker, chamada)).run();
     }
-}
 
+    /**
+     * {@code false} enquanto o circuito estiver aberto, para quem puder adiar as chamadas.
+     */
+    public boolean disponivel() {
+        CircuitBreaker.State estado = circuitBreaker.getState();
+        return estado != CircuitBreaker.State.OPEN && estado != CircuitBreaker.State.FORCED_OPEN;
+    }
+}
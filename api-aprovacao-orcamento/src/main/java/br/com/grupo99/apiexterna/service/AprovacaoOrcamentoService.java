@@ -1,34 +1,45 @@
 package br.com.grupo99.apiexterna.service;
 
 import br.com.grupo99.apiexterna.domain.AprovacaoOrcamento;
+import br.com.grupo99.apiexterna.infrastructure.fila.FilaAprovacaoRepository;
 import br.com.grupo99.apiexterna.presenter.AprovacaoOrcamentoResponseDTO;
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import java.util.HashMap;
-import java.util.Map;
 
+import java.time.Clock;
+
+/**
+ * Recebe a notificação de aprovação e a grava na fila durável; o encaminhamento ao oficina-service
+ * é feito em segundo plano pelo {@link EncaminhadorAprovacoes}.
+ */
 @Service
 public class AprovacaoOrcamentoService {
 
-    @Value("${api.principal.url}")
-    private String apiPrincipalUrl;
+    private final FilaAprovacaoRepository fila;
+    private final Counter coalescidas;
+    private final Clock clock;
+
+    @Autowired
+    public AprovacaoOrcamentoService(FilaAprovacaoRepository fila, MeterRegistry meterRegistry) {
+        this(fila, meterRegistry, Clock.systemUTC());
+    }
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    AprovacaoOrcamentoService(FilaAprovacaoRepository fila, MeterRegistry meterRegistry, Clock clock) {
+        this.fila = fila;
+        this.coalescidas = meterRegistry.counter("aprovacao.fila.coalescidas");
+        this.clock = clock;
+    }
 
     public AprovacaoOrcamentoResponseDTO processarNotificacao(AprovacaoOrcamento aprovacao) {
         String status = aprovacao.isAprovado() ? "EM_EXECUCAO" : "CANCELADA";
-        Map<String, Object> body = new HashMap<>();
-        body.put("status", status);
-        if (!aprovacao.isAprovado() && aprovacao.getMotivoRecusa() != null) {
-            body.put("motivoRecusa", aprovacao.getMotivoRecusa());
+        if (fila.enfileirar(aprovacao, clock.instant())) {
+            coalescidas.increment();
         }
-        restTemplate.patchForObject(
-            apiPrincipalUrl + "/api/v1/ordens-servico/" + aprovacao.getOrdemServicoId() + "/status",
-            body,
-            Void.class
-        );
-        String mensagem = aprovacao.isAprovado() ? "Orçamento aprovado e ordem em execução." : "Orçamento recusado e ordem cancelada.";
+        String mensagem = aprovacao.isAprovado()
+                ? "Aprovação recebida; a ordem será colocada em execução."
+                : "Recusa recebida; a ordem será cancelada.";
         return new AprovacaoOrcamentoResponseDTO(aprovacao.getOrdemServicoId(), status, mensagem);
     }
 }
@@ -0,0 +1,194 @@
+package br.com.grupo99.apiexterna.service;
+
+import br.com.grupo99.apiexterna.infrastructure.fila.AprovacaoPendente;
+import br.com.grupo99.apiexterna.infrastructure.fila.FilaAprovacaoRepository;
+import br.com.grupo99.apiexterna.infrastructure.service.OrdemServicoGateway;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drena a fila de aprovações e encaminha cada uma ao oficina-service.
+ *
+ * A cada ciclo busca um lote de aprovações com tentativa vencida e as envia em paralelo pelos
+ * workers (o pool de conexões do {@code RestTemplate} é compartilhado). Falhas de rede e
+ * respostas 5xx, 408 ou 429 são reagendadas com backoff exponencial e jitter; demais 4xx (ordem
+ * inexistente, transição recusada) e aprovações que esgotaram as tentativas são descartadas.
+ *
+ * Enquanto o circuit breaker do gateway estiver aberto o ciclo não busca novos lotes; chamadas
+ * recusadas pelo circuito ou pelo bulkhead são adiadas sem consumir tentativa.
+ */
+@Component
+public class EncaminhadorAprovacoes {
+
+    private static final Logger log = LoggerFactory.getLogger(EncaminhadorAprovacoes.class);
+
+    private final FilaAprovacaoRepository fila;
+    private final OrdemServicoGateway ordemServicoGateway;
+    private final Clock clock;
+    private final ExecutorService workers;
+    private final int tamanhoLote;
+    private final int maxTentativas;
+    private final Duration backoffInicial;
+    private final Duration backoffMaximo;
+
+    private final Counter encaminhadas;
+    private final Counter reagendadas;
+    private final Counter descartadas;
+    private final Counter adiadas;
+
+    @Autowired
+    public EncaminhadorAprovacoes(FilaAprovacaoRepository fila,
+                                  OrdemServicoGateway ordemServicoGateway,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${aprovacao.fila.workers:8}") int workers,
+                                  @Value("${aprovacao.fila.tamanho-lote:50}") int tamanhoLote,
+                                  @Value("${aprovacao.fila.max-tentativas:10}") int maxTentativas,
+                                  @Value("${aprovacao.fila.backoff-inicial:1s}") Duration backoffInicial,
+                                  @Value("${aprovacao.fila.backoff-maximo:5m}") Duration backoffMaximo) {
+        this(fila, ordemServicoGateway, meterRegistry, Clock.systemUTC(), workers, tamanhoLote, maxTentativas,
+                backoffInicial, backoffMaximo);
+    }
+
+    EncaminhadorAprovacoes(FilaAprovacaoRepository fila, OrdemServicoGateway ordemServicoGateway,
+                           MeterRegistry meterRegistry, Clock clock, int workers, int tamanhoLote, int maxTentativas,
+                           Duration backoffInicial, Duration backoffMaximo) {
+        this.fila = fila;
+        this.ordemServicoGateway = ordemServicoGateway;
+        this.clock = clock;
+        this.workers = Executors.newFixedThreadPool(workers);
+        this.tamanhoLote = tamanhoLote;
+        this.maxTentativas = maxTentativas;
+        this.backoffInicial = backoffInicial;
+        this.backoffMaximo = backoffMaximo;
+
+        this.encaminhadas = meterRegistry.counter("aprovacao.fila.encaminhadas");
+        this.reagendadas = meterRegistry.counter("aprovacao.fila.reagendadas");
+        this.descartadas = meterRegistry.counter("aprovacao.fila.descartadas");
+        this.adiadas = meterRegistry.counter("aprovacao.fila.adiadas");
+        Gauge.builder("aprovacao.fila.profundidade", fila, FilaAprovacaoRepository::profundidade)
+                .description("Aprovações aguardando encaminhamento")
+                .register(meterRegistry);
+        Gauge.builder("aprovacao.fila.idade", this, EncaminhadorAprovacoes::idadeMaisAntigaSegundos)
+                .description("Idade da aprovação pendente mais antiga")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    private static final int MAX_LOTES_POR_CICLO = 20;
+
+    @Scheduled(fixedDelayString = "${aprovacao.fila.intervalo-ms:500}")
+    public void drenar() {
+        for (int ciclo = 0; ciclo < MAX_LOTES_POR_CICLO; ciclo++) {
+            if (!ordemServicoGateway.disponivel()) {
+                // Circuito aberto: as pendentes esperam a meia abertura em vez de serem recusadas uma a uma
+                return;
+            }
+            List<AprovacaoPendente> lote = fila.proximas(tamanhoLote, clock.instant());
+            List<Callable<Void>> envios = new ArrayList<>(lote.size());
+            for (AprovacaoPendente aprovacao : lote) {
+                envios.add(() -> {
+                    encaminhar(aprovacao);
+                    return null;
+                });
+            }
+            try {
+                workers.invokeAll(envios);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (lote.size() < tamanhoLote) {
+                return;
+            }
+            // Lote cheio: pode haver mais pendentes vencidas, drena sem esperar o próximo ciclo
+        }
+    }
+
+    void encaminhar(AprovacaoPendente aprovacao) {
+        try {
+            ordemServicoGateway.atualizarStatusOrdemServico(
+                    aprovacao.ordemServicoId(), aprovacao.status(), aprovacao.motivoRecusa());
+            fila.concluir(aprovacao);
+            encaminhadas.increment();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            fila.adiar(aprovacao, clock.instant().plus(backoff(0)));
+            adiadas.increment();
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.REQUEST_TIMEOUT)
+                    || e.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+                reagendar(aprovacao, e);
+            } else {
+                descartar(aprovacao, e);
+            }
+        } catch (RuntimeException e) {
+            reagendar(aprovacao, e);
+        }
+    }
+
+    private void reagendar(AprovacaoPendente aprovacao, RuntimeException erro) {
+        if (aprovacao.tentativas() + 1 >= maxTentativas) {
+            descartar(aprovacao, erro);
+            return;
+        }
+        fila.reagendar(aprovacao, clock.instant().plus(backoff(aprovacao.tentativas())), resumo(erro));
+        reagendadas.increment();
+        log.warn("Falha ao encaminhar aprovação da OS {} (tentativa {}), reagendada: {}",
+                aprovacao.ordemServicoId(), aprovacao.tentativas() + 1, erro.getMessage());
+    }
+
+    private void descartar(AprovacaoPendente aprovacao, RuntimeException erro) {
+        fila.descartar(aprovacao, resumo(erro));
+        descartadas.increment();
+        log.error("Aprovação da OS {} descartada após {} tentativa(s): {}",
+                aprovacao.ordemServicoId(), aprovacao.tentativas() + 1, erro.getMessage());
+    }
+
+    /**
+     * backoffInicial * 2^tentativas, limitado a backoffMaximo, com jitter de ±20% para que
+     * aprovações que falharam juntas não voltem todas no mesmo instante.
+     */
+    Duration backoff(int tentativas) {
+        long base = backoffInicial.toMillis() << Math.min(tentativas, 30);
+        long limitado = base <= 0 ? backoffMaximo.toMillis() : Math.min(base, backoffMaximo.toMillis());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (limitado * jitter));
+    }
+
+    private double idadeMaisAntigaSegundos() {
+        Instant maisAntiga = fila.maisAntiga();
+        return maisAntiga == null ? 0 : Duration.between(maisAntiga, clock.instant()).toMillis() / 1000.0;
+    }
+
+    private static String resumo(RuntimeException erro) {
+        String mensagem = erro.getClass().getSimpleName() + ": " + erro.getMessage();
+        return mensagem.length() > 500 ? mensagem.substring(0, 500) : mensagem;
+    }
+
+    @PreDestroy
+    void encerrar() {
+        // As aprovações em andamento continuam na fila e são reenviadas na próxima inicialização
+        workers.shutdownNow();
+    }
+}
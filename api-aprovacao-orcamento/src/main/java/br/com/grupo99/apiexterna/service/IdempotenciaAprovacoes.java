@@ -0,0 +1,159 @@
+package br.com.grupo99.apiexterna.service;
+
+import br.com.grupo99.apiexterna.domain.AprovacaoOrcamento;
+import br.com.grupo99.apiexterna.presenter.AprovacaoOrcamentoResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Descarta as reentregas do webhook de aprovação, que o provedor repete a cada timeout.
+ *
+ * A chave é o header {@code Idempotency-Key}, quando enviado, ou o par (ordem, aprovado). A
+ * primeira notificação de uma chave é processada; as repetidas que chegam enquanto ela está em
+ * andamento esperam o mesmo resultado, e as que chegam depois recebem a resposta guardada até o
+ * fim do {@code ttl}. Se o processamento falhar nada é guardado e a próxima reentrega tenta de
+ * novo. Uma notificação que muda a decisão da ordem invalida a resposta guardada da decisão
+ * anterior, para que aprovar, recusar e aprovar de novo chegue à fila.
+ *
+ * As chaves ficam em ordem de chegada; com {@code capacidade} atingida a mais antiga é removida.
+ */
+@Component
+public class IdempotenciaAprovacoes {
+
+    private final Duration ttl;
+    private final int capacidade;
+    private final LongSupplier relogio;
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Queue<Chave> ordem = new ConcurrentLinkedQueue<>();
+
+    private final Counter aguardaram;
+    private final Counter repetidas;
+
+    private static final class Entrada {
+        final CompletableFuture<AprovacaoOrcamentoResponseDTO> resposta = new CompletableFuture<>();
+        volatile long expiraEm = Long.MAX_VALUE;
+    }
+
+    private record Chave(String valor, Entrada entrada) {
+    }
+
+    @Autowired
+    public IdempotenciaAprovacoes(MeterRegistry meterRegistry,
+                                  @Value("${aprovacao.idempotencia.ttl:60s}") Duration ttl,
+                                  @Value("${aprovacao.idempotencia.capacidade:10000}") int capacidade) {
+        this(meterRegistry, ttl, capacidade, System::currentTimeMillis);
+    }
+
+    IdempotenciaAprovacoes(MeterRegistry meterRegistry, Duration ttl, int capacidade, LongSupplier relogio) {
+        this.ttl = ttl;
+        this.capacidade = capacidade;
+        this.relogio = relogio;
+        this.aguardaram = meterRegistry.counter("aprovacao.idempotencia.duplicadas", "origem", "em_andamento");
+        this.repetidas = meterRegistry.counter("aprovacao.idempotencia.duplicadas", "origem", "cache");
+        meterRegistry.gauge("aprovacao.idempotencia.chaves", entradas, Map::size);
+    }
+
+    /**
+     * Processa a notificação uma única vez por chave dentro do {@code ttl}.
+     *
+     * @param chaveIdempotencia Valor do header {@code Idempotency-Key}, ou {@code null}
+     */
+    public AprovacaoOrcamentoResponseDTO processar(AprovacaoOrcamento aprovacao, String chaveIdempotencia,
+                                                   Supplier<AprovacaoOrcamentoResponseDTO> processamento) {
+        boolean chaveDerivada = chaveIdempotencia == null || chaveIdempotencia.isBlank();
+        String chave = chaveDerivada ? chave(aprovacao, aprovacao.isAprovado()) : "key:" + chaveIdempotencia;
+        long agora = relogio.getAsLong();
+        removerExpiradas(agora);
+
+        Entrada nova = new Entrada();
+        while (true) {
+            Entrada atual = entradas.putIfAbsent(chave, nova);
+            if (atual == null) {
+                break;
+            }
+            if (atual.expiraEm <= agora) {
+                entradas.remove(chave, atual);
+                continue;
+            }
+            (atual.resposta.isDone() ? repetidas : aguardaram).increment();
+            return aguardar(atual);
+        }
+        ordem.add(new Chave(chave, nova));
+        limitarTamanho();
+
+        try {
+            if (chaveDerivada) {
+                entradas.remove(chave(aprovacao, !aprovacao.isAprovado()));
+            }
+            AprovacaoOrcamentoResponseDTO resposta = processamento.get();
+            nova.expiraEm = relogio.getAsLong() + ttl.toMillis();
+            nova.resposta.complete(resposta);
+            return resposta;
+        } catch (RuntimeException e) {
+            entradas.remove(chave, nova);
+            nova.resposta.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    int tamanho() {
+        return entradas.size();
+    }
+
+    private static String chave(AprovacaoOrcamento aprovacao, boolean aprovado) {
+        return "os:" + aprovacao.getOrdemServicoId() + ":" + aprovado;
+    }
+
+    private static AprovacaoOrcamentoResponseDTO aguardar(Entrada entrada) {
+        try {
+            return entrada.resposta.join();
+        } catch (CompletionException e) {
+            // Mesma falha da notificação original, para que o provedor reenvie
+            if (e.getCause() instanceof RuntimeException erro) {
+                throw erro;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * As chaves entram na fila com o mesmo ttl, então as expiradas estão sempre no começo.
+     */
+    private void removerExpiradas(long agora) {
+        Chave maisAntiga;
+        while ((maisAntiga = ordem.peek()) != null) {
+            Entrada entrada = maisAntiga.entrada();
+            // Chaves já substituídas ou removidas (falha, mudança de decisão) só saem da fila aqui
+            boolean vigente = entradas.get(maisAntiga.valor()) == entrada;
+            if (vigente && entrada.expiraEm > agora) {
+                return;
+            }
+            if (ordem.remove(maisAntiga) && vigente) {
+                entradas.remove(maisAntiga.valor(), entrada);
+            }
+        }
+    }
+
+    private void limitarTamanho() {
+        while (entradas.size() > capacidade) {
+            Chave maisAntiga = ordem.poll();
+            if (maisAntiga == null) {
+                return;
+            }
+            entradas.remove(maisAntiga.valor(), maisAntiga.entrada());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS aprovacao_pendente (
+    ordem_servico_id UUID PRIMARY KEY,
+    aprovado BOOLEAN NOT NULL,
+    motivo_recusa VARCHAR(1000),
+    versao BIGINT NOT NULL,
+    tentativas INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    recebida_em TIMESTAMP NOT NULL,
+    proxima_tentativa TIMESTAMP NOT NULL,
+    ultimo_erro VARCHAR(500)
+);
+
+CREATE INDEX IF NOT EXISTS idx_aprovacao_pendente_proxima ON aprovacao_pendente (status, proxima_tentativa);
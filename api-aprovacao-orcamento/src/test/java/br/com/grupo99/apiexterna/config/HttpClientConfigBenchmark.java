@@ -0,0 +1,134 @@
+package br.com.grupo99.apiexterna.config;
+
+import br.com.grupo99.apiexterna.infrastructure.service.OrdemServicoGateway;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.BasicHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Vazão do PATCH de status com o pool keep-alive comparada a uma conexão TCP nova por chamada.
+ * Roda só com {@code mvn test -P benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Vazão do cliente HTTP com e sem pool")
+class HttpClientConfigBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpClientConfigBenchmark.class);
+    private static final int THREADS = 8;
+    private static final int CHAMADAS_POR_THREAD = 300;
+
+    private ExecutorService executorServidor;
+    private HttpServer servidor;
+    private CloseableHttpClient httpClient;
+    private String url;
+
+    @BeforeEach
+    void iniciarServidor() throws IOException {
+        executorServidor = Executors.newFixedThreadPool(16);
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        servidor.setExecutor(executorServidor);
+        servidor.createContext("/api/v1/ordens-servico/", troca -> {
+            troca.getRequestBody().readAllBytes();
+            troca.sendResponseHeaders(204, -1);
+            troca.close();
+        });
+        servidor.start();
+        url = "http://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    @AfterEach
+    void pararServidor() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        servidor.stop(0);
+        executorServidor.shutdownNow();
+    }
+
+    private OrdemServicoGateway gateway(RestTemplate restTemplate) {
+        OrdemServicoGateway gateway = new OrdemServicoGateway(restTemplate,
+                CircuitBreaker.ofDefaults("oficina-service"), Bulkhead.ofDefaults("oficina-service"));
+        ReflectionTestUtils.setField(gateway, "apiPrincipalUrl", url);
+        return gateway;
+    }
+
+    @Test
+    @DisplayName("Pool keep-alive comparado a uma conexão nova por chamada")
+    void vazaoComPoolESemPool() throws Exception {
+        HttpClientConfig config = new HttpClientConfig();
+        ReflectionTestUtils.setField(config, "maxConexoes", 100);
+        ReflectionTestUtils.setField(config, "maxConexoesPorRota", 50);
+        ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "poolTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(config, "readTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(config, "idleTimeout", Duration.ofSeconds(30));
+        httpClient = config.httpClient(config.httpClientConnectionManager(new SimpleMeterRegistry()));
+        OrdemServicoGateway gatewayComPool = gateway(config.restTemplate(new RestTemplateBuilder(), httpClient));
+
+        double novaConexao = 0;
+        double pool = 0;
+        for (int rodada = 0; rodada < 3; rodada++) {
+            // Uma conexão TCP nova por chamada, como acontecia em cada webhook
+            novaConexao = Math.max(novaConexao, vazao(id -> {
+                try (CloseableHttpClient cliente = HttpClients.custom()
+                        .setConnectionManager(new BasicHttpClientConnectionManager()).build()) {
+                    gateway(new RestTemplate(new HttpComponentsClientHttpRequestFactory(cliente)))
+                            .atualizarStatusOrdemServico(id, "EM_EXECUCAO", null);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            pool = Math.max(pool, vazao(id -> gatewayComPool.atualizarStatusOrdemServico(id, "EM_EXECUCAO", null)));
+        }
+
+        log.info("PATCH de status com {} threads: conexão nova por chamada {} req/s, pool keep-alive {} req/s",
+                THREADS, Math.round(novaConexao), Math.round(pool));
+    }
+
+    private static double vazao(Consumer<UUID> chamada) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long inicio = System.nanoTime();
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < CHAMADAS_POR_THREAD; i++) {
+                        chamada.accept(UUID.randomUUID());
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            return THREADS * CHAMADAS_POR_THREAD / ((System.nanoTime() - inicio) / 1e9);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package br.com.grupo99.apiexterna.config;
+
+import br.com.grupo99.apiexterna.infrastructure.service.OrdemServicoGateway;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("HttpClientConfig - cliente HTTP com pool contra um servidor local")
+class HttpClientConfigTest {
+
+    private final ConcurrentLinkedQueue<String> recebidas = new ConcurrentLinkedQueue<>();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<AutoCloseable> abertos = new ArrayList<>();
+    private ExecutorService executorServidor;
+    private HttpServer servidor;
+    private String url;
+
+    @BeforeEach
+    void iniciarServidor() throws IOException {
+        executorServidor = Executors.newFixedThreadPool(16);
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        servidor.setExecutor(executorServidor);
+        // Substituto do endpoint de status do oficina-service
+        servidor.createContext("/api/v1/ordens-servico/", troca -> {
+            byte[] corpo = troca.getRequestBody().readAllBytes();
+            if (troca.getRequestURI().getPath().contains("lenta")) {
+                dormir(500);
+            }
+            recebidas.add(troca.getRequestMethod() + " " + new String(corpo, StandardCharsets.UTF_8));
+            troca.sendResponseHeaders(204, -1);
+            troca.close();
+        });
+        servidor.start();
+        url = "http://127.0.0.1:" + servidor.getAddress().getPort();
+    }
+
+    @AfterEach
+    void pararServidor() throws Exception {
+        for (AutoCloseable aberto : abertos) {
+            aberto.close();
+        }
+        servidor.stop(0);
+        executorServidor.shutdownNow();
+    }
+
+    private HttpClientConfig config(Duration readTimeout) {
+        HttpClientConfig config = new HttpClientConfig();
+        ReflectionTestUtils.setField(config, "maxConexoes", 100);
+        ReflectionTestUtils.setField(config, "maxConexoesPorRota", 50);
+        ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(config, "poolTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(config, "readTimeout", readTimeout);
+        ReflectionTestUtils.setField(config, "idleTimeout", Duration.ofSeconds(30));
+        return config;
+    }
+
+    private RestTemplate restTemplateComPool(Duration readTimeout) {
+        HttpClientConfig config = config(readTimeout);
+        PoolingHttpClientConnectionManager connectionManager = config.httpClientConnectionManager(meterRegistry);
+        CloseableHttpClient httpClient = config.httpClient(connectionManager);
+        abertos.add(httpClient);
+        return config.restTemplate(new RestTemplateBuilder(), httpClient);
+    }
+
+    private OrdemServicoGateway gateway(RestTemplate restTemplate) {
+        OrdemServicoGateway gateway = new OrdemServicoGateway(restTemplate,
+                CircuitBreaker.ofDefaults("oficina-service"), Bulkhead.ofDefaults("oficina-service"));
+        ReflectionTestUtils.setField(gateway, "apiPrincipalUrl", url);
+        return gateway;
+    }
+
+    private double conexoes(String estado) {
+        return meterRegistry.get("httpcomponents.httpclient.pool.total.connections").tag("state", estado).gauge().value();
+    }
+
+    @Test
+    @DisplayName("Deve enviar PATCH reaproveitando a mesma conexão")
+    void deveEnviarPatchReaproveitandoConexao() {
+        OrdemServicoGateway gateway = gateway(restTemplateComPool(Duration.ofSeconds(5)));
+
+        for (int i = 0; i < 50; i++) {
+            gateway.atualizarStatusOrdemServico(UUID.randomUUID(), "CANCELADA", "Valor alto");
+        }
+
+        assertThat(recebidas).hasSize(50).allMatch(r -> r.startsWith("PATCH ") && r.contains("\"motivoRecusa\""));
+        assertThat(conexoes("available")).isEqualTo(1.0);
+        assertThat(conexoes("leased")).isZero();
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.route.max.default").gauge().value()).isEqualTo(50.0);
+    }
+
+    @Test
+    @DisplayName("RestTemplate padrão (HttpURLConnection) não envia PATCH")
+    void restTemplatePadraoNaoEnviaPatch() {
+        OrdemServicoGateway gateway = gateway(new RestTemplate());
+
+        assertThatThrownBy(() -> gateway.atualizarStatusOrdemServico(UUID.randomUUID(), "EM_EXECUCAO", null))
+                .isInstanceOf(ResourceAccessException.class);
+        assertThat(recebidas).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve interromper chamada acima do timeout de leitura")
+    void deveInterromperChamadaAcimaDoTimeout() {
+        RestTemplate restTemplate = restTemplateComPool(Duration.ofMillis(100));
+
+        assertThatThrownBy(() -> restTemplate.patchForObject(url + "/api/v1/ordens-servico/lenta/status",
+                Map.of("status", "EM_EXECUCAO"), Void.class))
+                .isInstanceOf(ResourceAccessException.class)
+                .hasRootCauseInstanceOf(SocketTimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar os timeouts e limites configurados ao pool e às requisições")
+    void deveAplicarTimeoutsELimitesConfigurados() {
+        HttpClientConfig config = config(Duration.ofMillis(100));
+        PoolingHttpClientConnectionManager connectionManager = config.httpClientConnectionManager(meterRegistry);
+        abertos.add(connectionManager);
+
+        ConnectionConfig conexao = config.connectionConfig();
+        RequestConfig requisicao = config.requestConfig();
+
+        assertThat(conexao.getConnectTimeout().toMilliseconds()).isEqualTo(2_000);
+        assertThat(conexao.getSocketTimeout().toMilliseconds()).isEqualTo(100);
+        assertThat(requisicao.getConnectionRequestTimeout().toMilliseconds()).isEqualTo(1_000);
+        assertThat(requisicao.getResponseTimeout().toMilliseconds()).isEqualTo(100);
+        assertThat(connectionManager.getMaxTotal()).isEqualTo(100);
+        assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Chamadas concorrentes não devem abrir mais conexões que o número de threads")
+    void chamadasConcorrentesDevemReaproveitarConexoesDoPool() throws Exception {
+        OrdemServicoGateway gateway = gateway(restTemplateComPool(Duration.ofSeconds(5)));
+        int threads = 8;
+        int chamadasPorThread = 25;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < chamadasPorThread; i++) {
+                        gateway.atualizarStatusOrdemServico(UUID.randomUUID(), "EM_EXECUCAO", null);
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(recebidas).hasSize(threads * chamadasPorThread);
+        assertThat(conexoes("leased")).isZero();
+        assertThat(conexoes("available")).isBetween(1.0, (double) threads);
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
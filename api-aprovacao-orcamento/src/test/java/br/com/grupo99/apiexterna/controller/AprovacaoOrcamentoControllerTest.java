@@ -1,24 +1,46 @@
 package br.com.grupo99.apiexterna.controller;
 
 import br.com.grupo99.apiexterna.dto.AprovacaoOrcamentoRequestDTO;
+import br.com.grupo99.apiexterna.domain.AprovacaoOrcamento;
+import br.com.grupo99.apiexterna.presenter.AprovacaoOrcamentoResponseDTO;
 import br.com.grupo99.apiexterna.service.AprovacaoOrcamentoService;
+import br.com.grupo99.apiexterna.service.IdempotenciaAprovacoes;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.UUID;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AprovacaoOrcamentoController.class)
+@Import({IdempotenciaAprovacoes.class, AprovacaoOrcamentoControllerTest.Metricas.class})
 class AprovacaoOrcamentoControllerTest {
 
+    @TestConfiguration
+    static class Metricas {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -38,7 +60,7 @@ class AprovacaoOrcamentoControllerTest {
         mockMvc.perform(post("/api/v1/notificacoes-aprovacao")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(dto)))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
     }
 
     @Test
@@ -51,6 +73,33 @@ class AprovacaoOrcamentoControllerTest {
         mockMvc.perform(post("/api/v1/notificacoes-aprovacao")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(dto)))
-                .andExpect(status().isOk());
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void deveProcessarReentregaDoWebhookUmaVez() throws Exception {
+        UUID ordemServicoId = UUID.randomUUID();
+        AprovacaoOrcamentoRequestDTO dto = new AprovacaoOrcamentoRequestDTO();
+        dto.setOrdemServicoId(ordemServicoId);
+        dto.setAprovado(true);
+        when(service.processarNotificacao(any(AprovacaoOrcamento.class))).thenReturn(
+                new AprovacaoOrcamentoResponseDTO(ordemServicoId, "EM_EXECUCAO", "Aprovação recebida"));
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/v1/notificacoes-aprovacao")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.status").value("EM_EXECUCAO"));
+        }
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/v1/notificacoes-aprovacao")
+                    .header("Idempotency-Key", "entrega-42")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isAccepted());
+        }
+
+        verify(service, times(2)).processarNotificacao(any(AprovacaoOrcamento.class));
     }
 }
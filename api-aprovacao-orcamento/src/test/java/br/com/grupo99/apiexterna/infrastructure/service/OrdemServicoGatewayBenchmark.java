@@ -0,0 +1,239 @@
+package br.com.grupo99.apiexterna.infrastructure.service;
+
+import br.com.grupo99.apiexterna.config.HttpClientConfig;
+import br.com.grupo99.apiexterna.config.ResilienciaConfig;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tempo de recusa do circuit breaker e do bulkhead e tempo total das threads chamadoras com o
+ * oficina-service degradado, com e sem circuit breaker. Roda só com {@code mvn test -P benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - OrdemServicoGateway com o serviço degradado")
+class OrdemServicoGatewayBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(OrdemServicoGatewayBenchmark.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger recebidas = new AtomicInteger();
+    private volatile int statusResposta = 204;
+    private volatile long latenciaMs;
+    private ExecutorService executorServidor;
+    private HttpServer servidor;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+    private String url;
+
+    @BeforeEach
+    void iniciarServidor() throws IOException {
+        executorServidor = Executors.newFixedThreadPool(32);
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        servidor.setExecutor(executorServidor);
+        servidor.createContext("/api/v1/ordens-servico/", troca -> {
+            troca.getRequestBody().readAllBytes();
+            recebidas.incrementAndGet();
+            if (latenciaMs > 0) {
+                dormir(latenciaMs);
+            }
+            troca.sendResponseHeaders(statusResposta, -1);
+            troca.close();
+        });
+        servidor.start();
+        url = "http://127.0.0.1:" + servidor.getAddress().getPort();
+
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        ReflectionTestUtils.setField(httpClientConfig, "maxConexoes", 100);
+        ReflectionTestUtils.setField(httpClientConfig, "maxConexoesPorRota", 50);
+        ReflectionTestUtils.setField(httpClientConfig, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(httpClientConfig, "poolTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(httpClientConfig, "readTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(httpClientConfig, "idleTimeout", Duration.ofSeconds(30));
+        httpClient = httpClientConfig.httpClient(httpClientConfig.httpClientConnectionManager(meterRegistry));
+        restTemplate = httpClientConfig.restTemplate(new RestTemplateBuilder(), httpClient);
+    }
+
+    @AfterEach
+    void pararServidor() throws IOException {
+        httpClient.close();
+        servidor.stop(0);
+        executorServidor.shutdownNow();
+    }
+
+    private static ResilienciaConfig config() {
+        ResilienciaConfig config = new ResilienciaConfig();
+        ReflectionTestUtils.setField(config, "janela", 10);
+        ReflectionTestUtils.setField(config, "chamadasMinimas", 5);
+        ReflectionTestUtils.setField(config, "taxaFalhas", 50f);
+        ReflectionTestUtils.setField(config, "taxaLentas", 50f);
+        ReflectionTestUtils.setField(config, "limiteLenta", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(config, "esperaAberto", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(config, "chamadasMeioAberto", 3);
+        ReflectionTestUtils.setField(config, "maxConcorrentes", 20);
+        ReflectionTestUtils.setField(config, "esperaBulkhead", Duration.ZERO);
+        return config;
+    }
+
+    private OrdemServicoGateway gateway(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        OrdemServicoGateway gateway = new OrdemServicoGateway(restTemplate, circuitBreaker, bulkhead);
+        ReflectionTestUtils.setField(gateway, "apiPrincipalUrl", url);
+        return gateway;
+    }
+
+    private OrdemServicoGateway gateway(ResilienciaConfig config) {
+        return gateway(config.oficinaCircuitBreaker(meterRegistry), config.oficinaBulkhead(meterRegistry));
+    }
+
+    private static void atualizar(OrdemServicoGateway gateway) {
+        gateway.atualizarStatusOrdemServico(UUID.randomUUID(), "EM_EXECUCAO", null);
+    }
+
+    @Test
+    @DisplayName("Tempo de uma chamada recusada com o circuito aberto")
+    void recusaComCircuitoAberto() {
+        OrdemServicoGateway gateway = gateway(config());
+        statusResposta = 503;
+        for (int i = 0; i < 5; i++) {
+            try {
+                atualizar(gateway);
+            } catch (RuntimeException e) {
+                // Abre o circuito
+            }
+        }
+
+        int chamadas = 1_000;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < chamadas; i++) {
+            try {
+                atualizar(gateway);
+            } catch (CallNotPermittedException e) {
+                // Recusada sem chegar ao serviço
+            }
+        }
+        long nanos = (System.nanoTime() - inicio) / chamadas;
+
+        log.info("Chamada recusada com o circuito aberto: {} µs", nanos / 1_000);
+    }
+
+    @Test
+    @DisplayName("Tempo de recusa das chamadas acima do limite do bulkhead")
+    void recusaPeloBulkhead() throws Exception {
+        ResilienciaConfig config = config();
+        ReflectionTestUtils.setField(config, "maxConcorrentes", 2);
+        OrdemServicoGateway gateway = gateway(config);
+        latenciaMs = 300;
+        int chamadas = 10;
+
+        ExecutorService executor = Executors.newFixedThreadPool(chamadas);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<Long>> resultados = new ArrayList<>();
+            for (int i = 0; i < chamadas; i++) {
+                resultados.add(executor.submit((Callable<Long>) () -> {
+                    largada.await();
+                    long inicio = System.nanoTime();
+                    try {
+                        atualizar(gateway);
+                        return -1L;
+                    } catch (BulkheadFullException e) {
+                        return (System.nanoTime() - inicio) / 1_000;
+                    }
+                }));
+            }
+            largada.countDown();
+
+            long maiorRecusaMicros = 0;
+            for (Future<Long> resultado : resultados) {
+                maiorRecusaMicros = Math.max(maiorRecusaMicros, resultado.get());
+            }
+            log.info("Maior tempo de recusa pelo bulkhead com o serviço a {} ms: {} µs", latenciaMs, maiorRecusaMicros);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Tempo das threads chamadoras com o serviço degradado, com e sem circuit breaker")
+    void threadsComServicoDegradado() throws Exception {
+        latenciaMs = 200;
+        int threads = 8;
+        int chamadasPorThread = 10;
+
+        CircuitBreaker semProtecao = CircuitBreaker.ofDefaults("sem-protecao");
+        semProtecao.transitionToDisabledState();
+        OrdemServicoGateway desprotegido = gateway(semProtecao, Bulkhead.ofDefaults("sem-protecao"));
+        ResilienciaConfig config = config();
+        ReflectionTestUtils.setField(config, "limiteLenta", Duration.ofMillis(100));
+        OrdemServicoGateway protegido = gateway(config);
+
+        long semCircuito = duracao(threads, chamadasPorThread, desprotegido);
+        int recebidasSemCircuito = recebidas.getAndSet(0);
+        long comCircuito = duracao(threads, chamadasPorThread, protegido);
+
+        log.info("{} threads x {} chamadas com o serviço a {} ms: sem circuit breaker {} ms ({} chamadas ao serviço), "
+                        + "com circuit breaker {} ms ({} chamadas ao serviço)",
+                threads, chamadasPorThread, latenciaMs, semCircuito, recebidasSemCircuito, comCircuito, recebidas.get());
+    }
+
+    private static long duracao(int threads, int chamadasPorThread, OrdemServicoGateway gateway) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long inicio = System.nanoTime();
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < chamadasPorThread; i++) {
+                        try {
+                            atualizar(gateway);
+                        } catch (CallNotPermittedException e) {
+                            // Recusada sem ocupar a thread
+                        }
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            return (System.nanoTime() - inicio) / 1_000_000;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package br.com.grupo99.apiexterna.infrastructure.service;
+
+import br.com.grupo99.apiexterna.config.HttpClientConfig;
+import br.com.grupo99.apiexterna.config.ResilienciaConfig;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("OrdemServicoGateway - circuit breaker e bulkhead contra um servidor local")
+class OrdemServicoGatewayTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger recebidas = new AtomicInteger();
+    private volatile int statusResposta = 204;
+    private volatile long latenciaMs;
+    private ExecutorService executorServidor;
+    private HttpServer servidor;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+    private String url;
+
+    @BeforeEach
+    void iniciarServidor() throws IOException {
+        executorServidor = Executors.newFixedThreadPool(32);
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        servidor.setExecutor(executorServidor);
+        // Substituto do endpoint de status do oficina-service, com latência e status configuráveis
+        servidor.createContext("/api/v1/ordens-servico/", troca -> {
+            troca.getRequestBody().readAllBytes();
+            recebidas.incrementAndGet();
+            if (latenciaMs > 0) {
+                dormir(latenciaMs);
+            }
+            troca.sendResponseHeaders(statusResposta, -1);
+            troca.close();
+        });
+        servidor.start();
+        url = "http://127.0.0.1:" + servidor.getAddress().getPort();
+
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        ReflectionTestUtils.setField(httpClientConfig, "maxConexoes", 100);
+        ReflectionTestUtils.setField(httpClientConfig, "maxConexoesPorRota", 50);
+        ReflectionTestUtils.setField(httpClientConfig, "connectTimeout", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(httpClientConfig, "poolTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(httpClientConfig, "readTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(httpClientConfig, "idleTimeout", Duration.ofSeconds(30));
+        httpClient = httpClientConfig.httpClient(httpClientConfig.httpClientConnectionManager(meterRegistry));
+        restTemplate = httpClientConfig.restTemplate(new RestTemplateBuilder(), httpClient);
+    }
+
+    @AfterEach
+    void pararServidor() throws IOException {
+        httpClient.close();
+        servidor.stop(0);
+        executorServidor.shutdownNow();
+    }
+
+    private static ResilienciaConfig config() {
+        ResilienciaConfig config = new ResilienciaConfig();
+        ReflectionTestUtils.setField(config, "janela", 10);
+        ReflectionTestUtils.setField(config, "chamadasMinimas", 5);
+        ReflectionTestUtils.setField(config, "taxaFalhas", 50f);
+        ReflectionTestUtils.setField(config, "taxaLentas", 50f);
+        ReflectionTestUtils.setField(config, "limiteLenta", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(config, "esperaAberto", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(config, "chamadasMeioAberto", 3);
+        ReflectionTestUtils.setField(config, "maxConcorrentes", 20);
+        ReflectionTestUtils.setField(config, "esperaBulkhead", Duration.ZERO);
+        return config;
+    }
+
+    private OrdemServicoGateway gateway(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        OrdemServicoGateway gateway = new OrdemServicoGateway(restTemplate, circuitBreaker, bulkhead);
+        ReflectionTestUtils.setField(gateway, "apiPrincipalUrl", url);
+        return gateway;
+    }
+
+    private OrdemServicoGateway gateway(ResilienciaConfig config) {
+        return gateway(config.oficinaCircuitBreaker(meterRegistry), config.oficinaBulkhead(meterRegistry));
+    }
+
+    private double transicoes(String de, String para) {
+        var contador = meterRegistry.find("oficina.circuitbreaker.transicoes").tag("de", de).tag("para", para).counter();
+        return contador == null ? 0 : contador.count();
+    }
+
+    private double estado(String estado) {
+        return meterRegistry.get("resilience4j.circuitbreaker.state").tag("state", estado).gauge().value();
+    }
+
+    private static void atualizar(OrdemServicoGateway gateway) {
+        gateway.atualizarStatusOrdemServico(UUID.randomUUID(), "EM_EXECUCAO", null);
+    }
+
+    @Test
+    @DisplayName("Deve abrir o circuito com erros 5xx e recusar chamadas sem chegar ao serviço")
+    void deveAbrirCircuitoComErros() {
+        OrdemServicoGateway gateway = gateway(config());
+        statusResposta = 503;
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> atualizar(gateway)).isInstanceOf(HttpServerErrorException.class);
+        }
+
+        assertThat(gateway.disponivel()).isFalse();
+        assertThat(estado("open")).isEqualTo(1.0);
+        assertThat(transicoes("CLOSED", "OPEN")).isEqualTo(1.0);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThatThrownBy(() -> atualizar(gateway)).isInstanceOf(CallNotPermittedException.class);
+        }
+
+        assertThat(recebidas.get()).isEqualTo(5);
+        assertThat(meterRegistry.get("resilience4j.circuitbreaker.not.permitted.calls").counter().count())
+                .isEqualTo(1_000.0);
+    }
+
+    @Test
+    @DisplayName("Deve abrir o circuito com chamadas acima do limite de latência")
+    void deveAbrirCircuitoComChamadasLentas() {
+        ResilienciaConfig config = config();
+        ReflectionTestUtils.setField(config, "limiteLenta", Duration.ofMillis(50));
+        OrdemServicoGateway gateway = gateway(config);
+        latenciaMs = 100;
+
+        for (int i = 0; i < 5; i++) {
+            atualizar(gateway);
+        }
+
+        assertThat(gateway.disponivel()).isFalse();
+        assertThat(transicoes("CLOSED", "OPEN")).isEqualTo(1.0);
+        assertThatThrownBy(() -> atualizar(gateway)).isInstanceOf(CallNotPermittedException.class);
+    }
+
+    @Test
+    @DisplayName("Deve fechar o circuito quando as chamadas de teste têm sucesso")
+    void deveFecharCircuitoAposChamadasDeTeste() throws InterruptedException {
+        ResilienciaConfig config = config();
+        ReflectionTestUtils.setField(config, "esperaAberto", Duration.ofMillis(200));
+        OrdemServicoGateway gateway = gateway(config);
+        statusResposta = 500;
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> atualizar(gateway)).isInstanceOf(HttpServerErrorException.class);
+        }
+        assertThat(gateway.disponivel()).isFalse();
+
+        // A transição para meio aberto acontece sozinha, sem depender de uma nova chamada
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!gateway.disponivel() && System.nanoTime() < limite) {
+            Thread.sleep(20);
+        }
+        assertThat(estado("half_open")).isEqualTo(1.0);
+
+        statusResposta = 204;
+        for (int i = 0; i < 3; i++) {
+            atualizar(gateway);
+        }
+
+        assertThat(estado("closed")).isEqualTo(1.0);
+        assertThat(transicoes("CLOSED", "OPEN")).isEqualTo(1.0);
+        assertThat(transicoes("OPEN", "HALF_OPEN")).isEqualTo(1.0);
+        assertThat(transicoes("HALF_OPEN", "CLOSED")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Não deve contar ordem inexistente (404) como falha do serviço")
+    void naoDeveContarErroDoClienteComoFalha() {
+        OrdemServicoGateway gateway = gateway(config());
+        statusResposta = 404;
+
+        for (int i = 0; i < 20; i++) {
+            assertThatThrownBy(() -> atualizar(gateway)).isInstanceOf(HttpClientErrorException.NotFound.class);
+        }
+
+        assertThat(gateway.disponivel()).isTrue();
+        assertThat(recebidas.get()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("Deve recusar na hora as chamadas acima do limite do bulkhead")
+    void deveRecusarChamadasAcimaDoBulkhead() throws Exception {
+        ResilienciaConfig config = config();
+        ReflectionTestUtils.setField(config, "maxConcorrentes", 2);
+        OrdemServicoGateway gateway = gateway(config);
+        latenciaMs = 300;
+        int chamadas = 10;
+
+        ExecutorService executor = Executors.newFixedThreadPool(chamadas);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<Boolean>> resultados = new ArrayList<>();
+            for (int i = 0; i < chamadas; i++) {
+                resultados.add(executor.submit((Callable<Boolean>) () -> {
+                    largada.await();
+                    try {
+                        atualizar(gateway);
+                        return false;
+                    } catch (BulkheadFullException e) {
+                        return true;
+                    }
+                }));
+            }
+            largada.countDown();
+
+            int recusadas = 0;
+            for (Future<Boolean> resultado : resultados) {
+                recusadas += resultado.get() ? 1 : 0;
+            }
+
+            assertThat(recusadas).isEqualTo(chamadas - 2);
+            assertThat(recebidas.get()).isEqualTo(2);
+            assertThat(gateway.disponivel()).isTrue();
+            assertThat(meterRegistry.get("resilience4j.bulkhead.max.allowed.concurrent.calls").gauge().value())
+                    .isEqualTo(2.0);
+            assertThat(meterRegistry.get("resilience4j.bulkhead.available.concurrent.calls").gauge().value())
+                    .isEqualTo(2.0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Com o serviço degradado o circuito deve parar de ocupar threads com chamadas ao serviço")
+    void deveRecusarChamadasComServicoDegradado() throws Exception {
+        latenciaMs = 200;
+        int threads = 8;
+        int chamadasPorThread = 10;
+        ResilienciaConfig config = config();
+        ReflectionTestUtils.setField(config, "limiteLenta", Duration.ofMillis(100));
+        OrdemServicoGateway gateway = gateway(config);
+
+        AtomicInteger recusadas = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tarefas.add(executor.submit(() -> {
+                    for (int i = 0; i < chamadasPorThread; i++) {
+                        try {
+                            atualizar(gateway);
+                        } catch (CallNotPermittedException e) {
+                            recusadas.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Só as chamadas em andamento quando o circuito abriu chegam ao serviço
+        assertThat(recebidas.get()).isLessThan(threads * 2);
+        assertThat(recebidas.get() + recusadas.get()).isEqualTo(threads * chamadasPorThread);
+        assertThat(gateway.disponivel()).isFalse();
+        assertThat(transicoes("CLOSED", "OPEN")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("resilience4j.circuitbreaker.not.permitted.calls").counter().count())
+                .isEqualTo(recusadas.get());
+    }
+
+    private static void dormir(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package br.com.grupo99.apiexterna.service;
+
+import br.com.grupo99.apiexterna.domain.AprovacaoOrcamento;
+import br.com.grupo99.apiexterna.infrastructure.fila.FilaAprovacaoRepository;
+import br.com.grupo99.apiexterna.infrastructure.service.OrdemServicoGateway;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("EncaminhadorAprovacoes - fila durável de aprovações")
+class EncaminhadorAprovacoesTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EncaminhadorAprovacoesTest.class);
+
+    private final AtomicReference<Instant> agora = new AtomicReference<>(Instant.parse("2024-06-01T12:00:00Z"));
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora.get();
+        }
+    };
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> enviadas = Collections.synchronizedList(new ArrayList<>());
+    private final List<EncaminhadorAprovacoes> encaminhadores = new ArrayList<>();
+    private Consumer<UUID> comportamento = id -> { };
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("oficina-service");
+
+    /**
+     * Gateway que registra os envios em vez de chamar o oficina-service.
+     */
+    private final OrdemServicoGateway gateway = new OrdemServicoGateway(null, circuitBreaker, Bulkhead.ofDefaults("oficina-service")) {
+        @Override
+        public void atualizarStatusOrdemServico(UUID ordemServicoId, String status, String motivoRecusa) {
+            comportamento.accept(ordemServicoId);
+            enviadas.add(ordemServicoId + " " + status + " " + motivoRecusa);
+        }
+    };
+
+    @AfterEach
+    void encerrar() {
+        encaminhadores.forEach(EncaminhadorAprovacoes::encerrar);
+    }
+
+    private static FilaAprovacaoRepository fila(String url) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return new FilaAprovacaoRepository(new JdbcTemplate(dataSource));
+    }
+
+    private FilaAprovacaoRepository filaEmMemoria() {
+        return fila("jdbc:h2:mem:fila-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    }
+
+    private EncaminhadorAprovacoes encaminhador(FilaAprovacaoRepository fila) {
+        EncaminhadorAprovacoes encaminhador = new EncaminhadorAprovacoes(fila, gateway, meterRegistry, clock,
+                4, 50, 3, Duration.ofSeconds(1), Duration.ofMinutes(5));
+        encaminhadores.add(encaminhador);
+        return encaminhador;
+    }
+
+    private AprovacaoOrcamentoService service(FilaAprovacaoRepository fila) {
+        return new AprovacaoOrcamentoService(fila, meterRegistry, clock);
+    }
+
+    private double contador(String nome) {
+        return meterRegistry.get(nome).counter().count();
+    }
+
+    private double gauge(String nome) {
+        return meterRegistry.get(nome).gauge().value();
+    }
+
+    @Test
+    @DisplayName("Deve agrupar notificações da mesma ordem e encaminhar apenas a última")
+    void deveAgruparNotificacoesDaMesmaOrdem() {
+        FilaAprovacaoRepository fila = filaEmMemoria();
+        EncaminhadorAprovacoes encaminhador = encaminhador(fila);
+        AprovacaoOrcamentoService service = service(fila);
+        UUID ordem = UUID.randomUUID();
+        UUID outra = UUID.randomUUID();
+
+        service.processarNotificacao(new AprovacaoOrcamento(ordem, true, null));
+        service.processarNotificacao(new AprovacaoOrcamento(ordem, true, null));
+        service.processarNotificacao(new AprovacaoOrcamento(ordem, false, "Valor alto"));
+        service.processarNotificacao(new AprovacaoOrcamento(outra, true, null));
+        agora.set(agora.get().plusSeconds(30));
+
+        assertThat(gauge("aprovacao.fila.profundidade")).isEqualTo(2.0);
+        assertThat(gauge("aprovacao.fila.idade")).isEqualTo(30.0);
+        assertThat(contador("aprovacao.fila.coalescidas")).isEqualTo(2.0);
+
+        encaminhador.drenar();
+
+        assertThat(enviadas).containsExactlyInAnyOrder(ordem + " CANCELADA Valor alto", outra + " EM_EXECUCAO null");
+        assertThat(gauge("aprovacao.fila.profundidade")).isZero();
+        assertThat(gauge("aprovacao.fila.idade")).isZero();
+        assertThat(contador("aprovacao.fila.encaminhadas")).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Deve reagendar falhas com backoff e descartar ao esgotar as tentativas")
+    void deveReagendarComBackoff() {
+        FilaAprovacaoRepository fila = filaEmMemoria();
+        EncaminhadorAprovacoes encaminhador = encaminhador(fila);
+        UUID ordem = UUID.randomUUID();
+        service(fila).processarNotificacao(new AprovacaoOrcamento(ordem, true, null));
+        comportamento = id -> {
+            throw new ResourceAccessException("oficina-service indisponível");
+        };
+
+        encaminhador.drenar();
+        assertThat(contador("aprovacao.fila.reagendadas")).isEqualTo(1.0);
+
+        // Primeira espera: 1s ± 20%
+        agora.set(agora.get().plusMillis(700));
+        encaminhador.drenar();
+        assertThat(contador("aprovacao.fila.reagendadas")).isEqualTo(1.0);
+
+        agora.set(agora.get().plusMillis(600));
+        encaminhador.drenar();
+        assertThat(contador("aprovacao.fila.reagendadas")).isEqualTo(2.0);
+
+        comportamento = id -> { };
+        agora.set(agora.get().plusSeconds(3));
+        encaminhador.drenar();
+        assertThat(enviadas).containsExactly(ordem + " EM_EXECUCAO null");
+        assertThat(fila.profundidade()).isZero();
+
+        UUID semSucesso = UUID.randomUUID();
+        service(fila).processarNotificacao(new AprovacaoOrcamento(semSucesso, true, null));
+        comportamento = id -> {
+            throw new ResourceAccessException("oficina-service indisponível");
+        };
+        for (int i = 0; i < 3; i++) {
+            agora.set(agora.get().plus(Duration.ofMinutes(10)));
+            encaminhador.drenar();
+        }
+        assertThat(fila.profundidade()).isZero();
+        assertThat(fila.descartadas()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve descartar sem nova tentativa quando o oficina-service recusa a transição")
+    void deveDescartarErroDoCliente() {
+        FilaAprovacaoRepository fila = filaEmMemoria();
+        EncaminhadorAprovacoes encaminhador = encaminhador(fila);
+        service(fila).processarNotificacao(new AprovacaoOrcamento(UUID.randomUUID(), true, null));
+        comportamento = id -> {
+            throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+        };
+
+        encaminhador.drenar();
+
+        assertThat(fila.profundidade()).isZero();
+        assertThat(fila.descartadas()).isEqualTo(1);
+        assertThat(contador("aprovacao.fila.descartadas")).isEqualTo(1.0);
+        assertThat(contador("aprovacao.fila.reagendadas")).isZero();
+    }
+
+    @Test
+    @DisplayName("Nova notificação de ordem descartada deve voltar à fila sem contar como agrupada")
+    void deveReenfileirarOrdemDescartadaSemAgrupar() {
+        FilaAprovacaoRepository fila = filaEmMemoria();
+        EncaminhadorAprovacoes encaminhador = encaminhador(fila);
+        AprovacaoOrcamentoService service = service(fila);
+        UUID ordem = UUID.randomUUID();
+        service.processarNotificacao(new AprovacaoOrcamento(ordem, true, null));
+        comportamento = id -> {
+            throw new HttpClientErrorException(HttpStatus.CONFLICT);
+        };
+        encaminhador.drenar();
+        assertThat(fila.descartadas()).isEqualTo(1);
+
+        agora.set(agora.get().plusSeconds(60));
+        assertThat(fila.enfileirar(new AprovacaoOrcamento(ordem, true, null), agora.get())).isFalse();
+        assertThat(contador("aprovacao.fila.coalescidas")).isZero();
+        assertThat(fila.descartadas()).isZero();
+        assertThat(fila.profundidade()).isEqualTo(1);
+        assertThat(fila.maisAntiga()).isEqualTo(agora.get());
+
+        // Agora a linha está pendente: a próxima notificação da ordem é agrupada
+        service.processarNotificacao(new AprovacaoOrcamento(ordem, false, "Desistiu"));
+        assertThat(contador("aprovacao.fila.coalescidas")).isEqualTo(1.0);
+
+        comportamento = id -> { };
+        encaminhador.drenar();
+        assertThat(enviadas).containsExactly(ordem + " CANCELADA Desistiu");
+    }
+
+    @Test
+    @DisplayName("Deve adiar sem consumir tentativa enquanto o circuito estiver aberto")
+    void deveAdiarComCircuitoAberto() {
+        FilaAprovacaoRepository fila = filaEmMemoria();
+        EncaminhadorAprovacoes encaminhador = encaminhador(fila);
+        UUID ordem = UUID.randomUUID();
+        service(fila).processarNotificacao(new AprovacaoOrcamento(ordem, true, null));
+
+        circuitBreaker.transitionToOpenState();
+        encaminhador.drenar();
+        assertThat(enviadas).isEmpty();
+        assertThat(contador("aprovacao.fila.adiadas")).isZero();
+
+        // Meio aberto: as chamadas além das de teste são recusadas pelo circuito
+        circuitBreaker.transitionToHalfOpenState();
+        comportamento = id -> {
+            throw CallNotPermittedException.createCallNotPermittedException(circuitBreaker);
+        };
+        encaminhador.drenar();
+        assertThat(contador("aprovacao.fila.adiadas")).isEqualTo(1.0);
+        assertThat(contador("aprovacao.fila.reagendadas")).isZero();
+        assertThat(fila.proximas(10, agora.get().plusSeconds(2))).singleElement()
+                .satisfies(pendente -> assertThat(pendente.tentativas()).isZero());
+
+        circuitBreaker.transitionToClosedState();
+        comportamento = id -> { };
+        agora.set(agora.get().plusSeconds(2));
+        encaminhador.drenar();
+        assertThat(enviadas).containsExactly(ordem + " EM_EXECUCAO null");
+    }
+
+    @Test
+    @DisplayName("Não deve apagar notificação recebida durante o envio da anterior")
+    void naoDeveApagarNotificacaoRecebidaDuranteEnvio() {
+        FilaAprovacaoRepository fila = filaEmMemoria();
+        EncaminhadorAprovacoes encaminhador = encaminhador(fila);
+        AprovacaoOrcamentoService service = service(fila);
+        UUID ordem = UUID.randomUUID();
+        service.processarNotificacao(new AprovacaoOrcamento(ordem, true, null));
+        comportamento = id -> {
+            comportamento = outro -> { };
+            service.processarNotificacao(new AprovacaoOrcamento(ordem, false, "Desistiu"));
+        };
+
+        encaminhador.drenar();
+        assertThat(fila.profundidade()).isEqualTo(1);
+
+        encaminhador.drenar();
+        assertThat(enviadas).containsExactly(ordem + " EM_EXECUCAO null", ordem + " CANCELADA Desistiu");
+        assertThat(fila.profundidade()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve manter as aprovações pendentes após reiniciar")
+    void deveManterPendentesAposReiniciar(@TempDir Path diretorio) {
+        String url = "jdbc:h2:file:" + diretorio.resolve("fila-aprovacao") + ";WRITE_DELAY=0";
+        UUID ordem = UUID.randomUUID();
+        FilaAprovacaoRepository antes = fila(url);
+        service(antes).processarNotificacao(new AprovacaoOrcamento(ordem, true, null));
+        new JdbcTemplate(new DriverManagerDataSource(url, "sa", "")).execute("SHUTDOWN");
+
+        encaminhador(fila(url)).drenar();
+
+        assertThat(enviadas).containsExactly(ordem + " EM_EXECUCAO null");
+    }
+
+    @Test
+    @DisplayName("Deve responder sem esperar o oficina-service")
+    void deveResponderSemEsperarOficinaService() {
+        FilaAprovacaoRepository fila = filaEmMemoria();
+        AprovacaoOrcamentoService service = service(fila);
+        comportamento = id -> {
+            throw new AssertionError("O recebimento não deve chamar o oficina-service");
+        };
+        int notificacoes = 2_000;
+        for (int i = 0; i < notificacoes; i++) {
+            service.processarNotificacao(new AprovacaoOrcamento(UUID.randomUUID(), true, null));
+        }
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < notificacoes; i++) {
+            service.processarNotificacao(new AprovacaoOrcamento(UUID.randomUUID(), i % 2 == 0, null));
+        }
+        long micros = (System.nanoTime() - inicio) / 1_000 / notificacoes;
+
+        log.info("Recebimento de notificação (gravação na fila): {} µs", micros);
+        assertThat(fila.profundidade()).isEqualTo(2L * notificacoes);
+        assertThat(enviadas).isEmpty();
+    }
+}
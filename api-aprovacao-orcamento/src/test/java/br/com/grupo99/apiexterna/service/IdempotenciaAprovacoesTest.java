@@ -0,0 +1,236 @@
+package br.com.grupo99.apiexterna.service;
+
+import br.com.grupo99.apiexterna.domain.AprovacaoOrcamento;
+import br.com.grupo99.apiexterna.presenter.AprovacaoOrcamentoResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("IdempotenciaAprovacoes - reentregas do webhook de aprovação")
+class IdempotenciaAprovacoesTest {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaAprovacoesTest.class);
+
+    private final AtomicLong agora = new AtomicLong(1_000_000);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger processadas = new AtomicInteger();
+
+    private IdempotenciaAprovacoes idempotencia(int capacidade) {
+        return new IdempotenciaAprovacoes(meterRegistry, Duration.ofSeconds(60), capacidade, agora::get);
+    }
+
+    private AprovacaoOrcamentoResponseDTO processar(IdempotenciaAprovacoes idempotencia, AprovacaoOrcamento aprovacao,
+                                                    String chave) {
+        return idempotencia.processar(aprovacao, chave, () -> {
+            processadas.incrementAndGet();
+            return new AprovacaoOrcamentoResponseDTO(aprovacao.getOrdemServicoId(),
+                    aprovacao.isAprovado() ? "EM_EXECUCAO" : "CANCELADA", "Recebida");
+        });
+    }
+
+    private double duplicadas(String origem) {
+        return meterRegistry.get("aprovacao.idempotencia.duplicadas").tag("origem", origem).counter().count();
+    }
+
+    @Test
+    @DisplayName("Deve processar uma vez e repetir a resposta até o fim do ttl")
+    void deveRepetirRespostaDentroDoTtl() {
+        IdempotenciaAprovacoes idempotencia = idempotencia(100);
+        AprovacaoOrcamento aprovacao = new AprovacaoOrcamento(UUID.randomUUID(), true, null);
+
+        AprovacaoOrcamentoResponseDTO primeira = processar(idempotencia, aprovacao, null);
+        for (int i = 0; i < 4; i++) {
+            agora.addAndGet(5_000);
+            assertThat(processar(idempotencia, aprovacao, null)).isSameAs(primeira);
+        }
+        assertThat(processadas.get()).isEqualTo(1);
+        assertThat(duplicadas("cache")).isEqualTo(4.0);
+
+        agora.addAndGet(60_000);
+        processar(idempotencia, aprovacao, null);
+        assertThat(processadas.get()).isEqualTo(2);
+        assertThat(idempotencia.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Reentregas simultâneas devem esperar o processamento em andamento")
+    void reentregasSimultaneasDevemEsperarProcessamento() throws Exception {
+        IdempotenciaAprovacoes idempotencia = idempotencia(100);
+        AprovacaoOrcamento aprovacao = new AprovacaoOrcamento(UUID.randomUUID(), false, "Valor alto");
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        int reentregas = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(reentregas + 1);
+        try {
+            Future<AprovacaoOrcamentoResponseDTO> original = executor.submit(() -> idempotencia.processar(aprovacao, null, () -> {
+                processadas.incrementAndGet();
+                emAndamento.countDown();
+                aguardar(liberar);
+                return new AprovacaoOrcamentoResponseDTO(aprovacao.getOrdemServicoId(), "CANCELADA", "Recebida");
+            }));
+            emAndamento.await();
+            List<Future<AprovacaoOrcamentoResponseDTO>> repetidas = new ArrayList<>();
+            for (int i = 0; i < reentregas; i++) {
+                repetidas.add(executor.submit(() -> processar(idempotencia, aprovacao, null)));
+            }
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (duplicadas("em_andamento") < reentregas && System.nanoTime() < limite) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+
+            for (Future<AprovacaoOrcamentoResponseDTO> repetida : repetidas) {
+                assertThat(repetida.get()).isSameAs(original.get());
+            }
+            assertThat(processadas.get()).isEqualTo(1);
+            assertThat(duplicadas("em_andamento")).isEqualTo(reentregas);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve guardar falha: quem esperava recebe o erro e a próxima reentrega processa")
+    void naoDeveGuardarFalha() throws Exception {
+        IdempotenciaAprovacoes idempotencia = idempotencia(100);
+        AprovacaoOrcamento aprovacao = new AprovacaoOrcamento(UUID.randomUUID(), true, null);
+        CountDownLatch emAndamento = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> original = executor.submit(() -> idempotencia.processar(aprovacao, null, () -> {
+                emAndamento.countDown();
+                aguardar(liberar);
+                throw new IllegalStateException("fila indisponível");
+            }));
+            emAndamento.await();
+            Future<?> repetida = executor.submit(() -> processar(idempotencia, aprovacao, null));
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (duplicadas("em_andamento") < 1 && System.nanoTime() < limite) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+
+            assertThatThrownBy(original::get).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(repetida::get).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        processar(idempotencia, aprovacao, null);
+        assertThat(processadas.get()).isEqualTo(1);
+        assertThat(idempotencia.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Mudança de decisão da ordem deve sempre chegar à fila")
+    void mudancaDeDecisaoDeveSerProcessada() {
+        IdempotenciaAprovacoes idempotencia = idempotencia(100);
+        UUID ordem = UUID.randomUUID();
+
+        processar(idempotencia, new AprovacaoOrcamento(ordem, true, null), null);
+        processar(idempotencia, new AprovacaoOrcamento(ordem, false, "Desistiu"), null);
+        AprovacaoOrcamentoResponseDTO ultima = processar(idempotencia, new AprovacaoOrcamento(ordem, true, null), null);
+        processar(idempotencia, new AprovacaoOrcamento(ordem, true, null), null);
+
+        assertThat(processadas.get()).isEqualTo(3);
+        assertThat(ultima.getStatus()).isEqualTo("EM_EXECUCAO");
+    }
+
+    @Test
+    @DisplayName("Deve usar o Idempotency-Key quando enviado")
+    void deveUsarIdempotencyKey() {
+        IdempotenciaAprovacoes idempotencia = idempotencia(100);
+        AprovacaoOrcamento aprovacao = new AprovacaoOrcamento(UUID.randomUUID(), true, null);
+
+        processar(idempotencia, aprovacao, "entrega-1");
+        processar(idempotencia, aprovacao, "entrega-1");
+        processar(idempotencia, aprovacao, "entrega-2");
+        processar(idempotencia, aprovacao, " ");
+
+        assertThat(processadas.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve remover as chaves mais antigas ao atingir a capacidade")
+    void deveRemoverChavesMaisAntigas() {
+        IdempotenciaAprovacoes idempotencia = idempotencia(1_000);
+        List<AprovacaoOrcamento> aprovacoes = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            AprovacaoOrcamento aprovacao = new AprovacaoOrcamento(UUID.randomUUID(), true, null);
+            aprovacoes.add(aprovacao);
+            processar(idempotencia, aprovacao, null);
+        }
+        assertThat(idempotencia.tamanho()).isEqualTo(1_000);
+        assertThat(meterRegistry.get("aprovacao.idempotencia.chaves").gauge().value()).isEqualTo(1_000.0);
+
+        processar(idempotencia, aprovacoes.get(4_999), null);
+        assertThat(processadas.get()).isEqualTo(5_000);
+        processar(idempotencia, aprovacoes.get(0), null);
+        assertThat(processadas.get()).isEqualTo(5_001);
+    }
+
+    @Test
+    @DisplayName("Rajada de reentregas deve gerar uma gravação por notificação")
+    void rajadaDeReentregasDeveGerarUmaGravacao() throws Exception {
+        IdempotenciaAprovacoes idempotencia = idempotencia(10_000);
+        int ordens = 2_000;
+        int entregasPorOrdem = 4;
+        List<AprovacaoOrcamento> aprovacoes = new ArrayList<>();
+        for (int i = 0; i < ordens; i++) {
+            aprovacoes.add(new AprovacaoOrcamento(UUID.randomUUID(), i % 3 != 0, null));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            long inicio = System.nanoTime();
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int entrega = 0; entrega < entregasPorOrdem; entrega++) {
+                for (AprovacaoOrcamento aprovacao : aprovacoes) {
+                    tarefas.add(executor.submit(() -> processar(idempotencia, aprovacao, null)));
+                }
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get();
+            }
+            long micros = (System.nanoTime() - inicio) / 1_000 / tarefas.size();
+
+            log.info("{} entregas de {} notificações: {} processadas, {} µs por entrega",
+                    tarefas.size(), ordens, processadas.get(), micros);
+            assertThat(processadas.get()).isEqualTo(ordens);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
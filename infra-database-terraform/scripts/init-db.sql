@@ -20,6 +20,7 @@ CREATE TABLE IF NOT EXISTS pessoas (
     phone VARCHAR(20),
     cargo VARCHAR(100),
     perfil VARCHAR(20) NOT NULL CHECK (perfil IN ('CLIENTE', 'MECANICO', 'ADMIN')),
+    ativo BOOLEAN NOT NULL DEFAULT TRUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
@@ -27,6 +28,8 @@ CREATE TABLE IF NOT EXISTS pessoas (
 CREATE INDEX idx_pessoas_numero_documento ON pessoas(numero_documento);
 CREATE INDEX idx_pessoas_email ON pessoas(email);
 CREATE INDEX idx_pessoas_perfil ON pessoas(perfil);
+CREATE INDEX idx_pessoas_created_at ON pessoas(created_at);
+CREATE INDEX idx_pessoas_updated_at ON pessoas(updated_at);
 
 -- ==========================================
 -- SCHEMA: Clientes (relacionado a Pessoas)
@@ -415,8 +415,8 @@ module "api_aprovacao" {
   # Image (update with your ECR repository URL)
   image_name = "${module.ecr.repository_url}:latest"
 
-  # Deployment
-  replicas       = 2
+  # StatefulSet - a fila de aprovações é local ao pod, então uma única réplica
+  replicas       = 1
   container_port = 8081
   service_port   = 80
   service_type   = "ClusterIP"
@@ -435,13 +435,6 @@ module "api_aprovacao" {
   resources_limits_cpu      = "500m"
   resources_limits_memory   = "512Mi"
 
-  # HPA
-  enable_hpa         = true
-  hpa_min_replicas   = 2
-  hpa_max_replicas   = 5
-  hpa_cpu_target     = 70
-  hpa_memory_target  = 80
-
   # Ingress (disabled by default)
   create_ingress = false
 }
@@ -410,8 +410,8 @@ module "api_aprovacao" {
   # Image (update with your ECR repository URL)
   image_name = "${module.ecr.repository_url}:latest"
 
-  # Deployment - Production settings
-  replicas       = 4
+  # StatefulSet - a fila de aprovações é local ao pod, então uma única réplica
+  replicas       = 1
   container_port = 8081
   service_port   = 80
   service_type   = "ClusterIP"
@@ -430,13 +430,6 @@ module "api_aprovacao" {
   resources_limits_cpu      = "2000m"
   resources_limits_memory   = "2Gi"
 
-  # HPA - Production scaling
-  enable_hpa         = true
-  hpa_min_replicas   = 4
-  hpa_max_replicas   = 10
-  hpa_cpu_target     = 60
-  hpa_memory_target  = 70
-
   # Ingress (disabled by default)
   create_ingress = false
 }
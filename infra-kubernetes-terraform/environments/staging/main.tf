@@ -329,8 +329,8 @@ module "api_aprovacao" {
   # Image (update with your ECR repository URL)
   image_name = "${module.ecr.repository_url}:latest"
 
-  # Deployment
-  replicas       = 3
+  # StatefulSet - a fila de aprovações é local ao pod, então uma única réplica
+  replicas       = 1
   container_port = 8081
   service_port   = 80
   service_type   = "ClusterIP"
@@ -349,13 +349,6 @@ module "api_aprovacao" {
   resources_limits_cpu      = "1000m"
   resources_limits_memory   = "1Gi"
 
-  # HPA
-  enable_hpa         = true
-  hpa_min_replicas   = 3
-  hpa_max_replicas   = 8
-  hpa_cpu_target     = 70
-  hpa_memory_target  = 80
-
   # Ingress (disabled by default)
   create_ingress = false
 }
@@ -1,5 +1,5 @@
 # ================================
-# Kubernetes Deployment and Service for API Aprovação Orçamento
+# Kubernetes StatefulSet and Service for API Aprovação Orçamento
 # ================================
 
 # Namespace (using default or create specific)
@@ -43,8 +43,10 @@ resource "kubernetes_config_map" "api_aprovacao_config" {
   }
 }
 
-# Deployment
-resource "kubernetes_deployment" "api_aprovacao" {
+# StatefulSet de uma réplica: a fila de aprovações (H2 em arquivo) fica num volume persistente,
+# que sobrevive a restart, reschedule e rollout do pod. A fila é local ao pod, então "vale a
+# última notificação" de uma ordem só se mantém com uma única réplica; por isso não há HPA.
+resource "kubernetes_stateful_set" "api_aprovacao" {
   metadata {
     name      = var.app_name
     namespace = var.namespace
@@ -53,7 +55,9 @@ resource "kubernetes_deployment" "api_aprovacao" {
   }
 
   spec {
-    replicas = var.replicas
+    replicas              = var.replicas
+    service_name          = kubernetes_service.api_aprovacao_headless.metadata[0].name
+    pod_management_policy = "Parallel"
 
     selector {
       match_labels = local.selector_labels
@@ -71,6 +75,9 @@ resource "kubernetes_deployment" "api_aprovacao" {
       }
 
       spec {
+        # Tempo para terminar os envios em andamento antes do SIGKILL
+        termination_grace_period_seconds = 60
+
         container {
           name  = var.app_name
           image = var.image_name
@@ -86,6 +93,11 @@ resource "kubernetes_deployment" "api_aprovacao" {
             value = var.environment
           }
 
+          env {
+            name  = "FILA_APROVACAO_DIR"
+            value = local.fila_aprovacao_dir
+          }
+
           env {
             name = "JAVA_OPTS"
             value = join(" ", [
@@ -104,6 +116,12 @@ resource "kubernetes_deployment" "api_aprovacao" {
             read_only  = true
           }
 
+          # Fila durável de aprovações
+          volume_mount {
+            name       = "fila-aprovacao"
+            mount_path = local.fila_aprovacao_dir
+          }
+
           # Health checks
           liveness_probe {
             http_get {
@@ -158,85 +176,84 @@ resource "kubernetes_deployment" "api_aprovacao" {
       }
     }
 
-    strategy {
+    update_strategy {
       type = "RollingUpdate"
-      rolling_update {
-        max_surge       = "25%"
-        max_unavailable = "25%"
+    }
+
+    volume_claim_template {
+      metadata {
+        name   = "fila-aprovacao"
+        labels = local.common_labels
       }
+
+      spec {
+        access_modes       = ["ReadWriteOnce"]
+        storage_class_name = var.fila_storage_class
+
+        resources {
+          requests = {
+            storage = var.fila_storage_size
+          }
+        }
+      }
+    }
+
+    # O volume de uma réplica removida (scale-in ou destroy) é mantido: as aprovações ainda
+    # pendentes nele são encaminhadas quando a réplica de mesmo índice voltar
+    persistent_volume_claim_retention_policy {
+      when_scaled  = "Retain"
+      when_deleted = "Retain"
     }
   }
 }
 
-# Service
-resource "kubernetes_service" "api_aprovacao" {
+# Headless Service exigido pelo StatefulSet (identidade de rede estável por réplica)
+resource "kubernetes_service" "api_aprovacao_headless" {
   metadata {
-    name      = var.app_name
+    name      = "${var.app_name}-headless"
     namespace = var.namespace
 
     labels = local.common_labels
-
-    annotations = var.service_annotations
   }
 
   spec {
-    type = var.service_type
+    cluster_ip = "None"
 
     selector = local.selector_labels
 
     port {
       name        = "http"
-      port        = var.service_port
+      port        = var.container_port
       target_port = var.container_port
       protocol    = "TCP"
     }
-
-    session_affinity = "ClientIP"
   }
 }
 
-# Horizontal Pod Autoscaler
-resource "kubernetes_horizontal_pod_autoscaler_v2" "api_aprovacao" {
-  count = var.enable_hpa ? 1 : 0
-
+# Service
+resource "kubernetes_service" "api_aprovacao" {
   metadata {
     name      = var.app_name
     namespace = var.namespace
 
     labels = local.common_labels
+
+    annotations = var.service_annotations
   }
 
   spec {
-    scale_target_ref {
-      api_version = "apps/v1"
-      kind        = "Deployment"
-      name        = kubernetes_deployment.api_aprovacao.metadata[0].name
-    }
+    type = var.service_type
 
-    min_replicas = var.hpa_min_replicas
-    max_replicas = var.hpa_max_replicas
+    selector = local.selector_labels
 
-    metric {
-      type = "Resource"
-      resource {
-        name = "cpu"
-        target {
-          type                = "Utilization"
-          average_utilization = var.hpa_cpu_target
-        }
-      }
+    port {
+      name        = "http"
+      port        = var.service_port
+      target_port = var.container_port
+      protocol    = "TCP"
     }
 
-    metric {
-      type = "Resource"
-      resource {
-        name = "memory"
-        target {
-          type                = "Utilization"
-          average_utilization = var.hpa_memory_target
-        }
-      }
-    }
+    session_affinity = "ClientIP"
   }
 }
 
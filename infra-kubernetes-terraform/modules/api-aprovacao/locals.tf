@@ -17,4 +17,7 @@ locals {
     "app" = var.app_name
     "env" = var.environment
   }
+
+  # Diretório do H2 da fila de aprovações, montado no volume persistente de cada réplica
+  fila_aprovacao_dir = "/app/data"
 }
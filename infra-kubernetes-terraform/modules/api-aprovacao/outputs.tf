@@ -2,9 +2,9 @@
 # Outputs - API Aprovação Orçamento Module
 # ================================
 
-output "deployment_name" {
-  description = "Name of the Kubernetes deployment"
-  value       = kubernetes_deployment.api_aprovacao.metadata[0].name
+output "stateful_set_name" {
+  description = "Name of the Kubernetes StatefulSet"
+  value       = kubernetes_stateful_set.api_aprovacao.metadata[0].name
 }
 
 output "service_name" {
@@ -42,7 +42,3 @@ output "ingress_host" {
   value       = var.create_ingress ? var.ingress_host : null
 }
 
-output "hpa_enabled" {
-  description = "Whether HPA is enabled"
-  value       = var.enable_hpa
-}
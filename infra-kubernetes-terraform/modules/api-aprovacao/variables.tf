@@ -56,13 +56,13 @@ variable "image_pull_secrets" {
 # ================================
 
 variable "replicas" {
-  description = "Number of pod replicas"
+  description = "Number of pod replicas (the approval queue is local to the pod, so only one is supported)"
   type        = number
-  default     = 2
+  default     = 1
 
   validation {
-    condition     = var.replicas >= 1 && var.replicas <= 10
-    error_message = "Replicas must be between 1 and 10."
+    condition     = var.replicas == 1
+    error_message = "Replicas must be 1: each pod keeps its own approval queue, and a second replica would break last-notification-wins per order."
   }
 }
 
@@ -161,37 +161,19 @@ variable "resources_limits_memory" {
 }
 
 # ================================
-# Horizontal Pod Autoscaler
+# Approval Queue Storage
 # ================================
 
-variable "enable_hpa" {
-  description = "Enable Horizontal Pod Autoscaler"
-  type        = bool
-  default     = true
-}
-
-variable "hpa_min_replicas" {
-  description = "Minimum number of replicas for HPA"
-  type        = number
-  default     = 2
-}
-
-variable "hpa_max_replicas" {
-  description = "Maximum number of replicas for HPA"
-  type        = number
-  default     = 5
-}
-
-variable "hpa_cpu_target" {
-  description = "Target CPU utilization percentage for HPA"
-  type        = number
-  default     = 70
+variable "fila_storage_size" {
+  description = "Size of the persistent volume holding the approval queue"
+  type        = string
+  default     = "1Gi"
 }
 
-variable "hpa_memory_target" {
-  description = "Target memory utilization percentage for HPA"
-  type        = number
-  default     = 80
+variable "fila_storage_class" {
+  description = "Storage class for the approval queue volumes (null uses the cluster default)"
+  type        = string
+  default     = null
 }
 
 # ================================
@@ -8,42 +8,146 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.newrelic.api.agent.NewRelic;
 import com.newrelic.api.agent.Trace;
+import lambdavalida.model.AuthBatchRequest;
+import lambdavalida.model.AuthBatchResponse;
+import lambdavalida.model.AuthBatchResult;
 import lambdavalida.model.AuthRequest;
 import lambdavalida.model.AuthResponse;
 import lambdavalida.model.Pessoa;
 import lambdavalida.monitoring.MetricsCollector;
 import lambdavalida.monitoring.StructuredLogger;
 import lambdavalida.service.PessoaService;
-import lambdavalida.service.DocumentoValidator;
 import lambdavalida.service.JWTService;
+import lambdavalida.service.ValidadorDocumento;
+import org.crac.Core;
+import org.crac.Resource;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-public class ValidaPessoaFunction implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+/**
+ * Handler da Lambda de autenticação.
+ *
+ * Na inicialização do container a função executa uma fase de priming: alguns ciclos sintéticos
+ * de validação, desserialização, assinatura do JWT e serialização da resposta (carregando
+ * classes do Jackson e do jjwt e aquecendo o JIT), além da abertura da conexão com o banco.
+ * O priming pode ser desligado com {@code PRIMING_ENABLED=false}.
+ *
+ * A função também se registra como {@link Resource} do CRaC (usado pelo SnapStart): antes do
+ * checkpoint a conexão e o cache de pessoas são descartados, e após o restore a conexão é
+ * reaberta, para que cada instância restaurada tenha seu próprio estado.
+ *
+ * Requisições para {@code /auth/lote} autenticam vários documentos em uma invocação: todos são
+ * validados, as pessoas são buscadas em uma única consulta e a resposta traz o resultado de cada
+ * documento, na ordem recebida.
+ */
+public class ValidaPessoaFunction implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>, Resource {
 
     private static final ObjectMapper objectMapper = new ObjectMapper()
             .registerModule(new JavaTimeModule());
 
+    static final String ROTA_LOTE = "/auth/lote";
+    static final int TAMANHO_MAXIMO_LOTE = 100;
+
+    private static final int ITERACOES_PRIMING = 20;
+    private static final String CORPO_PRIMING = "{\"cpf\":\"11144477735\"}";
+    private static final String CNPJ_PRIMING = "11222333000181";
+    private static final Pessoa PESSOA_PRIMING = new Pessoa("00000000-0000-0000-0000-000000000000",
+            "11144477735", "FISICA", "Priming", "priming@oficina.local", null, "CLIENTE", "ACTIVE");
+
     private final PessoaService pessoaService;
     private final JWTService jwtService;
     private final MetricsCollector metricsCollector;
     private final StructuredLogger logger;
 
     public ValidaPessoaFunction() {
-        this.pessoaService = new PessoaService();
-        this.jwtService = new JWTService();
-        this.metricsCollector = new MetricsCollector();
+        this(new MetricsCollector());
+    }
+
+    private ValidaPessoaFunction(MetricsCollector metricsCollector) {
+        this(new PessoaService(metricsCollector), new JWTService(), metricsCollector,
+                !"false".equalsIgnoreCase(System.getenv("PRIMING_ENABLED")));
+    }
+
+    ValidaPessoaFunction(PessoaService pessoaService, JWTService jwtService, MetricsCollector metricsCollector,
+                         boolean primar) {
+        this.pessoaService = pessoaService;
+        this.jwtService = jwtService;
+        this.metricsCollector = metricsCollector;
         this.logger = new StructuredLogger(ValidaPessoaFunction.class);
 
         NewRelic.setTransactionName(null, "/auth");
+        Core.getGlobalContext().register(this);
+
+        if (primar) {
+            primar();
+        }
+    }
+
+    /**
+     * Executa o caminho de autenticação com dados sintéticos, sem registrar métricas de negócio,
+     * e abre a conexão com o banco. Falhas são apenas registradas: a primeira invocação real
+     * repete o que faltar.
+     */
+    void primar() {
+        long inicio = System.nanoTime();
+        try {
+            for (int i = 0; i < ITERACOES_PRIMING; i++) {
+                AuthRequest authRequest = objectMapper.readValue(CORPO_PRIMING, AuthRequest.class);
+                ValidadorDocumento.identificar(authRequest.getCpf());
+                ValidadorDocumento.identificar(CNPJ_PRIMING);
+                maskDocumento(authRequest.getCpf());
+                String token = jwtService.generateToken(PESSOA_PRIMING);
+                objectMapper.writeValueAsString(new AuthResponse(token, PESSOA_PRIMING));
+            }
+            createErrorResponse(400, "priming", "priming");
+        } catch (Exception e) {
+            logger.atWarn("priming_failed").field("error", e.getClass().getSimpleName()).log();
+        }
+        conectarBanco("priming_database_unavailable");
+
+        logger.atInfo("priming_completed")
+                .field("duration_ms", (System.nanoTime() - inicio) / 1_000_000)
+                .log();
+    }
+
+    private void conectarBanco(String eventoFalha) {
+        try {
+            pessoaService.aquecer();
+        } catch (RuntimeException e) {
+            logger.atWarn(eventoFalha).field("error", e.getClass().getSimpleName()).log();
+        }
+    }
+
+    @Override
+    public void beforeCheckpoint(org.crac.Context<? extends Resource> context) {
+        // Conexões abertas não sobrevivem ao snapshot e pessoas cacheadas ficariam desatualizadas no restore
+        pessoaService.fechar();
+        pessoaService.limparCache();
+    }
+
+    @Override
+    public void afterRestore(org.crac.Context<? extends Resource> context) {
+        pessoaService.limparCache();
+        conectarBanco("restore_database_unavailable");
     }
 
     @Override
     @Trace(dispatcher = true)
     public APIGatewayProxyResponseEvent handleRequest(APIGatewayProxyRequestEvent input, Context context) {
+        try {
+            return isBatch(input) ? authenticateBatch(input, context) : authenticate(input, context);
+        } finally {
+            // Uma única linha EMF por invocação com todas as métricas registradas nela
+            metricsCollector.publish();
+        }
+    }
+
+    private APIGatewayProxyResponseEvent authenticate(APIGatewayProxyRequestEvent input, Context context) {
         long startTime = System.currentTimeMillis();
         String requestId = context != null ? context.getAwsRequestId() : "test-request-" + UUID.randomUUID().toString();
         String correlationId = UUID.randomUUID().toString();
@@ -54,18 +158,17 @@ public class ValidaPessoaFunction implements RequestHandler<APIGatewayProxyReque
             NewRelic.addCustomParameter("functionName", context.getFunctionName());
         }
 
-        logger.info("auth_request_started", Map.of(
-                "correlationId", correlationId,
-                "requestId", requestId,
-                "timestamp", Instant.now().toString()
-        ));
+        logger.atInfo("auth_request_started")
+                .field("correlationId", correlationId)
+                .field("requestId", requestId)
+                .log();
 
         try {
             String body = input.getBody();
 
             // Validate request body
             if (body == null || body.trim().isEmpty()) {
-                logger.warn("empty_request_body", Map.of("correlationId", correlationId));
+                logger.atWarn("empty_request_body").field("correlationId", correlationId).log();
                 return createErrorResponse(400, "Request body cannot be empty", correlationId);
             }
 
@@ -77,15 +180,15 @@ public class ValidaPessoaFunction implements RequestHandler<APIGatewayProxyReque
             long validationStart = System.currentTimeMillis();
             String documento = authRequest.getCpf(); // Campo ainda se chama cpf no request
             
-            if (!DocumentoValidator.isValidCPF(documento) && !DocumentoValidator.isValidCNPJ(documento)) {
+            if (ValidadorDocumento.identificar(documento) == ValidadorDocumento.Tipo.INVALIDO) {
                 long validationDuration = System.currentTimeMillis() - validationStart;
                 metricsCollector.recordValidationFailure(validationDuration);
                 NewRelic.noticeError("Invalid documento format");
 
-                logger.warn("documento_validation_failed", Map.of(
-                        "correlationId", correlationId,
-                        "documento", maskDocumento(documento)
-                ));
+                logger.atWarn("documento_validation_failed")
+                        .field("correlationId", correlationId)
+                        .field("documento", maskDocumento(documento))
+                        .log();
 
                 return createErrorResponse(400, "Documento inválido (CPF ou CNPJ)", correlationId);
             }
@@ -102,13 +205,13 @@ public class ValidaPessoaFunction implements RequestHandler<APIGatewayProxyReque
 
             if (pessoa == null) {
                 metricsCollector.recordCustomerNotFound();
-                logger.warn("pessoa_not_found", Map.of("correlationId", correlationId));
+                logger.atWarn("pessoa_not_found").field("correlationId", correlationId).log();
                 return createErrorResponse(404, "Pessoa não encontrada", correlationId);
             }
 
             if (!"ACTIVE".equals(pessoa.getStatus())) {
                 metricsCollector.recordInactiveCustomer();
-                logger.warn("pessoa_inactive", Map.of("correlationId", correlationId));
+                logger.atWarn("pessoa_inactive").field("correlationId", correlationId).log();
                 return createErrorResponse(403, "Pessoa inativa", correlationId);
             }
 
@@ -126,10 +229,10 @@ public class ValidaPessoaFunction implements RequestHandler<APIGatewayProxyReque
 
             NewRelic.addCustomParameter("total_duration_ms", totalDuration);
 
-            logger.info("auth_successful", Map.of(
-                    "correlationId", correlationId,
-                    "total_duration_ms", totalDuration
-            ));
+            logger.atInfo("auth_successful")
+                    .field("correlationId", correlationId)
+                    .field("total_duration_ms", totalDuration)
+                    .log();
 
             return createSuccessResponse(response, correlationId);
 
@@ -139,16 +242,121 @@ public class ValidaPessoaFunction implements RequestHandler<APIGatewayProxyReque
             metricsCollector.recordError(e.getClass().getSimpleName());
             NewRelic.noticeError(e);
 
-            logger.error("auth_request_failed", Map.of(
-                    "correlationId", correlationId,
-                    "error", e.getClass().getSimpleName()
-            ), e);
+            logger.atError("auth_request_failed")
+                    .field("correlationId", correlationId)
+                    .field("error", e.getClass().getSimpleName())
+                    .exception(e)
+                    .log();
+
+            return createErrorResponse(500, "Erro interno do servidor", correlationId);
+        }
+    }
+
+    private static boolean isBatch(APIGatewayProxyRequestEvent input) {
+        return ROTA_LOTE.equals(input.getResource()) || ROTA_LOTE.equals(input.getPath());
+    }
+
+    private APIGatewayProxyResponseEvent authenticateBatch(APIGatewayProxyRequestEvent input, Context context) {
+        long startTime = System.currentTimeMillis();
+        String requestId = context != null ? context.getAwsRequestId() : "test-request-" + UUID.randomUUID().toString();
+        String correlationId = UUID.randomUUID().toString();
+
+        NewRelic.addCustomParameter("correlationId", correlationId);
+        NewRelic.addCustomParameter("requestId", requestId);
+
+        logger.atInfo("auth_batch_started")
+                .field("correlationId", correlationId)
+                .field("requestId", requestId)
+                .log();
+
+        try {
+            String body = input.getBody();
+            if (body == null || body.trim().isEmpty()) {
+                logger.atWarn("empty_request_body").field("correlationId", correlationId).log();
+                return createErrorResponse(400, "Request body cannot be empty", correlationId);
+            }
+
+            List<String> documentos = objectMapper.readValue(body, AuthBatchRequest.class).getDocumentos();
+            if (documentos == null || documentos.isEmpty()) {
+                return createErrorResponse(400, "Lista de documentos não pode ser vazia", correlationId);
+            }
+            if (documentos.size() > TAMANHO_MAXIMO_LOTE) {
+                return createErrorResponse(400, "Lote excede o limite de " + TAMANHO_MAXIMO_LOTE + " documentos",
+                        correlationId);
+            }
+            NewRelic.addCustomParameter("batch_size", documentos.size());
+
+            boolean[] invalidos = new boolean[documentos.size()];
+            List<String> validos = new ArrayList<>(documentos.size());
+            for (int i = 0; i < documentos.size(); i++) {
+                invalidos[i] = ValidadorDocumento.identificar(documentos.get(i)) == ValidadorDocumento.Tipo.INVALIDO;
+                if (!invalidos[i]) {
+                    validos.add(documentos.get(i));
+                }
+            }
+
+            long dbQueryStart = System.currentTimeMillis();
+            Map<String, Pessoa> pessoas = validos.isEmpty() ? Map.of() : pessoaService.findByDocumentos(validos);
+            metricsCollector.recordDatabaseQuery(System.currentTimeMillis() - dbQueryStart);
+
+            AuthBatchResult[] resultados = new AuthBatchResult[documentos.size()];
+            List<Integer> posicoesAtivas = new ArrayList<>();
+            List<Pessoa> ativas = new ArrayList<>();
+            for (int i = 0; i < documentos.size(); i++) {
+                String documento = documentos.get(i);
+                if (invalidos[i]) {
+                    metricsCollector.recordValidationFailure(0);
+                    resultados[i] = AuthBatchResult.error(documento, 400, "Documento inválido (CPF ou CNPJ)");
+                    continue;
+                }
+                Pessoa pessoa = pessoas.get(documento);
+                if (pessoa == null) {
+                    metricsCollector.recordCustomerNotFound();
+                    resultados[i] = AuthBatchResult.error(documento, 404, "Pessoa não encontrada");
+                } else if (!"ACTIVE".equals(pessoa.getStatus())) {
+                    metricsCollector.recordInactiveCustomer();
+                    resultados[i] = AuthBatchResult.error(documento, 403, "Pessoa inativa");
+                } else {
+                    posicoesAtivas.add(i);
+                    ativas.add(pessoa);
+                }
+            }
+
+            long jwtStart = System.currentTimeMillis();
+            List<String> tokens = jwtService.generateTokens(ativas);
+            metricsCollector.recordJWTGeneration(System.currentTimeMillis() - jwtStart);
+            for (int i = 0; i < tokens.size(); i++) {
+                int posicao = posicoesAtivas.get(i);
+                resultados[posicao] = AuthBatchResult.success(documentos.get(posicao), tokens.get(i), ativas.get(i));
+            }
+
+            long totalDuration = System.currentTimeMillis() - startTime;
+            metricsCollector.recordBatchAuth(documentos.size(), tokens.size(), totalDuration);
+
+            logger.atInfo("auth_batch_completed")
+                    .field("correlationId", correlationId)
+                    .field("documents", documentos.size())
+                    .field("authenticated", tokens.size())
+                    .field("total_duration_ms", totalDuration)
+                    .log();
+
+            return createSuccessResponse(new AuthBatchResponse(List.of(resultados)), correlationId);
+
+        } catch (Exception e) {
+            metricsCollector.recordError(e.getClass().getSimpleName());
+            NewRelic.noticeError(e);
+
+            logger.atError("auth_batch_failed")
+                    .field("correlationId", correlationId)
+                    .field("error", e.getClass().getSimpleName())
+                    .exception(e)
+                    .log();
 
             return createErrorResponse(500, "Erro interno do servidor", correlationId);
         }
     }
 
-    private APIGatewayProxyResponseEvent createSuccessResponse(AuthResponse response, String correlationId) {
+    private APIGatewayProxyResponseEvent createSuccessResponse(Object response, String correlationId) {
         try {
             Map<String, String> headers = new HashMap<>();
             headers.put("Content-Type", "application/json");
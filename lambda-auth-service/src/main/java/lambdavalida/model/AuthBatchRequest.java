@@ -0,0 +1,26 @@
+package lambdavalida.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class AuthBatchRequest {
+
+    @JsonProperty("documentos")
+    private List<String> documentos;
+
+    public AuthBatchRequest() {
+    }
+
+    public AuthBatchRequest(List<String> documentos) {
+        this.documentos = documentos;
+    }
+
+    public List<String> getDocumentos() {
+        return documentos;
+    }
+
+    public void setDocumentos(List<String> documentos) {
+        this.documentos = documentos;
+    }
+}
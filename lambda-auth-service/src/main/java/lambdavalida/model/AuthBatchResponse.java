@@ -0,0 +1,26 @@
+package lambdavalida.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class AuthBatchResponse {
+
+    @JsonProperty("resultados")
+    private List<AuthBatchResult> resultados;
+
+    public AuthBatchResponse() {
+    }
+
+    public AuthBatchResponse(List<AuthBatchResult> resultados) {
+        this.resultados = resultados;
+    }
+
+    public List<AuthBatchResult> getResultados() {
+        return resultados;
+    }
+
+    public void setResultados(List<AuthBatchResult> resultados) {
+        this.resultados = resultados;
+    }
+}
@@ -0,0 +1,87 @@
+package lambdavalida.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Resultado de um documento do lote: {@code status} segue os códigos da autenticação individual
+ * (200, 400, 403 ou 404); {@code token} e {@code pessoa} só vêm no 200 e {@code error} nos demais.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuthBatchResult {
+
+    @JsonProperty("documento")
+    private String documento;
+
+    @JsonProperty("status")
+    private int status;
+
+    @JsonProperty("token")
+    private String token;
+
+    @JsonProperty("pessoa")
+    private Pessoa pessoa;
+
+    @JsonProperty("error")
+    private String error;
+
+    public AuthBatchResult() {
+    }
+
+    public static AuthBatchResult success(String documento, String token, Pessoa pessoa) {
+        AuthBatchResult result = new AuthBatchResult();
+        result.documento = documento;
+        result.status = 200;
+        result.token = token;
+        result.pessoa = pessoa;
+        return result;
+    }
+
+    public static AuthBatchResult error(String documento, int status, String error) {
+        AuthBatchResult result = new AuthBatchResult();
+        result.documento = documento;
+        result.status = status;
+        result.error = error;
+        return result;
+    }
+
+    public String getDocumento() {
+        return documento;
+    }
+
+    public void setDocumento(String documento) {
+        this.documento = documento;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public Pessoa getPessoa() {
+        return pessoa;
+    }
+
+    public void setPessoa(Pessoa pessoa) {
+        this.pessoa = pessoa;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,155 @@
+package lambdavalida.monitoring;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry do Micrometer que acumula contadores e timers em memória durante a invocação e,
+ * ao final ({@link #publish()}), emite uma única linha no CloudWatch Embedded Metric Format (EMF).
+ * <p>
+ * O CloudWatch Logs extrai as métricas da linha de log de forma assíncrona, então a
+ * instrumentação não faz nenhuma chamada de rede durante a requisição. Cada linha contém apenas
+ * o que mudou desde a publicação anterior:
+ * <ul>
+ *     <li>contador: incremento no período ({@code Count});</li>
+ *     <li>timer: duração média no período ({@code Milliseconds}) e a quantidade em {@code <nome>.count};</li>
+ *     <li>gauge: valor atual ({@code None}), apenas quando mudou.</li>
+ * </ul>
+ * A linha é escrita direto no stdout, fora do encoder JSON do Logback, para que o CloudWatch a
+ * reconheça como EMF.
+ */
+public class EmfMeterRegistry extends SimpleMeterRegistry {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String namespace;
+    private final Map<String, String> dimensoes;
+    private final PrintStream saida;
+    private final Map<Meter.Id, double[]> publicados = new HashMap<>();
+
+    public EmfMeterRegistry(String namespace, Map<String, String> dimensoes, PrintStream saida) {
+        this(namespace, dimensoes, saida, Clock.SYSTEM);
+    }
+
+    EmfMeterRegistry(String namespace, Map<String, String> dimensoes, PrintStream saida, Clock clock) {
+        super(SimpleConfig.DEFAULT, clock);
+        this.namespace = namespace;
+        this.dimensoes = new LinkedHashMap<>(dimensoes);
+        this.saida = saida;
+    }
+
+    /**
+     * Emite a linha EMF com as variações desde a última publicação. Não escreve nada se nenhuma
+     * métrica mudou.
+     *
+     * @return A linha emitida, ou {@code null} se não havia o que publicar
+     */
+    public synchronized String publish() {
+        Map<String, Double> valores = new LinkedHashMap<>();
+        Map<String, String> unidades = new LinkedHashMap<>();
+
+        for (Meter meter : getMeters()) {
+            String nome = meter.getId().getName();
+            if (meter instanceof Counter counter) {
+                double atual = counter.count();
+                double[] ultimo = anterior(meter.getId(), 1);
+                double delta = atual - ultimo[0];
+                ultimo[0] = atual;
+                if (delta > 0) {
+                    valores.put(nome, delta);
+                    unidades.put(nome, "Count");
+                }
+            } else if (meter instanceof Timer timer) {
+                long quantidade = timer.count();
+                double total = timer.totalTime(TimeUnit.MILLISECONDS);
+                double[] ultimo = anterior(meter.getId(), 2);
+                long deltaQuantidade = quantidade - (long) ultimo[0];
+                double deltaTotal = total - ultimo[1];
+                ultimo[0] = quantidade;
+                ultimo[1] = total;
+                if (deltaQuantidade > 0) {
+                    valores.put(nome, deltaTotal / deltaQuantidade);
+                    unidades.put(nome, "Milliseconds");
+                    valores.put(nome + ".count", (double) deltaQuantidade);
+                    unidades.put(nome + ".count", "Count");
+                }
+            } else if (meter instanceof Gauge gauge) {
+                double atual = gauge.value();
+                double[] ultimo = anterior(meter.getId(), 1);
+                if (!Double.isNaN(atual) && Double.compare(atual, ultimo[0]) != 0) {
+                    ultimo[0] = atual;
+                    valores.put(nome, atual);
+                    unidades.put(nome, "None");
+                }
+            }
+        }
+
+        if (valores.isEmpty()) {
+            return null;
+        }
+        String linha = escrever(valores, unidades);
+        saida.println(linha);
+        saida.flush();
+        return linha;
+    }
+
+    private double[] anterior(Meter.Id id, int tamanho) {
+        return publicados.computeIfAbsent(id, k -> new double[tamanho]);
+    }
+
+    private String escrever(Map<String, Double> valores, Map<String, String> unidades) {
+        StringWriter texto = new StringWriter(256);
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(texto)) {
+            json.writeStartObject();
+            json.writeObjectFieldStart("_aws");
+            json.writeNumberField("Timestamp", clock.wallTime());
+            json.writeArrayFieldStart("CloudWatchMetrics");
+            json.writeStartObject();
+            json.writeStringField("Namespace", namespace);
+            json.writeArrayFieldStart("Dimensions");
+            json.writeStartArray();
+            for (String dimensao : dimensoes.keySet()) {
+                json.writeString(dimensao);
+            }
+            json.writeEndArray();
+            json.writeEndArray();
+            json.writeArrayFieldStart("Metrics");
+            for (Map.Entry<String, String> unidade : unidades.entrySet()) {
+                json.writeStartObject();
+                json.writeStringField("Name", unidade.getKey());
+                json.writeStringField("Unit", unidade.getValue());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+
+            for (Map.Entry<String, String> dimensao : dimensoes.entrySet()) {
+                json.writeStringField(dimensao.getKey(), dimensao.getValue());
+            }
+            for (Map.Entry<String, Double> valor : valores.entrySet()) {
+                json.writeNumberField(valor.getKey(), valor.getValue());
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao montar a linha EMF", e);
+        }
+        return texto.toString();
+    }
+}
@@ -1,60 +1,164 @@
 package lambdavalida.monitoring;
 
-import com.newrelic.api.agent.NewRelic;
 import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Métricas da Lambda de autenticação. Os valores ficam no {@link EmfMeterRegistry} durante a
+ * invocação e são emitidos em uma única linha EMF por {@link #publish()} ao final de cada uma.
+ */
 public class MetricsCollector {
+    private final EmfMeterRegistry registry;
+
+    private final Counter validationSuccessCounter;
+    private final Counter validationFailureCounter;
+    private final Timer validationTimer;
+    private final Timer databaseQueryTimer;
+    private final Counter pessoaCacheHitCounter;
+    private final Counter pessoaCacheMissCounter;
+    private final Counter pessoaBloomRejectionCounter;
+    private final Counter pessoaBloomFalsePositiveCounter;
+    private final AtomicLong pessoaBloomExpectedFpp = new AtomicLong(Double.doubleToLongBits(0));
+    private final Timer jwtGenerationTimer;
     private final Counter authSuccessCounter;
     private final Counter authFailureCounter;
+    private final Timer authTotalTimer;
+    private final Counter authBatchDocumentsCounter;
+    private final Timer authBatchTimer;
+    private final Counter customerNotFoundCounter;
+    private final Counter inactiveCustomerCounter;
+    private final Counter errorCounter;
 
     public MetricsCollector() {
-        MeterRegistry reg = new SimpleMeterRegistry();
-        this.authSuccessCounter = Counter.builder("auth.success").register(reg);
-        this.authFailureCounter = Counter.builder("auth.failure").register(reg);
+        this(new EmfMeterRegistry(
+                System.getenv().getOrDefault("METRICS_NAMESPACE", "OficinaAuth"),
+                Map.of("service", "ValidaPessoa"),
+                System.out));
+    }
+
+    public MetricsCollector(EmfMeterRegistry registry) {
+        this.registry = registry;
+        this.validationSuccessCounter = registry.counter("documento.validation.success");
+        this.validationFailureCounter = registry.counter("documento.validation.failure");
+        this.validationTimer = registry.timer("documento.validation.duration");
+        this.databaseQueryTimer = registry.timer("database.query.duration");
+        this.pessoaCacheHitCounter = registry.counter("pessoa.cache.hit");
+        this.pessoaCacheMissCounter = registry.counter("pessoa.cache.miss");
+        this.pessoaBloomRejectionCounter = registry.counter("pessoa.bloom.rejected");
+        this.pessoaBloomFalsePositiveCounter = registry.counter("pessoa.bloom.false_positive");
+        registry.gauge("pessoa.bloom.expected_fpp", pessoaBloomExpectedFpp,
+                valor -> Double.longBitsToDouble(valor.get()));
+        this.jwtGenerationTimer = registry.timer("jwt.generation.duration");
+        this.authSuccessCounter = registry.counter("auth.success");
+        this.authFailureCounter = registry.counter("auth.failure");
+        this.authTotalTimer = registry.timer("auth.total.duration");
+        this.authBatchDocumentsCounter = registry.counter("auth.batch.documents");
+        this.authBatchTimer = registry.timer("auth.batch.duration");
+        this.customerNotFoundCounter = registry.counter("pessoa.not_found");
+        this.inactiveCustomerCounter = registry.counter("pessoa.inactive");
+        this.errorCounter = registry.counter("errors");
     }
 
     public void recordValidationSuccess(long ms) {
-        NewRelic.recordMetric("Custom/CPF/Validation/Success", 1);
-        NewRelic.recordResponseTimeMetric("Custom/CPF/Validation/Duration", ms);
+        validationSuccessCounter.increment();
+        validationTimer.record(ms, TimeUnit.MILLISECONDS);
     }
 
     public void recordValidationFailure(long ms) {
-        NewRelic.recordMetric("Custom/CPF/Validation/Failure", 1);
+        validationFailureCounter.increment();
     }
 
     public void recordDatabaseQuery(long ms) {
-        NewRelic.recordMetric("Custom/Database/Query/Count", 1);
-        NewRelic.recordResponseTimeMetric("Custom/Database/Query/Duration", ms);
+        databaseQueryTimer.record(ms, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordPessoaCacheHit() {
+        pessoaCacheHitCounter.increment();
+    }
+
+    public void recordPessoaCacheMiss() {
+        pessoaCacheMissCounter.increment();
+    }
+
+    public double getPessoaCacheHits() {
+        return pessoaCacheHitCounter.count();
+    }
+
+    public double getPessoaCacheMisses() {
+        return pessoaCacheMissCounter.count();
+    }
+
+    /**
+     * Documento rejeitado pelo filtro de Bloom sem consulta ao banco.
+     */
+    public void recordPessoaBloomRejection() {
+        pessoaBloomRejectionCounter.increment();
+    }
+
+    /**
+     * Documento aprovado pelo filtro de Bloom mas não encontrado no banco. A taxa de falso positivo
+     * observada é {@code false_positive / (false_positive + rejected)}.
+     */
+    public void recordPessoaBloomFalsePositive() {
+        pessoaBloomFalsePositiveCounter.increment();
+    }
+
+    /**
+     * Taxa de falso positivo esperada para a ocupação atual do filtro, atualizada a cada recarga.
+     */
+    public void recordPessoaBloomExpectedFpp(double taxa) {
+        pessoaBloomExpectedFpp.set(Double.doubleToLongBits(taxa));
+    }
+
+    public double getPessoaBloomRejections() {
+        return pessoaBloomRejectionCounter.count();
+    }
+
+    public double getPessoaBloomFalsePositives() {
+        return pessoaBloomFalsePositiveCounter.count();
     }
 
     public void recordJWTGeneration(long ms) {
-        NewRelic.recordMetric("Custom/JWT/Generation/Count", 1);
-        NewRelic.recordResponseTimeMetric("Custom/JWT/Generation/Duration", ms);
+        jwtGenerationTimer.record(ms, TimeUnit.MILLISECONDS);
     }
 
     public void recordSuccessfulAuth(long ms) {
         authSuccessCounter.increment();
-        NewRelic.recordMetric("Custom/Auth/Success", 1);
-        NewRelic.recordResponseTimeMetric("Custom/Auth/TotalDuration", ms);
+        authTotalTimer.record(ms, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Lote processado: as falhas de cada documento são registradas pelos métodos individuais.
+     */
+    public void recordBatchAuth(int documentos, int autenticados, long ms) {
+        authBatchDocumentsCounter.increment(documentos);
+        authSuccessCounter.increment(autenticados);
+        authBatchTimer.record(ms, TimeUnit.MILLISECONDS);
     }
 
     public void recordCustomerNotFound() {
         authFailureCounter.increment();
-        NewRelic.recordMetric("Custom/Customer/NotFound", 1);
+        customerNotFoundCounter.increment();
     }
 
     public void recordInactiveCustomer() {
         authFailureCounter.increment();
-        NewRelic.recordMetric("Custom/Customer/Inactive", 1);
+        inactiveCustomerCounter.increment();
     }
 
     public void recordError(String errorType) {
-        NewRelic.recordMetric("Custom/Errors/Total", 1);
-        NewRelic.recordMetric("Custom/Errors/" + errorType, 1);
+        errorCounter.increment();
+        registry.counter("errors." + errorType).increment();
+    }
+
+    /**
+     * Emite as métricas acumuladas desde a última chamada (uma linha EMF no stdout).
+     */
+    public void publish() {
+        registry.publish();
     }
 }
@@ -1,59 +1,315 @@
 package lambdavalida.monitoring;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.Instant;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Map;
 
+/**
+ * Logger estruturado da Lambda: cada evento vira uma linha JSON com timestamp, level, event,
+ * service, os campos de contexto e, se houver, a exceção.
+ *
+ * Os campos são escritos direto em um {@link JsonGenerator} reaproveitado por thread, sem montar
+ * mapas intermediários nem passar pelo ObjectMapper. Se o level estiver desabilitado nada é feito.
+ *
+ * <pre>
+ * logger.atInfo("auth_successful")
+ *         .field("correlationId", correlationId)
+ *         .field("total_duration_ms", totalDuration)
+ *         .log();
+ * </pre>
+ */
 public class StructuredLogger {
+
+    private static final String SERVICE = "ValidaPessoa";
+    private static final JsonFactory JSON_FACTORY = new JsonFactoryBuilder()
+            .rootValueSeparator((String) null)
+            .build();
+
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
     private final Logger logger;
-    private static final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
 
     public StructuredLogger(Class<?> clazz) {
         this.logger = LoggerFactory.getLogger(clazz);
     }
 
+    public Event atInfo(String event) {
+        return logger.isInfoEnabled() ? BUFFER.get().start(logger, Level.INFO, event) : Event.DISABLED;
+    }
+
+    public Event atWarn(String event) {
+        return logger.isWarnEnabled() ? BUFFER.get().start(logger, Level.WARN, event) : Event.DISABLED;
+    }
+
+    public Event atError(String event) {
+        return logger.isErrorEnabled() ? BUFFER.get().start(logger, Level.ERROR, event) : Event.DISABLED;
+    }
+
     public void info(String event, Map<String, Object> ctx) {
-        log("INFO", event, ctx, null);
+        atInfo(event).fields(ctx).log();
     }
 
     public void warn(String event, Map<String, Object> ctx) {
-        log("WARN", event, ctx, null);
+        atWarn(event).fields(ctx).log();
     }
 
     public void error(String event, Map<String, Object> ctx, Throwable t) {
-        log("ERROR", event, ctx, t);
-    }
-
-    private void log(String level, String event, Map<String, Object> ctx, Throwable t) {
-        try {
-            Map<String, Object> log = new HashMap<>();
-            log.put("timestamp", Instant.now().toString());
-            log.put("level", level);
-            log.put("event", event);
-            log.put("service", "ValidaPessoa");
-            if (ctx != null) log.putAll(ctx);
-            if (t != null) {
-                Map<String, Object> err = new HashMap<>();
-                err.put("class", t.getClass().getName());
-                err.put("message", t.getMessage());
-                log.put("exception", err);
-            }
-            String json = mapper.writeValueAsString(log);
-            if ("ERROR".equals(level)) {
-                if (t != null) logger.error(json, t);
-                else logger.error(json);
-            } else if ("WARN".equals(level)) {
-                logger.warn(json);
-            } else {
-                logger.info(json);
-            }
-        } catch (Exception e) {
-            logger.error("Log failed", e);
+        atError(event).fields(ctx).exception(t).log();
+    }
+
+    enum Level {
+        INFO, WARN, ERROR
+    }
+
+    /**
+     * Evento em construção. A instância é reaproveitada pela thread: deve ser usada em sequência
+     * e encerrada com {@link #log()}, sem ser guardada.
+     */
+    public static class Event {
+
+        static final Event DISABLED = new Event(null);
+
+        private final Buffer buffer;
+
+        Event(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public Event field(String name, String value) {
+            if (buffer != null) {
+                buffer.write(name, value);
+            }
+            return this;
+        }
+
+        public Event field(String name, long value) {
+            if (buffer != null) {
+                buffer.write(name, value);
+            }
+            return this;
+        }
+
+        public Event field(String name, Object value) {
+            if (buffer != null) {
+                buffer.write(name, value);
+            }
+            return this;
+        }
+
+        public Event fields(Map<String, Object> ctx) {
+            if (buffer != null && ctx != null) {
+                ctx.forEach(buffer::write);
+            }
+            return this;
+        }
+
+        public Event exception(Throwable t) {
+            if (buffer != null && t != null) {
+                buffer.exception(t);
+            }
+            return this;
+        }
+
+        public void log() {
+            if (buffer != null) {
+                buffer.finish();
+            }
+        }
+    }
+
+    /**
+     * Estado por thread: o gerador JSON, o texto acumulado e o prefixo do timestamp do segundo corrente.
+     */
+    static final class Buffer extends Writer {
+
+        private final StringBuilder text = new StringBuilder(512);
+        private JsonGenerator generator;
+        private final Event event = new Event(this);
+        private final char[] timestamp = new char[24];
+        private long currentSecond = Long.MIN_VALUE;
+
+        private Logger logger;
+        private Level level;
+        private Throwable throwable;
+        private IOException failure;
+
+        Buffer() {
+            this.generator = newGenerator();
+        }
+
+        private JsonGenerator newGenerator() {
+            try {
+                return JSON_FACTORY.createGenerator(this);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        Event start(Logger logger, Level level, String name) {
+            if (!generator.getOutputContext().inRoot()) {
+                // Evento anterior não foi encerrado (ex.: exceção no meio da montagem); descarta o que ficou
+                generator = newGenerator();
+            }
+            this.logger = logger;
+            this.level = level;
+            this.throwable = null;
+            this.failure = null;
+            text.setLength(0);
+            try {
+                generator.writeStartObject();
+                writeTimestamp(System.currentTimeMillis());
+                generator.writeStringField("level", level.name());
+                generator.writeStringField("event", name);
+                generator.writeStringField("service", SERVICE);
+            } catch (IOException e) {
+                failure = e;
+            }
+            return event;
+        }
+
+        void write(String name, String value) {
+            if (failure != null) {
+                return;
+            }
+            try {
+                generator.writeFieldName(name);
+                if (value == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeString(value);
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        void write(String name, long value) {
+            if (failure != null) {
+                return;
+            }
+            try {
+                generator.writeNumberField(name, value);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        void write(String name, Object value) {
+            if (failure != null) {
+                return;
+            }
+            try {
+                if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                    generator.writeNumberField(name, ((Number) value).longValue());
+                } else if (value instanceof Number number) {
+                    generator.writeFieldName(name);
+                    generator.writeNumber(number.toString());
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBooleanField(name, bool);
+                } else {
+                    write(name, value == null ? null : value.toString());
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        void exception(Throwable t) {
+            if (failure != null) {
+                return;
+            }
+            throwable = t;
+            try {
+                generator.writeObjectFieldStart("exception");
+                generator.writeStringField("class", t.getClass().getName());
+                generator.writeStringField("message", t.getMessage());
+                generator.writeEndObject();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        void finish() {
+            if (failure == null) {
+                try {
+                    generator.writeEndObject();
+                    generator.flush();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                // Logging nunca deve interromper a requisição
+                logger.error("Log failed", failure);
+                generator = newGenerator();
+                logger = null;
+                return;
+            }
+            String json = text.toString();
+            switch (level) {
+                case ERROR -> {
+                    if (throwable != null) {
+                        logger.error(json, throwable);
+                    } else {
+                        logger.error(json);
+                    }
+                }
+                case WARN -> logger.warn(json);
+                default -> logger.info(json);
+            }
+            logger = null;
+            throwable = null;
+        }
+
+        /**
+         * Escreve o instante no formato ISO-8601 com milissegundos ({@code 2024-01-01T12:00:00.000Z}),
+         * recalculando a parte de data e hora apenas quando o segundo muda.
+         */
+        private void writeTimestamp(long epochMillis) throws IOException {
+            long second = Math.floorDiv(epochMillis, 1000);
+            if (second != currentSecond) {
+                String prefix = LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC).toString();
+                // LocalDateTime omite os segundos quando são zero ("2024-01-01T12:00")
+                if (prefix.length() == 16) {
+                    prefix += ":00";
+                }
+                prefix.getChars(0, 19, timestamp, 0);
+                timestamp[19] = '.';
+                timestamp[23] = 'Z';
+                currentSecond = second;
+            }
+            int millis = (int) Math.floorMod(epochMillis, 1000);
+            timestamp[20] = (char) ('0' + millis / 100);
+            timestamp[21] = (char) ('0' + millis / 10 % 10);
+            timestamp[22] = (char) ('0' + millis % 10);
+            generator.writeFieldName("timestamp");
+            generator.writeString(timestamp, 0, timestamp.length);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            text.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            text.append(str, off, off + len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
         }
     }
 }
@@ -8,19 +8,7 @@ public class DocumentoValidator {
      * @return true if valid, false otherwise
      */
     public boolean isValid(String document) {
-        if (document == null || document.isEmpty()) {
-            return false;
-        }
-
-        String cleanDoc = document.replaceAll("\\D", "");
-
-        if (cleanDoc.length() == 11) {
-            return isValidCPF(cleanDoc);
-        } else if (cleanDoc.length() == 14) {
-            return isValidCNPJ(cleanDoc);
-        }
-
-        return false;
+        return ValidadorDocumento.identificar(document) != ValidadorDocumento.Tipo.INVALIDO;
     }
 
     /**
@@ -79,65 +67,13 @@ public class DocumentoValidator {
      * Static method for CPF validation (for backward compatibility)
      */
     public static boolean isValidCPF(String cpf) {
-        if (cpf == null || cpf.isEmpty()) return false;
-
-        cpf = cpf.replaceAll("\\D", "");
-        if (cpf.length() != 11) return false;
-        if (cpf.matches("(\\d)\\1{10}")) return false;
-
-        try {
-            int sum = 0;
-            for (int i = 0; i < 9; i++) {
-                sum += Character.getNumericValue(cpf.charAt(i)) * (10 - i);
-            }
-            int fd = 11 - (sum % 11);
-            if (fd >= 10) fd = 0;
-            if (fd != Character.getNumericValue(cpf.charAt(9))) return false;
-
-            sum = 0;
-            for (int i = 0; i < 10; i++) {
-                sum += Character.getNumericValue(cpf.charAt(i)) * (11 - i);
-            }
-            int sd = 11 - (sum % 11);
-            if (sd >= 10) sd = 0;
-
-            return sd == Character.getNumericValue(cpf.charAt(10));
-        } catch (Exception e) {
-            return false;
-        }
+        return ValidadorDocumento.identificar(cpf) == ValidadorDocumento.Tipo.CPF;
     }
 
     /**
      * Validates CNPJ
      */
     public static boolean isValidCNPJ(String cnpj) {
-        if (cnpj == null || cnpj.isEmpty()) return false;
-
-        cnpj = cnpj.replaceAll("\\D", "");
-        if (cnpj.length() != 14) return false;
-        if (cnpj.matches("(\\d)\\1{13}")) return false;
-
-        try {
-            // First check digit
-            int sum = 0;
-            int[] weights1 = {5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
-            for (int i = 0; i < 12; i++) {
-                sum += Character.getNumericValue(cnpj.charAt(i)) * weights1[i];
-            }
-            int firstDigit = sum % 11 < 2 ? 0 : 11 - (sum % 11);
-            if (firstDigit != Character.getNumericValue(cnpj.charAt(12))) return false;
-
-            // Second check digit
-            sum = 0;
-            int[] weights2 = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
-            for (int i = 0; i < 13; i++) {
-                sum += Character.getNumericValue(cnpj.charAt(i)) * weights2[i];
-            }
-            int secondDigit = sum % 11 < 2 ? 0 : 11 - (sum % 11);
-
-            return secondDigit == Character.getNumericValue(cnpj.charAt(13));
-        } catch (Exception e) {
-            return false;
-        }
+        return ValidadorDocumento.identificar(cnpj) == ValidadorDocumento.Tipo.CNPJ;
     }
 }
@@ -0,0 +1,160 @@
+package lambdavalida.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom dos documentos cadastrados em {@code pessoas}.
+ *
+ * {@link #podeConter(CharSequence)} nunca retorna {@code false} para um documento adicionado;
+ * retorna {@code true} para um documento não adicionado com probabilidade próxima da taxa de
+ * falso positivo usada no dimensionamento, enquanto a quantidade de documentos não passar da
+ * capacidade. Os bits ficam em um {@link AtomicLongArray} para que as consultas enxerguem as
+ * inclusões feitas pela atualização incremental sem bloqueio.
+ *
+ * O snapshot ({@link #gravar(DataOutputStream)}) guarda apenas os bits, o dimensionamento e a
+ * marca d'água ({@code created_at} mais recente incluído).
+ */
+final class FiltroBloom {
+
+    private static final int VERSAO_SNAPSHOT = 0x424C4D01;
+    private static final long SEMENTE = 0xCBF29CE484222325L;
+    private static final long PRIMO = 0x100000001B3L;
+
+    private final AtomicLongArray palavras;
+    private final long totalBits;
+    private final int funcoesHash;
+    private final int capacidade;
+    private volatile int quantidade;
+    private volatile long marcaDagua;
+
+    private FiltroBloom(long[] palavras, int funcoesHash, int capacidade, int quantidade, long marcaDagua) {
+        this.palavras = new AtomicLongArray(palavras);
+        this.totalBits = (long) palavras.length * Long.SIZE;
+        this.funcoesHash = funcoesHash;
+        this.capacidade = capacidade;
+        this.quantidade = quantidade;
+        this.marcaDagua = marcaDagua;
+    }
+
+    /**
+     * Dimensiona o filtro para {@code capacidade} documentos com a taxa de falso positivo desejada
+     * (m = -n ln p / ln²2 bits e k = m/n ln 2 funções de hash).
+     */
+    static FiltroBloom dimensionar(int capacidade, double taxaFalsoPositivo) {
+        int n = Math.max(capacidade, 1);
+        long bits = (long) Math.ceil(-n * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        int funcoesHash = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+        int tamanho = (int) Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+        return new FiltroBloom(new long[tamanho], funcoesHash, n, 0, 0);
+    }
+
+    void adicionar(CharSequence documento) {
+        long h1 = hash(documento);
+        long h2 = misturar(h1 + 0x9E3779B97F4A7C15L) | 1;
+        boolean novo = false;
+        for (int i = 0; i < funcoesHash; i++) {
+            long bit = Math.floorMod(h1 + i * h2, totalBits);
+            int indice = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            if ((palavras.get(indice) & mascara) == 0) {
+                palavras.getAndAccumulate(indice, mascara, (atual, m) -> atual | m);
+                novo = true;
+            }
+        }
+        if (novo) {
+            quantidade++;
+        }
+    }
+
+    boolean podeConter(CharSequence documento) {
+        long h1 = hash(documento);
+        long h2 = misturar(h1 + 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcoesHash; i++) {
+            long bit = Math.floorMod(h1 + i * h2, totalBits);
+            if ((palavras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Taxa de falso positivo esperada para a ocupação atual: (bits ligados / total de bits)^k.
+     */
+    double taxaFalsoPositivoEstimada() {
+        long ligados = 0;
+        for (int i = 0; i < palavras.length(); i++) {
+            ligados += Long.bitCount(palavras.get(i));
+        }
+        return Math.pow((double) ligados / totalBits, funcoesHash);
+    }
+
+    boolean saturado() {
+        return quantidade > capacidade;
+    }
+
+    int quantidade() {
+        return quantidade;
+    }
+
+    long marcaDagua() {
+        return marcaDagua;
+    }
+
+    void avancarMarcaDagua(long instante) {
+        if (instante > marcaDagua) {
+            marcaDagua = instante;
+        }
+    }
+
+    void gravar(DataOutputStream saida) throws IOException {
+        saida.writeInt(VERSAO_SNAPSHOT);
+        saida.writeInt(funcoesHash);
+        saida.writeInt(capacidade);
+        saida.writeInt(quantidade);
+        saida.writeLong(marcaDagua);
+        saida.writeInt(palavras.length());
+        for (int i = 0; i < palavras.length(); i++) {
+            saida.writeLong(palavras.get(i));
+        }
+    }
+
+    static FiltroBloom ler(DataInputStream entrada) throws IOException {
+        if (entrada.readInt() != VERSAO_SNAPSHOT) {
+            throw new IOException("Snapshot do filtro de pessoas em formato desconhecido");
+        }
+        int funcoesHash = entrada.readInt();
+        int capacidade = entrada.readInt();
+        int quantidade = entrada.readInt();
+        long marcaDagua = entrada.readLong();
+        long[] palavras = new long[entrada.readInt()];
+        for (int i = 0; i < palavras.length; i++) {
+            palavras[i] = entrada.readLong();
+        }
+        return new FiltroBloom(palavras, funcoesHash, capacidade, quantidade, marcaDagua);
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre os caracteres, seguido do finalizador do MurmurHash3 para espalhar
+     * os bits de documentos que diferem só no final.
+     */
+    private static long hash(CharSequence documento) {
+        long h = SEMENTE;
+        for (int i = 0; i < documento.length(); i++) {
+            h = (h ^ documento.charAt(i)) * PRIMO;
+        }
+        return misturar(h);
+    }
+
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -9,7 +9,9 @@ import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 public class JWTService {
     private static final String SECRET = System.getenv().getOrDefault("JWT_SECRET", "my-secret-key-for-jwt-token-generation-must-be-at-least-256-bits-long");
@@ -20,8 +22,23 @@ public class JWTService {
     }
 
     public String generateToken(Pessoa pessoa) {
+        return generateToken(pessoa, Instant.now());
+    }
+
+    /**
+     * Gera os tokens de um lote com a mesma chave e o mesmo instante de emissão.
+     */
+    public List<String> generateTokens(List<Pessoa> pessoas) {
+        Instant now = Instant.now();
+        List<String> tokens = new ArrayList<>(pessoas.size());
+        for (Pessoa pessoa : pessoas) {
+            tokens.add(generateToken(pessoa, now));
+        }
+        return tokens;
+    }
+
+    private String generateToken(Pessoa pessoa, Instant now) {
         try {
-            Instant now = Instant.now();
             Instant exp = now.plus(1, ChronoUnit.HOURS);
 
             return Jwts.builder()
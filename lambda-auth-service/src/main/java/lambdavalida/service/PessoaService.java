@@ -2,64 +2,511 @@ package lambdavalida.service;
 
 import com.newrelic.api.agent.NewRelic;
 import lambdavalida.model.Pessoa;
+import lambdavalida.monitoring.MetricsCollector;
 
-import java.util.UUID;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
 
+/**
+ * Busca pessoas na tabela {@code pessoas} do RDS PostgreSQL.
+ *
+ * A conexão JDBC e o prepared statement são abertos na primeira consulta e reaproveitados
+ * enquanto o container da Lambda estiver quente. Se a conexão cair (ex.: container congelado
+ * por muito tempo), ela é reaberta e a consulta é repetida uma vez.
+ *
+ * Pessoas encontradas ficam em um cache local com TTL curto, para que logins repetidos do
+ * mesmo documento não voltem ao banco. Documentos não encontrados não são cacheados, para que
+ * um cadastro novo possa autenticar imediatamente.
+ *
+ * Opcionalmente, um {@link FiltroBloom} com todos os documentos cadastrados responde antes do
+ * banco: documento que o filtro garante não existir retorna {@code null} sem consulta, o que
+ * protege o banco de rajadas de documentos válidos mas não cadastrados. O filtro é carregado
+ * do snapshot em {@code PESSOA_BLOOM_SNAPSHOT} (ou de uma leitura completa da coluna
+ * {@code numero_documento}) e atualizado de forma incremental pelos cadastros com
+ * {@code created_at} ou {@code updated_at} posterior à sua marca d'água, para que um documento
+ * corrigido em um cadastro existente também entre no filtro. Antes de rejeitar um documento, a
+ * atualização incremental é feita se o intervalo {@code PESSOA_BLOOM_REFRESH_SECONDS} já
+ * passou; assim um cadastro novo é reconhecido em no máximo um intervalo, e uma rajada de
+ * documentos inexistentes gera no máximo uma consulta por intervalo.
+ */
 public class PessoaService {
-    public PessoaService() {}
+
+    static final String QUERY = "SELECT id, numero_documento, tipo_pessoa, name, email, cargo, perfil, ativo "
+            + "FROM pessoas WHERE numero_documento = ?";
+    static final String QUERY_LOTE = "SELECT id, numero_documento, tipo_pessoa, name, email, cargo, perfil, ativo "
+            + "FROM pessoas WHERE numero_documento = ANY(?)";
+
+    private static final Duration TTL_PADRAO = Duration.ofSeconds(60);
+    private static final int CAPACIDADE_CACHE = 1_000;
+    private static final int QUERY_TIMEOUT_SEGUNDOS = 5;
+
+    static final String QUERY_CONTAGEM = "SELECT COUNT(*) FROM pessoas";
+    // A marca d'água avança pela última alteração: updated_at, ou created_at em cadastros sem alteração
+    static final String QUERY_DOCUMENTOS = "SELECT numero_documento, COALESCE(updated_at, created_at) FROM pessoas";
+    static final String QUERY_DOCUMENTOS_NOVOS = QUERY_DOCUMENTOS + " WHERE created_at >= ? OR updated_at >= ?";
+
+    private static final Duration ATUALIZACAO_FILTRO_PADRAO = Duration.ofSeconds(10);
+    private static final double TAXA_FALSO_POSITIVO = 0.01;
+    // Folga para os cadastros feitos até a próxima carga completa
+    private static final int FATOR_CAPACIDADE_FILTRO = 2;
+    private static final int CAPACIDADE_MINIMA_FILTRO = 1_024;
+    // Transações confirmadas depois da leitura podem ter created_at/updated_at anterior à marca d'água
+    private static final long MARGEM_MARCA_DAGUA_MS = Duration.ofMinutes(1).toMillis();
+
+    /**
+     * Abre uma nova conexão JDBC.
+     */
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private record Entrada(Pessoa pessoa, long expiraEm) {
+    }
+
+    /**
+     * Resultado do filtro de Bloom para um documento.
+     */
+    private enum Triagem {
+        REJEITADO, APROVADO, SEM_FILTRO
+    }
+
+    private final ConnectionFactory connectionFactory;
+    private final long ttlNanos;
+    private final MetricsCollector metricsCollector;
+    private final LongSupplier relogio;
+    private final Map<String, Entrada> cache = new ConcurrentHashMap<>();
+    private final long atualizacaoFiltroNanos;
+    private final Path snapshotFiltro;
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private PreparedStatement statementLote;
+    private PreparedStatement statementDocumentosNovos;
+    private volatile FiltroBloom filtro;
+    private volatile long proximaAtualizacaoFiltro;
+
+    public PessoaService(MetricsCollector metricsCollector) {
+        this(conexaoPorVariaveisDeAmbiente(), ttlPorVariavelDeAmbiente(), metricsCollector, System::nanoTime,
+                atualizacaoFiltroPorVariavelDeAmbiente(), snapshotFiltroPorVariavelDeAmbiente());
+    }
+
+    /**
+     * Serviço sem filtro de Bloom: todo documento fora do cache é consultado no banco.
+     */
+    public PessoaService(String jdbcUrl, String usuario, String senha, Duration ttl, MetricsCollector metricsCollector) {
+        this(() -> DriverManager.getConnection(jdbcUrl, usuario, senha), ttl, metricsCollector, System::nanoTime);
+    }
+
+    PessoaService(ConnectionFactory connectionFactory, Duration ttl, MetricsCollector metricsCollector,
+                  LongSupplier relogio) {
+        this(connectionFactory, ttl, metricsCollector, relogio, Duration.ZERO, null);
+    }
+
+    /**
+     * @param atualizacaoFiltro Intervalo mínimo entre atualizações do filtro de Bloom; zero desliga o filtro
+     * @param snapshotFiltro    Arquivo do snapshot do filtro, ou {@code null} para sempre carregar do banco
+     */
+    PessoaService(ConnectionFactory connectionFactory, Duration ttl, MetricsCollector metricsCollector,
+                  LongSupplier relogio, Duration atualizacaoFiltro, Path snapshotFiltro) {
+        this.connectionFactory = connectionFactory;
+        this.ttlNanos = ttl.toNanos();
+        this.metricsCollector = metricsCollector;
+        this.relogio = relogio;
+        this.atualizacaoFiltroNanos = atualizacaoFiltro.toNanos();
+        this.snapshotFiltro = snapshotFiltro;
+        this.proximaAtualizacaoFiltro = relogio.getAsLong();
+    }
 
     public Pessoa findByDocumento(String documento) {
-        try {
-            // Simulação: buscar do banco de dados RDS PostgreSQL
-            // TODO: Implementar consulta real ao banco de dados
-            // Query: SELECT * FROM pessoas WHERE numero_documento = ?
-            
-            // Exemplo de pessoa física (CPF)
-            if ("11144477735".equals(documento)) {
-                return new Pessoa(
-                    "550e8400-e29b-41d4-a716-446655440000",  // ID da pessoa no banco
-                    documento,
-                    "FISICA",      // FISICA ou JURIDICA
-                    "João Silva",
-                    "joao@example.com",
-                    null,          // cargo (opcional)
-                    "CLIENTE",     // CLIENTE, MECANICO ou ADMIN
-                    "ACTIVE"
-                );
-            }
-            
-            // Exemplo de mecânico/admin para testes
-            if ("12345678900".equals(documento)) {
-                return new Pessoa(
-                    "660e8400-e29b-41d4-a716-446655440001",
-                    documento,
-                    "FISICA",
-                    "Maria Oliveira",
-                    "maria@oficina.com",
-                    "Mecânica",    // cargo
-                    "MECANICO",    // Mecânico tem acesso total
-                    "ACTIVE"
-                );
-            }
-            
-            // Exemplo de pessoa jurídica (CNPJ)
-            if ("12345678000190".equals(documento)) {
-                return new Pessoa(
-                    "770e8400-e29b-41d4-a716-446655440002",
-                    documento,
-                    "JURIDICA",
-                    "Empresa XYZ Ltda",
-                    "contato@empresaxyz.com",
-                    null,
-                    "CLIENTE",
-                    "ACTIVE"
-                );
-            }
-            
+        long agora = relogio.getAsLong();
+        Entrada entrada = cache.get(documento);
+        if (entrada != null && agora - entrada.expiraEm() < 0) {
+            metricsCollector.recordPessoaCacheHit();
+            return entrada.pessoa();
+        }
+        metricsCollector.recordPessoaCacheMiss();
+
+        Triagem triagem = triar(documento, agora);
+        if (triagem == Triagem.REJEITADO) {
             return null;
-        } catch (Exception e) {
+        }
+
+        try {
+            Pessoa pessoa = consultar(documento);
+            if (pessoa == null && triagem == Triagem.APROVADO) {
+                metricsCollector.recordPessoaBloomFalsePositive();
+            }
+            if (pessoa != null) {
+                cachear(documento, pessoa, agora);
+            }
+            return pessoa;
+        } catch (SQLException e) {
             NewRelic.noticeError(e);
             throw new RuntimeException("Pessoa query failed", e);
         }
     }
+
+    /**
+     * Resolve vários documentos de uma vez: os que estão no cache ou que o filtro de Bloom descarta
+     * não vão ao banco, e os demais são buscados em uma única consulta
+     * {@code WHERE numero_documento = ANY(?)}.
+     *
+     * @return Pessoas encontradas, por documento; documentos não encontrados ficam fora do mapa
+     */
+    public Map<String, Pessoa> findByDocumentos(Collection<String> documentos) {
+        long agora = relogio.getAsLong();
+        Map<String, Pessoa> encontradas = new HashMap<>();
+        List<String> pendentes = new ArrayList<>();
+        List<String> aprovadosPeloFiltro = new ArrayList<>();
+
+        for (String documento : new LinkedHashSet<>(documentos)) {
+            Entrada entrada = cache.get(documento);
+            if (entrada != null && agora - entrada.expiraEm() < 0) {
+                metricsCollector.recordPessoaCacheHit();
+                encontradas.put(documento, entrada.pessoa());
+                continue;
+            }
+            metricsCollector.recordPessoaCacheMiss();
+
+            Triagem triagem = triar(documento, agora);
+            if (triagem == Triagem.APROVADO) {
+                aprovadosPeloFiltro.add(documento);
+            }
+            if (triagem != Triagem.REJEITADO) {
+                pendentes.add(documento);
+            }
+        }
+        if (pendentes.isEmpty()) {
+            return encontradas;
+        }
+
+        try {
+            for (Pessoa pessoa : consultarLote(pendentes.toArray(new String[0]))) {
+                encontradas.put(pessoa.getNumeroDocumento(), pessoa);
+                cachear(pessoa.getNumeroDocumento(), pessoa, agora);
+            }
+        } catch (SQLException e) {
+            NewRelic.noticeError(e);
+            throw new RuntimeException("Pessoa batch query failed", e);
+        }
+        for (String documento : aprovadosPeloFiltro) {
+            if (!encontradas.containsKey(documento)) {
+                metricsCollector.recordPessoaBloomFalsePositive();
+            }
+        }
+        return encontradas;
+    }
+
+    private Triagem triar(String documento, long agora) {
+        if (atualizacaoFiltroNanos <= 0) {
+            return Triagem.SEM_FILTRO;
+        }
+        FiltroBloom atual = filtro;
+        if ((atual == null || !atual.podeConter(documento)) && agora - proximaAtualizacaoFiltro >= 0) {
+            // Sem filtro ou prestes a rejeitar: atualiza antes, já que o intervalo passou
+            atual = atualizarFiltroSeNecessario(agora);
+        }
+        if (atual == null) {
+            return Triagem.SEM_FILTRO;
+        }
+        if (!atual.podeConter(documento)) {
+            metricsCollector.recordPessoaBloomRejection();
+            return Triagem.REJEITADO;
+        }
+        return Triagem.APROVADO;
+    }
+
+    private void cachear(String documento, Pessoa pessoa, long agora) {
+        if (ttlNanos > 0) {
+            if (cache.size() >= CAPACIDADE_CACHE) {
+                cache.clear();
+            }
+            cache.put(documento, new Entrada(pessoa, agora + ttlNanos));
+        }
+    }
+
+    private synchronized Pessoa consultar(String documento) throws SQLException {
+        try {
+            return executar(documento);
+        } catch (SQLException e) {
+            // A conexão reaproveitada pode ter sido encerrada pelo banco enquanto o container estava congelado
+            fecharConexao();
+            return executar(documento);
+        }
+    }
+
+    private Pessoa executar(String documento) throws SQLException {
+        if (statement == null) {
+            statement = preparar(QUERY);
+        }
+        statement.setString(1, documento);
+        try (ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? mapear(rs) : null;
+        }
+    }
+
+    private synchronized List<Pessoa> consultarLote(String[] documentos) throws SQLException {
+        try {
+            return executarLote(documentos);
+        } catch (SQLException e) {
+            fecharConexao();
+            return executarLote(documentos);
+        }
+    }
+
+    private List<Pessoa> executarLote(String[] documentos) throws SQLException {
+        if (statementLote == null) {
+            statementLote = preparar(QUERY_LOTE);
+        }
+        Array parametro = connection.createArrayOf("varchar", documentos);
+        try {
+            statementLote.setArray(1, parametro);
+            List<Pessoa> pessoas = new ArrayList<>(documentos.length);
+            try (ResultSet rs = statementLote.executeQuery()) {
+                while (rs.next()) {
+                    pessoas.add(mapear(rs));
+                }
+            }
+            return pessoas;
+        } finally {
+            parametro.free();
+        }
+    }
+
+    /**
+     * Prepara uma consulta na conexão reaproveitada, abrindo-a se necessário.
+     */
+    private PreparedStatement preparar(String sql) throws SQLException {
+        if (connection == null) {
+            connection = connectionFactory.open();
+        }
+        PreparedStatement preparado = connection.prepareStatement(sql);
+        preparado.setQueryTimeout(QUERY_TIMEOUT_SEGUNDOS);
+        return preparado;
+    }
+
+    private static Pessoa mapear(ResultSet rs) throws SQLException {
+        return new Pessoa(
+                rs.getString("id"),
+                rs.getString("numero_documento"),
+                rs.getString("tipo_pessoa"),
+                rs.getString("name"),
+                rs.getString("email"),
+                rs.getString("cargo"),
+                rs.getString("perfil"),
+                rs.getBoolean("ativo") ? "ACTIVE" : "INACTIVE"
+        );
+    }
+
+    /**
+     * Carrega o filtro na primeira chamada e depois aplica os cadastros novos, no máximo uma vez
+     * por intervalo. Falhas são registradas e mantêm o filtro anterior; sem filtro, as consultas
+     * seguem direto para o banco.
+     */
+    private synchronized FiltroBloom atualizarFiltroSeNecessario(long agora) {
+        if (agora - proximaAtualizacaoFiltro < 0) {
+            return filtro;
+        }
+        proximaAtualizacaoFiltro = agora + atualizacaoFiltroNanos;
+        try {
+            FiltroBloom atual = filtro;
+            if (atual == null || atual.saturado()) {
+                atual = carregarFiltro();
+            }
+            incluirDocumentosNovos(atual);
+            filtro = atual;
+            metricsCollector.recordPessoaBloomExpectedFpp(atual.taxaFalsoPositivoEstimada());
+        } catch (SQLException e) {
+            NewRelic.noticeError(e);
+            fecharConexao();
+        }
+        return filtro;
+    }
+
+    private FiltroBloom carregarFiltro() throws SQLException {
+        if (snapshotFiltro != null && Files.isReadable(snapshotFiltro)) {
+            try (DataInputStream entrada = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFiltro)))) {
+                FiltroBloom lido = FiltroBloom.ler(entrada);
+                if (!lido.saturado()) {
+                    return lido;
+                }
+            } catch (IOException e) {
+                // Snapshot ilegível: recarrega do banco e o sobrescreve
+                NewRelic.noticeError(e);
+            }
+        }
+        FiltroBloom carregado = carregarFiltroDoBanco();
+        if (snapshotFiltro != null) {
+            gravarSnapshot(carregado);
+        }
+        return carregado;
+    }
+
+    /**
+     * Lê a coluna de documentos inteira em uma conexão própria, com fetch size para que o driver
+     * do PostgreSQL traga as linhas em lotes em vez de materializar a tabela.
+     */
+    private FiltroBloom carregarFiltroDoBanco() throws SQLException {
+        try (Connection leitura = connectionFactory.open()) {
+            leitura.setAutoCommit(false);
+            int total;
+            try (PreparedStatement contagem = leitura.prepareStatement(QUERY_CONTAGEM);
+                 ResultSet rs = contagem.executeQuery()) {
+                rs.next();
+                total = rs.getInt(1);
+            }
+            FiltroBloom novo = FiltroBloom.dimensionar(
+                    Math.max(total * FATOR_CAPACIDADE_FILTRO, CAPACIDADE_MINIMA_FILTRO), TAXA_FALSO_POSITIVO);
+            try (PreparedStatement documentos = leitura.prepareStatement(QUERY_DOCUMENTOS)) {
+                documentos.setFetchSize(10_000);
+                incluir(novo, documentos);
+            }
+            leitura.commit();
+            return novo;
+        }
+    }
+
+    private void incluirDocumentosNovos(FiltroBloom atual) throws SQLException {
+        if (statementDocumentosNovos == null) {
+            statementDocumentosNovos = preparar(QUERY_DOCUMENTOS_NOVOS);
+        }
+        Timestamp desde = new Timestamp(atual.marcaDagua() - MARGEM_MARCA_DAGUA_MS);
+        statementDocumentosNovos.setTimestamp(1, desde);
+        statementDocumentosNovos.setTimestamp(2, desde);
+        incluir(atual, statementDocumentosNovos);
+    }
+
+    private static void incluir(FiltroBloom destino, PreparedStatement documentos) throws SQLException {
+        try (ResultSet rs = documentos.executeQuery()) {
+            while (rs.next()) {
+                destino.adicionar(rs.getString(1));
+                Timestamp alteradoEm = rs.getTimestamp(2);
+                if (alteradoEm != null) {
+                    destino.avancarMarcaDagua(alteradoEm.getTime());
+                }
+            }
+        }
+    }
+
+    private void gravarSnapshot(FiltroBloom atual) {
+        try {
+            Path temporario = Files.createTempFile(snapshotFiltro.toAbsolutePath().getParent(), "pessoas", ".bloom");
+            try (DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+                atual.gravar(saida);
+            }
+            Files.move(temporario, snapshotFiltro, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // O snapshot só acelera a próxima inicialização; o filtro em memória continua válido
+            NewRelic.noticeError(e);
+        }
+    }
+
+    /**
+     * Abre a conexão e executa a consulta uma vez, sem passar pelo cache nem pelas métricas,
+     * para que a primeira invocação real já encontre driver, conexão e statement prontos.
+     * Também carrega o filtro de Bloom, quando habilitado.
+     */
+    public void aquecer() {
+        try {
+            consultar("00000000000");
+        } catch (SQLException e) {
+            fechar();
+            throw new RuntimeException("Pessoa warm-up failed", e);
+        }
+        if (atualizacaoFiltroNanos > 0 && filtro == null) {
+            atualizarFiltroSeNecessario(relogio.getAsLong());
+        }
+    }
+
+    /**
+     * Fecha a conexão reaproveitada; a próxima consulta abre uma nova.
+     */
+    public synchronized void fechar() {
+        fecharConexao();
+    }
+
+    private void fecharConexao() {
+        try {
+            if (connection != null) {
+                connection.close();
+            }
+        } catch (SQLException ignored) {
+            // A conexão já está inutilizável; basta descartá-la
+        } finally {
+            connection = null;
+            statement = null;
+            statementLote = null;
+            statementDocumentosNovos = null;
+        }
+    }
+
+    /**
+     * Descarta o cache local (ex.: após alteração de perfil ou status de uma pessoa em testes).
+     */
+    public void limparCache() {
+        cache.clear();
+    }
+
+    private static ConnectionFactory conexaoPorVariaveisDeAmbiente() {
+        String url = urlPorVariaveisDeAmbiente();
+        String usuario = System.getenv("DB_USER");
+        String senha = System.getenv("DB_PASSWORD");
+        return () -> DriverManager.getConnection(url, usuario, senha);
+    }
+
+    /**
+     * URL JDBC do RDS montada a partir de DB_HOST/DB_PORT/DB_NAME, ou DB_URL quando informada
+     * (ex.: banco local ou H2 em testes).
+     */
+    private static String urlPorVariaveisDeAmbiente() {
+        Map<String, String> env = System.getenv();
+        String url = env.get("DB_URL");
+        if (url != null && !url.isBlank()) {
+            return url;
+        }
+        return String.format("jdbc:postgresql://%s:%s/%s?connectTimeout=5&socketTimeout=10&tcpKeepAlive=true",
+                env.getOrDefault("DB_HOST", "localhost"),
+                env.getOrDefault("DB_PORT", "5432"),
+                env.getOrDefault("DB_NAME", "oficina_db"));
+    }
+
+    private static Duration ttlPorVariavelDeAmbiente() {
+        String ttl = System.getenv("PESSOA_CACHE_TTL_SECONDS");
+        return ttl == null || ttl.isBlank() ? TTL_PADRAO : Duration.ofSeconds(Long.parseLong(ttl.trim()));
+    }
+
+    private static Duration atualizacaoFiltroPorVariavelDeAmbiente() {
+        String segundos = System.getenv("PESSOA_BLOOM_REFRESH_SECONDS");
+        return segundos == null || segundos.isBlank()
+                ? ATUALIZACAO_FILTRO_PADRAO
+                : Duration.ofSeconds(Long.parseLong(segundos.trim()));
+    }
+
+    private static Path snapshotFiltroPorVariavelDeAmbiente() {
+        String caminho = System.getenv("PESSOA_BLOOM_SNAPSHOT");
+        return caminho == null || caminho.isBlank() ? null : Path.of(caminho.trim());
+    }
 }
@@ -2,8 +2,21 @@ package lambdavalida;
 
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lambdavalida.monitoring.EmfMeterRegistry;
+import lambdavalida.monitoring.MetricsCollector;
+import lambdavalida.service.JWTService;
+import lambdavalida.service.PessoaService;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
 import static org.junit.Assert.*;
 
 /**
@@ -43,4 +56,65 @@ public class AppTest {
         assertNotNull("Response should have status code", response.getStatusCode());
         assertNotNull("Response should have body", response.getBody());
     }
+
+    @Test
+    public void testInvocationEmitsSingleEmfLine() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MetricsCollector metrics = new MetricsCollector(new EmfMeterRegistry("OficinaAuth",
+                Map.of("service", "ValidaPessoa"), new PrintStream(out, true, StandardCharsets.UTF_8)));
+        ValidaPessoaFunction function = new ValidaPessoaFunction(
+                new PessoaService("jdbc:h2:mem:app-test", "sa", "", Duration.ZERO, metrics), new JWTService(), metrics, false);
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent();
+        request.setBody("{\"cpf\":\"11144477736\"}");
+
+        function.handleRequest(request, null);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).trim().split("\\R");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].startsWith("{\"_aws\":"));
+        assertTrue(lines[0].contains("\"documento.validation.failure\":1.0"));
+    }
+
+    @Test
+    public void testBatchReturnsOneResultPerDocument() throws Exception {
+        String url = "jdbc:h2:mem:app-batch;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+        PrimingHarness.criarBanco(url);
+        MetricsCollector metrics = new MetricsCollector();
+        ValidaPessoaFunction function = new ValidaPessoaFunction(
+                new PessoaService(url, "sa", "", Duration.ZERO, metrics), new JWTService(), metrics, false);
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent()
+                .withResource(ValidaPessoaFunction.ROTA_LOTE)
+                .withBody("{\"documentos\":[\"11144477735\",\"invalid\",\"52998224725\",\"11144477735\"]}");
+
+        APIGatewayProxyResponseEvent response = function.handleRequest(request, null);
+
+        assertEquals(Integer.valueOf(200), response.getStatusCode());
+        JsonNode resultados = new ObjectMapper().readTree(response.getBody()).get("resultados");
+        assertEquals(4, resultados.size());
+        assertEquals(200, resultados.get(0).get("status").asInt());
+        assertEquals("João Silva", resultados.get(0).get("pessoa").get("name").asText());
+        assertEquals(3, resultados.get(0).get("token").asText().split("\\.").length);
+        assertEquals(400, resultados.get(1).get("status").asInt());
+        assertEquals("invalid", resultados.get(1).get("documento").asText());
+        assertNull(resultados.get(1).get("token"));
+        assertEquals(404, resultados.get(2).get("status").asInt());
+        assertEquals(200, resultados.get(3).get("status").asInt());
+    }
+
+    @Test
+    public void testBatchRejectsEmptyAndOversizedLists() {
+        ValidaPessoaFunction function = new ValidaPessoaFunction(
+                new PessoaService("jdbc:h2:mem:app-test", "sa", "", Duration.ZERO, new MetricsCollector()),
+                new JWTService(), new MetricsCollector(), false);
+        String oversized = String.join(",",
+                Collections.nCopies(ValidaPessoaFunction.TAMANHO_MAXIMO_LOTE + 1, "\"11144477735\""));
+
+        APIGatewayProxyRequestEvent empty = new APIGatewayProxyRequestEvent()
+                .withPath(ValidaPessoaFunction.ROTA_LOTE).withBody("{\"documentos\":[]}");
+        APIGatewayProxyRequestEvent tooLarge = new APIGatewayProxyRequestEvent()
+                .withPath(ValidaPessoaFunction.ROTA_LOTE).withBody("{\"documentos\":[" + oversized + "]}");
+
+        assertEquals(Integer.valueOf(400), function.handleRequest(empty, null).getStatusCode());
+        assertEquals(Integer.valueOf(400), function.handleRequest(tooLarge, null).getStatusCode());
+    }
 }
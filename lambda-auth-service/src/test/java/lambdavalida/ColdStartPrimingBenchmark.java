@@ -0,0 +1,56 @@
+package lambdavalida;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Inicialização e primeira invocação da função em uma JVM nova, com e sem priming, medidas pelo
+ * {@link PrimingHarness}. Roda só com {@code mvn test -P benchmark}.
+ */
+public class ColdStartPrimingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ColdStartPrimingBenchmark.class);
+
+    @Test
+    public void primeiraInvocacaoComESemPriming() throws Exception {
+        long[] frio = executarHarness(false);
+        long[] primado = executarHarness(true);
+
+        log.info("Primeira invocação em JVM nova - sem priming: init {} ms, invocação {} ms; "
+                        + "com priming: init {} ms, invocação {} ms",
+                frio[0] / 1_000_000, frio[1] / 1_000_000, primado[0] / 1_000_000, primado[1] / 1_000_000);
+        assertEquals(200, frio[2]);
+        assertEquals(200, primado[2]);
+    }
+
+    private static long[] executarHarness(boolean primar) throws Exception {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process processo = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                PrimingHarness.class.getName(), String.valueOf(primar))
+                .redirectErrorStream(true)
+                .start();
+        String resultado = null;
+        try (BufferedReader saida = new BufferedReader(
+                new InputStreamReader(processo.getInputStream(), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = saida.readLine()) != null) {
+                if (linha.startsWith("RESULTADO ")) {
+                    resultado = linha;
+                }
+            }
+        }
+        assertTrue(processo.waitFor(2, TimeUnit.MINUTES));
+        assertNotNull("Harness não reportou o resultado", resultado);
+        String[] partes = resultado.split(" ");
+        return new long[]{Long.parseLong(partes[1]), Long.parseLong(partes[2]), Long.parseLong(partes[3])};
+    }
+}
@@ -0,0 +1,49 @@
+package lambdavalida;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import lambdavalida.monitoring.MetricsCollector;
+import lambdavalida.service.JWTService;
+import lambdavalida.service.PessoaService;
+import org.crac.Core;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.Assert.*;
+
+public class ColdStartPrimingTest {
+
+    @Test
+    public void testCheckpointFechaEReabreConexao() throws Exception {
+        String url = "jdbc:h2:mem:crac;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+        PrimingHarness.criarBanco(url);
+        MetricsCollector metrics = new MetricsCollector();
+        ValidaPessoaFunction function = new ValidaPessoaFunction(
+                new PessoaService(url, "sa", "", Duration.ofSeconds(60), metrics), new JWTService(), metrics, true);
+
+        try (Connection admin = DriverManager.getConnection(url, "sa", "")) {
+            assertEquals("Priming deve abrir a conexão", 2, sessoes(admin));
+
+            function.beforeCheckpoint(Core.getGlobalContext());
+            assertEquals(1, sessoes(admin));
+
+            function.afterRestore(Core.getGlobalContext());
+            assertEquals(2, sessoes(admin));
+        }
+
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent().withBody("{\"cpf\":\"11144477735\"}");
+        assertEquals(Integer.valueOf(200), function.handleRequest(request, null).getStatusCode());
+    }
+
+    private static int sessoes(Connection admin) throws Exception {
+        try (Statement st = admin.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package lambdavalida;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import lambdavalida.monitoring.MetricsCollector;
+import lambdavalida.service.JWTService;
+import lambdavalida.service.PessoaService;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Simula o cold start da Lambda em uma JVM nova: cria a função (com ou sem priming) sobre um
+ * H2 em memória e mede a inicialização e a primeira invocação.
+ *
+ * Uso: {@code java -cp <classpath de teste> lambdavalida.PrimingHarness <true|false>}.
+ * Imprime {@code RESULTADO <init_ns> <primeira_invocacao_ns> <status>}.
+ */
+public final class PrimingHarness {
+
+    static final String DB_URL = "jdbc:h2:mem:priming;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    private PrimingHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean primar = Boolean.parseBoolean(args[0]);
+        criarBanco(DB_URL);
+
+        long inicio = System.nanoTime();
+        MetricsCollector metrics = new MetricsCollector();
+        ValidaPessoaFunction function = new ValidaPessoaFunction(
+                new PessoaService(DB_URL, "sa", "", Duration.ofSeconds(60), metrics), new JWTService(), metrics, primar);
+        long init = System.nanoTime() - inicio;
+
+        APIGatewayProxyRequestEvent request = new APIGatewayProxyRequestEvent().withBody("{\"cpf\":\"11144477735\"}");
+        inicio = System.nanoTime();
+        APIGatewayProxyResponseEvent response = function.handleRequest(request, null);
+        long primeiraInvocacao = System.nanoTime() - inicio;
+
+        System.out.println("RESULTADO " + init + " " + primeiraInvocacao + " " + response.getStatusCode());
+    }
+
+    static void criarBanco(String url) throws Exception {
+        try (Connection c = DriverManager.getConnection(url, "sa", "");
+             Statement st = c.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS pessoas (id UUID PRIMARY KEY, numero_documento VARCHAR(14) NOT NULL UNIQUE, "
+                    + "tipo_pessoa VARCHAR(10) NOT NULL, name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, "
+                    + "ativo BOOLEAN NOT NULL, cargo VARCHAR(100), perfil VARCHAR(20) NOT NULL)");
+            st.execute("MERGE INTO pessoas KEY (id) VALUES ('550e8400-e29b-41d4-a716-446655440000', '11144477735', "
+                    + "'FISICA', 'João Silva', 'joao@example.com', TRUE, NULL, 'CLIENTE')");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package lambdavalida.monitoring;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MockClock;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class EmfMeterRegistryTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ByteArrayOutputStream saida = new ByteArrayOutputStream();
+    private final MockClock clock = new MockClock();
+    private EmfMeterRegistry registry;
+    private MetricsCollector metrics;
+
+    @Before
+    public void setUp() {
+        registry = new EmfMeterRegistry("OficinaAuth", Map.of("service", "ValidaPessoa"),
+                new PrintStream(saida, true, StandardCharsets.UTF_8), clock);
+        metrics = new MetricsCollector(registry);
+    }
+
+    private String[] linhas() {
+        String texto = saida.toString(StandardCharsets.UTF_8).trim();
+        return texto.isEmpty() ? new String[0] : texto.split("\\R");
+    }
+
+    @Test
+    public void testEmiteUmaLinhaEmfPorPublicacao() throws Exception {
+        metrics.recordValidationSuccess(2);
+        metrics.recordDatabaseQuery(10);
+        metrics.recordDatabaseQuery(20);
+        metrics.recordSuccessfulAuth(35);
+        metrics.recordError("SQLException");
+
+        metrics.publish();
+
+        String[] linhas = linhas();
+        assertEquals(1, linhas.length);
+        JsonNode json = mapper.readTree(linhas[0]);
+        JsonNode diretiva = json.get("_aws").get("CloudWatchMetrics").get(0);
+        assertEquals(clock.wallTime(), json.get("_aws").get("Timestamp").asLong());
+        assertEquals("OficinaAuth", diretiva.get("Namespace").asText());
+        assertEquals("service", diretiva.get("Dimensions").get(0).get(0).asText());
+        assertEquals("ValidaPessoa", json.get("service").asText());
+
+        assertEquals(1.0, json.get("auth.success").asDouble(), 0.0);
+        assertEquals(15.0, json.get("database.query.duration").asDouble(), 0.0);
+        assertEquals(2.0, json.get("database.query.duration.count").asDouble(), 0.0);
+        assertEquals(1.0, json.get("errors.SQLException").asDouble(), 0.0);
+        assertNull("Métricas sem variação não são emitidas", json.get("auth.failure"));
+
+        // Toda métrica emitida deve estar declarada na diretiva, e vice-versa
+        int declaradas = 0;
+        for (JsonNode metrica : diretiva.get("Metrics")) {
+            assertTrue(metrica.get("Name").asText(), json.has(metrica.get("Name").asText()));
+            declaradas++;
+        }
+        assertEquals(json.size() - 2, declaradas);
+        assertEquals("Milliseconds", unidade(diretiva, "database.query.duration"));
+        assertEquals("Count", unidade(diretiva, "auth.success"));
+    }
+
+    @Test
+    public void testPublicaApenasVariacaoDesdeUltimaLinha() throws Exception {
+        metrics.recordSuccessfulAuth(30);
+        metrics.publish();
+
+        metrics.recordSuccessfulAuth(50);
+        metrics.recordCustomerNotFound();
+        metrics.publish();
+
+        metrics.publish();
+
+        String[] linhas = linhas();
+        assertEquals("Publicação sem variação não gera linha", 2, linhas.length);
+        JsonNode segunda = mapper.readTree(linhas[1]);
+        assertEquals(1.0, segunda.get("auth.success").asDouble(), 0.0);
+        assertEquals(50.0, segunda.get("auth.total.duration").asDouble(), 0.0);
+        assertEquals(1.0, segunda.get("auth.failure").asDouble(), 0.0);
+        assertEquals(1.0, segunda.get("pessoa.not_found").asDouble(), 0.0);
+    }
+
+    @Test
+    public void testTimerRegistradoDiretoNoRegistry() throws Exception {
+        registry.timer("custom.duration").record(4, TimeUnit.MILLISECONDS);
+
+        assertNotNull(registry.publish());
+        JsonNode json = mapper.readTree(linhas()[0]);
+        assertEquals(4.0, json.get("custom.duration").asDouble(), 0.0);
+    }
+
+    private static String unidade(JsonNode diretiva, String nome) {
+        for (JsonNode metrica : diretiva.get("Metrics")) {
+            if (nome.equals(metrica.get("Name").asText())) {
+                return metrica.get("Unit").asText();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,136 @@
+package lambdavalida.monitoring;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class StructuredLoggerTest {
+
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(StructuredLoggerTest.class);
+    private static final String CORRELATION_ID = "c0ffee00-1234-4abc-9def-001122334455";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final StructuredLogger logger = new StructuredLogger(StructuredLoggerTest.Alvo.class);
+    private final Logger logback = (Logger) LoggerFactory.getLogger(StructuredLoggerTest.Alvo.class);
+    private final ListAppender<ILoggingEvent> eventos = new ListAppender<>();
+
+    /**
+     * Classe usada apenas como nome do logger testado, isolado dos appenders da aplicação.
+     */
+    static final class Alvo {
+    }
+
+    @Before
+    public void setUp() {
+        logback.setAdditive(false);
+        logback.setLevel(Level.INFO);
+        eventos.start();
+        logback.addAppender(eventos);
+    }
+
+    @After
+    public void tearDown() {
+        logback.detachAndStopAllAppenders();
+        logback.setLevel(null);
+        logback.setAdditive(true);
+    }
+
+    private JsonNode ultimoEvento() throws Exception {
+        return mapper.readTree(eventos.list.get(eventos.list.size() - 1).getFormattedMessage());
+    }
+
+    @Test
+    public void testEscreveCamposDoEvento() throws Exception {
+        logger.atInfo("auth_successful")
+                .field("correlationId", CORRELATION_ID)
+                .field("total_duration_ms", 42L)
+                .field("nulo", (String) null)
+                .field("ativo", (Object) Boolean.TRUE)
+                .log();
+
+        JsonNode json = ultimoEvento();
+        assertTrue(json.get("timestamp").asText().matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}\\.\\d{3}Z"));
+        assertEquals("INFO", json.get("level").asText());
+        assertEquals("auth_successful", json.get("event").asText());
+        assertEquals("ValidaPessoa", json.get("service").asText());
+        assertEquals(CORRELATION_ID, json.get("correlationId").asText());
+        assertEquals(42L, json.get("total_duration_ms").asLong());
+        assertTrue(json.get("nulo").isNull());
+        assertTrue(json.get("ativo").asBoolean());
+        assertEquals(ch.qos.logback.classic.Level.INFO, eventos.list.get(0).getLevel());
+    }
+
+    @Test
+    public void testMantemApiComMapaEExcecao() throws Exception {
+        IllegalStateException erro = new IllegalStateException("falhou \"aqui\"");
+        logger.error("auth_request_failed", Map.of("error", "IllegalStateException", "tentativas", 3), erro);
+
+        JsonNode json = ultimoEvento();
+        assertEquals("ERROR", json.get("level").asText());
+        assertEquals(3, json.get("tentativas").asInt());
+        assertEquals(IllegalStateException.class.getName(), json.get("exception").get("class").asText());
+        assertEquals("falhou \"aqui\"", json.get("exception").get("message").asText());
+        assertSame(erro, ((ch.qos.logback.classic.spi.ThrowableProxy) eventos.list.get(0).getThrowableProxy()).getThrowable());
+    }
+
+    @Test
+    public void testDescartaEventoNaoEncerrado() throws Exception {
+        logger.atInfo("incompleto").field("correlationId", CORRELATION_ID);
+        logger.atWarn("pessoa_not_found").field("correlationId", CORRELATION_ID).log();
+
+        assertEquals(1, eventos.list.size());
+        assertEquals("pessoa_not_found", ultimoEvento().get("event").asText());
+    }
+
+    @Test
+    public void testNaoFazNadaComLevelDesabilitado() {
+        logback.setLevel(Level.WARN);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 10_000; i++) {
+            logger.atInfo("auth_successful").field("correlationId", CORRELATION_ID).field("total_duration_ms", i).log();
+        }
+
+        long antes = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            logger.atInfo("auth_successful").field("correlationId", CORRELATION_ID).field("total_duration_ms", i).log();
+        }
+        long alocado = threads.getCurrentThreadAllocatedBytes() - antes;
+
+        assertTrue(eventos.list.isEmpty());
+        assertTrue("Alocou " + alocado + " bytes", alocado < 1024);
+    }
+
+    @Test
+    public void testAlocacaoPorEvento() {
+        logback.detachAndStopAllAppenders();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < 20_000; i++) {
+            logger.atInfo("auth_successful").field("correlationId", CORRELATION_ID).field("total_duration_ms", i).log();
+        }
+
+        int eventosMedidos = 100_000;
+        long antes = threads.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < eventosMedidos; i++) {
+            logger.atInfo("auth_successful").field("correlationId", CORRELATION_ID).field("total_duration_ms", i).log();
+        }
+        long nanos = (System.nanoTime() - inicio) / eventosMedidos;
+        long bytes = (threads.getCurrentThreadAllocatedBytes() - antes) / eventosMedidos;
+
+        log.info("StructuredLogger por evento (inclui o LoggingEvent do Logback): {} bytes, {} ns", bytes, nanos);
+        // Restam apenas a String da mensagem e o LoggingEvent do Logback
+        assertTrue("Alocou " + bytes + " bytes por evento", bytes < 1024);
+    }
+}
@@ -0,0 +1,77 @@
+package lambdavalida.service;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class FiltroBloomTest {
+
+    private static final int DOCUMENTOS = 100_000;
+
+    private static String documento(long i) {
+        return String.format("%011d", i * 7919 % 100_000_000_000L);
+    }
+
+    @Test
+    public void testSemFalsoNegativoETaxaDentroDoDimensionado() {
+        FiltroBloom filtro = FiltroBloom.dimensionar(DOCUMENTOS, 0.01);
+        for (int i = 0; i < DOCUMENTOS; i++) {
+            filtro.adicionar(documento(i));
+        }
+
+        for (int i = 0; i < DOCUMENTOS; i++) {
+            assertTrue(filtro.podeConter(documento(i)));
+        }
+        int falsosPositivos = 0;
+        for (int i = DOCUMENTOS; i < 2 * DOCUMENTOS; i++) {
+            falsosPositivos += filtro.podeConter(documento(i)) ? 1 : 0;
+        }
+        double taxa = (double) falsosPositivos / DOCUMENTOS;
+        assertTrue("Taxa observada " + taxa, taxa < 0.015);
+        assertEquals(0.01, filtro.taxaFalsoPositivoEstimada(), 0.003);
+        assertFalse(filtro.saturado());
+    }
+
+    @Test
+    public void testSaturaAcimaDaCapacidade() {
+        FiltroBloom filtro = FiltroBloom.dimensionar(1_000, 0.01);
+        for (int i = 0; i < 1_100; i++) {
+            filtro.adicionar(documento(i));
+        }
+
+        assertTrue(filtro.saturado());
+    }
+
+    @Test
+    public void testSnapshotPreservaBitsEMarcaDagua() throws IOException {
+        FiltroBloom filtro = FiltroBloom.dimensionar(1_000, 0.01);
+        for (int i = 0; i < 500; i++) {
+            filtro.adicionar(documento(i));
+        }
+        filtro.avancarMarcaDagua(1_700_000_000_000L);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filtro.gravar(new DataOutputStream(bytes));
+
+        FiltroBloom lido = FiltroBloom.ler(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(1_700_000_000_000L, lido.marcaDagua());
+        assertEquals(filtro.quantidade(), lido.quantidade());
+        assertEquals(filtro.taxaFalsoPositivoEstimada(), lido.taxaFalsoPositivoEstimada(), 0.0);
+        for (int i = 0; i < 2_000; i++) {
+            assertEquals(filtro.podeConter(documento(i)), lido.podeConter(documento(i)));
+        }
+        // ~1,2 KB para 1.000 documentos
+        assertTrue(bytes.size() < 1_300);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejeitaSnapshotDesconhecido() throws IOException {
+        FiltroBloom.ler(new DataInputStream(new ByteArrayInputStream(new byte[]{1, 2, 3, 4})));
+    }
+}
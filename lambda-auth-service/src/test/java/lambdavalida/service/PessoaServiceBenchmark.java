@@ -0,0 +1,88 @@
+package lambdavalida.service;
+
+import lambdavalida.monitoring.MetricsCollector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Latência de {@link PessoaService#findByDocumento} em invocação quente: conexão aberta a cada
+ * chamada, conexão reaproveitada e cache. Roda só com {@code mvn test -P benchmark}.
+ */
+public class PessoaServiceBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PessoaServiceBenchmark.class);
+
+    private static final String CPF = "11144477735";
+    private static final int ITERACOES = 20_000;
+
+    private final String url = "jdbc:h2:mem:pessoas-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    private final MetricsCollector metrics = new MetricsCollector();
+    private Connection admin;
+
+    @Before
+    public void setUp() throws SQLException {
+        admin = DriverManager.getConnection(url);
+        try (Statement st = admin.createStatement()) {
+            st.execute("CREATE TABLE pessoas (id UUID PRIMARY KEY, numero_documento VARCHAR(14) NOT NULL UNIQUE, "
+                    + "tipo_pessoa VARCHAR(10) NOT NULL, name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, "
+                    + "senha VARCHAR(255) NOT NULL, ativo BOOLEAN NOT NULL, cargo VARCHAR(100), perfil VARCHAR(20) NOT NULL)");
+            st.execute("INSERT INTO pessoas VALUES ('550e8400-e29b-41d4-a716-446655440000', '" + CPF + "', "
+                    + "'FISICA', 'João Silva', 'joao@example.com', 'x', TRUE, NULL, 'CLIENTE')");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Statement st = admin.createStatement()) {
+            st.execute("SHUTDOWN");
+        }
+    }
+
+    private PessoaService service(Duration ttl) {
+        return new PessoaService(() -> DriverManager.getConnection(url), ttl, metrics, System::nanoTime);
+    }
+
+    @Test
+    public void latenciaDeInvocacaoQuente() {
+        PessoaService semCache = service(Duration.ZERO);
+        PessoaService comCache = service(Duration.ofSeconds(60));
+        long conexaoPorChamada = Long.MAX_VALUE;
+        long conexaoReaproveitada = Long.MAX_VALUE;
+        long cacheQuente = Long.MAX_VALUE;
+
+        for (int rodada = 0; rodada < 3; rodada++) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < ITERACOES / 10; i++) {
+                PessoaService novo = service(Duration.ZERO);
+                novo.findByDocumento(CPF);
+                novo.fechar();
+            }
+            conexaoPorChamada = Math.min(conexaoPorChamada, (System.nanoTime() - inicio) / (ITERACOES / 10));
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) {
+                semCache.findByDocumento(CPF);
+            }
+            conexaoReaproveitada = Math.min(conexaoReaproveitada, (System.nanoTime() - inicio) / ITERACOES);
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) {
+                comCache.findByDocumento(CPF);
+            }
+            cacheQuente = Math.min(cacheQuente, (System.nanoTime() - inicio) / ITERACOES);
+        }
+
+        log.info("findByDocumento - conexão por chamada: {} ns, conexão reaproveitada: {} ns, cache: {} ns",
+                conexaoPorChamada, conexaoReaproveitada, cacheQuente);
+    }
+}
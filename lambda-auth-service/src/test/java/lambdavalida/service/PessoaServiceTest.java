@@ -0,0 +1,396 @@
+package lambdavalida.service;
+
+import lambdavalida.model.Pessoa;
+import lambdavalida.monitoring.MetricsCollector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class PessoaServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PessoaServiceTest.class);
+
+    private static final String CPF = "11144477735";
+    private static final String CNPJ = "12345678000190";
+
+    private final String url = "jdbc:h2:mem:pessoas-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    private final List<Connection> abertas = new ArrayList<>();
+    private final AtomicLong relogio = new AtomicLong();
+    private final MetricsCollector metrics = new MetricsCollector();
+    private Connection admin;
+
+    @Before
+    public void setUp() throws SQLException {
+        admin = DriverManager.getConnection(url);
+        try (Statement st = admin.createStatement()) {
+            st.execute("CREATE TABLE pessoas (id UUID PRIMARY KEY, numero_documento VARCHAR(14) NOT NULL UNIQUE, "
+                    + "tipo_pessoa VARCHAR(10) NOT NULL, name VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL, "
+                    + "senha VARCHAR(255) NOT NULL, ativo BOOLEAN NOT NULL, cargo VARCHAR(100), perfil VARCHAR(20) NOT NULL)");
+            st.execute("INSERT INTO pessoas VALUES ('550e8400-e29b-41d4-a716-446655440000', '" + CPF + "', "
+                    + "'FISICA', 'João Silva', 'joao@example.com', 'x', TRUE, NULL, 'CLIENTE')");
+            st.execute("INSERT INTO pessoas VALUES ('770e8400-e29b-41d4-a716-446655440002', '" + CNPJ + "', "
+                    + "'JURIDICA', 'Empresa XYZ Ltda', 'contato@empresaxyz.com', 'x', FALSE, NULL, 'CLIENTE')");
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Statement st = admin.createStatement()) {
+            st.execute("SHUTDOWN");
+        }
+    }
+
+    private PessoaService service(Duration ttl) {
+        return new PessoaService(() -> {
+            Connection c = DriverManager.getConnection(url);
+            abertas.add(c);
+            return c;
+        }, ttl, metrics, relogio::get);
+    }
+
+    private PessoaService servicoComFiltro(AtomicInteger consultas, Path snapshot) throws SQLException {
+        try (Statement st = admin.createStatement()) {
+            st.execute("ALTER TABLE pessoas ADD COLUMN IF NOT EXISTS created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
+            st.execute("ALTER TABLE pessoas ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
+        }
+        return new PessoaService(() -> contandoConsultas(DriverManager.getConnection(url), consultas),
+                Duration.ZERO, metrics, relogio::get, Duration.ofSeconds(10), snapshot);
+    }
+
+    /**
+     * Conexão que conta as consultas executadas por prepared statements.
+     */
+    private static Connection contandoConsultas(Connection conexao, AtomicInteger consultas) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, args) -> {
+                    Object resultado = invocar(conexao, metodo, args);
+                    if (resultado instanceof PreparedStatement ps) {
+                        return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                                new Class<?>[]{PreparedStatement.class}, (p, m, a) -> {
+                                    if (m.getName().equals("executeQuery")) {
+                                        consultas.incrementAndGet();
+                                    }
+                                    return invocar(ps, m, a);
+                                });
+                    }
+                    return resultado;
+                });
+    }
+
+    private static Object invocar(Object alvo, java.lang.reflect.Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void cadastrar(String documento) throws SQLException {
+        try (PreparedStatement ps = admin.prepareStatement("INSERT INTO pessoas (id, numero_documento, tipo_pessoa, "
+                + "name, email, senha, ativo, perfil) VALUES (?, ?, 'FISICA', 'Pessoa', ?, 'x', TRUE, 'CLIENTE')")) {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setString(2, documento);
+            ps.setString(3, documento + "@example.com");
+            ps.executeUpdate();
+        }
+    }
+
+    @Test
+    public void testFindByDocumentoMapeiaColunas() {
+        Pessoa pessoa = service(Duration.ofSeconds(60)).findByDocumento(CPF);
+
+        assertEquals("550e8400-e29b-41d4-a716-446655440000", pessoa.getId());
+        assertEquals(CPF, pessoa.getNumeroDocumento());
+        assertEquals("FISICA", pessoa.getTipoPessoa());
+        assertEquals("João Silva", pessoa.getName());
+        assertEquals("CLIENTE", pessoa.getPerfil());
+        assertEquals("ACTIVE", pessoa.getStatus());
+    }
+
+    @Test
+    public void testPessoaInativaENaoEncontrada() {
+        PessoaService service = service(Duration.ofSeconds(60));
+
+        assertEquals("INACTIVE", service.findByDocumento(CNPJ).getStatus());
+        assertNull(service.findByDocumento("52998224725"));
+    }
+
+    @Test
+    public void testReaproveitaConexaoEntreInvocacoes() {
+        PessoaService service = service(Duration.ZERO);
+
+        service.findByDocumento(CPF);
+        service.findByDocumento(CNPJ);
+        service.findByDocumento("52998224725");
+
+        assertEquals(1, abertas.size());
+    }
+
+    @Test
+    public void testReabreConexaoEncerrada() throws SQLException {
+        PessoaService service = service(Duration.ZERO);
+        service.findByDocumento(CPF);
+
+        abertas.get(0).close();
+
+        assertNotNull(service.findByDocumento(CPF));
+        assertEquals(2, abertas.size());
+    }
+
+    @Test
+    public void testCacheEvitaBancoAteExpirarTtl() throws SQLException {
+        PessoaService service = service(Duration.ofSeconds(60));
+        service.findByDocumento(CPF);
+        try (Statement st = admin.createStatement()) {
+            st.execute("UPDATE pessoas SET ativo = FALSE WHERE numero_documento = '" + CPF + "'");
+        }
+
+        relogio.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertEquals("ACTIVE", service.findByDocumento(CPF).getStatus());
+        assertEquals(1.0, metrics.getPessoaCacheHits(), 0.0);
+        assertEquals(1.0, metrics.getPessoaCacheMisses(), 0.0);
+
+        relogio.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals("INACTIVE", service.findByDocumento(CPF).getStatus());
+        assertEquals(2.0, metrics.getPessoaCacheMisses(), 0.0);
+    }
+
+    @Test
+    public void testNaoCacheiaDocumentoNaoEncontrado() throws SQLException {
+        PessoaService service = service(Duration.ofSeconds(60));
+        assertNull(service.findByDocumento("52998224725"));
+        try (Statement st = admin.createStatement()) {
+            st.execute("INSERT INTO pessoas VALUES ('880e8400-e29b-41d4-a716-446655440003', '52998224725', "
+                    + "'FISICA', 'Ana Souza', 'ana@example.com', 'x', TRUE, 'Mecânica', 'MECANICO')");
+        }
+
+        assertEquals("MECANICO", service.findByDocumento("52998224725").getPerfil());
+    }
+
+    @Test
+    public void testFiltroRejeitaDocumentoNaoCadastradoSemConsultarBanco() throws SQLException {
+        AtomicInteger consultas = new AtomicInteger();
+        PessoaService service = servicoComFiltro(consultas, null);
+        service.aquecer();
+        int aposCarga = consultas.get();
+
+        for (int i = 0; i < 100; i++) {
+            assertNull(service.findByDocumento("52998224725"));
+        }
+        assertEquals("ACTIVE", service.findByDocumento(CPF).getStatus());
+        assertEquals("INACTIVE", service.findByDocumento(CNPJ).getStatus());
+
+        assertEquals(aposCarga + 2, consultas.get());
+        assertEquals(100.0, metrics.getPessoaBloomRejections(), 0.0);
+    }
+
+    @Test
+    public void testFiltroReconheceCadastroNovoAposIntervalo() throws SQLException {
+        AtomicInteger consultas = new AtomicInteger();
+        PessoaService service = servicoComFiltro(consultas, null);
+        service.aquecer();
+        cadastrar("52998224725");
+
+        relogio.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertNull(service.findByDocumento("52998224725"));
+
+        relogio.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals("CLIENTE", service.findByDocumento("52998224725").getPerfil());
+        assertEquals(1.0, metrics.getPessoaBloomRejections(), 0.0);
+    }
+
+    @Test
+    public void testFiltroReconheceDocumentoAlteradoAposIntervalo() throws SQLException {
+        try (Statement st = admin.createStatement()) {
+            st.execute("ALTER TABLE pessoas ADD COLUMN IF NOT EXISTS created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
+            st.execute("ALTER TABLE pessoas ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
+            st.execute("UPDATE pessoas SET created_at = TIMESTAMP '2020-01-01 00:00:00', updated_at = NULL");
+        }
+        // Cadastro recente: a marca d'água fica no presente, longe dos cadastros antigos
+        cadastrar("39053344705");
+        PessoaService service = servicoComFiltro(new AtomicInteger(), null);
+        service.aquecer();
+        try (Statement st = admin.createStatement()) {
+            st.execute("UPDATE pessoas SET numero_documento = '52998224725', updated_at = CURRENT_TIMESTAMP "
+                    + "WHERE numero_documento = '" + CPF + "'");
+        }
+
+        relogio.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertEquals("João Silva", service.findByDocumento("52998224725").getName());
+        assertEquals(0.0, metrics.getPessoaBloomRejections(), 0.0);
+    }
+
+    @Test
+    public void testFiltroEConsultaCompartilhamConexao() throws SQLException {
+        try (Statement st = admin.createStatement()) {
+            st.execute("ALTER TABLE pessoas ADD COLUMN IF NOT EXISTS created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
+            st.execute("ALTER TABLE pessoas ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
+        }
+        PessoaService service = new PessoaService(() -> {
+            Connection c = DriverManager.getConnection(url);
+            abertas.add(c);
+            return c;
+        }, Duration.ZERO, metrics, relogio::get, Duration.ofSeconds(10), null);
+
+        // A atualização incremental do filtro abre a conexão reaproveitada antes da primeira consulta
+        assertEquals("ACTIVE", service.findByDocumento(CPF).getStatus());
+        relogio.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertNull(service.findByDocumento("52998224725"));
+
+        // Leitura completa em conexão própria (já fechada) + uma única conexão compartilhada
+        assertEquals(2, abertas.size());
+        long emUso = abertas.stream().filter(c -> {
+            try {
+                return !c.isClosed();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }).count();
+        assertEquals(1, emUso);
+    }
+
+    @Test
+    public void testFiltroCarregadoDoSnapshot() throws Exception {
+        Path snapshot = Files.createTempDirectory("bloom").resolve("pessoas.bloom");
+        servicoComFiltro(new AtomicInteger(), snapshot).aquecer();
+        assertTrue(Files.size(snapshot) > 0);
+        cadastrar("52998224725");
+
+        AtomicInteger consultas = new AtomicInteger();
+        PessoaService service = servicoComFiltro(consultas, snapshot);
+        service.aquecer();
+
+        // Aquecimento + documentos novos desde a marca d'água, sem a leitura completa da tabela
+        assertEquals(2, consultas.get());
+        assertEquals("CLIENTE", service.findByDocumento("52998224725").getPerfil());
+        assertNull(service.findByDocumento("11144477736"));
+    }
+
+    @Test
+    public void testFiltroNaoDerrubaConsultaQuandoCargaFalha() throws SQLException {
+        PessoaService service = service(Duration.ZERO);
+        PessoaService comFiltro = new PessoaService(() -> DriverManager.getConnection(url), Duration.ZERO, metrics,
+                relogio::get, Duration.ofSeconds(10), null);
+
+        // Tabela sem created_at: a carga falha e as consultas seguem direto para o banco
+        assertNull(comFiltro.findByDocumento("52998224725"));
+        assertEquals("ACTIVE", comFiltro.findByDocumento(CPF).getStatus());
+        assertEquals(service.findByDocumento(CPF).getId(), comFiltro.findByDocumento(CPF).getId());
+        assertEquals(0.0, metrics.getPessoaBloomRejections(), 0.0);
+    }
+
+    /**
+     * Carga dominada por documentos não cadastrados (95%), simulando 1.000 requisições por segundo
+     * sem cache de pessoas, com e sem o filtro.
+     */
+    @Test
+    public void testConsultasPorSegundoComCargaDeDocumentosInexistentes() throws SQLException {
+        int cadastrados = 10_000;
+        try (Statement st = admin.createStatement()) {
+            st.execute("ALTER TABLE pessoas ADD COLUMN IF NOT EXISTS created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
+            st.execute("ALTER TABLE pessoas ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP");
+            st.execute("INSERT INTO pessoas (id, numero_documento, tipo_pessoa, name, email, senha, ativo, perfil) "
+                    + "SELECT RANDOM_UUID(), LPAD(CAST(X * 7919 AS VARCHAR), 11, '0'), 'FISICA', 'Pessoa', "
+                    + "CONCAT('p', X, '@example.com'), 'x', TRUE, 'CLIENTE' FROM SYSTEM_RANGE(1, " + cadastrados + ")");
+        }
+        int requisicoes = 60_000;
+        long intervaloNanos = Duration.ofMillis(1).toNanos();
+        String[] carga = new String[requisicoes];
+        Random random = new Random(42);
+        for (int i = 0; i < requisicoes; i++) {
+            carga[i] = random.nextInt(100) < 5
+                    ? String.format("%011d", (1 + random.nextInt(cadastrados)) * 7919L)
+                    : String.format("%011d", 100_000_000L + random.nextInt(900_000_000));
+        }
+
+        AtomicInteger semFiltro = new AtomicInteger();
+        PessoaService servicoSemFiltro = new PessoaService(
+                () -> contandoConsultas(DriverManager.getConnection(url), semFiltro), Duration.ZERO, metrics, relogio::get);
+        long inicio = System.nanoTime();
+        for (String documento : carga) {
+            relogio.addAndGet(intervaloNanos);
+            servicoSemFiltro.findByDocumento(documento);
+        }
+        long nanosSemFiltro = System.nanoTime() - inicio;
+
+        AtomicInteger comFiltro = new AtomicInteger();
+        PessoaService servicoComFiltro = servicoComFiltro(comFiltro, null);
+        servicoComFiltro.aquecer();
+        comFiltro.set(0);
+        inicio = System.nanoTime();
+        for (String documento : carga) {
+            relogio.addAndGet(intervaloNanos);
+            servicoComFiltro.findByDocumento(documento);
+        }
+        long nanosComFiltro = System.nanoTime() - inicio;
+
+        double segundos = requisicoes * intervaloNanos / 1e9;
+        double taxaObservada = metrics.getPessoaBloomFalsePositives()
+                / (metrics.getPessoaBloomFalsePositives() + metrics.getPessoaBloomRejections());
+        log.info("Carga de {} req/s com 95% de documentos inexistentes - consultas ao banco por segundo: "
+                        + "sem filtro {}, com filtro {} (falso positivo observado {}); {} ns vs {} ns por chamada",
+                (long) (requisicoes / segundos), semFiltro.get() / segundos, comFiltro.get() / segundos,
+                String.format("%.4f", taxaObservada), nanosSemFiltro / requisicoes, nanosComFiltro / requisicoes);
+        assertEquals(requisicoes, semFiltro.get());
+        // Cadastrados (5%) + falsos positivos (~1% dos 95%) + uma atualização incremental a cada 10 s
+        assertTrue("Consultas com filtro: " + comFiltro.get(), comFiltro.get() < requisicoes * 0.08);
+        assertTrue(taxaObservada < 0.02);
+    }
+
+    @Test
+    public void testFindByDocumentosUsaUmaConsulta() {
+        AtomicInteger consultas = new AtomicInteger();
+        PessoaService service = new PessoaService(() -> contandoConsultas(DriverManager.getConnection(url), consultas),
+                Duration.ofSeconds(60), metrics, relogio::get);
+
+        Map<String, Pessoa> pessoas = service.findByDocumentos(List.of(CPF, CNPJ, "52998224725", CPF));
+
+        assertEquals(1, consultas.get());
+        assertEquals(2, pessoas.size());
+        assertEquals("João Silva", pessoas.get(CPF).getName());
+        assertEquals("INACTIVE", pessoas.get(CNPJ).getStatus());
+        assertFalse(pessoas.containsKey("52998224725"));
+
+        // Encontradas ficam no cache, como na busca individual
+        assertEquals("João Silva", service.findByDocumento(CPF).getName());
+        assertEquals(1, consultas.get());
+        assertTrue(service.findByDocumentos(List.of(CPF, CNPJ)).containsKey(CNPJ));
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    public void testFindByDocumentosDescartaRejeitadosPeloFiltro() throws SQLException {
+        AtomicInteger consultas = new AtomicInteger();
+        PessoaService service = servicoComFiltro(consultas, null);
+        service.aquecer();
+        int aposCarga = consultas.get();
+
+        assertTrue(service.findByDocumentos(List.of("52998224725", "11144477736")).isEmpty());
+        assertEquals(aposCarga, consultas.get());
+
+        assertEquals(1, service.findByDocumentos(List.of("52998224725", CPF)).size());
+        assertEquals(aposCarga + 1, consultas.get());
+    }
+}
@@ -0,0 +1,44 @@
+package lambdavalida.service;
+
+import lambdavalida.service.ValidadorDocumentoTest.LegadoDocumentoValidator;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Custo por chamada da validação em passada única comparado à implementação anterior com regex
+ * (CPF e depois CNPJ). Roda só com {@code mvn test -P benchmark}.
+ */
+public class ValidadorDocumentoBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidadorDocumentoBenchmark.class);
+    private static final int ITERACOES = 200_000;
+
+    @Test
+    public void passadaUnicaComparadaARegex() {
+        String[] documentos = {"111.444.777-35", "11.222.333/0001-81", "11144477736", "11222333000181"};
+        long regex = Long.MAX_VALUE;
+        long passadaUnica = Long.MAX_VALUE;
+        int validos = 0;
+
+        for (int rodada = 0; rodada < 5; rodada++) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) {
+                String documento = documentos[i & 3];
+                validos += LegadoDocumentoValidator.isValidCPF(documento)
+                        || LegadoDocumentoValidator.isValidCNPJ(documento) ? 1 : 0;
+            }
+            regex = Math.min(regex, (System.nanoTime() - inicio) / ITERACOES);
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) {
+                validos += ValidadorDocumento.identificar(documentos[i & 3]) != ValidadorDocumento.Tipo.INVALIDO ? 1 : 0;
+            }
+            passadaUnica = Math.min(passadaUnica, (System.nanoTime() - inicio) / ITERACOES);
+        }
+
+        // validos entra no log para que o JIT não descarte os laços
+        log.info("Validação de documento por chamada - regex (CPF e depois CNPJ): {} ns, passada única: {} ns ({} válidos)",
+                regex, passadaUnica, validos);
+    }
+}
@@ -0,0 +1,145 @@
+package lambdavalida.service;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ValidadorDocumentoTest {
+
+    private static final String ALFABETO = "0123456789012345678901234567890123456789./-./- aX\t";
+
+    @Test
+    public void testIdentificaCpfECnpj() {
+        assertEquals(ValidadorDocumento.Tipo.CPF, ValidadorDocumento.identificar("111.444.777-35"));
+        assertEquals(ValidadorDocumento.Tipo.CNPJ, ValidadorDocumento.identificar("11.222.333/0001-81"));
+        assertEquals(ValidadorDocumento.Tipo.INVALIDO, ValidadorDocumento.identificar("11144477736"));
+        assertEquals(ValidadorDocumento.Tipo.INVALIDO, ValidadorDocumento.identificar("00000000000000"));
+        assertEquals(ValidadorDocumento.Tipo.INVALIDO, ValidadorDocumento.identificar(null));
+    }
+
+    @Test
+    public void testEquivalenteAImplementacaoComRegex() {
+        Random random = new Random(20241017L);
+
+        for (int i = 0; i < 200_000; i++) {
+            String documento = gerarDocumento(random);
+
+            assertEquals("isValidCPF para '" + documento + "'",
+                    LegadoDocumentoValidator.isValidCPF(documento), DocumentoValidator.isValidCPF(documento));
+            assertEquals("isValidCNPJ para '" + documento + "'",
+                    LegadoDocumentoValidator.isValidCNPJ(documento), DocumentoValidator.isValidCNPJ(documento));
+        }
+    }
+
+    @Test
+    public void testNaoAlocaMemoria() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String[] documentos = {"111.444.777-35", "11.222.333/0001-81"};
+        int validos = 0;
+        for (int i = 0; i < 10_000; i++) {
+            validos += ValidadorDocumento.identificar(documentos[i & 1]) != ValidadorDocumento.Tipo.INVALIDO ? 1 : 0;
+        }
+
+        long antes = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            validos += ValidadorDocumento.identificar(documentos[i & 1]) != ValidadorDocumento.Tipo.INVALIDO ? 1 : 0;
+        }
+        long alocado = threads.getCurrentThreadAllocatedBytes() - antes;
+
+        assertEquals(110_000, validos);
+        assertTrue("Alocou " + alocado + " bytes", alocado < 1024);
+    }
+
+    private static String gerarDocumento(Random random) {
+        StringBuilder sb = new StringBuilder();
+        switch (random.nextInt(4)) {
+            case 0 -> sb.append(comDigitos(random, 9, new int[]{10, 11}));
+            case 1 -> sb.append(comDigitos(random, 12, new int[]{5, 6}));
+            case 2 -> sb.append(String.valueOf(random.nextInt(10)).repeat(random.nextBoolean() ? 11 : 14));
+            default -> {
+                int tamanho = random.nextInt(20);
+                for (int i = 0; i < tamanho; i++) {
+                    sb.append(ALFABETO.charAt(random.nextInt(ALFABETO.length())));
+                }
+            }
+        }
+        if (sb.length() > 0 && random.nextInt(4) == 0) {
+            sb.setCharAt(random.nextInt(sb.length()), (char) ('0' + random.nextInt(10)));
+        }
+        int insercoes = random.nextInt(4);
+        for (int i = 0; i < insercoes; i++) {
+            sb.insert(random.nextInt(sb.length() + 1), ALFABETO.charAt(40 + random.nextInt(ALFABETO.length() - 40)));
+        }
+        return sb.toString();
+    }
+
+    private static String comDigitos(Random random, int base, int[] pesosIniciais) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < base; i++) {
+            sb.append(random.nextInt(10));
+        }
+        for (int dv = 0; dv < 2; dv++) {
+            int soma = 0;
+            int peso = pesosIniciais[dv];
+            for (int i = 0; i < sb.length(); i++) {
+                soma += (sb.charAt(i) - '0') * peso;
+                peso = base == 9 ? peso - 1 : (peso == 2 ? 9 : peso - 1);
+            }
+            int resto = soma % 11;
+            sb.append(resto < 2 ? 0 : 11 - resto);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Implementação anterior do DocumentoValidator (com regex), mantida como referência para o teste
+     * de equivalência e para o {@code ValidadorDocumentoBenchmark}.
+     */
+    static final class LegadoDocumentoValidator {
+
+        static boolean isValidCPF(String cpf) {
+            if (cpf == null || cpf.isEmpty()) return false;
+            cpf = cpf.replaceAll("\\D", "");
+            if (cpf.length() != 11) return false;
+            if (cpf.matches("(\\d)\\1{10}")) return false;
+            int sum = 0;
+            for (int i = 0; i < 9; i++) {
+                sum += Character.getNumericValue(cpf.charAt(i)) * (10 - i);
+            }
+            int fd = 11 - (sum % 11);
+            if (fd >= 10) fd = 0;
+            if (fd != Character.getNumericValue(cpf.charAt(9))) return false;
+            sum = 0;
+            for (int i = 0; i < 10; i++) {
+                sum += Character.getNumericValue(cpf.charAt(i)) * (11 - i);
+            }
+            int sd = 11 - (sum % 11);
+            if (sd >= 10) sd = 0;
+            return sd == Character.getNumericValue(cpf.charAt(10));
+        }
+
+        static boolean isValidCNPJ(String cnpj) {
+            if (cnpj == null || cnpj.isEmpty()) return false;
+            cnpj = cnpj.replaceAll("\\D", "");
+            if (cnpj.length() != 14) return false;
+            if (cnpj.matches("(\\d)\\1{13}")) return false;
+            int sum = 0;
+            int[] weights1 = {5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+            for (int i = 0; i < 12; i++) {
+                sum += Character.getNumericValue(cnpj.charAt(i)) * weights1[i];
+            }
+            int firstDigit = sum % 11 < 2 ? 0 : 11 - (sum % 11);
+            if (firstDigit != Character.getNumericValue(cnpj.charAt(12))) return false;
+            sum = 0;
+            int[] weights2 = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+            for (int i = 0; i < 13; i++) {
+                sum += Character.getNumericValue(cnpj.charAt(i)) * weights2[i];
+            }
+            int secondDigit = sum % 11 < 2 ? 0 : 11 - (sum % 11);
+            return secondDigit == Character.getNumericValue(cnpj.charAt(13));
+        }
+    }
+}
@@ -1,17 +1,25 @@
 package br.com.grupo99.oficinaservice.adapter.controller;
 
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoDetalhesDTO;
+import br.com.grupo99.oficinaservice.application.dto.OrdemServicoPaginaDTO;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoRequestDTO;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoResponseDTO;
+import br.com.grupo99.oficinaservice.application.dto.ResumoOrdensServicoDTO;
+import br.com.grupo99.oficinaservice.application.dto.TransicaoStatusResponseDTO;
 import br.com.grupo99.oficinaservice.application.usecase.AtualizarStatusOrdemServicoUseCase;
 import br.com.grupo99.oficinaservice.application.usecase.BuscarOrdemServicoDetalhesUseCase;
+import br.com.grupo99.oficinaservice.application.usecase.ConsultarHistoricoStatusOrdemServicoUseCase;
 import br.com.grupo99.oficinaservice.application.usecase.CriarOrdemServicoUseCase;
+import br.com.grupo99.oficinaservice.application.usecase.ExportarOrdensServicoUseCase;
 import br.com.grupo99.oficinaservice.application.usecase.ListarOrdensServicoUseCase;
+import br.com.grupo99.oficinaservice.application.usecase.ResumirOrdensServicoUseCase;
 import br.com.grupo99.oficinaservice.domain.model.StatusOS;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Controller de Ordem de Serviço na camada de Adapter.
@@ -25,15 +33,24 @@ public class OrdemServicoController {
     private final ListarOrdensServicoUseCase listarOrdensServicoUseCase;
     private final BuscarOrdemServicoDetalhesUseCase buscarOrdemServicoDetalhesUseCase;
     private final AtualizarStatusOrdemServicoUseCase atualizarStatusOrdemServicoUseCase;
+    private final ExportarOrdensServicoUseCase exportarOrdensServicoUseCase;
+    private final ResumirOrdensServicoUseCase resumirOrdensServicoUseCase;
+    private final ConsultarHistoricoStatusOrdemServicoUseCase consultarHistoricoStatusUseCase;
 
     public OrdemServicoController(CriarOrdemServicoUseCase criarOrdemServicoUseCase,
                                   ListarOrdensServicoUseCase listarOrdensServicoUseCase,
                                   BuscarOrdemServicoDetalhesUseCase buscarOrdemServicoDetalhesUseCase,
-                                  AtualizarStatusOrdemServicoUseCase atualizarStatusOrdemServicoUseCase) {
+                                  AtualizarStatusOrdemServicoUseCase atualizarStatusOrdemServicoUseCase,
+                                  ExportarOrdensServicoUseCase exportarOrdensServicoUseCase,
+                                  ResumirOrdensServicoUseCase resumirOrdensServicoUseCase,
+                                  ConsultarHistoricoStatusOrdemServicoUseCase consultarHistoricoStatusUseCase) {
         this.criarOrdemServicoUseCase = criarOrdemServicoUseCase;
         this.listarOrdensServicoUseCase = listarOrdensServicoUseCase;
         this.buscarOrdemServicoDetalhesUseCase = buscarOrdemServicoDetalhesUseCase;
         this.atualizarStatusOrdemServicoUseCase = atualizarStatusOrdemServicoUseCase;
+        this.exportarOrdensServicoUseCase = exportarOrdensServicoUseCase;
+        this.resumirOrdensServicoUseCase = resumirOrdensServicoUseCase;
+        this.consultarHistoricoStatusUseCase = consultarHistoricoStatusUseCase;
     }
 
     public OrdemServicoResponseDTO criar(OrdemServicoRequestDTO requestDTO) {
@@ -44,11 +61,28 @@ public class OrdemServicoController {
         return listarOrdensServicoUseCase.execute();
     }
 
+    public OrdemServicoPaginaDTO listarPagina(List<StatusOS> status, String cursor, Integer limite) {
+        return listarOrdensServicoUseCase.execute(status, cursor, limite);
+    }
+
+    public void exportar(LocalDate dataInicio, LocalDate dataFim, List<StatusOS> status,
+                         Consumer<OrdemServicoResponseDTO> consumidor) {
+        exportarOrdensServicoUseCase.execute(dataInicio, dataFim, status, consumidor);
+    }
+
+    public ResumoOrdensServicoDTO resumir() {
+        return resumirOrdensServicoUseCase.resumir();
+    }
+
     public OrdemServicoDetalhesDTO buscarDetalhes(UUID id) {
         return buscarOrdemServicoDetalhesUseCase.execute(id);
     }
 
-    public OrdemServicoResponseDTO atualizarStatus(UUID id, StatusOS novoStatus) {
-        return atualizarStatusOrdemServicoUseCase.execute(id, novoStatus);
+    public OrdemServicoResponseDTO atualizarStatus(UUID id, StatusOS novoStatus, String responsavel) {
+        return atualizarStatusOrdemServicoUseCase.execute(id, novoStatus, responsavel);
+    }
+
+    public List<TransicaoStatusResponseDTO> buscarHistoricoStatus(UUID id) {
+        return consultarHistoricoStatusUseCase.buscarHistorico(id);
     }
 }
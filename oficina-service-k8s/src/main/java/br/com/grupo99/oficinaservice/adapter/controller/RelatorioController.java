@@ -1,10 +1,14 @@
 package br.com.grupo99.oficinaservice.adapter.controller;
 
 import br.com.grupo99.oficinaservice.application.dto.TempoMedioServicoResponseDTO;
+import br.com.grupo99.oficinaservice.application.dto.TempoPorServicoResponseDTO;
 import br.com.grupo99.oficinaservice.application.usecase.CalcularTempoMedioServicoUseCase;
+import br.com.grupo99.oficinaservice.application.usecase.CalcularTemposPorServicoUseCase;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Controller de Relatório na camada de Adapter.
@@ -15,12 +19,20 @@ import java.util.UUID;
 public class RelatorioController {
 
     private final CalcularTempoMedioServicoUseCase calcularTempoMedioServicoUseCase;
+    private final CalcularTemposPorServicoUseCase calcularTemposPorServicoUseCase;
 
-    public RelatorioController(CalcularTempoMedioServicoUseCase calcularTempoMedioServicoUseCase) {
+    public RelatorioController(CalcularTempoMedioServicoUseCase calcularTempoMedioServicoUseCase,
+                               CalcularTemposPorServicoUseCase calcularTemposPorServicoUseCase) {
         this.calcularTempoMedioServicoUseCase = calcularTempoMedioServicoUseCase;
+        this.calcularTemposPorServicoUseCase = calcularTemposPorServicoUseCase;
     }
 
     public TempoMedioServicoResponseDTO calcularTempoMedioPorServico(UUID servicoId) {
         return calcularTempoMedioServicoUseCase.execute(servicoId);
     }
+
+    public void calcularTemposPorServico(LocalDate dataInicio, LocalDate dataFim,
+                                         Consumer<TempoPorServicoResponseDTO> consumidor) {
+        calcularTemposPorServicoUseCase.execute(dataInicio, dataFim, consumidor);
+    }
 }
@@ -0,0 +1,14 @@
+package br.com.grupo99.oficinaservice.application.dto;
+
+import java.util.List;
+
+/**
+ * DTO para uma página da listagem de Ordens de Serviço.
+ *
+ * @param itens As OS da página, na ordem de prioridade do status e data de criação.
+ * @param proximoCursor Token opaco para buscar a próxima página, ou {@code null} se esta for a última.
+ */
+public record OrdemServicoPaginaDTO(
+        List<OrdemServicoResponseDTO> itens,
+        String proximoCursor
+) {}
@@ -2,6 +2,7 @@ package br.com.grupo99.oficinaservice.application.dto;
 
 import br.com.grupo99.oficinaservice.domain.model.OrdemServico;
 import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import br.com.grupo99.oficinaservice.domain.repository.OrdemServicoResumo;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -43,6 +44,21 @@ public record OrdemServicoResponseDTO(
         );
     }
 
+    /**
+     * Método de fábrica para converter a projeção de listagem em um OrdemServicoResponseDTO.
+     */
+    public static OrdemServicoResponseDTO fromResumo(OrdemServicoResumo resumo, String clienteNome, String placaVeiculo) {
+        return new OrdemServicoResponseDTO(
+                resumo.id(),
+                clienteNome,
+                placaVeiculo,
+                resumo.status(),
+                getStatusDescricao(resumo.status()),
+                resumo.valorTotal(),
+                resumo.dataCriacao()
+        );
+    }
+
     private static String getStatusDescricao(StatusOS status) {
         return switch (status) {
             case RECEBIDA -> "Recebida";
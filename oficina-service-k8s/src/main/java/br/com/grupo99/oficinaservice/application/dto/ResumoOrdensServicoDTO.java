@@ -0,0 +1,24 @@
+package br.com.grupo99.oficinaservice.application.dto;
+
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+
+import java.util.Map;
+
+/**
+ * DTO com a quantidade atual de Ordens de Serviço por status.
+ *
+ * @param porStatus Quantidade de OS em cada status, incluindo os status sem nenhuma OS.
+ * @param ativas Quantidade de OS em andamento (ver {@link StatusOS#ATIVOS}).
+ * @param total Quantidade total de OS.
+ */
+public record ResumoOrdensServicoDTO(
+        Map<StatusOS, Long> porStatus,
+        long ativas,
+        long total
+) {
+    public static ResumoOrdensServicoDTO fromContagens(Map<StatusOS, Long> contagens) {
+        long ativas = StatusOS.ATIVOS.stream().mapToLong(status -> contagens.getOrDefault(status, 0L)).sum();
+        long total = contagens.values().stream().mapToLong(Long::longValue).sum();
+        return new ResumoOrdensServicoDTO(contagens, ativas, total);
+    }
+}
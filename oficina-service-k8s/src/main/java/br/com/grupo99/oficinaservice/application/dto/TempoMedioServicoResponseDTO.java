@@ -15,5 +15,23 @@ public record TempoMedioServicoResponseDTO(
         long totalOrdensAnalisadas,
 
         @Schema(description = "Tempo médio de execução formatado (ex: '2 horas e 30 minutos')")
-        String tempoMedioFormatado
+        String tempoMedioFormatado,
+
+        @Schema(description = "Tempo médio de execução em minutos (nulo se não houver ordens analisadas)")
+        Double tempoMedioMinutos,
+
+        @Schema(description = "Menor tempo de execução em minutos")
+        Long tempoMinimoMinutos,
+
+        @Schema(description = "Maior tempo de execução em minutos")
+        Long tempoMaximoMinutos,
+
+        @Schema(description = "Mediana aproximada do tempo de execução em minutos (erro de até 1/16)")
+        Long p50Minutos,
+
+        @Schema(description = "Percentil 90 aproximado do tempo de execução em minutos")
+        Long p90Minutos,
+
+        @Schema(description = "Percentil 99 aproximado do tempo de execução em minutos")
+        Long p99Minutos
 ) {}
@@ -0,0 +1,41 @@
+package br.com.grupo99.oficinaservice.application.dto;
+
+import br.com.grupo99.oficinaservice.domain.repository.TempoPorServico;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+public record TempoPorServicoResponseDTO(
+        @Schema(description = "ID do serviço analisado")
+        UUID servicoId,
+
+        @Schema(description = "Descrição do serviço analisado")
+        String servicoDescricao,
+
+        @Schema(description = "Quantidade de ordens de serviço finalizadas no período que contêm o serviço")
+        long totalOrdensAnalisadas,
+
+        @Schema(description = "Tempo médio de execução formatado (ex: '2 horas e 30 minutos')")
+        String tempoMedioFormatado,
+
+        @Schema(description = "Tempo médio de execução em minutos (nulo se não houver ordens analisadas)")
+        Double tempoMedioMinutos,
+
+        @Schema(description = "Mediana do tempo de execução em minutos")
+        Double medianaMinutos,
+
+        @Schema(description = "Percentil 90 do tempo de execução em minutos")
+        Double p90Minutos
+) {
+    public static TempoPorServicoResponseDTO fromResumo(TempoPorServico tempo, String tempoMedioFormatado) {
+        return new TempoPorServicoResponseDTO(
+                tempo.servicoId(),
+                tempo.servicoDescricao(),
+                tempo.totalOrdens(),
+                tempoMedioFormatado,
+                tempo.mediaMinutos(),
+                tempo.medianaMinutos(),
+                tempo.p90Minutos()
+        );
+    }
+}
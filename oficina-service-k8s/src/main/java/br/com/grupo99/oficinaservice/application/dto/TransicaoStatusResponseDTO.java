@@ -0,0 +1,33 @@
+package br.com.grupo99.oficinaservice.application.dto;
+
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import br.com.grupo99.oficinaservice.domain.model.TransicaoStatusOrdemServico;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO para uma mudança de status no histórico de uma Ordem de Serviço.
+ *
+ * @param statusAnterior Status de onde a OS saiu.
+ * @param statusNovo Status para onde a OS foi.
+ * @param dataTransicao Momento da mudança.
+ * @param duracaoStatusAnteriorMs Tempo no status anterior em milissegundos, ou {@code null} se desconhecido.
+ * @param responsavel Usuário que pediu a mudança, ou {@code null} se desconhecido.
+ */
+public record TransicaoStatusResponseDTO(
+        StatusOS statusAnterior,
+        StatusOS statusNovo,
+        LocalDateTime dataTransicao,
+        Long duracaoStatusAnteriorMs,
+        String responsavel
+) {
+    public static TransicaoStatusResponseDTO fromDomain(TransicaoStatusOrdemServico transicao) {
+        return new TransicaoStatusResponseDTO(
+                transicao.getStatusAnterior(),
+                transicao.getStatusNovo(),
+                transicao.getDataTransicao(),
+                transicao.getDuracaoStatusAnteriorMs(),
+                transicao.getResponsavel()
+        );
+    }
+}
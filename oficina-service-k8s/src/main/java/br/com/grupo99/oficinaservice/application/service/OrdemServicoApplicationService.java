@@ -1,12 +1,16 @@
 package br.com.grupo99.oficinaservice.application.service;
 
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoDetalhesDTO;
+import br.com.grupo99.oficinaservice.application.dto.OrdemServicoPaginaDTO;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoRequestDTO;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoResponseDTO;
+import br.com.grupo99.oficinaservice.application.dto.ResumoOrdensServicoDTO;
+import br.com.grupo99.oficinaservice.application.dto.TransicaoStatusResponseDTO;
 import br.com.grupo99.oficinaservice.application.exception.BusinessException;
 import br.com.grupo99.oficinaservice.application.exception.ResourceNotFoundException;
 import br.com.grupo99.oficinaservice.application.exception.OrdemServicoAtivaException;
 import br.com.grupo99.oficinaservice.application.usecase.*;
+import br.com.grupo99.oficinaservice.application.util.CursorUtils;
 
 import br.com.grupo99.oficinaservice.domain.model.*;
 import br.com.grupo99.oficinaservice.domain.repository.*;
@@ -15,9 +19,20 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class OrdemServicoApplicationService implements
@@ -25,7 +40,13 @@ public class OrdemServicoApplicationService implements
         ListarOrdensServicoUseCase,
         BuscarOrdemServicoDetalhesUseCase,
         AtualizarStatusOrdemServicoUseCase,
-        AcompanharOrdemServicoUseCase {
+        AcompanharOrdemServicoUseCase,
+        ExportarOrdensServicoUseCase,
+        ResumirOrdensServicoUseCase,
+        ConsultarHistoricoStatusOrdemServicoUseCase {
+
+    private static final int LIMITE_PAGINA_PADRAO = 20;
+    private static final int LIMITE_PAGINA_MAXIMO = 100;
 
     private final OrdemServicoRepository ordemServicoRepository;
     private final ClienteRepository clienteRepository;
@@ -34,6 +55,9 @@ public class OrdemServicoApplicationService implements
     private final ServicoRepository servicoRepository;
     private final OrcamentoService orcamentoService;
     private final NotificationService notificationService;
+    private final EstatisticaServicoRepository estatisticaServicoRepository;
+    private final TransicaoStatusOrdemServicoRepository transicaoStatusRepository;
+    private final PainelStatusOrdemServico painelStatus;
 
     public OrdemServicoApplicationService(
             OrdemServicoRepository ordemServicoRepository,
@@ -41,7 +65,10 @@ public class OrdemServicoApplicationService implements
             VeiculoRepository veiculoRepository,
             PecaRepository pecaRepository,
             ServicoRepository servicoRepository,
-            NotificationService notificationService
+            NotificationService notificationService,
+            EstatisticaServicoRepository estatisticaServicoRepository,
+            TransicaoStatusOrdemServicoRepository transicaoStatusRepository,
+            PainelStatusOrdemServico painelStatus
     ) {
         this.ordemServicoRepository = ordemServicoRepository;
         this.clienteRepository = clienteRepository;
@@ -49,6 +76,9 @@ public class OrdemServicoApplicationService implements
         this.pecaRepository = pecaRepository;
         this.servicoRepository = servicoRepository;
         this.notificationService = notificationService;
+        this.estatisticaServicoRepository = estatisticaServicoRepository;
+        this.transicaoStatusRepository = transicaoStatusRepository;
+        this.painelStatus = painelStatus;
         this.orcamentoService = new OrcamentoService();
     }
 
@@ -61,13 +91,7 @@ public class OrdemServicoApplicationService implements
         validarRelacionamentoClienteVeiculo(cliente, veiculo);
 
         // Regra: não criar OS se já existe uma ativa para o mesmo cliente e veículo
-        List<StatusOS> statusAtivos = List.of(
-            StatusOS.RECEBIDA,
-            StatusOS.EM_DIAGNOSTICO,
-            StatusOS.AGUARDANDO_APROVACAO,
-            StatusOS.EM_EXECUCAO
-        );
-        ordemServicoRepository.findByClienteIdAndVeiculoIdAndStatusIn(cliente.getId(), veiculo.getId(), statusAtivos)
+        ordemServicoRepository.findByClienteIdAndVeiculoIdAndStatusIn(cliente.getId(), veiculo.getId(), StatusOS.ATIVOS)
             .ifPresent(osAtiva -> {
                 throw new OrdemServicoAtivaException(
                     "Já existe uma ordem de serviço em andamento para este veículo.",
@@ -77,11 +101,11 @@ public class OrdemServicoApplicationService implements
 
         OrdemServico ordemServico = new OrdemServico(cliente.getId(), veiculo.getId());
 
-        adicionarServicos(ordemServico, request.servicosIds());
-        adicionarPecas(ordemServico, request.pecasIds());
+        adicionarItens(ordemServico, request.servicosIds(), request.pecasIds());
 
 
         OrdemServico salvo = ordemServicoRepository.save(ordemServico);
+        painelStatus.registrarTransicao(null, salvo.getStatus());
 
         return OrdemServicoResponseDTO.fromDomain(salvo, cliente.getPessoa().getName(), veiculo.getPlaca());
     }
@@ -89,9 +113,47 @@ public class OrdemServicoApplicationService implements
     @Override
     @Transactional(readOnly = true)
     public List<OrdemServicoResponseDTO> execute() {
-        return ordemServicoRepository.findAll().stream()
+        return ordemServicoRepository.findResumos(StatusOS.ATIVOS).stream()
+                .map(this::mapearParaResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrdemServicoPaginaDTO execute(List<StatusOS> status, String cursor, Integer limite) {
+        int tamanhoPagina = resolverTamanhoPagina(limite);
+        List<StatusOS> filtroStatus = (status == null || status.isEmpty()) ? StatusOS.ATIVOS : status;
+        OrdemServicoCursor apos = CursorUtils.decodificar(cursor);
+
+        // Busca um registro a mais para saber se existe próxima página
+        List<OrdemServicoResumo> ordens = ordemServicoRepository.findPagina(filtroStatus, apos, tamanhoPagina + 1);
+        boolean temProximaPagina = ordens.size() > tamanhoPagina;
+        List<OrdemServicoResumo> pagina = temProximaPagina ? ordens.subList(0, tamanhoPagina) : ordens;
+
+        String proximoCursor = temProximaPagina
+                ? CursorUtils.codificar(OrdemServicoCursor.from(pagina.get(pagina.size() - 1)))
+                : null;
+
+        List<OrdemServicoResponseDTO> itens = pagina.stream()
                 .map(this::mapearParaResponseDTO)
                 .collect(Collectors.toList());
+        return new OrdemServicoPaginaDTO(itens, proximoCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void execute(LocalDate dataInicio, LocalDate dataFim, List<StatusOS> status,
+                        Consumer<OrdemServicoResponseDTO> consumidor) {
+        if (dataInicio != null && dataFim != null && dataInicio.isAfter(dataFim)) {
+            throw new BusinessException("A data inicial não pode ser posterior à data final.");
+        }
+        List<StatusOS> filtroStatus = (status == null || status.isEmpty()) ? List.of(StatusOS.values()) : status;
+        LocalDateTime inicio = (dataInicio != null) ? dataInicio.atStartOfDay() : null;
+        LocalDateTime fim = (dataFim != null) ? dataFim.plusDays(1).atStartOfDay() : null;
+
+        try (Stream<OrdemServicoResumo> ordens = ordemServicoRepository.streamParaExportacao(filtroStatus, inicio, fim)) {
+            ordens.map(this::mapearParaResponseDTO).forEach(consumidor);
+        }
     }
 
     @Override
@@ -106,12 +168,14 @@ public class OrdemServicoApplicationService implements
 
     @Override
     @Transactional
-    public OrdemServicoResponseDTO execute(UUID id, StatusOS novoStatus) {
+    public OrdemServicoResponseDTO execute(UUID id, StatusOS novoStatus, String responsavel) {
         OrdemServico ordem = buscarOrdemPorId(id);
+        ordem.definirResponsavelAlteracao(responsavel);
 
         aplicarTransicaoStatus(ordem, novoStatus);
 
         OrdemServico salvo = ordemServicoRepository.save(ordem);
+        registrarTransicoes(salvo);
 
         Cliente cliente = buscarClientePorId(salvo.getClienteId());
         Veiculo veiculo = buscarVeiculoPorId(salvo.getVeiculoId());
@@ -122,8 +186,36 @@ public class OrdemServicoApplicationService implements
         return OrdemServicoResponseDTO.fromDomain(salvo, cliente.getPessoa().getName(), veiculo.getPlaca());
     }
 
+    @Override
+    public ResumoOrdensServicoDTO resumir() {
+        return ResumoOrdensServicoDTO.fromContagens(painelStatus.contagens());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransicaoStatusResponseDTO> buscarHistorico(UUID ordemServicoId) {
+        List<TransicaoStatusOrdemServico> transicoes = transicaoStatusRepository.findByOrdemServicoId(ordemServicoId);
+        if (transicoes.isEmpty()) {
+            // Sem transições: distingue OS que ainda está no status inicial de OS inexistente
+            buscarOrdemPorId(ordemServicoId);
+        }
+        return transicoes.stream()
+                .map(TransicaoStatusResponseDTO::fromDomain)
+                .toList();
+    }
+
     // MÉTODOS AUXILIARES
 
+    private int resolverTamanhoPagina(Integer limite) {
+        if (limite == null) {
+            return LIMITE_PAGINA_PADRAO;
+        }
+        if (limite <= 0 || limite > LIMITE_PAGINA_MAXIMO) {
+            throw new BusinessException("O limite da página deve estar entre 1 e " + LIMITE_PAGINA_MAXIMO + ".");
+        }
+        return limite;
+    }
+
     private Cliente buscarClientePorCpfCnpj(String cpfCnpj) {
         return clienteRepository.findByCpfCnpj(cpfCnpj)
                 .orElseThrow(() -> new ResourceNotFoundException("Cliente não encontrado"));
@@ -166,24 +258,67 @@ public class OrdemServicoApplicationService implements
         }
     }
 
-    private void adicionarServicos(OrdemServico ordem, List<UUID> servicosIds) {
-        if (servicosIds == null) return;
-        for (UUID servicoId : servicosIds) {
-            Servico servico = servicoRepository.findById(servicoId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Serviço não encontrado: " + servicoId));
-            ordem.adicionarServico(servico, 1);
+    /**
+     * Carrega todos os serviços e peças solicitados com uma consulta IN para cada tipo,
+     * informando de uma só vez todos os IDs inexistentes.
+     */
+    private void adicionarItens(OrdemServico ordem, List<UUID> servicosIds, List<UUID> pecasIds) {
+        List<UUID> idsServicos = (servicosIds != null) ? servicosIds : List.of();
+        List<UUID> idsPecas = (pecasIds != null) ? pecasIds : List.of();
+
+        Map<UUID, Servico> servicos = idsServicos.isEmpty() ? Map.of()
+                : servicoRepository.findAllById(new HashSet<>(idsServicos)).stream()
+                        .collect(Collectors.toMap(Servico::getId, Function.identity()));
+        Map<UUID, Peca> pecas = idsPecas.isEmpty() ? Map.of()
+                : pecaRepository.findAllById(new HashSet<>(idsPecas)).stream()
+                        .collect(Collectors.toMap(Peca::getId, Function.identity()));
+
+        validarItensEncontrados(idsServicos, servicos, idsPecas, pecas);
+        reservarEstoque(idsPecas, pecas);
+
+        idsServicos.forEach(id -> ordem.adicionarServico(servicos.get(id), 1));
+        idsPecas.forEach(id -> ordem.adicionarPecaReservada(pecas.get(id), 1));
+    }
+
+    /**
+     * Baixa o estoque de todas as peças com decremento atômico no banco. Se alguma não tiver
+     * estoque suficiente, a exceção desfaz (rollback) as reservas já feitas nesta transação.
+     */
+    private void reservarEstoque(List<UUID> idsPecas, Map<UUID, Peca> pecas) {
+        Map<UUID, Integer> quantidades = idsPecas.stream()
+                .collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.summingInt(id -> 1)));
+
+        Set<UUID> semEstoque = pecaRepository.reservarEstoque(quantidades);
+        if (!semEstoque.isEmpty()) {
+            String nomes = semEstoque.stream()
+                    .map(id -> pecas.get(id).getNome())
+                    .collect(Collectors.joining(", "));
+            throw new BusinessException("Estoque insuficiente para a(s) peça(s): " + nomes);
         }
     }
 
-    private void adicionarPecas(OrdemServico ordem, List<UUID> pecasIds) {
-        if (pecasIds == null) return;
-        for (UUID pecaId : pecasIds) {
-            Peca peca = pecaRepository.findById(pecaId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Peça não encontrada: " + pecaId));
-            ordem.adicionarPeca(peca, 1);
+    private void validarItensEncontrados(List<UUID> idsServicos, Map<UUID, Servico> servicos,
+                                         List<UUID> idsPecas, Map<UUID, Peca> pecas) {
+        Set<UUID> servicosAusentes = idsServicos.stream()
+                .filter(id -> !servicos.containsKey(id))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<UUID> pecasAusentes = idsPecas.stream()
+                .filter(id -> !pecas.containsKey(id))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        List<String> erros = new ArrayList<>();
+        if (!servicosAusentes.isEmpty()) {
+            erros.add("Serviços não encontrados: " + servicosAusentes);
+        }
+        if (!pecasAusentes.isEmpty()) {
+            erros.add("Peças não encontradas: " + pecasAusentes);
+        }
+        if (!erros.isEmpty()) {
+            throw new ResourceNotFoundException(String.join("; ", erros));
         }
     }
 
+
     private void aplicarTransicaoStatus(OrdemServico ordem, StatusOS status) {
         try {
             switch (status) {
@@ -193,7 +328,10 @@ public class OrdemServicoApplicationService implements
                     notificationService.notificarClienteParaAprovacao(ordem);
                 }
                 case EM_EXECUCAO -> ordem.aprovar();
-                case FINALIZADA -> ordem.finalizar();
+                case FINALIZADA -> {
+                    ordem.finalizar();
+                    registrarDuracao(ordem);
+                }
                 case ENTREGUE -> ordem.entregar();
                 default -> throw new BusinessException("Transição de status inválida: " + status);
             }
@@ -202,13 +340,34 @@ public class OrdemServicoApplicationService implements
         }
     }
 
-    private OrdemServicoResponseDTO mapearParaResponseDTO(OrdemServico ordem) {
-        Cliente cliente = clienteRepository.findById(ordem.getClienteId()).orElse(null);
-        Veiculo veiculo = veiculoRepository.findById(ordem.getVeiculoId()).orElse(null);
+    /**
+     * Grava no histórico as transições feitas na OS e as repassa ao painel de status, que conta o
+     * tempo no status anterior depois do commit.
+     */
+    private void registrarTransicoes(OrdemServico ordem) {
+        List<TransicaoStatusOrdemServico> transicoes = ordem.retirarTransicoesPendentes();
+        transicaoStatusRepository.saveAll(transicoes);
+        transicoes.forEach(painelStatus::registrarTransicao);
+    }
+
+    /**
+     * Conta a duração da ordem nas estatísticas de cada serviço dela, na mesma transação da
+     * finalização.
+     */
+    private void registrarDuracao(OrdemServico ordem) {
+        Set<UUID> servicoIds = ordem.getServicos().stream()
+                .map(item -> item.getServico().getId())
+                .collect(Collectors.toSet());
+        for (EstatisticaServico estatistica : estatisticaServicoRepository.bloquearParaAtualizacao(servicoIds)) {
+            estatistica.registrar(ordem.getDataCriacao(), ordem.getDataFinalizacao());
+            estatisticaServicoRepository.save(estatistica);
+        }
+    }
 
-        String nomeCliente = (cliente != null) ? cliente.getPessoa().getName() : "Cliente não encontrado";
-        String placa = (veiculo != null) ? veiculo.getPlaca() : "Veículo não encontrado";
+    private OrdemServicoResponseDTO mapearParaResponseDTO(OrdemServicoResumo resumo) {
+        String nomeCliente = (resumo.clienteNome() != null) ? resumo.clienteNome() : "Cliente não encontrado";
+        String placa = (resumo.placaVeiculo() != null) ? resumo.placaVeiculo() : "Veículo não encontrado";
 
-        return OrdemServicoResponseDTO.fromDomain(ordem, nomeCliente, placa);
+        return OrdemServicoResponseDTO.fromResumo(resumo, nomeCliente, placa);
     }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package br.com.grupo99.oficinaservice.application.service;
+
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import br.com.grupo99.oficinaservice.domain.model.TransicaoStatusOrdemServico;
+
+import java.util.Map;
+
+/**
+ * Quantidade de OS em cada status, mantida em memória a cada criação e transição de status.
+ */
+public interface PainelStatusOrdemServico {
+
+    /**
+     * Move uma OS de {@code anterior} para {@code novo}. Dentro de uma transação, a contagem só
+     * muda depois do commit.
+     *
+     * @param anterior Status anterior, ou {@code null} para uma OS criada.
+     * @param novo Status atual da OS.
+     */
+    void registrarTransicao(StatusOS anterior, StatusOS novo);
+
+    /**
+     * Move a OS como {@link #registrarTransicao(StatusOS, StatusOS)} e conta o tempo que ela
+     * passou no status anterior.
+     */
+    void registrarTransicao(TransicaoStatusOrdemServico transicao);
+
+    /**
+     * Quantidade atual de OS em cada status, com todos os status presentes.
+     */
+    Map<StatusOS, Long> contagens();
+}
@@ -1,81 +1,124 @@
 package br.com.grupo99.oficinaservice.application.service;
 
 import br.com.grupo99.oficinaservice.application.dto.TempoMedioServicoResponseDTO;
+import br.com.grupo99.oficinaservice.application.dto.TempoPorServicoResponseDTO;
+import br.com.grupo99.oficinaservice.application.exception.BusinessException;
 import br.com.grupo99.oficinaservice.application.exception.ResourceNotFoundException;
 import br.com.grupo99.oficinaservice.application.usecase.CalcularTempoMedioServicoUseCase;
-import br.com.grupo99.oficinaservice.domain.model.OrdemServico;
+import br.com.grupo99.oficinaservice.application.usecase.CalcularTemposPorServicoUseCase;
+import br.com.grupo99.oficinaservice.application.usecase.ReconstruirEstatisticasServicoUseCase;
+import br.com.grupo99.oficinaservice.domain.model.EstatisticaServico;
 import br.com.grupo99.oficinaservice.domain.model.Servico;
-import br.com.grupo99.oficinaservice.domain.model.StatusOS;
-import br.com.grupo99.oficinaservice.domain.repository.OrdemServicoRepository;
+import br.com.grupo99.oficinaservice.domain.repository.DuracaoOrdemServico;
+import br.com.grupo99.oficinaservice.domain.repository.EstatisticaServicoRepository;
 import br.com.grupo99.oficinaservice.domain.repository.ServicoRepository;
+import br.com.grupo99.oficinaservice.domain.repository.TempoPorServico;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+/**
+ * Relatório de tempo de execução por serviço, lido das {@link EstatisticaServico} mantidas a cada
+ * finalização de OS, e reconstrução dessas estatísticas a partir do histórico de ordens. O
+ * relatório de todos os serviços por período é agregado diretamente no banco.
+ */
 @Service
-public class RelatorioApplicationService implements CalcularTempoMedioServicoUseCase {
+public class RelatorioApplicationService implements
+        CalcularTempoMedioServicoUseCase,
+        CalcularTemposPorServicoUseCase,
+        ReconstruirEstatisticasServicoUseCase {
 
-    private final OrdemServicoRepository ordemServicoRepository;
     private final ServicoRepository servicoRepository;
+    private final EstatisticaServicoRepository estatisticaServicoRepository;
 
     public RelatorioApplicationService(
-            OrdemServicoRepository ordemServicoRepository,
-            ServicoRepository servicoRepository
+            ServicoRepository servicoRepository,
+            EstatisticaServicoRepository estatisticaServicoRepository
     ) {
-        this.ordemServicoRepository = ordemServicoRepository;
         this.servicoRepository = servicoRepository;
+        this.estatisticaServicoRepository = estatisticaServicoRepository;
     }
 
     @Override
     @Transactional(readOnly = true)
     public TempoMedioServicoResponseDTO execute(UUID servicoId) {
         Servico servico = buscarServicoPorId(servicoId);
-        List<OrdemServico> ordens = ordemServicoRepository.findAll();
-
-        double mediaEmMinutos = calcularMediaDuracao(ordens, servicoId);
-        long totalOrdens = contarOrdensAnalisadas(ordens, servicoId);
-        String tempoFormatado = formatarDuracao(mediaEmMinutos);
+        EstatisticaServico estatistica = estatisticaServicoRepository.findByServicoId(servicoId)
+                .orElseGet(() -> new EstatisticaServico(servicoId));
 
+        boolean vazia = estatistica.getQuantidade() == 0;
         return new TempoMedioServicoResponseDTO(
                 servicoId,
                 servico.getDescricao(),
-                totalOrdens,
-                tempoFormatado
+                estatistica.getQuantidade(),
+                formatarDuracao(estatistica.getMediaMinutos()),
+                vazia ? null : estatistica.getMediaMinutos(),
+                estatistica.getMinimoMinutos(),
+                estatistica.getMaximoMinutos(),
+                estatistica.percentilMinutos(0.50),
+                estatistica.percentilMinutos(0.90),
+                estatistica.percentilMinutos(0.99)
         );
     }
 
-    private Servico buscarServicoPorId(UUID servicoId) {
-        return servicoRepository.findById(servicoId)
-                .orElseThrow(() -> new ResourceNotFoundException("Serviço não encontrado com o id: " + servicoId));
+    @Override
+    @Transactional(readOnly = true)
+    public void execute(LocalDate dataInicio, LocalDate dataFim, Consumer<TempoPorServicoResponseDTO> consumidor) {
+        if (dataInicio != null && dataFim != null && dataInicio.isAfter(dataFim)) {
+            throw new BusinessException("A data inicial não pode ser posterior à data final.");
+        }
+        LocalDateTime inicio = (dataInicio != null) ? dataInicio.atStartOfDay() : null;
+        LocalDateTime fim = (dataFim != null) ? dataFim.plusDays(1).atStartOfDay() : null;
+
+        try (Stream<TempoPorServico> tempos = estatisticaServicoRepository.streamTemposPorServico(inicio, fim)) {
+            tempos.map(tempo -> TempoPorServicoResponseDTO.fromResumo(tempo,
+                            formatarDuracao(tempo.mediaMinutos() != null ? tempo.mediaMinutos() : 0)))
+                    .forEach(consumidor);
+        }
     }
 
-    private double calcularMediaDuracao(List<OrdemServico> ordens, UUID servicoId) {
-        return ordens.stream()
-                .filter(this::isFinalizadaOuEntregue)
-                .filter(os -> contemServico(os, servicoId))
-                .filter(os -> os.getDataCriacao() != null && os.getDataFinalizacao() != null)
-                .mapToLong(os -> Duration.between(os.getDataCriacao(), os.getDataFinalizacao()).toMinutes())
-                .average()
-                .orElse(0.0);
+    @Override
+    @Transactional(readOnly = true)
+    public List<UUID> listarServicosPendentes() {
+        return estatisticaServicoRepository.findServicosSemReconstrucao();
     }
 
-    private long contarOrdensAnalisadas(List<OrdemServico> ordens, UUID servicoId) {
-        return ordens.stream()
-                .filter(this::isFinalizadaOuEntregue)
-                .filter(os -> contemServico(os, servicoId))
-                .count();
+    @Override
+    @Transactional(readOnly = true)
+    public List<UUID> listarTodosServicos() {
+        return servicoRepository.findAll().stream().map(Servico::getId).toList();
     }
 
-    private boolean isFinalizadaOuEntregue(OrdemServico os) {
-        return os.getStatus() == StatusOS.FINALIZADA || os.getStatus() == StatusOS.ENTREGUE;
+    /**
+     * Recalcula as estatísticas do serviço a partir das ordens finalizadas. O serviço fica travado
+     * durante a leitura, então uma finalização concorrente espera e é contada depois, sem ser
+     * perdida nem contada duas vezes.
+     */
+    @Override
+    @Transactional
+    public void reconstruir(UUID servicoId) {
+        List<EstatisticaServico> estatisticas = estatisticaServicoRepository.bloquearParaAtualizacao(List.of(servicoId));
+        if (estatisticas.isEmpty()) {
+            throw new ResourceNotFoundException("Serviço não encontrado com o id: " + servicoId);
+        }
+        EstatisticaServico estatistica = estatisticas.get(0);
+        estatistica.reiniciar();
+        try (Stream<DuracaoOrdemServico> duracoes = estatisticaServicoRepository.streamDuracoesFinalizadas(servicoId)) {
+            duracoes.forEach(d -> estatistica.registrar(d.dataCriacao(), d.dataFinalizacao()));
+        }
+        estatistica.marcarReconstruida(LocalDateTime.now());
+        estatisticaServicoRepository.save(estatistica);
     }
 
-    private boolean contemServico(OrdemServico os, UUID servicoId) {
-        return os.getServicos().stream()
-                .anyMatch(item -> item.getServico().getId().equals(servicoId));
+    private Servico buscarServicoPorId(UUID servicoId) {
+        return servicoRepository.findById(servicoId)
+                .orElseThrow(() -> new ResourceNotFoundException("Serviço não encontrado com o id: " + servicoId));
     }
 
     private String formatarDuracao(double mediaEmMinutos) {
@@ -87,4 +130,4 @@ public class RelatorioApplicationService implements CalcularTempoMedioServicoUse
         long minutos = totalMinutos % 60;
         return String.format("%d horas e %d minutos", horas, minutos);
     }
-}
\ No newline at end of file
+}
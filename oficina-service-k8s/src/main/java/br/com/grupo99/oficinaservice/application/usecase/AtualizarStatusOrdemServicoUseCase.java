@@ -6,5 +6,12 @@ import br.com.grupo99.oficinaservice.domain.model.StatusOS;
 import java.util.UUID;
 
 public interface AtualizarStatusOrdemServicoUseCase {
-    OrdemServicoResponseDTO execute(UUID id, StatusOS novoStatus);
+    default OrdemServicoResponseDTO execute(UUID id, StatusOS novoStatus) {
+        return execute(id, novoStatus, null);
+    }
+
+    /**
+     * @param responsavel Usuário que pediu a mudança, registrado no histórico de status, ou {@code null}.
+     */
+    OrdemServicoResponseDTO execute(UUID id, StatusOS novoStatus, String responsavel);
 }
@@ -0,0 +1,20 @@
+package br.com.grupo99.oficinaservice.application.usecase;
+
+import br.com.grupo99.oficinaservice.application.dto.TempoPorServicoResponseDTO;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public interface CalcularTemposPorServicoUseCase {
+
+    /**
+     * Calcula, em uma única consulta agregada, a quantidade de ordens finalizadas, a duração média,
+     * a mediana e o percentil 90 de cada serviço do catálogo, entregando cada serviço ao consumidor
+     * assim que é lido.
+     *
+     * @param dataInicio Data de finalização inicial (inclusiva), ou {@code null} para não limitar.
+     * @param dataFim Data de finalização final (inclusiva), ou {@code null} para não limitar.
+     * @param consumidor Recebe cada serviço, em ordem de descrição.
+     */
+    void execute(LocalDate dataInicio, LocalDate dataFim, Consumer<TempoPorServicoResponseDTO> consumidor);
+}
@@ -0,0 +1,14 @@
+package br.com.grupo99.oficinaservice.application.usecase;
+
+import br.com.grupo99.oficinaservice.application.dto.TransicaoStatusResponseDTO;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ConsultarHistoricoStatusOrdemServicoUseCase {
+
+    /**
+     * Mudanças de status da OS, da mais antiga para a mais recente.
+     */
+    List<TransicaoStatusResponseDTO> buscarHistorico(UUID ordemServicoId);
+}
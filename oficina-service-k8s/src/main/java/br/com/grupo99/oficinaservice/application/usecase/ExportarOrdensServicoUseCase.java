@@ -0,0 +1,22 @@
+package br.com.grupo99.oficinaservice.application.usecase;
+
+import br.com.grupo99.oficinaservice.application.dto.OrdemServicoResponseDTO;
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ExportarOrdensServicoUseCase {
+
+    /**
+     * Percorre o histórico de OS por um cursor no banco, entregando cada registro ao consumidor
+     * assim que é lido, sem acumular o resultado em memória.
+     *
+     * @param dataInicio Data de criação inicial (inclusiva), ou {@code null} para não limitar.
+     * @param dataFim Data de criação final (inclusiva), ou {@code null} para não limitar.
+     * @param status Status aceitos; se vazio, exporta todos.
+     * @param consumidor Recebe cada OS na ordem de criação.
+     */
+    void execute(LocalDate dataInicio, LocalDate dataFim, List<StatusOS> status, Consumer<OrdemServicoResponseDTO> consumidor);
+}
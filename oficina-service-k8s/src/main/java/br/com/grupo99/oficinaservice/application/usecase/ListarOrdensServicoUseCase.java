@@ -1,9 +1,20 @@
 package br.com.grupo99.oficinaservice.application.usecase;
 
+import br.com.grupo99.oficinaservice.application.dto.OrdemServicoPaginaDTO;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoResponseDTO;
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
 
 import java.util.List;
 
 public interface ListarOrdensServicoUseCase {
     List<OrdemServicoResponseDTO> execute();
+
+    /**
+     * Lista uma página de OS ordenadas por prioridade do status e data de criação.
+     *
+     * @param status Status aceitos; se vazio, considera apenas as OS em andamento.
+     * @param cursor Token retornado na página anterior, ou {@code null} para a primeira página.
+     * @param limite Tamanho da página; se nulo, usa o padrão.
+     */
+    OrdemServicoPaginaDTO execute(List<StatusOS> status, String cursor, Integer limite);
 }
@@ -0,0 +1,10 @@
+package br.com.grupo99.oficinaservice.application.usecase;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ReconstruirEstatisticasServicoUseCase {
+    List<UUID> listarServicosPendentes();
+    List<UUID> listarTodosServicos();
+    void reconstruir(UUID servicoId);
+}
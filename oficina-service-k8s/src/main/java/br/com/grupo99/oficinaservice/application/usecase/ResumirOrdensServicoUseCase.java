@@ -0,0 +1,11 @@
+package br.com.grupo99.oficinaservice.application.usecase;
+
+import br.com.grupo99.oficinaservice.application.dto.ResumoOrdensServicoDTO;
+
+public interface ResumirOrdensServicoUseCase {
+
+    /**
+     * Quantidade de OS por status, lida dos contadores em memória e não do banco.
+     */
+    ResumoOrdensServicoDTO resumir();
+}
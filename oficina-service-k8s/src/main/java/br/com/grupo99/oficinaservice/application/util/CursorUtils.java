@@ -0,0 +1,45 @@
+package br.com.grupo99.oficinaservice.application.util;
+
+import br.com.grupo99.oficinaservice.application.exception.BusinessException;
+import br.com.grupo99.oficinaservice.domain.repository.OrdemServicoCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Converte a posição de paginação da listagem de OS em um token opaco e vice-versa.
+ */
+public class CursorUtils {
+
+    private static final String SEPARADOR = "|";
+
+    private CursorUtils() {
+    }
+
+    public static String codificar(OrdemServicoCursor cursor) {
+        String valor = cursor.prioridade() + SEPARADOR + cursor.dataCriacao() + SEPARADOR + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrdemServicoCursor decodificar(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\|", -1);
+            if (partes.length != 3) {
+                throw new IllegalArgumentException("Quantidade de campos inválida");
+            }
+            return new OrdemServicoCursor(
+                    Integer.parseInt(partes[0]),
+                    LocalDateTime.parse(partes[1]),
+                    UUID.fromString(partes[2])
+            );
+        } catch (RuntimeException e) {
+            throw new BusinessException("Cursor de paginação inválido.");
+        }
+    }
+}
@@ -3,7 +3,26 @@ package br.com.grupo99.oficinaservice.application.util;
 public class DocumentoUtils {
     public static String removerMascara(String documento) {
         if (documento == null) return null;
-        return documento.replaceAll("[.\\-/]", ""); // Remove ponto, traço e barra
+        // Remove ponto, traço e barra; documentos já sem máscara são devolvidos sem cópia
+        int i = 0;
+        while (i < documento.length() && !isMascara(documento.charAt(i))) {
+            i++;
+        }
+        if (i == documento.length()) {
+            return documento;
+        }
+        StringBuilder semMascara = new StringBuilder(documento.length() - 1).append(documento, 0, i);
+        for (; i < documento.length(); i++) {
+            char c = documento.charAt(i);
+            if (!isMascara(c)) {
+                semMascara.append(c);
+            }
+        }
+        return semMascara.toString();
+    }
+
+    private static boolean isMascara(char c) {
+        return c == '.' || c == '-' || c == '/';
     }
 
     public static String aplicarMascara(String documento) {
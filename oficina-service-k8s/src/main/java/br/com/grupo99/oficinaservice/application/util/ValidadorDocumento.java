@@ -0,0 +1,125 @@
+package br.com.grupo99.oficinaservice.application.util;
+
+/**
+ * Validação de CPF/CNPJ em uma única passada sobre o texto, sem regex e sem alocação.
+ * <p>
+ * Os dígitos são acumulados em um {@code long} (até 14 dígitos) enquanto a máscara é ignorada;
+ * ao final, o tamanho define o tipo do documento e os dígitos verificadores são conferidos
+ * a partir do próprio acumulador.
+ * <p>
+ * A mesma implementação existe na lambda de autenticação ({@code lambdavalida.service.ValidadorDocumento}).
+ */
+public final class ValidadorDocumento {
+
+    public enum Tipo {
+        CPF, CNPJ, INVALIDO
+    }
+
+    private static final int TAMANHO_CPF = 11;
+    private static final int TAMANHO_CNPJ = 14;
+
+    private ValidadorDocumento() {
+    }
+
+    /**
+     * Identifica e valida o documento ignorando qualquer caractere que não seja dígito.
+     *
+     * @return {@link Tipo#CPF} ou {@link Tipo#CNPJ} se os dígitos verificadores conferem,
+     *         {@link Tipo#INVALIDO} caso contrário (inclusive para {@code null})
+     */
+    public static Tipo identificar(CharSequence documento) {
+        return identificar(documento, false);
+    }
+
+    /**
+     * Como {@link #identificar(CharSequence)}, mas aceita apenas dígitos e os caracteres de máscara
+     * {@code . - /}; qualquer outro caractere torna o documento inválido.
+     */
+    public static Tipo identificarComMascara(CharSequence documento) {
+        return identificar(documento, true);
+    }
+
+    private static Tipo identificar(CharSequence documento, boolean apenasMascara) {
+        if (documento == null) {
+            return Tipo.INVALIDO;
+        }
+        long digitos = 0;
+        int quantidade = 0;
+        int primeiro = -1;
+        boolean repetidos = true;
+        for (int i = 0, n = documento.length(); i < n; i++) {
+            char c = documento.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++quantidade > TAMANHO_CNPJ) {
+                    return Tipo.INVALIDO;
+                }
+                int d = c - '0';
+                if (primeiro < 0) {
+                    primeiro = d;
+                } else if (d != primeiro) {
+                    repetidos = false;
+                }
+                digitos = digitos * 10 + d;
+            } else if (apenasMascara && c != '.' && c != '-' && c != '/') {
+                return Tipo.INVALIDO;
+            }
+        }
+        if (repetidos) {
+            return Tipo.INVALIDO;
+        }
+        if (quantidade == TAMANHO_CPF) {
+            return cpfValido(digitos) ? Tipo.CPF : Tipo.INVALIDO;
+        }
+        if (quantidade == TAMANHO_CNPJ) {
+            return cnpjValido(digitos) ? Tipo.CNPJ : Tipo.INVALIDO;
+        }
+        return Tipo.INVALIDO;
+    }
+
+    private static boolean cpfValido(long digitos) {
+        int dv2 = (int) (digitos % 10);
+        digitos /= 10;
+        int dv1 = (int) (digitos % 10);
+        digitos /= 10;
+        // Percorre da direita para a esquerda: a posição i (0 a 8) tem peso 10 - i no primeiro
+        // dígito e 11 - i no segundo, que também inclui o primeiro dígito verificador com peso 2
+        int soma1 = 0;
+        int soma2 = dv1 * 2;
+        for (int i = 8; i >= 0; i--) {
+            int d = (int) (digitos % 10);
+            digitos /= 10;
+            soma1 += d * (10 - i);
+            soma2 += d * (11 - i);
+        }
+        return dv1 == digitoVerificador(soma1) && dv2 == digitoVerificador(soma2);
+    }
+
+    private static boolean cnpjValido(long digitos) {
+        int dv2 = (int) (digitos % 10);
+        digitos /= 10;
+        int dv1 = (int) (digitos % 10);
+        digitos /= 10;
+        // Pesos do primeiro dígito: 5,4,3,2,9,...,2; do segundo: 6,5,4,3,2,9,...,2 (+ dv1 com peso 2)
+        int soma1 = 0;
+        int soma2 = dv1 * 2;
+        for (int i = 11; i >= 0; i--) {
+            int d = (int) (digitos % 10);
+            digitos /= 10;
+            soma1 += d * pesoCnpj(i + 1);
+            soma2 += d * pesoCnpj(i);
+        }
+        return dv1 == digitoVerificador(soma1) && dv2 == digitoVerificador(soma2);
+    }
+
+    /**
+     * Peso da posição no cálculo do CNPJ: ciclo 6,5,4,3,2,9,8,7,6,5,4,3,2 a partir da posição 0.
+     */
+    private static int pesoCnpj(int posicao) {
+        return posicao < 5 ? 6 - posicao : 14 - posicao;
+    }
+
+    private static int digitoVerificador(int soma) {
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+}
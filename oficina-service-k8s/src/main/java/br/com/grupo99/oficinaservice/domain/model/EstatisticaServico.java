@@ -0,0 +1,110 @@
+package br.com.grupo99.oficinaservice.domain.model;
+
+import jakarta.persistence.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Duração acumulada das ordens de serviço finalizadas que contêm um serviço, mantida a cada
+ * finalização para que o relatório de tempo médio não precise percorrer as ordens.
+ * <p>
+ * Guarda quantidade, soma, mínimo e máximo em minutos e um {@link HistogramaDuracao} para os
+ * percentis. {@code reconstruidaEm} indica quando os valores foram recalculados a partir do
+ * histórico; enquanto for {@code null} as ordens finalizadas antes da estatística existir ainda
+ * não foram contadas.
+ */
+@Entity
+@Table(name = "estatistica_servico")
+public class EstatisticaServico {
+
+    @Id
+    private UUID servicoId;
+
+    @Version
+    private Long versao;
+
+    @Column(nullable = false)
+    private long quantidade;
+
+    @Column(nullable = false)
+    private long somaMinutos;
+
+    private Long minimoMinutos;
+    private Long maximoMinutos;
+
+    @Column(nullable = false, length = HistogramaDuracao.TAMANHO_BYTES)
+    private byte[] histograma;
+
+    private LocalDateTime reconstruidaEm;
+
+    protected EstatisticaServico() {
+        // Construtor padrão necessário para JPA/Hibernate
+    }
+
+    public EstatisticaServico(UUID servicoId) {
+        this.servicoId = servicoId;
+        this.histograma = new HistogramaDuracao().paraBytes();
+    }
+
+    /**
+     * Conta a duração de uma ordem finalizada. Ordens sem data de criação ou de finalização são
+     * ignoradas.
+     *
+     * @return {@code true} se a duração foi contada.
+     */
+    public boolean registrar(LocalDateTime dataCriacao, LocalDateTime dataFinalizacao) {
+        if (dataCriacao == null || dataFinalizacao == null) {
+            return false;
+        }
+        long minutos = Math.max(0, Duration.between(dataCriacao, dataFinalizacao).toMinutes());
+        HistogramaDuracao duracoes = HistogramaDuracao.deBytes(histograma);
+        duracoes.registrar(minutos);
+        histograma = duracoes.paraBytes();
+        quantidade++;
+        somaMinutos += minutos;
+        minimoMinutos = minimoMinutos == null ? minutos : Math.min(minimoMinutos, minutos);
+        maximoMinutos = maximoMinutos == null ? minutos : Math.max(maximoMinutos, minutos);
+        return true;
+    }
+
+    /**
+     * Zera os valores antes de recalculá-los a partir do histórico.
+     */
+    public void reiniciar() {
+        quantidade = 0;
+        somaMinutos = 0;
+        minimoMinutos = null;
+        maximoMinutos = null;
+        histograma = new HistogramaDuracao().paraBytes();
+        reconstruidaEm = null;
+    }
+
+    public void marcarReconstruida(LocalDateTime reconstruidaEm) {
+        this.reconstruidaEm = reconstruidaEm;
+    }
+
+    public double getMediaMinutos() {
+        return quantidade == 0 ? 0 : (double) somaMinutos / quantidade;
+    }
+
+    /**
+     * Percentil aproximado da duração em minutos (ver {@link HistogramaDuracao}), limitado ao
+     * mínimo e ao máximo registrados; {@code null} se não houver durações.
+     */
+    public Long percentilMinutos(double p) {
+        if (quantidade == 0) {
+            return null;
+        }
+        long valor = HistogramaDuracao.deBytes(histograma).percentil(p);
+        return Math.min(maximoMinutos, Math.max(minimoMinutos, valor));
+    }
+
+    public UUID getServicoId() { return servicoId; }
+    public long getQuantidade() { return quantidade; }
+    public long getSomaMinutos() { return somaMinutos; }
+    public Long getMinimoMinutos() { return minimoMinutos; }
+    public Long getMaximoMinutos() { return maximoMinutos; }
+    public LocalDateTime getReconstruidaEm() { return reconstruidaEm; }
+}
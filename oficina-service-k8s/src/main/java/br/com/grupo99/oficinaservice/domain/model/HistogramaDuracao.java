@@ -0,0 +1,123 @@
+package br.com.grupo99.oficinaservice.domain.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Histograma de durações em minutos com faixas log-lineares fixas.
+ * <p>
+ * Durações até 15 minutos têm faixa própria; acima disso cada potência de 2 é dividida em 8 faixas
+ * de mesma largura, o que limita o erro do percentil a 1/16 do valor (ponto médio da faixa). Como
+ * as faixas não dependem dos dados, dois histogramas se combinam somando as contagens, e o
+ * histograma inteiro cabe em {@link #TAMANHO_BYTES} bytes.
+ */
+public final class HistogramaDuracao {
+
+    private static final int BITS_SUBFAIXA = 3;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+    private static final int EXATAS = 2 * SUBFAIXAS;
+    /** 2^21 minutos (~4 anos); durações maiores caem na última faixa. */
+    private static final int MAIOR_EXPOENTE = 20;
+
+    static final int FAIXAS = EXATAS + (MAIOR_EXPOENTE - BITS_SUBFAIXA) * SUBFAIXAS;
+    public static final int TAMANHO_BYTES = FAIXAS * Long.BYTES;
+
+    private final long[] contagens;
+
+    public HistogramaDuracao() {
+        this.contagens = new long[FAIXAS];
+    }
+
+    private HistogramaDuracao(long[] contagens) {
+        this.contagens = contagens;
+    }
+
+    public void registrar(long minutos) {
+        contagens[faixa(minutos)]++;
+    }
+
+    public void mesclar(HistogramaDuracao outro) {
+        for (int i = 0; i < FAIXAS; i++) {
+            contagens[i] += outro.contagens[i];
+        }
+    }
+
+    public long total() {
+        long total = 0;
+        for (long contagem : contagens) {
+            total += contagem;
+        }
+        return total;
+    }
+
+    /**
+     * Ponto médio da faixa que contém o percentil {@code p} (entre 0 e 1), ou {@code -1} se o
+     * histograma estiver vazio.
+     */
+    public long percentil(double p) {
+        long total = total();
+        if (total == 0) {
+            return -1;
+        }
+        long posicao = Math.max(1, (long) Math.ceil(p * total));
+        long acumulado = 0;
+        for (int i = 0; i < FAIXAS; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= posicao) {
+                return pontoMedio(i);
+            }
+        }
+        return pontoMedio(FAIXAS - 1);
+    }
+
+    public byte[] paraBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_BYTES);
+        buffer.asLongBuffer().put(contagens);
+        return buffer.array();
+    }
+
+    public static HistogramaDuracao deBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return new HistogramaDuracao();
+        }
+        if (bytes.length != TAMANHO_BYTES) {
+            throw new IllegalArgumentException("Histograma com tamanho inválido: " + bytes.length + " bytes.");
+        }
+        long[] contagens = new long[FAIXAS];
+        ByteBuffer.wrap(bytes).asLongBuffer().get(contagens);
+        return new HistogramaDuracao(contagens);
+    }
+
+    static int faixa(long minutos) {
+        if (minutos < EXATAS) {
+            return (int) Math.max(0, minutos);
+        }
+        int expoente = 63 - Long.numberOfLeadingZeros(minutos);
+        if (expoente > MAIOR_EXPOENTE) {
+            return FAIXAS - 1;
+        }
+        int subfaixa = (int) (minutos >>> (expoente - BITS_SUBFAIXA)) & (SUBFAIXAS - 1);
+        return EXATAS + (expoente - BITS_SUBFAIXA - 1) * SUBFAIXAS + subfaixa;
+    }
+
+    static long pontoMedio(int faixa) {
+        if (faixa < EXATAS) {
+            return faixa;
+        }
+        int expoente = (faixa - EXATAS) / SUBFAIXAS + BITS_SUBFAIXA + 1;
+        int subfaixa = (faixa - EXATAS) % SUBFAIXAS;
+        long inicio = (long) (SUBFAIXAS + subfaixa) << (expoente - BITS_SUBFAIXA);
+        long largura = 1L << (expoente - BITS_SUBFAIXA);
+        return inicio + (largura - 1) / 2;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HistogramaDuracao outro && Arrays.equals(contagens, outro.contagens);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(contagens);
+    }
+}
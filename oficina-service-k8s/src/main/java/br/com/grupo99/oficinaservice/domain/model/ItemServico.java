@@ -7,6 +7,10 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        // O PostgreSQL não indexa FKs; usado ao carregar os itens da OS e no relatório de tempo por serviço
+        @Index(name = "idx_item_servico_ordem", columnList = "ordem_servico_id, servico_id")
+})
 public class ItemServico {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
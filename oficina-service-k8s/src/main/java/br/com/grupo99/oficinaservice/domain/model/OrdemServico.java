@@ -9,6 +9,13 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        // Suporta a listagem paginada por keyset: WHERE status IN (...) ORDER BY prioridade NULLS LAST, data_criacao, id
+        // (NULLS LAST é a ordem padrão do índice ascendente no PostgreSQL)
+        @Index(name = "idx_ordem_servico_listagem", columnList = "prioridade, data_criacao, id"),
+        // Relatório de tempo por serviço: WHERE status IN (...) AND data_finalizacao no período
+        @Index(name = "idx_ordem_servico_finalizacao", columnList = "status, data_finalizacao")
+})
 public class OrdemServico {
 
     @Id
@@ -25,12 +32,18 @@ public class OrdemServico {
     @Column(nullable = false)
     private StatusOS status;
 
+    /**
+     * Cópia persistida de {@link StatusOS#getPrioridade()}, mantida a cada mudança de status.
+     */
+    private Integer prioridade;
+
+    // FK gravada já no INSERT do item, sem o UPDATE posterior típico de @OneToMany unidirecional
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "ordem_servico_id")
+    @JoinColumn(name = "ordem_servico_id", nullable = false, updatable = false)
     private List<ItemServico> servicos = new ArrayList<>();
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "ordem_servico_id")
+    @JoinColumn(name = "ordem_servico_id", nullable = false, updatable = false)
     private List<ItemPeca> pecas = new ArrayList<>();
 
     @Column(nullable = false)
@@ -40,6 +53,20 @@ public class OrdemServico {
     private LocalDateTime dataFinalizacao;
     private LocalDateTime dataEntrega;
 
+    /**
+     * Quando a OS entrou no status atual; {@code null} até a primeira transição (a OS está no
+     * status desde a criação) ou se a transição ocorreu antes da coluna existir.
+     */
+    private LocalDateTime dataStatus;
+
+    /** Transições feitas desde que a OS foi carregada, ainda não gravadas no histórico. */
+    @Transient
+    private List<TransicaoStatusOrdemServico> transicoesPendentes = new ArrayList<>();
+
+    /** Usuário que está alterando a OS, registrado nas transições. */
+    @Transient
+    private String responsavelAlteracao;
+
     public OrdemServico() {
     }
 
@@ -52,7 +79,7 @@ public class OrdemServico {
         }
         this.clienteId = clienteId;
         this.veiculoId = veiculoId;
-        this.status = StatusOS.RECEBIDA;
+        alterarStatus(StatusOS.RECEBIDA);
         this.dataCriacao = java.time.LocalDateTime.now();
         this.valorTotal = java.math.BigDecimal.ZERO;
     }
@@ -68,7 +95,7 @@ public class OrdemServico {
         }
         ItemServico item = new ItemServico(servico, quantidade);
         this.servicos.add(item);
-        atualizarValorTotal();
+        somarAoValorTotal(item.getValorTotal());
     }
 
     public void adicionarPeca(Peca peca, Integer quantidade) {
@@ -81,10 +108,29 @@ public class OrdemServico {
         if (peca.getEstoque() < quantidade) {
             throw new IllegalStateException("Estoque insuficiente para a peça: " + peca.getNome());
         }
+        peca.baixarEstoque(quantidade);
+        registrarItemPeca(peca, quantidade);
+    }
+
+    /**
+     * Adiciona uma peça cujo estoque já foi reservado de forma atômica no banco
+     * (ver {@code PecaRepository#reservarEstoque}). O estoque da entidade em memória não é alterado,
+     * para que a baixa não seja sobrescrita por um UPDATE com valor desatualizado.
+     */
+    public void adicionarPecaReservada(Peca peca, Integer quantidade) {
+        if (peca == null) {
+            throw new IllegalArgumentException("Peça não pode ser nula.");
+        }
+        if (quantidade == null || quantidade <= 0) {
+            throw new IllegalArgumentException("Quantidade deve ser maior que zero.");
+        }
+        registrarItemPeca(peca, quantidade);
+    }
+
+    private void registrarItemPeca(Peca peca, Integer quantidade) {
         ItemPeca item = new ItemPeca(peca, quantidade);
         this.pecas.add(item);
-        peca.baixarEstoque(quantidade);
-        atualizarValorTotal();
+        somarAoValorTotal(item.getValorTotal());
     }
 
     public void removerServico(UUID itemServicoId) {
@@ -103,6 +149,10 @@ public class OrdemServico {
         atualizarValorTotal();
     }
 
+    private void somarAoValorTotal(BigDecimal valor) {
+        this.valorTotal = (this.valorTotal != null ? this.valorTotal : BigDecimal.ZERO).add(valor);
+    }
+
     private void atualizarValorTotal() {
         BigDecimal totalServicos = servicos.stream()
             .map(ItemServico::getValorTotal)
@@ -117,37 +167,72 @@ public class OrdemServico {
         if (this.status != StatusOS.RECEBIDA) {
             throw new IllegalStateException("OS não pode iniciar diagnóstico pois não está no status 'Recebida'");
         }
-        this.status = StatusOS.EM_DIAGNOSTICO;
+        transicionar(StatusOS.EM_DIAGNOSTICO);
     }
 
     public void aguardarAprovacao() {
         if (this.status != StatusOS.EM_DIAGNOSTICO) {
             throw new IllegalStateException("OS não pode aguardar aprovação pois não está em diagnóstico");
         }
-        this.status = StatusOS.AGUARDANDO_APROVACAO;
+        transicionar(StatusOS.AGUARDANDO_APROVACAO);
     }
 
     public void aprovar() {
         if (this.status != StatusOS.AGUARDANDO_APROVACAO) {
             throw new IllegalStateException("OS não pode ser aprovada pois não está aguardando aprovação");
         }
-        this.status = StatusOS.EM_EXECUCAO;
+        transicionar(StatusOS.EM_EXECUCAO);
     }
 
     public void finalizar() {
         if (this.status != StatusOS.EM_EXECUCAO) {
             throw new IllegalStateException("OS não pode ser finalizada pois não está em execução");
         }
-        this.status = StatusOS.FINALIZADA;
-        this.dataFinalizacao = LocalDateTime.now();
+        this.dataFinalizacao = transicionar(StatusOS.FINALIZADA);
     }
 
     public void entregar() {
         if (this.status != StatusOS.FINALIZADA) {
             throw new IllegalStateException("OS não pode ser entregue pois não foi finalizada");
         }
-        this.status = StatusOS.ENTREGUE;
-        this.dataEntrega = LocalDateTime.now();
+        this.dataEntrega = transicionar(StatusOS.ENTREGUE);
+    }
+
+    /**
+     * Define o usuário registrado nas próximas transições de status.
+     */
+    public void definirResponsavelAlteracao(String responsavel) {
+        this.responsavelAlteracao = responsavel;
+    }
+
+    /**
+     * Devolve as transições ainda não gravadas no histórico e as esquece.
+     */
+    public List<TransicaoStatusOrdemServico> retirarTransicoesPendentes() {
+        List<TransicaoStatusOrdemServico> transicoes = List.copyOf(transicoesPendentes);
+        transicoesPendentes.clear();
+        return transicoes;
+    }
+
+    /**
+     * Muda o status e registra a transição com o tempo passado no status anterior.
+     *
+     * @return Momento da transição.
+     */
+    private LocalDateTime transicionar(StatusOS novoStatus) {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime inicioStatusAnterior = (dataStatus != null) ? dataStatus
+                : (status == StatusOS.RECEBIDA) ? dataCriacao : null;
+        transicoesPendentes.add(new TransicaoStatusOrdemServico(
+                id, status, novoStatus, agora, inicioStatusAnterior, responsavelAlteracao));
+        alterarStatus(novoStatus);
+        this.dataStatus = agora;
+        return agora;
+    }
+
+    private void alterarStatus(StatusOS novoStatus) {
+        this.status = novoStatus;
+        this.prioridade = novoStatus != null ? novoStatus.getPrioridade() : null;
     }
 
     // --- Getters e Setters ---
@@ -181,7 +266,11 @@ public class OrdemServico {
     }
 
     public void setStatus(StatusOS status) {
-        this.status = status;
+        alterarStatus(status);
+    }
+
+    public Integer getPrioridade() {
+        return prioridade;
     }
 
     public List<ItemServico> getServicos() {
@@ -228,6 +317,10 @@ public class OrdemServico {
         this.dataEntrega = dataEntrega;
     }
 
+    public LocalDateTime getDataStatus() {
+        return dataStatus;
+    }
+
     // --- Equals, HashCode e ToString ---
 
     @Override
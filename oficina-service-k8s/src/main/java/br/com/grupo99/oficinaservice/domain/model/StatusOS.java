@@ -1,11 +1,32 @@
 package br.com.grupo99.oficinaservice.domain.model;
 
+import java.util.List;
+
 public enum StatusOS {
-    RECEBIDA,
-    EM_DIAGNOSTICO,
-    AGUARDANDO_APROVACAO,
-    EM_EXECUCAO,
-    FINALIZADA,
-    ENTREGUE,
-    CANCELADA
+    RECEBIDA(4),
+    EM_DIAGNOSTICO(3),
+    AGUARDANDO_APROVACAO(2),
+    EM_EXECUCAO(1),
+    FINALIZADA(99),
+    ENTREGUE(99),
+    CANCELADA(99);
+
+    /**
+     * Status considerados "em andamento" (exibidos na listagem padrão de OS).
+     */
+    public static final List<StatusOS> ATIVOS = List.of(RECEBIDA, EM_DIAGNOSTICO, AGUARDANDO_APROVACAO, EM_EXECUCAO);
+
+    private final int prioridade;
+
+    StatusOS(int prioridade) {
+        this.prioridade = prioridade;
+    }
+
+    /**
+     * Prioridade de exibição na listagem (menor valor aparece primeiro).
+     * Persistida junto à OS para permitir ordenação e paginação no banco.
+     */
+    public int getPrioridade() {
+        return prioridade;
+    }
 }
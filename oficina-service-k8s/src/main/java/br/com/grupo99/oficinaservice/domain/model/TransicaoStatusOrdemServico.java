@@ -0,0 +1,80 @@
+package br.com.grupo99.oficinaservice.domain.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Registro de uma mudança de status de OS, gravado uma única vez e nunca alterado.
+ * <p>
+ * Além dos status de origem e destino, guarda quanto tempo a OS ficou no status anterior, para
+ * que o tempo por status seja lido por faixa do índice {@code (status_anterior, data_transicao)}
+ * sem reconstruir a linha do tempo de cada OS.
+ */
+@Entity
+@Immutable
+@Table(name = "transicao_status_ordem_servico", indexes = {
+        // Linha do tempo de uma OS: WHERE ordem_servico_id = ? ORDER BY data_transicao
+        @Index(name = "idx_transicao_status_ordem", columnList = "ordem_servico_id, data_transicao"),
+        // Tempo em um status no período: WHERE status_anterior = ? AND data_transicao no período
+        @Index(name = "idx_transicao_status_anterior", columnList = "status_anterior, data_transicao")
+})
+public class TransicaoStatusOrdemServico {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false, updatable = false)
+    private UUID ordemServicoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private StatusOS statusAnterior;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private StatusOS statusNovo;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime dataTransicao;
+
+    /**
+     * Tempo no status anterior em milissegundos, ou {@code null} se a OS entrou nele antes do
+     * histórico existir.
+     */
+    @Column(updatable = false)
+    private Long duracaoStatusAnteriorMs;
+
+    /** Usuário que pediu a mudança, ou {@code null} se desconhecido. */
+    @Column(updatable = false)
+    private String responsavel;
+
+    protected TransicaoStatusOrdemServico() {
+        // Construtor padrão necessário para JPA/Hibernate
+    }
+
+    public TransicaoStatusOrdemServico(UUID ordemServicoId, StatusOS statusAnterior, StatusOS statusNovo,
+                                       LocalDateTime dataTransicao, LocalDateTime inicioStatusAnterior,
+                                       String responsavel) {
+        this.ordemServicoId = ordemServicoId;
+        this.statusAnterior = statusAnterior;
+        this.statusNovo = statusNovo;
+        this.dataTransicao = dataTransicao;
+        this.duracaoStatusAnteriorMs = (inicioStatusAnterior != null)
+                ? Math.max(0, Duration.between(inicioStatusAnterior, dataTransicao).toMillis())
+                : null;
+        this.responsavel = responsavel;
+    }
+
+    public UUID getId() { return id; }
+    public UUID getOrdemServicoId() { return ordemServicoId; }
+    public StatusOS getStatusAnterior() { return statusAnterior; }
+    public StatusOS getStatusNovo() { return statusNovo; }
+    public LocalDateTime getDataTransicao() { return dataTransicao; }
+    public Long getDuracaoStatusAnteriorMs() { return duracaoStatusAnteriorMs; }
+    public String getResponsavel() { return responsavel; }
+}
@@ -0,0 +1,15 @@
+package br.com.grupo99.oficinaservice.domain.repository;
+
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+
+/**
+ * Quantidade de OS em um status, lida com uma consulta agrupada.
+ *
+ * @param status Status das OS contadas.
+ * @param quantidade Quantidade de OS no status.
+ */
+public record ContagemStatusOrdemServico(
+        StatusOS status,
+        long quantidade
+) {
+}
@@ -0,0 +1,19 @@
+package br.com.grupo99.oficinaservice.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projeção das datas de uma OS finalizada, usada para reconstruir as estatísticas de duração
+ * sem carregar a ordem e seus itens.
+ *
+ * @param id ID da OS.
+ * @param dataCriacao Data de criação da OS.
+ * @param dataFinalizacao Data de finalização da OS.
+ */
+public record DuracaoOrdemServico(
+        UUID id,
+        LocalDateTime dataCriacao,
+        LocalDateTime dataFinalizacao
+) {
+}
@@ -0,0 +1,45 @@
+package br.com.grupo99.oficinaservice.domain.repository;
+
+import br.com.grupo99.oficinaservice.domain.model.EstatisticaServico;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface EstatisticaServicoRepository {
+    Optional<EstatisticaServico> findByServicoId(UUID servicoId);
+
+    /**
+     * Bloqueia os serviços informados até o fim da transação, sempre na ordem dos IDs, e retorna
+     * as estatísticas deles, criando as que ainda não existem. Finalizações e reconstruções do
+     * mesmo serviço ficam serializadas, sem atualização perdida nem inserção duplicada. Serviços
+     * inexistentes são ignorados.
+     */
+    List<EstatisticaServico> bloquearParaAtualizacao(Collection<UUID> servicoIds);
+
+    EstatisticaServico save(EstatisticaServico estatistica);
+
+    /**
+     * IDs dos serviços cujas estatísticas ainda não foram reconstruídas a partir do histórico.
+     */
+    List<UUID> findServicosSemReconstrucao();
+
+    /**
+     * Datas das ordens finalizadas ou entregues que contêm o serviço. Deve ser consumido dentro
+     * de uma transação e fechado ao final.
+     */
+    Stream<DuracaoOrdemServico> streamDuracoesFinalizadas(UUID servicoId);
+
+    /**
+     * Quantidade, média, mediana e percentil 90 da duração das ordens finalizadas ou entregues de
+     * cada serviço do catálogo, agregados no banco em uma única consulta. Serviços sem ordens no
+     * período vêm com quantidade zero. Deve ser consumido dentro de uma transação e fechado ao final.
+     *
+     * @param inicio Data de finalização inicial (inclusiva), ou {@code null} para não limitar.
+     * @param fim Data de finalização final (exclusiva), ou {@code null} para não limitar.
+     */
+    Stream<TempoPorServico> streamTemposPorServico(LocalDateTime inicio, LocalDateTime fim);
+}
@@ -0,0 +1,45 @@
+package br.com.grupo99.oficinaservice.domain.repository;
+
+import br.com.grupo99.oficinaservice.domain.model.OrdemServico;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Posição (keyset) da última OS retornada em uma página da listagem.
+ * A próxima página começa estritamente após a tupla (prioridade, dataCriacao, id).
+ *
+ * @param prioridade Prioridade persistida do status da OS, ou {@link #SEM_PRIORIDADE} se ainda não preenchida.
+ * @param dataCriacao Data de criação da OS.
+ * @param id ID da OS, usado como desempate.
+ */
+public record OrdemServicoCursor(int prioridade, LocalDateTime dataCriacao, UUID id) {
+
+    /**
+     * Prioridade das OS gravadas antes do preenchimento da coluna: a listagem as ordena por último
+     * ({@code NULLS LAST}), depois de qualquer prioridade de status.
+     */
+    public static final int SEM_PRIORIDADE = Integer.MAX_VALUE;
+
+    public OrdemServicoCursor {
+        Objects.requireNonNull(dataCriacao, "dataCriacao não pode ser nula");
+        Objects.requireNonNull(id, "id não pode ser nulo");
+    }
+
+    public static OrdemServicoCursor from(OrdemServico ordemServico) {
+        return new OrdemServicoCursor(
+                prioridadeOuSentinela(ordemServico.getPrioridade()),
+                ordemServico.getDataCriacao(),
+                ordemServico.getId()
+        );
+    }
+
+    public static OrdemServicoCursor from(OrdemServicoResumo resumo) {
+        return new OrdemServicoCursor(prioridadeOuSentinela(resumo.prioridade()), resumo.dataCriacao(), resumo.id());
+    }
+
+    private static int prioridadeOuSentinela(Integer prioridade) {
+        return prioridade != null ? prioridade : SEM_PRIORIDADE;
+    }
+}
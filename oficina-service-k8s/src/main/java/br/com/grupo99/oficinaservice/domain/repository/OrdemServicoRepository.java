@@ -3,9 +3,11 @@ package br.com.grupo99.oficinaservice.domain.repository;
 import br.com.grupo99.oficinaservice.domain.model.OrdemServico;
 import br.com.grupo99.oficinaservice.domain.model.StatusOS;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface OrdemServicoRepository {
     OrdemServico save(OrdemServico ordemServico);
@@ -13,4 +15,38 @@ public interface OrdemServicoRepository {
     List<OrdemServico> findAll();
     List<OrdemServico> findByClienteId(UUID clienteId);
     Optional<OrdemServico> findByClienteIdAndVeiculoIdAndStatusIn(UUID clienteId, UUID veiculoId, List<StatusOS> statusList);
+
+    /**
+     * Lista o resumo das OS com os status informados, ordenado por prioridade,
+     * data de criação e id, em uma única consulta.
+     *
+     * @param statusList Status aceitos.
+     */
+    List<OrdemServicoResumo> findResumos(List<StatusOS> statusList);
+
+    /**
+     * Busca uma página da listagem de OS filtrada por status e ordenada por prioridade,
+     * data de criação e id, usando paginação por keyset.
+     *
+     * @param statusList Status aceitos.
+     * @param apos Posição da última OS da página anterior, ou {@code null} para a primeira página.
+     * @param limite Quantidade máxima de registros retornados.
+     */
+    List<OrdemServicoResumo> findPagina(List<StatusOS> statusList, OrdemServicoCursor apos, int limite);
+
+    /**
+     * Abre um cursor sobre o resumo das OS criadas no intervalo, ordenado por data de criação.
+     * Deve ser consumido dentro de uma transação e fechado pelo chamador.
+     *
+     * @param statusList Status aceitos.
+     * @param inicio Data de criação inicial (inclusiva), ou {@code null} para não limitar.
+     * @param fim Data de criação final (exclusiva), ou {@code null} para não limitar.
+     */
+    Stream<OrdemServicoResumo> streamParaExportacao(List<StatusOS> statusList, LocalDateTime inicio, LocalDateTime fim);
+
+    /**
+     * Conta as OS de cada status em uma única consulta agrupada. Status sem nenhuma OS não
+     * aparecem no resultado.
+     */
+    List<ContagemStatusOrdemServico> contarPorStatus();
 }
@@ -0,0 +1,30 @@
+package br.com.grupo99.oficinaservice.domain.repository;
+
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projeção de leitura da listagem de OS, montada em uma única consulta com
+ * junção de cliente (pessoa) e veículo, sem carregar as entidades relacionadas.
+ *
+ * @param id ID da OS.
+ * @param clienteNome Nome do cliente, ou {@code null} se o cliente não existir mais.
+ * @param placaVeiculo Placa do veículo, ou {@code null} se o veículo não existir mais.
+ * @param status Status atual da OS.
+ * @param valorTotal Valor total da OS.
+ * @param dataCriacao Data de criação da OS.
+ * @param prioridade Prioridade persistida do status, usada na paginação por keyset.
+ */
+public record OrdemServicoResumo(
+        UUID id,
+        String clienteNome,
+        String placaVeiculo,
+        StatusOS status,
+        BigDecimal valorTotal,
+        LocalDateTime dataCriacao,
+        Integer prioridade
+) {
+}
@@ -2,14 +2,29 @@ package br.com.grupo99.oficinaservice.domain.repository;
 
 import br.com.grupo99.oficinaservice.domain.model.Peca;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface PecaRepository {
     Peca save(Peca peca);
     Optional<Peca> findById(UUID id);
+    List<Peca> findAllById(Collection<UUID> ids);
     void deleteById(UUID id);
     List<Peca> findAll();
     boolean existsById(UUID id);
+
+    /**
+     * Reserva estoque com um decremento condicional e atômico por peça
+     * ({@code estoque = estoque - qtd WHERE estoque >= qtd}), sem lock pessimista nem versão.
+     * Deve ser chamado dentro de uma transação; as reservas feitas são desfeitas no rollback.
+     * As linhas são alteradas em ordem de ID, independente da ordem do mapa.
+     *
+     * @param quantidadesPorPeca Quantidade a reservar de cada peça.
+     * @return IDs das peças sem estoque suficiente (vazio se todas foram reservadas).
+     */
+    Set<UUID> reservarEstoque(Map<UUID, Integer> quantidadesPorPeca);
 }
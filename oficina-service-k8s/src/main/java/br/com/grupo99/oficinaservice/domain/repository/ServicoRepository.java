@@ -2,6 +2,7 @@ package br.com.grupo99.oficinaservice.domain.repository;
 
 import br.com.grupo99.oficinaservice.domain.model.Servico;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -9,6 +10,7 @@ import java.util.UUID;
 public interface ServicoRepository {
     Servico save(Servico servico);
     Optional<Servico> findById(UUID id);
+    List<Servico> findAllById(Collection<UUID> ids);
     void deleteById(UUID id);
     List<Servico> findAll();
     boolean existsById(UUID id);
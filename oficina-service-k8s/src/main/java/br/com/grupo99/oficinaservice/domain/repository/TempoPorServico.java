@@ -0,0 +1,23 @@
+package br.com.grupo99.oficinaservice.domain.repository;
+
+import java.util.UUID;
+
+/**
+ * Linha do relatório agregado de duração das ordens finalizadas por serviço, calculada no banco.
+ *
+ * @param servicoId ID do serviço.
+ * @param servicoDescricao Descrição do serviço.
+ * @param totalOrdens Ordens finalizadas ou entregues no período que contêm o serviço.
+ * @param mediaMinutos Duração média em minutos, ou {@code null} se não houver ordens.
+ * @param medianaMinutos Mediana da duração em minutos, ou {@code null} se não houver ordens.
+ * @param p90Minutos Percentil 90 da duração em minutos, ou {@code null} se não houver ordens.
+ */
+public record TempoPorServico(
+        UUID servicoId,
+        String servicoDescricao,
+        long totalOrdens,
+        Double mediaMinutos,
+        Double medianaMinutos,
+        Double p90Minutos
+) {
+}
@@ -0,0 +1,18 @@
+package br.com.grupo99.oficinaservice.domain.repository;
+
+import br.com.grupo99.oficinaservice.domain.model.TransicaoStatusOrdemServico;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Histórico de mudanças de status das OS. Apenas inclui registros; nunca altera nem remove.
+ */
+public interface TransicaoStatusOrdemServicoRepository {
+    void saveAll(List<TransicaoStatusOrdemServico> transicoes);
+
+    /**
+     * Linha do tempo de uma OS, da transição mais antiga para a mais recente.
+     */
+    List<TransicaoStatusOrdemServico> findByOrdemServicoId(UUID ordemServicoId);
+}
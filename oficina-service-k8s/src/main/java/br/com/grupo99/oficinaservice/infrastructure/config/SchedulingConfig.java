@@ -0,0 +1,12 @@
+package br.com.grupo99.oficinaservice.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas da aplicação (ex.: despacho da outbox de e-mails).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -5,7 +5,6 @@ import br.com.grupo99.oficinaservice.infrastructure.security.jwt.JwtRequestFilte
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -25,12 +24,12 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * 
  * Habilita:
  * - Method Security: Para uso de @PreAuthorize, @Secured, etc.
- * - AspectJ Proxy: Para interceptação via AOP (@RequiresRole)
+ *
+ * O @RequiresRole dos controllers é aplicado pelo RequiresRoleInterceptor, registrado no {@link WebConfig}.
  */
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true, securedEnabled = true)
-@EnableAspectJAutoProxy
 public class SecurityConfig {
 
     private final JwtRequestFilter jwtRequestFilter;
@@ -0,0 +1,24 @@
+package br.com.grupo99.oficinaservice.infrastructure.config;
+
+import br.com.grupo99.oficinaservice.infrastructure.security.authorization.RequiresRoleInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuração do Spring MVC: registra o interceptor que aplica {@code @RequiresRole} nos controllers.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RequiresRoleInterceptor requiresRoleInterceptor;
+
+    public WebConfig(RequiresRoleInterceptor requiresRoleInterceptor) {
+        this.requiresRoleInterceptor = requiresRoleInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(requiresRoleInterceptor);
+    }
+}
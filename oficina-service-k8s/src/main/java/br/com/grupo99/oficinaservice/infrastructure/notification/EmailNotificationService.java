@@ -3,11 +3,15 @@ package br.com.grupo99.oficinaservice.infrastructure.notification;
 import br.com.grupo99.oficinaservice.application.service.NotificationService;
 import br.com.grupo99.oficinaservice.domain.model.OrdemServico;
 import br.com.grupo99.oficinaservice.domain.repository.ClienteRepository;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.EmailOutboxJpaRepository;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Notifica o cliente por e-mail. As mensagens são gravadas na outbox dentro da transação
+ * do chamador e entregues de forma assíncrona pelo {@link EmailOutboxDispatcher}.
+ */
 @Service
 @Slf4j
 public class EmailNotificationService implements NotificationService {
@@ -26,25 +30,21 @@ public class EmailNotificationService implements NotificationService {
             Equipe da Oficina
             """;
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxJpaRepository outboxRepository;
     private final ClienteRepository clienteRepository;
 
-    public EmailNotificationService(JavaMailSender mailSender, ClienteRepository clienteRepository) {
-        this.mailSender = mailSender;
+    public EmailNotificationService(EmailOutboxJpaRepository outboxRepository, ClienteRepository clienteRepository) {
+        this.outboxRepository = outboxRepository;
         this.clienteRepository = clienteRepository;
     }
 
     @Override
+    @Transactional
     public void notificarClienteParaAprovacao(OrdemServico ordemServico) {
         clienteRepository.findById(ordemServico.getClienteId()).ifPresent(cliente -> {
             if (isEmailValido(cliente.getPessoa().getEmail())) {
-                try {
-                    SimpleMailMessage mensagem = criarMensagemEmail(cliente.getPessoa().getName(), cliente.getPessoa().getEmail(), ordemServico);
-                    mailSender.send(mensagem);
-                    log.info("E-mail de orçamento enviado com sucesso - OS: {}, Cliente: {}", ordemServico.getId(), cliente.getPessoa().getEmail());
-                } catch (Exception e) {
-                    log.error("Erro ao enviar e-mail - OS: {}, Cliente: {}, Erro: {}", ordemServico.getId(), cliente.getPessoa().getEmail(), e.getMessage(), e);
-                }
+                outboxRepository.save(criarEmailOrcamento(cliente.getPessoa().getName(), cliente.getPessoa().getEmail(), ordemServico));
+                log.info("E-mail de orçamento enfileirado - OS: {}, Cliente: {}", ordemServico.getId(), cliente.getPessoa().getEmail());
             } else {
                 log.warn("E-mail inválido ou ausente - Cliente: {}, OS: {}", cliente.getId(), ordemServico.getId());
             }
@@ -52,19 +52,15 @@ public class EmailNotificationService implements NotificationService {
     }
 
     @Override
+    @Transactional
     public void notificarAtualizacaoStatusOrdemServico(OrdemServico ordemServico, br.com.grupo99.oficinaservice.domain.model.Cliente cliente) {
         if (isEmailValido(cliente.getPessoa().getEmail())) {
-            try {
-                SimpleMailMessage mensagem = new SimpleMailMessage();
-                mensagem.setFrom(EMAIL_REMETENTE);
-                mensagem.setTo(cliente.getPessoa().getEmail());
-                mensagem.setSubject(String.format("Atualização de Status da OS #%s", ordemServico.getId().toString().substring(0, 8)));
-                mensagem.setText(String.format("Olá, %s!\n\nO status da sua Ordem de Serviço foi atualizado para: %s.\n\nAtenciosamente,\nEquipe da Oficina", cliente.getPessoa().getName(), ordemServico.getStatus()));
-                mailSender.send(mensagem);
-                log.info("E-mail de atualização de status enviado com sucesso - OS: {}, Cliente: {}", ordemServico.getId(), cliente.getPessoa().getEmail());
-            } catch (Exception e) {
-                log.error("Erro ao enviar e-mail de atualização de status - OS: {}, Cliente: {}, Erro: {}", ordemServico.getId(), cliente.getPessoa().getEmail(), e.getMessage(), e);
-            }
+            outboxRepository.save(new EmailOutbox(
+                    EMAIL_REMETENTE,
+                    cliente.getPessoa().getEmail(),
+                    String.format("Atualização de Status da OS #%s", ordemServico.getId().toString().substring(0, 8)),
+                    String.format("Olá, %s!\n\nO status da sua Ordem de Serviço foi atualizado para: %s.\n\nAtenciosamente,\nEquipe da Oficina", cliente.getPessoa().getName(), ordemServico.getStatus())));
+            log.info("E-mail de atualização de status enfileirado - OS: {}, Cliente: {}", ordemServico.getId(), cliente.getPessoa().getEmail());
         } else {
             log.warn("E-mail inválido ou ausente - Cliente: {}, OS: {}", cliente.getId(), ordemServico.getId());
         }
@@ -74,12 +70,11 @@ public class EmailNotificationService implements NotificationService {
         return email != null && !email.isBlank();
     }
 
-    private SimpleMailMessage criarMensagemEmail(String nomeCliente, String email, OrdemServico os) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setFrom(EMAIL_REMETENTE);
-        message.setTo(email);
-        message.setSubject(String.format(ASSUNTO_TEMPLATE, os.getId().toString().substring(0, 8)));
-        message.setText(String.format(MENSAGEM_TEMPLATE, nomeCliente, os.getValorTotal()));
-        return message;
+    private EmailOutbox criarEmailOrcamento(String nomeCliente, String email, OrdemServico os) {
+        return new EmailOutbox(
+                EMAIL_REMETENTE,
+                email,
+                String.format(ASSUNTO_TEMPLATE, os.getId().toString().substring(0, 8)),
+                String.format(MENSAGEM_TEMPLATE, nomeCliente, os.getValorTotal()));
     }
 }
\ No newline at end of file
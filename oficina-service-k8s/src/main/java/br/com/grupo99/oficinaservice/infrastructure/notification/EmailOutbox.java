@@ -0,0 +1,113 @@
+package br.com.grupo99.oficinaservice.infrastructure.notification;
+
+import jakarta.persistence.*;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * E-mail aguardando envio. É gravado na mesma transação da mudança que o originou
+ * e entregue depois pelo {@link EmailOutboxDispatcher}.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        // Suporta a busca do lote: WHERE status = 'PENDENTE' AND proxima_tentativa_em <= ? ORDER BY criado_em
+        @Index(name = "idx_email_outbox_pendentes", columnList = "status, proxima_tentativa_em, criado_em")
+})
+public class EmailOutbox {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String remetente;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false)
+    private String assunto;
+
+    @Column(nullable = false, length = 4000)
+    private String corpo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatusEmailOutbox status;
+
+    private int tentativas;
+
+    @Column(nullable = false)
+    private LocalDateTime proximaTentativaEm;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm;
+
+    private LocalDateTime enviadoEm;
+
+    @Column(length = TAMANHO_MAXIMO_ERRO)
+    private String ultimoErro;
+
+    /**
+     * Último lote que reservou o e-mail. Durante a reserva a próxima tentativa é adiada, para que
+     * outra instância não o pegue; se o processo cair no meio do envio, ele volta à fila no prazo.
+     */
+    private UUID lote;
+
+    protected EmailOutbox() {
+    }
+
+    public EmailOutbox(String remetente, String destinatario, String assunto, String corpo) {
+        this.remetente = remetente;
+        this.destinatario = destinatario;
+        this.assunto = assunto;
+        this.corpo = corpo;
+        this.status = StatusEmailOutbox.PENDENTE;
+        this.criadoEm = LocalDateTime.now();
+        this.proximaTentativaEm = this.criadoEm;
+    }
+
+    /**
+     * Registra uma tentativa de envio sem sucesso, reagendando-a ou desistindo
+     * quando o número máximo de tentativas for atingido.
+     */
+    public void registrarFalha(String erro, LocalDateTime agora, Duration espera, int maxTentativas) {
+        this.tentativas++;
+        this.ultimoErro = (erro != null && erro.length() > TAMANHO_MAXIMO_ERRO)
+                ? erro.substring(0, TAMANHO_MAXIMO_ERRO)
+                : erro;
+        if (this.tentativas >= maxTentativas) {
+            this.status = StatusEmailOutbox.FALHOU;
+        } else {
+            this.proximaTentativaEm = agora.plus(espera);
+        }
+    }
+
+    public SimpleMailMessage paraMensagem() {
+        SimpleMailMessage mensagem = new SimpleMailMessage();
+        mensagem.setFrom(remetente);
+        mensagem.setTo(destinatario);
+        mensagem.setSubject(assunto);
+        mensagem.setText(corpo);
+        return mensagem;
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+    public String getRemetente() { return remetente; }
+    public String getDestinatario() { return destinatario; }
+    public String getAssunto() { return assunto; }
+    public String getCorpo() { return corpo; }
+    public StatusEmailOutbox getStatus() { return status; }
+    public int getTentativas() { return tentativas; }
+    public LocalDateTime getProximaTentativaEm() { return proximaTentativaEm; }
+    public LocalDateTime getCriadoEm() { return criadoEm; }
+    public LocalDateTime getEnviadoEm() { return enviadoEm; }
+    public String getUltimoErro() { return ultimoErro; }
+    public UUID getLote() { return lote; }
+}
@@ -0,0 +1,273 @@
+package br.com.grupo99.oficinaservice.infrastructure.notification;
+
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.EmailOutboxJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entrega os e-mails gravados em {@link EmailOutbox} fora da transação de negócio.
+ * <p>
+ * A cada ciclo reserva um lote de pendentes (com UPDATE condicional, seguro entre réplicas), divide-o entre no máximo {@code concorrencia}
+ * virtual threads e envia cada parte por uma única conexão SMTP. Falhas são reagendadas com
+ * backoff exponencial até o limite de tentativas.
+ * <p>
+ * O cliente SMTP usa blocos {@code synchronized}, que prendem a virtual thread ao carrier durante
+ * o I/O; o limite de concorrência também limita quantos carriers ficam ocupados pelo envio.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "oficina.notificacao.outbox.habilitado", havingValue = "true", matchIfMissing = true)
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxJpaRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final int concorrencia;
+    private final int maxTentativas;
+    private final Duration backoffInicial;
+    private final Duration backoffMaximo;
+    private final Duration reserva;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong profundidade = new AtomicLong();
+    private final AtomicLong atrasoSegundos = new AtomicLong();
+    private final Counter enviados;
+    private final Counter falhas;
+    private final Counter descartados;
+
+    public EmailOutboxDispatcher(EmailOutboxJpaRepository outboxRepository,
+                                 JavaMailSender mailSender,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${oficina.notificacao.outbox.tamanho-lote:50}") int tamanhoLote,
+                                 @Value("${oficina.notificacao.outbox.concorrencia:4}") int concorrencia,
+                                 @Value("${oficina.notificacao.outbox.max-tentativas:8}") int maxTentativas,
+                                 @Value("${oficina.notificacao.outbox.backoff-inicial:PT10S}") Duration backoffInicial,
+                                 @Value("${oficina.notificacao.outbox.backoff-maximo:PT30M}") Duration backoffMaximo,
+                                 @Value("${oficina.notificacao.outbox.reserva:PT5M}") Duration reserva) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.concorrencia = Math.max(1, concorrencia);
+        this.maxTentativas = maxTentativas;
+        this.backoffInicial = backoffInicial;
+        this.backoffMaximo = backoffMaximo;
+        this.reserva = reserva;
+
+        Gauge.builder("oficina.email.outbox.profundidade", profundidade, AtomicLong::get)
+                .description("E-mails pendentes de envio na outbox")
+                .tag("service", "oficina-service")
+                .register(meterRegistry);
+        Gauge.builder("oficina.email.outbox.atraso.segundos", atrasoSegundos, AtomicLong::get)
+                .description("Idade, em segundos, do e-mail pendente mais antigo")
+                .tag("service", "oficina-service")
+                .register(meterRegistry);
+        this.enviados = criarContador(meterRegistry, "oficina.email.outbox.enviados.total", "E-mails entregues ao servidor SMTP");
+        this.falhas = criarContador(meterRegistry, "oficina.email.outbox.falhas.total", "Tentativas de envio sem sucesso");
+        this.descartados = criarContador(meterRegistry, "oficina.email.outbox.descartados.total", "E-mails que esgotaram as tentativas");
+    }
+
+    private static Counter criarContador(MeterRegistry meterRegistry, String nome, String descricao) {
+        return Counter.builder(nome)
+                .description(descricao)
+                .tag("service", "oficina-service")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${oficina.notificacao.outbox.intervalo:PT2S}")
+    public void despachar() {
+        try {
+            int processados;
+            do {
+                processados = processarLote();
+            } while (processados == tamanhoLote);
+        } catch (Exception e) {
+            log.error("Erro ao despachar e-mails da outbox: {}", e.getMessage(), e);
+        } finally {
+            atualizarMetricas();
+        }
+    }
+
+    /**
+     * Reserva, envia e registra o resultado de um lote.
+     *
+     * @return Quantidade de e-mails processados no lote.
+     */
+    int processarLote() {
+        List<EmailOutbox> lote = transactionTemplate.execute(status -> reservarLote());
+        if (lote == null || lote.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, String> errosPorId = enviar(lote);
+
+        List<UUID> entregues = lote.stream()
+                .map(EmailOutbox::getId)
+                .filter(id -> !errosPorId.containsKey(id))
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> registrarResultado(entregues, errosPorId));
+
+        enviados.increment(entregues.size());
+        falhas.increment(errosPorId.size());
+        log.info("Lote da outbox processado - enviados: {}, falhas: {}", entregues.size(), errosPorId.size());
+        return lote.size();
+    }
+
+    private List<EmailOutbox> reservarLote() {
+        LocalDateTime agora = LocalDateTime.now();
+        List<UUID> candidatos = outboxRepository.buscarIdsProntosParaEnvio(agora, Limit.of(tamanhoLote));
+        if (candidatos.isEmpty()) {
+            return List.of();
+        }
+        UUID lote = UUID.randomUUID();
+        outboxRepository.reservar(candidatos, lote, agora, agora.plus(reserva));
+        return outboxRepository.findByLote(lote);
+    }
+
+    private Map<UUID, String> enviar(List<EmailOutbox> lote) {
+        int partes = Math.min(concorrencia, lote.size());
+        List<List<EmailOutbox>> particoes = new ArrayList<>(partes);
+        for (int i = 0; i < partes; i++) {
+            particoes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < lote.size(); i++) {
+            particoes.get(i % partes).add(lote.get(i));
+        }
+
+        Map<UUID, String> errosPorId = new ConcurrentHashMap<>();
+        List<Callable<Void>> tarefas = particoes.stream()
+                .<Callable<Void>>map(particao -> () -> {
+                    enviarParticao(particao, errosPorId);
+                    return null;
+                })
+                .toList();
+        try {
+            executor.invokeAll(tarefas);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Sem confirmação de envio: o lote inteiro volta para a fila
+            lote.forEach(email -> errosPorId.putIfAbsent(email.getId(), "Envio interrompido"));
+        }
+        return errosPorId;
+    }
+
+    /**
+     * Envia a partição com uma única chamada ao {@link JavaMailSender}, que reaproveita
+     * a mesma conexão SMTP para todas as mensagens.
+     * <p>
+     * As mensagens vão como {@link MimeMessage}, que usa a identidade no {@code equals}: as falhas
+     * informadas pelo {@link MailSendException} voltam para o e-mail certo mesmo quando dois e-mails
+     * da partição são idênticos (com {@link SimpleMailMessage} eles colidiriam numa única chave).
+     */
+    private void enviarParticao(List<EmailOutbox> particao, Map<UUID, String> errosPorId) {
+        Map<MimeMessage, UUID> idPorMensagem = new IdentityHashMap<>();
+        List<MimeMessage> mensagens = new ArrayList<>(particao.size());
+        for (EmailOutbox email : particao) {
+            try {
+                MimeMessage mensagem = mailSender.createMimeMessage();
+                email.paraMensagem().copyTo(new MimeMailMessage(mensagem));
+                idPorMensagem.put(mensagem, email.getId());
+                mensagens.add(mensagem);
+            } catch (MailException e) {
+                errosPorId.put(email.getId(), mensagemDeErro(e));
+            }
+        }
+        if (mensagens.isEmpty()) {
+            return;
+        }
+        try {
+            mailSender.send(mensagens.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                idPorMensagem.values().forEach(id -> errosPorId.put(id, mensagemDeErro(e)));
+            } else {
+                e.getFailedMessages().forEach((mensagem, erro) -> {
+                    UUID id = idPorMensagem.get(mensagem);
+                    if (id != null) {
+                        errosPorId.put(id, mensagemDeErro(erro));
+                    }
+                });
+            }
+        } catch (MailException | IllegalStateException e) {
+            idPorMensagem.values().forEach(id -> errosPorId.put(id, mensagemDeErro(e)));
+        }
+    }
+
+    private void registrarResultado(List<UUID> entregues, Map<UUID, String> errosPorId) {
+        LocalDateTime agora = LocalDateTime.now();
+        if (!entregues.isEmpty()) {
+            outboxRepository.marcarEnviados(entregues, agora);
+        }
+        for (EmailOutbox email : outboxRepository.findAllById(errosPorId.keySet())) {
+            email.registrarFalha(errosPorId.get(email.getId()), agora, calcularBackoff(email.getTentativas() + 1), maxTentativas);
+            if (email.getStatus() == StatusEmailOutbox.FALHOU) {
+                descartados.increment();
+                log.error("E-mail descartado após {} tentativas - id: {}, destinatário: {}, erro: {}",
+                        email.getTentativas(), email.getId(), email.getDestinatario(), email.getUltimoErro());
+            } else {
+                log.warn("Falha ao enviar e-mail, nova tentativa em {} - id: {}, tentativa: {}, erro: {}",
+                        email.getProximaTentativaEm(), email.getId(), email.getTentativas(), email.getUltimoErro());
+            }
+        }
+    }
+
+    /**
+     * Espera antes da tentativa informada: dobra a cada falha, limitada ao backoff máximo.
+     */
+    Duration calcularBackoff(int tentativa) {
+        int expoente = Math.min(Math.max(tentativa - 1, 0), 30);
+        Duration espera = backoffInicial.multipliedBy(1L << expoente);
+        return espera.compareTo(backoffMaximo) > 0 ? backoffMaximo : espera;
+    }
+
+    private void atualizarMetricas() {
+        try {
+            profundidade.set(outboxRepository.countByStatus(StatusEmailOutbox.PENDENTE));
+            atrasoSegundos.set(outboxRepository.findCriadoEmMaisAntigo(StatusEmailOutbox.PENDENTE)
+                    .map(criadoEm -> Math.max(0, Duration.between(criadoEm, LocalDateTime.now()).toSeconds()))
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.warn("Não foi possível atualizar as métricas da outbox: {}", e.getMessage());
+        }
+    }
+
+    private static String mensagemDeErro(Exception e) {
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.close();
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.grupo99.oficinaservice.infrastructure.notification;
+
+public enum StatusEmailOutbox {
+    PENDENTE,
+    ENVIADO,
+    /** Tentativas esgotadas; o e-mail não será mais reenviado automaticamente. */
+    FALHOU
+}
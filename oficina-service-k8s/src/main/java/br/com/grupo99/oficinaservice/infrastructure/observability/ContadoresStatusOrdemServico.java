@@ -0,0 +1,127 @@
+package br.com.grupo99.oficinaservice.infrastructure.observability;
+
+import br.com.grupo99.oficinaservice.application.service.PainelStatusOrdemServico;
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import br.com.grupo99.oficinaservice.domain.model.TransicaoStatusOrdemServico;
+import br.com.grupo99.oficinaservice.domain.repository.ContagemStatusOrdemServico;
+import br.com.grupo99.oficinaservice.domain.repository.OrdemServicoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores de OS por status que alimentam os gauges {@code oficina.ordem_servico.<status>.quantidade}
+ * e {@code oficina.ordem_servico.ativas.quantidade}.
+ * <p>
+ * Os valores são os próprios {@link AtomicLong} publicados pelo {@link MetricsService}: cada
+ * transição confirmada faz um decremento e um incremento, sem consultar o banco. A contagem inicial
+ * vem de uma consulta agrupada na subida, e {@link #reconciliar()} a repete periodicamente para
+ * corrigir OS alteradas fora da aplicação ou transições que cruzaram uma reconciliação.
+ * <p>
+ * As transições do histórico também alimentam os timers {@code oficina.ordem_servico.status.*.tempo}
+ * com o tempo passado no status anterior.
+ */
+@Component
+public class ContadoresStatusOrdemServico implements PainelStatusOrdemServico {
+
+    private final OrdemServicoRepository ordemServicoRepository;
+    private final MetricsService metricsService;
+    private final Map<StatusOS, AtomicLong> porStatus = new EnumMap<>(StatusOS.class);
+    private final AtomicLong ativas;
+
+    public ContadoresStatusOrdemServico(OrdemServicoRepository ordemServicoRepository, MetricsService metricsService) {
+        this.ordemServicoRepository = ordemServicoRepository;
+        this.metricsService = metricsService;
+        for (StatusOS status : StatusOS.values()) {
+            porStatus.put(status, metricsService.gaugeOrdensServicoPorStatus(status.name()));
+        }
+        this.ativas = metricsService.gaugeOrdensServicoAtivas();
+    }
+
+    @Override
+    public void registrarTransicao(StatusOS anterior, StatusOS novo) {
+        if (anterior != novo) {
+            aposCommit(() -> aplicarTransicao(anterior, novo));
+        }
+    }
+
+    @Override
+    public void registrarTransicao(TransicaoStatusOrdemServico transicao) {
+        aposCommit(() -> {
+            aplicarTransicao(transicao.getStatusAnterior(), transicao.getStatusNovo());
+            if (transicao.getDuracaoStatusAnteriorMs() != null) {
+                metricsService.recordTempoNoStatus(transicao.getStatusAnterior(),
+                        Duration.ofMillis(transicao.getDuracaoStatusAnteriorMs()));
+            }
+        });
+    }
+
+    @Override
+    public Map<StatusOS, Long> contagens() {
+        Map<StatusOS, Long> contagens = new EnumMap<>(StatusOS.class);
+        porStatus.forEach((status, quantidade) -> contagens.put(status, quantidade.get()));
+        return contagens;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconciliar();
+    }
+
+    /**
+     * Substitui os contadores pela contagem atual do banco.
+     *
+     * @return {@code true} se algum contador estava diferente do banco.
+     */
+    public boolean reconciliar() {
+        List<ContagemStatusOrdemServico> contagens = ordemServicoRepository.contarPorStatus();
+        Map<StatusOS, Long> noBanco = new EnumMap<>(StatusOS.class);
+        contagens.forEach(contagem -> noBanco.put(contagem.status(), contagem.quantidade()));
+
+        boolean divergente = false;
+        long emAndamento = 0;
+        for (Map.Entry<StatusOS, AtomicLong> contador : porStatus.entrySet()) {
+            long quantidade = noBanco.getOrDefault(contador.getKey(), 0L);
+            divergente |= contador.getValue().getAndSet(quantidade) != quantidade;
+            if (StatusOS.ATIVOS.contains(contador.getKey())) {
+                emAndamento += quantidade;
+            }
+        }
+        ativas.set(emAndamento);
+        return divergente;
+    }
+
+    private static void aposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    private void aplicarTransicao(StatusOS anterior, StatusOS novo) {
+        if (anterior != null) {
+            porStatus.get(anterior).decrementAndGet();
+            if (StatusOS.ATIVOS.contains(anterior)) {
+                ativas.decrementAndGet();
+            }
+        }
+        porStatus.get(novo).incrementAndGet();
+        if (StatusOS.ATIVOS.contains(novo)) {
+            ativas.incrementAndGet();
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package br.com.grupo99.oficinaservice.infrastructure.observability;
 
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Serviço para coletar e registrar métricas customizadas de negócio.
@@ -19,6 +22,8 @@ public class MetricsService {
     private final MeterRegistry meterRegistry;
     private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+    // O registry guarda só referência fraca ao valor do gauge; o mapa mantém os valores vivos
+    private final ConcurrentMap<String, AtomicLong> gauges = new ConcurrentHashMap<>();
 
     public MetricsService(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
@@ -48,8 +53,10 @@ public class MetricsService {
         createTimer("ordem_servico.atualizacao.tempo", "Tempo de atualização de OS");
         createTimer("ordem_servico.consulta.tempo", "Tempo de consulta de OS");
         
-        // Timers por status
+        // Timers por status, alimentados pelo histórico de transições
+        createTimer("ordem_servico.status.recebida.tempo", "Tempo no status Recebida");
         createTimer("ordem_servico.status.diagnostico.tempo", "Tempo no status Diagnóstico");
+        createTimer("ordem_servico.status.aprovacao.tempo", "Tempo no status Aguardando Aprovação");
         createTimer("ordem_servico.status.execucao.tempo", "Tempo no status Execução");
         createTimer("ordem_servico.status.finalizacao.tempo", "Tempo no status Finalização");
     }
@@ -121,6 +128,37 @@ public class MetricsService {
         recordTiming("ordem_servico.status." + status.toLowerCase() + ".tempo", durationMs);
     }
 
+    /**
+     * Conta o tempo que uma OS passou no status; status finais não têm timer.
+     */
+    public void recordTempoNoStatus(StatusOS status, Duration duracao) {
+        String nome = switch (status) {
+            case RECEBIDA -> "recebida";
+            case EM_DIAGNOSTICO -> "diagnostico";
+            case AGUARDANDO_APROVACAO -> "aprovacao";
+            case EM_EXECUCAO -> "execucao";
+            case FINALIZADA -> "finalizacao";
+            case ENTREGUE, CANCELADA -> null;
+        };
+        if (nome != null) {
+            recordTiming("ordem_servico.status." + nome + ".tempo", duracao.toMillis());
+        }
+    }
+
+    /**
+     * Timer de criação de OS, para medições com {@link Timer.Sample}.
+     */
+    public Timer timerCriacao() {
+        return timers.get("ordem_servico.criacao.tempo");
+    }
+
+    /**
+     * Timer de atualização de OS, para medições com {@link Timer.Sample}.
+     */
+    public Timer timerAtualizacao() {
+        return timers.get("ordem_servico.atualizacao.tempo");
+    }
+
     private void recordTiming(String name, long durationMs) {
         Timer timer = timers.get(name);
         if (timer != null) {
@@ -130,11 +168,30 @@ public class MetricsService {
 
     // Métricas de gauge (valores atuais)
     
-    public void setOrdensServicoAtivas(int quantidade) {
-        meterRegistry.gauge("oficina.ordem_servico.ativas.quantidade", quantidade);
+    public void setOrdensServicoAtivas(long quantidade) {
+        gaugeOrdensServicoAtivas().set(quantidade);
+    }
+
+    public void setOrdensServicoPorStatus(String status, long quantidade) {
+        gaugeOrdensServicoPorStatus(status).set(quantidade);
+    }
+
+    /**
+     * Valor publicado no gauge de OS em andamento, para ser atualizado diretamente.
+     */
+    public AtomicLong gaugeOrdensServicoAtivas() {
+        return gauge("oficina.ordem_servico.ativas.quantidade");
+    }
+
+    /**
+     * Valor publicado no gauge de OS no status, para ser atualizado diretamente.
+     */
+    public AtomicLong gaugeOrdensServicoPorStatus(String status) {
+        return gauge("oficina.ordem_servico." + status.toLowerCase() + ".quantidade");
     }
 
-    public void setOrdensServicoPorStatus(String status, int quantidade) {
-        meterRegistry.gauge("oficina.ordem_servico." + status.toLowerCase() + ".quantidade", quantidade);
+    private AtomicLong gauge(String name) {
+        return gauges.computeIfAbsent(name,
+                n -> meterRegistry.gauge(n, Tags.of("service", "oficina-service"), new AtomicLong()));
     }
 }
@@ -1,21 +1,34 @@
 package br.com.grupo99.oficinaservice.infrastructure.observability;
 
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
 import com.newrelic.api.agent.NewRelic;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
+import java.lang.reflect.Method;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Aspect para monitoramento de Ordens de Serviço.
- * Captura métricas customizadas e eventos de negócio para o New Relic.
+ * Captura métricas customizadas e eventos de negócio para o New Relic e o Micrometer.
+ * <p>
+ * Roda em toda criação e atualização de status, então o caminho de sucesso não monta strings nem
+ * mapas: os nomes de métrica do New Relic são montados uma vez por {@link StatusOS} (e por método de integração),
+ * a duração vem de um {@link Timer.Sample} sobre o relógio monotônico do registry e o log de
+ * detalhe sai só para a fração {@code oficina.observabilidade.monitoramento.amostragem-log} das
+ * chamadas. Erros são sempre logados.
  */
 @Aspect
 @Component
@@ -24,143 +37,163 @@ public class OrdemServicoMonitoringAspect {
     private static final Logger logger = LoggerFactory.getLogger(OrdemServicoMonitoringAspect.class);
     private static final Logger metricsLogger = LoggerFactory.getLogger("br.com.grupo99.oficinaservice.metrics");
 
+    private static final String CRIACAO_DURACAO = "Custom/OrdemServico/Criacao/Duration";
+    private static final String CRIACAO_CONTAGEM = "Custom/OrdemServico/Criacao/Count";
+    private static final String CRIACAO_ERROS = "Custom/OrdemServico/Criacao/Errors";
+    private static final String ATUALIZACAO_ERROS = "Custom/OrdemServico/AtualizacaoStatus/Errors";
+    private static final NomesMetrica STATUS_DESCONHECIDO = NomesMetrica.doStatus("UNKNOWN");
+
+    private final MeterRegistry meterRegistry;
+    private final MetricsService metricsService;
+    private final double amostragemLog;
+    private final Map<StatusOS, NomesMetrica> nomesPorStatus = new EnumMap<>(StatusOS.class);
+    private final ConcurrentMap<Method, Integracao> integracoes = new ConcurrentHashMap<>();
+
+    public OrdemServicoMonitoringAspect(MeterRegistry meterRegistry, MetricsService metricsService,
+                                        @Value("${oficina.observabilidade.monitoramento.amostragem-log:0.01}") double amostragemLog) {
+        this.meterRegistry = meterRegistry;
+        this.metricsService = metricsService;
+        this.amostragemLog = amostragemLog;
+        for (StatusOS status : StatusOS.values()) {
+            nomesPorStatus.put(status, NomesMetrica.doStatus(status.name()));
+        }
+    }
+
     @Around("execution(* br.com.grupo99.oficinaservice.application.usecase.CriarOrdemServicoUseCase.execute(..))")
     public Object monitorCriacaoOrdemServico(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
-        String operationId = UUID.randomUUID().toString();
-        
+        Timer.Sample amostra = Timer.start(meterRegistry);
         try {
-            logger.info("Iniciando criação de ordem de serviço - operationId: {}", operationId);
-            
             Object result = joinPoint.proceed();
-            
-            long duration = System.currentTimeMillis() - startTime;
-            
-            // Registra métrica customizada no New Relic
-            NewRelic.recordMetric("Custom/OrdemServico/Criacao/Duration", duration);
-            NewRelic.incrementCounter("Custom/OrdemServico/Criacao/Count");
-            
-            // Log estruturado para métricas
-            Map<String, Object> metrics = new HashMap<>();
-            metrics.put("event", "ordem_servico_criada");
-            metrics.put("operationId", operationId);
-            metrics.put("duration_ms", duration);
-            metrics.put("status", "success");
-            metricsLogger.info("Ordem de serviço criada: {}", metrics);
-            
-            logger.info("Ordem de serviço criada com sucesso - operationId: {} - duração: {}ms", 
-                    operationId, duration);
-            
+            long duracaoNanos = amostra.stop(metricsService.timerCriacao());
+
+            NewRelic.recordMetric(CRIACAO_DURACAO, emMillis(duracaoNanos));
+            NewRelic.incrementCounter(CRIACAO_CONTAGEM);
+            metricsService.incrementOrdemServicoCriada();
+
+            if (amostrarLog()) {
+                metricsLogger.info("Ordem de serviço criada: event=ordem_servico_criada duration_ms={} status=success",
+                        emMillis(duracaoNanos));
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("Ordem de serviço criada - duração: {}ms", emMillis(duracaoNanos));
+            }
             return result;
-            
+
         } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            
-            // Registra erro no New Relic
             NewRelic.noticeError(e);
-            NewRelic.incrementCounter("Custom/OrdemServico/Criacao/Errors");
-            
-            Map<String, Object> metrics = new HashMap<>();
-            metrics.put("event", "ordem_servico_erro");
-            metrics.put("operationId", operationId);
-            metrics.put("duration_ms", duration);
-            metrics.put("status", "error");
-            metrics.put("error", e.getMessage());
-            metricsLogger.error("Erro ao criar ordem de serviço: {}", metrics);
-            
-            logger.error("Erro ao criar ordem de serviço - operationId: {}", operationId, e);
+            NewRelic.incrementCounter(CRIACAO_ERROS);
+            metricsService.incrementErro("criacao");
+
+            metricsLogger.error("Erro ao criar ordem de serviço: event=ordem_servico_erro status=error error={}",
+                    e.getMessage());
+            logger.error("Erro ao criar ordem de serviço", e);
             throw e;
         }
     }
 
     @Around("execution(* br.com.grupo99.oficinaservice.application.usecase.AtualizarStatusOrdemServicoUseCase.execute(..))")
     public Object monitorAtualizacaoStatus(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
+        Timer.Sample amostra = Timer.start(meterRegistry);
         Object[] args = joinPoint.getArgs();
-        
+        Object ordemServicoId = args.length > 0 ? args[0] : null;
         try {
             Object result = joinPoint.proceed();
-            
-            long duration = System.currentTimeMillis() - startTime;
-            
-            // Extrai informações dos argumentos
-            UUID ordemServicoId = args.length > 0 ? (UUID) args[0] : null;
-            String novoStatus = args.length > 1 ? args[1].toString() : "UNKNOWN";
-            
-            // Adiciona ao MDC para correlação
-            if (ordemServicoId != null) {
-                MDC.put("ordemServicoId", ordemServicoId.toString());
+            long duracaoNanos = amostra.stop(metricsService.timerAtualizacao());
+
+            NomesMetrica nomes = args.length > 1 && args[1] instanceof StatusOS status
+                    ? nomesPorStatus.get(status)
+                    : STATUS_DESCONHECIDO;
+            NewRelic.recordMetric(nomes.duracao(), emMillis(duracaoNanos));
+            NewRelic.incrementCounter(nomes.contagem());
+            metricsService.incrementOrdemServicoAtualizada();
+
+            if (amostrarLog()) {
+                metricsLogger.info("Status atualizado: event=status_atualizado ordemServicoId={} novoStatus={} duration_ms={}",
+                        ordemServicoId, nomes.rotulo(), emMillis(duracaoNanos));
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("Status da ordem de serviço atualizado - ID: {} - Novo Status: {} - duração: {}ms",
+                        ordemServicoId, nomes.rotulo(), emMillis(duracaoNanos));
             }
-            
-            // Métricas por status
-            NewRelic.recordMetric("Custom/OrdemServico/AtualizacaoStatus/" + novoStatus + "/Duration", duration);
-            NewRelic.incrementCounter("Custom/OrdemServico/AtualizacaoStatus/" + novoStatus + "/Count");
-            
-            Map<String, Object> metrics = new HashMap<>();
-            metrics.put("event", "status_atualizado");
-            metrics.put("ordemServicoId", ordemServicoId);
-            metrics.put("novoStatus", novoStatus);
-            metrics.put("duration_ms", duration);
-            metricsLogger.info("Status atualizado: {}", metrics);
-            
-            logger.info("Status da ordem de serviço atualizado - ID: {} - Novo Status: {} - duração: {}ms",
-                    ordemServicoId, novoStatus, duration);
-            
             return result;
-            
+
         } catch (Exception e) {
             NewRelic.noticeError(e);
-            NewRelic.incrementCounter("Custom/OrdemServico/AtualizacaoStatus/Errors");
-            
-            logger.error("Erro ao atualizar status da ordem de serviço", e);
+            NewRelic.incrementCounter(ATUALIZACAO_ERROS);
+            metricsService.incrementErro("atualizacao");
+
+            logger.error("Erro ao atualizar status da ordem de serviço - ID: {}", ordemServicoId, e);
             throw e;
         }
     }
 
     @Around("execution(* br.com.grupo99.oficinaservice.infrastructure.integration..*(..))")
     public Object monitorIntegracoes(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
-        String methodName = joinPoint.getSignature().getName();
-        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
-        
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        Integracao integracao = integracoes.computeIfAbsent(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), this::registrarIntegracao);
+        NomesMetrica nomes = integracao.nomes();
         try {
-            logger.info("Iniciando integração externa - {}.{}", className, methodName);
-            
             Object result = joinPoint.proceed();
-            
-            long duration = System.currentTimeMillis() - startTime;
-            
-            NewRelic.recordMetric("Custom/Integracao/" + className + "/" + methodName + "/Duration", duration);
-            NewRelic.incrementCounter("Custom/Integracao/" + className + "/Success");
-            
-            Map<String, Object> metrics = new HashMap<>();
-            metrics.put("event", "integracao_externa");
-            metrics.put("integration", className + "." + methodName);
-            metrics.put("duration_ms", duration);
-            metrics.put("status", "success");
-            metricsLogger.info("Integração externa executada: {}", metrics);
-            
-            logger.info("Integração externa concluída - {}.{} - duração: {}ms", 
-                    className, methodName, duration);
-            
+            long duracaoNanos = amostra.stop(integracao.timer());
+
+            NewRelic.recordMetric(nomes.duracao(), emMillis(duracaoNanos));
+            NewRelic.incrementCounter(nomes.contagem());
+
+            if (amostrarLog()) {
+                metricsLogger.info("Integração externa executada: event=integracao_externa integration={} duration_ms={} status=success",
+                        nomes.rotulo(), emMillis(duracaoNanos));
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("Integração externa concluída - {} - duração: {}ms", nomes.rotulo(), emMillis(duracaoNanos));
+            }
             return result;
-            
+
         } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            
             NewRelic.noticeError(e);
-            NewRelic.incrementCounter("Custom/Integracao/" + className + "/Errors");
-            
-            Map<String, Object> metrics = new HashMap<>();
-            metrics.put("event", "integracao_externa_erro");
-            metrics.put("integration", className + "." + methodName);
-            metrics.put("duration_ms", duration);
-            metrics.put("status", "error");
-            metrics.put("error", e.getMessage());
-            metricsLogger.error("Erro na integração externa: {}", metrics);
-            
-            logger.error("Erro na integração externa - {}.{}", className, methodName, e);
+            NewRelic.incrementCounter(nomes.erros());
+            metricsService.incrementErro("integracao");
+
+            metricsLogger.error("Erro na integração externa: event=integracao_externa_erro integration={} status=error error={}",
+                    nomes.rotulo(), e.getMessage());
+            logger.error("Erro na integração externa - {}", nomes.rotulo(), e);
             throw e;
         }
     }
+
+    private Integracao registrarIntegracao(Method metodo) {
+        NomesMetrica nomes = NomesMetrica.daIntegracao(metodo);
+        Timer timer = Timer.builder("oficina.integracao.tempo")
+                .description("Tempo de chamadas a integrações externas")
+                .tag("service", "oficina-service")
+                .tag("integracao", nomes.rotulo())
+                .register(meterRegistry);
+        return new Integracao(nomes, timer);
+    }
+
+    private boolean amostrarLog() {
+        return amostragemLog >= 1 || (amostragemLog > 0 && ThreadLocalRandom.current().nextDouble() < amostragemLog);
+    }
+
+    private static float emMillis(long nanos) {
+        return nanos / 1_000_000f;
+    }
+
+    /**
+     * Nomes de métrica do New Relic de um status ou de um método de integração, montados uma vez.
+     */
+    record NomesMetrica(String rotulo, String duracao, String contagem, String erros) {
+
+        static NomesMetrica doStatus(String status) {
+            String prefixo = "Custom/OrdemServico/AtualizacaoStatus/" + status;
+            return new NomesMetrica(status, prefixo + "/Duration", prefixo + "/Count", ATUALIZACAO_ERROS);
+        }
+
+        static NomesMetrica daIntegracao(Method metodo) {
+            String classe = metodo.getDeclaringClass().getSimpleName();
+            String prefixo = "Custom/Integracao/" + classe;
+            return new NomesMetrica(classe + "." + metodo.getName(),
+                    prefixo + "/" + metodo.getName() + "/Duration", prefixo + "/Success", prefixo + "/Errors");
+        }
+    }
+
+    private record Integracao(NomesMetrica nomes, Timer timer) {
+    }
 }
@@ -0,0 +1,33 @@
+package br.com.grupo99.oficinaservice.infrastructure.observability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconcilia periodicamente os contadores de OS por status com o banco.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "oficina.observabilidade.status.reconciliacao.habilitado", havingValue = "true", matchIfMissing = true)
+public class ReconciliacaoStatusOrdemServicoJob {
+
+    private final ContadoresStatusOrdemServico contadores;
+
+    public ReconciliacaoStatusOrdemServicoJob(ContadoresStatusOrdemServico contadores) {
+        this.contadores = contadores;
+    }
+
+    @Scheduled(initialDelayString = "${oficina.observabilidade.status.reconciliacao.intervalo:PT5M}",
+            fixedDelayString = "${oficina.observabilidade.status.reconciliacao.intervalo:PT5M}")
+    public void reconciliar() {
+        try {
+            if (contadores.reconciliar()) {
+                log.info("Contadores de OS por status corrigidos na reconciliação com o banco");
+            }
+        } catch (Exception e) {
+            log.warn("Erro ao reconciliar contadores de OS por status: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.grupo99.oficinaservice.infrastructure.persistence.jpa;
+
+import br.com.grupo99.oficinaservice.infrastructure.notification.EmailOutbox;
+import br.com.grupo99.oficinaservice.infrastructure.notification.StatusEmailOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxJpaRepository extends JpaRepository<EmailOutbox, UUID> {
+
+    @Query("""
+            SELECT e.id FROM EmailOutbox e
+            WHERE e.status = br.com.grupo99.oficinaservice.infrastructure.notification.StatusEmailOutbox.PENDENTE
+              AND e.proximaTentativaEm <= :agora
+            ORDER BY e.criadoEm
+            """)
+    List<UUID> buscarIdsProntosParaEnvio(@Param("agora") LocalDateTime agora, Limit limite);
+
+    /**
+     * Marca com o lote informado os e-mails que ainda estiverem disponíveis. A condição repetida no
+     * UPDATE garante que cada e-mail seja reservado por uma única instância, sem lock de linha.
+     */
+    @Modifying
+    @Query("""
+            UPDATE EmailOutbox e
+            SET e.lote = :lote, e.proximaTentativaEm = :reservadoAte
+            WHERE e.id IN :ids
+              AND e.status = br.com.grupo99.oficinaservice.infrastructure.notification.StatusEmailOutbox.PENDENTE
+              AND e.proximaTentativaEm <= :agora
+            """)
+    int reservar(@Param("ids") Collection<UUID> ids,
+                 @Param("lote") UUID lote,
+                 @Param("agora") LocalDateTime agora,
+                 @Param("reservadoAte") LocalDateTime reservadoAte);
+
+    List<EmailOutbox> findByLote(UUID lote);
+
+    @Modifying
+    @Query("""
+            UPDATE EmailOutbox e
+            SET e.status = br.com.grupo99.oficinaservice.infrastructure.notification.StatusEmailOutbox.ENVIADO,
+                e.enviadoEm = :agora, e.tentativas = e.tentativas + 1, e.ultimoErro = NULL
+            WHERE e.id IN :ids
+            """)
+    int marcarEnviados(@Param("ids") Collection<UUID> ids, @Param("agora") LocalDateTime agora);
+
+    long countByStatus(StatusEmailOutbox status);
+
+    @Query("SELECT MIN(e.criadoEm) FROM EmailOutbox e WHERE e.status = :status")
+    Optional<LocalDateTime> findCriadoEmMaisAntigo(@Param("status") StatusEmailOutbox status);
+}
@@ -0,0 +1,42 @@
+package br.com.grupo99.oficinaservice.infrastructure.persistence.jpa;
+
+import br.com.grupo99.oficinaservice.domain.model.EstatisticaServico;
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import br.com.grupo99.oficinaservice.domain.repository.DuracaoOrdemServico;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface EstatisticaServicoJpaRepository extends JpaRepository<EstatisticaServico, UUID> {
+
+    @Query("""
+            SELECT s.id FROM Servico s
+            WHERE NOT EXISTS (
+                SELECT 1 FROM EstatisticaServico e
+                WHERE e.servicoId = s.id AND e.reconstruidaEm IS NOT NULL)
+            ORDER BY s.id
+            """)
+    List<UUID> findServicosSemReconstrucao();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new br.com.grupo99.oficinaservice.domain.repository.DuracaoOrdemServico(
+                os.id, os.dataCriacao, os.dataFinalizacao)
+            FROM OrdemServico os
+            WHERE os.status IN :statusList
+              AND os.dataCriacao IS NOT NULL
+              AND os.dataFinalizacao IS NOT NULL
+              AND EXISTS (SELECT 1 FROM os.servicos i WHERE i.servico.id = :servicoId)
+            """)
+    Stream<DuracaoOrdemServico> streamDuracoes(@Param("servicoId") UUID servicoId,
+                                               @Param("statusList") List<StatusOS> statusList);
+}
@@ -2,15 +2,88 @@ package br.com.grupo99.oficinaservice.infrastructure.persistence.jpa;
 
 import br.com.grupo99.oficinaservice.domain.model.OrdemServico;
 import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import br.com.grupo99.oficinaservice.domain.repository.ContagemStatusOrdemServico;
+import br.com.grupo99.oficinaservice.domain.repository.OrdemServicoCursor;
+import br.com.grupo99.oficinaservice.domain.repository.OrdemServicoResumo;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrdemServicoJpaRepository extends JpaRepository<OrdemServico, UUID> {
     List<OrdemServico> findByClienteId(UUID clienteId);
     Optional<OrdemServico> findByClienteIdAndVeiculoIdAndStatusIn(UUID clienteId, UUID veiculoId, List<StatusOS> statusList);
+
+    List<OrdemServico> findByStatusInOrderByPrioridadeAscDataCriacaoAscIdAsc(List<StatusOS> statusList);
+
+    String SELECT_RESUMO = """
+            SELECT new br.com.grupo99.oficinaservice.domain.repository.OrdemServicoResumo(
+                os.id, p.name, v.placa, os.status, os.valorTotal, os.dataCriacao, os.prioridade)
+            FROM OrdemServico os
+            LEFT JOIN Cliente c ON c.id = os.clienteId
+            LEFT JOIN c.pessoa p
+            LEFT JOIN Veiculo v ON v.id = os.veiculoId
+            """;
+
+    @Query(SELECT_RESUMO + """
+            WHERE os.status IN :statusList
+            ORDER BY os.prioridade NULLS LAST, os.dataCriacao, os.id
+            """)
+    List<OrdemServicoResumo> findResumos(@Param("statusList") List<StatusOS> statusList);
+
+    @Query(SELECT_RESUMO + """
+            WHERE os.status IN :statusList
+            ORDER BY os.prioridade NULLS LAST, os.dataCriacao, os.id
+            """)
+    List<OrdemServicoResumo> findPrimeiraPagina(@Param("statusList") List<StatusOS> statusList, Limit limite);
+
+    @Query(SELECT_RESUMO + """
+            WHERE os.status IN :statusList
+              AND (os.prioridade > :prioridade
+                   OR (os.prioridade = :prioridade AND os.dataCriacao > :dataCriacao)
+                   OR (os.prioridade = :prioridade AND os.dataCriacao = :dataCriacao AND os.id > :id)
+                   OR (os.prioridade IS NULL AND (:prioridade < """ + OrdemServicoCursor.SEM_PRIORIDADE + """
+                       OR os.dataCriacao > :dataCriacao
+                       OR (os.dataCriacao = :dataCriacao AND os.id > :id))))
+            ORDER BY os.prioridade NULLS LAST, os.dataCriacao, os.id
+            """)
+    List<OrdemServicoResumo> findPaginaApos(@Param("statusList") List<StatusOS> statusList,
+                                            @Param("prioridade") int prioridade,
+                                            @Param("dataCriacao") LocalDateTime dataCriacao,
+                                            @Param("id") UUID id,
+                                            Limit limite);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESUMO + """
+            WHERE os.status IN :statusList
+              AND (:inicio IS NULL OR os.dataCriacao >= :inicio)
+              AND (:fim IS NULL OR os.dataCriacao < :fim)
+            ORDER BY os.dataCriacao, os.id
+            """)
+    Stream<OrdemServicoResumo> streamParaExportacao(@Param("statusList") List<StatusOS> statusList,
+                                                    @Param("inicio") LocalDateTime inicio,
+                                                    @Param("fim") LocalDateTime fim);
+
+    @Query("""
+            SELECT new br.com.grupo99.oficinaservice.domain.repository.ContagemStatusOrdemServico(os.status, COUNT(os))
+            FROM OrdemServico os
+            GROUP BY os.status
+            """)
+    List<ContagemStatusOrdemServico> contarPorStatus();
+
+    @Modifying
+    @Query("UPDATE OrdemServico os SET os.prioridade = :prioridade WHERE os.status = :status AND os.prioridade IS NULL")
+    int preencherPrioridade(@Param("status") StatusOS status, @Param("prioridade") int prioridade);
 }
@@ -0,0 +1,13 @@
+package br.com.grupo99.oficinaservice.infrastructure.persistence.jpa;
+
+import br.com.grupo99.oficinaservice.domain.model.TransicaoStatusOrdemServico;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TransicaoStatusOrdemServicoJpaRepository extends JpaRepository<TransicaoStatusOrdemServico, UUID> {
+    List<TransicaoStatusOrdemServico> findByOrdemServicoIdOrderByDataTransicaoAsc(UUID ordemServicoId);
+}
@@ -0,0 +1,126 @@
+package br.com.grupo99.oficinaservice.infrastructure.persistence.repository;
+
+import br.com.grupo99.oficinaservice.domain.model.EstatisticaServico;
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import br.com.grupo99.oficinaservice.domain.repository.DuracaoOrdemServico;
+import br.com.grupo99.oficinaservice.domain.repository.EstatisticaServicoRepository;
+import br.com.grupo99.oficinaservice.domain.repository.TempoPorServico;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.EstatisticaServicoJpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Component
+public class EstatisticaServicoRepositoryImpl implements EstatisticaServicoRepository {
+
+    private static final List<StatusOS> FINALIZADAS = List.of(StatusOS.FINALIZADA, StatusOS.ENTREGUE);
+
+    // A linha do serviço sempre existe, então serve de trava mesmo antes da primeira estatística
+    private static final String SQL_BLOQUEAR_SERVICO = "SELECT id FROM servico WHERE id = ? FOR UPDATE";
+
+    // Agrupa antes de juntar ao catálogo; cada OS conta uma vez por serviço, mesmo com o serviço em mais de um item
+    private static final String SQL_TEMPOS_POR_SERVICO = """
+            SELECT s.id AS servico_id, s.descricao, COALESCE(a.total_ordens, 0) AS total_ordens, a.media, a.mediana, a.p90
+            FROM servico s
+            LEFT JOIN (
+                SELECT d.servico_id,
+                       COUNT(*) AS total_ordens,
+                       CAST(AVG(d.minutos) AS DOUBLE PRECISION) AS media,
+                       CAST(PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY d.minutos) AS DOUBLE PRECISION) AS mediana,
+                       CAST(PERCENTILE_CONT(0.9) WITHIN GROUP (ORDER BY d.minutos) AS DOUBLE PRECISION) AS p90
+                FROM (
+                    SELECT DISTINCT i.servico_id, os.id,
+                           GREATEST(0, FLOOR((EXTRACT(EPOCH FROM os.data_finalizacao) - EXTRACT(EPOCH FROM os.data_criacao)) / 60)) AS minutos
+                    FROM ordem_servico os
+                    JOIN item_servico i ON i.ordem_servico_id = os.id
+                    WHERE os.status IN ('FINALIZADA', 'ENTREGUE')
+                      AND os.data_criacao IS NOT NULL
+                      AND os.data_finalizacao IS NOT NULL
+                      %s
+                ) d
+                GROUP BY d.servico_id
+            ) a ON a.servico_id = s.id
+            ORDER BY s.descricao, s.id
+            """;
+
+    private final EstatisticaServicoJpaRepository jpaRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public EstatisticaServicoRepositoryImpl(EstatisticaServicoJpaRepository jpaRepository, JdbcTemplate jdbcTemplate) {
+        this.jpaRepository = jpaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<EstatisticaServico> findByServicoId(UUID servicoId) {
+        return jpaRepository.findById(servicoId);
+    }
+
+    @Override
+    public List<EstatisticaServico> bloquearParaAtualizacao(Collection<UUID> servicoIds) {
+        if (servicoIds.isEmpty()) {
+            return List.of();
+        }
+        // Mesma ordem em todas as transações, para que as que travam os mesmos serviços não entrem em deadlock
+        List<UUID> bloqueados = servicoIds.stream()
+                .distinct()
+                .sorted()
+                .filter(id -> !jdbcTemplate.queryForList(SQL_BLOQUEAR_SERVICO, UUID.class, id).isEmpty())
+                .toList();
+        if (bloqueados.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, EstatisticaServico> existentes = jpaRepository.findAllById(bloqueados).stream()
+                .collect(Collectors.toMap(EstatisticaServico::getServicoId, Function.identity()));
+        return bloqueados.stream()
+                .map(id -> existentes.computeIfAbsent(id, EstatisticaServico::new))
+                .toList();
+    }
+
+    @Override
+    public EstatisticaServico save(EstatisticaServico estatistica) {
+        return jpaRepository.save(estatistica);
+    }
+
+    @Override
+    public List<UUID> findServicosSemReconstrucao() {
+        return jpaRepository.findServicosSemReconstrucao();
+    }
+
+    @Override
+    public Stream<DuracaoOrdemServico> streamDuracoesFinalizadas(UUID servicoId) {
+        return jpaRepository.streamDuracoes(servicoId, FINALIZADAS);
+    }
+
+    @Override
+    public Stream<TempoPorServico> streamTemposPorServico(LocalDateTime inicio, LocalDateTime fim) {
+        StringBuilder periodo = new StringBuilder();
+        List<Object> parametros = new ArrayList<>();
+        if (inicio != null) {
+            periodo.append(" AND os.data_finalizacao >= ?");
+            parametros.add(inicio);
+        }
+        if (fim != null) {
+            periodo.append(" AND os.data_finalizacao < ?");
+            parametros.add(fim);
+        }
+        return jdbcTemplate.queryForStream(SQL_TEMPOS_POR_SERVICO.formatted(periodo), (rs, linha) -> new TempoPorServico(
+                rs.getObject("servico_id", UUID.class),
+                rs.getString("descricao"),
+                rs.getLong("total_ordens"),
+                rs.getObject("media", Double.class),
+                rs.getObject("mediana", Double.class),
+                rs.getObject("p90", Double.class)
+        ), parametros.toArray());
+    }
+}
@@ -2,15 +2,22 @@ package br.com.grupo99.oficinaservice.infrastructure.persistence.repository;
 
 import br.com.grupo99.oficinaservice.domain.model.OrdemServico;
 import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import br.com.grupo99.oficinaservice.domain.repository.ContagemStatusOrdemServico;
+import br.com.grupo99.oficinaservice.domain.repository.OrdemServicoCursor;
 import br.com.grupo99.oficinaservice.domain.repository.OrdemServicoRepository;
+import br.com.grupo99.oficinaservice.domain.repository.OrdemServicoResumo;
 import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.OrdemServicoJpaRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Component
 public class OrdemServicoRepositoryImpl implements OrdemServicoRepository {
@@ -38,14 +45,31 @@ public class OrdemServicoRepositoryImpl implements OrdemServicoRepository {
 
     @Override
     public List<OrdemServico> findAll() {
-        List<OrdemServico> ordens = new ArrayList<>(jpaRepository.findAll());
-        // Excluir logicamente OS finalizadas e entregues
-        ordens.removeIf(os -> os.getStatus() == StatusOS.FINALIZADA || os.getStatus() == StatusOS.ENTREGUE);
-        ordens.sort(Comparator
-            .comparing((OrdemServico os) -> getStatusOrder(os.getStatus()))
-            .thenComparing(OrdemServico::getDataCriacao)
-        );
-        return ordens;
+        // Excluir logicamente OS finalizadas e entregues; filtro e ordenação ficam no banco
+        return jpaRepository.findByStatusInOrderByPrioridadeAscDataCriacaoAscIdAsc(StatusOS.ATIVOS);
+    }
+
+    @Override
+    public List<OrdemServicoResumo> findResumos(List<StatusOS> statusList) {
+        return jpaRepository.findResumos(statusList);
+    }
+
+    @Override
+    public List<OrdemServicoResumo> findPagina(List<StatusOS> statusList, OrdemServicoCursor apos, int limite) {
+        if (apos == null) {
+            return jpaRepository.findPrimeiraPagina(statusList, Limit.of(limite));
+        }
+        return jpaRepository.findPaginaApos(statusList, apos.prioridade(), apos.dataCriacao(), apos.id(), Limit.of(limite));
+    }
+
+    @Override
+    public Stream<OrdemServicoResumo> streamParaExportacao(List<StatusOS> statusList, LocalDateTime inicio, LocalDateTime fim) {
+        return jpaRepository.streamParaExportacao(statusList, inicio, fim);
+    }
+
+    @Override
+    public List<ContagemStatusOrdemServico> contarPorStatus() {
+        return jpaRepository.contarPorStatus();
     }
 
     @Override
@@ -53,11 +77,14 @@ public class OrdemServicoRepositoryImpl implements OrdemServicoRepository {
         return jpaRepository.findByClienteIdAndVeiculoIdAndStatusIn(clienteId, veiculoId, statusList);
     }
 
-    private int getStatusOrder(StatusOS status) {
-        if (status == StatusOS.EM_EXECUCAO) return 1;
-        if (status == StatusOS.AGUARDANDO_APROVACAO) return 2;
-        if (status == StatusOS.EM_DIAGNOSTICO) return 3;
-        if (status == StatusOS.RECEBIDA) return 4;
-        return 99;
+    /**
+     * Preenche a prioridade de OS gravadas antes da coluna existir, para que entrem na listagem ordenada.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void preencherPrioridadesPendentes() {
+        for (StatusOS status : StatusOS.values()) {
+            jpaRepository.preencherPrioridade(status, status.getPrioridade());
+        }
     }
 }
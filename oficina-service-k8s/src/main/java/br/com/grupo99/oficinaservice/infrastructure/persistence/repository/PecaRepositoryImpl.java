@@ -3,19 +3,29 @@ package br.com.grupo99.oficinaservice.infrastructure.persistence.repository;
 import br.com.grupo99.oficinaservice.domain.model.Peca;
 import br.com.grupo99.oficinaservice.domain.repository.PecaRepository;
 import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.PecaJpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Component
 public class PecaRepositoryImpl implements PecaRepository {
 
+    private static final String SQL_RESERVAR_ESTOQUE =
+            "UPDATE peca SET estoque = estoque - ? WHERE id = ? AND estoque >= ?";
+
     private final PecaJpaRepository jpaRepository;
+    private final JdbcTemplate jdbcTemplate;
 
-    public PecaRepositoryImpl(PecaJpaRepository jpaRepository) {
+    public PecaRepositoryImpl(PecaJpaRepository jpaRepository, JdbcTemplate jdbcTemplate) {
         this.jpaRepository = jpaRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
@@ -28,6 +38,11 @@ public class PecaRepositoryImpl implements PecaRepository {
         return jpaRepository.findById(id);
     }
 
+    @Override
+    public List<Peca> findAllById(Collection<UUID> ids) {
+        return jpaRepository.findAllById(ids);
+    }
+
     @Override
     public void deleteById(UUID id) {
         jpaRepository.deleteById(id);
@@ -42,4 +57,28 @@ public class PecaRepositoryImpl implements PecaRepository {
     public boolean existsById(UUID id) {
         return jpaRepository.existsById(id);
     }
+
+    @Override
+    public Set<UUID> reservarEstoque(Map<UUID, Integer> quantidadesPorPeca) {
+        if (quantidadesPorPeca.isEmpty()) {
+            return Set.of();
+        }
+        // Mesma ordem em todas as transações, para que as que reservam as mesmas peças não entrem em deadlock
+        List<UUID> ids = quantidadesPorPeca.keySet().stream().sorted().toList();
+        List<Object[]> parametros = ids.stream()
+                .map(id -> new Object[]{quantidadesPorPeca.get(id), id, quantidadesPorPeca.get(id)})
+                .toList();
+
+        // Um único lote JDBC; cada linha só é alterada se ainda houver estoque suficiente
+        int[] alteradas = jdbcTemplate.batchUpdate(SQL_RESERVAR_ESTOQUE, parametros);
+
+        Set<UUID> semEstoque = new LinkedHashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            // Só 1 linha alterada confirma a reserva; drivers que não informam a contagem são tratados como falha
+            if (alteradas[i] != 1) {
+                semEstoque.add(ids.get(i));
+            }
+        }
+        return semEstoque;
+    }
 }
@@ -5,6 +5,7 @@ import br.com.grupo99.oficinaservice.domain.repository.ServicoRepository;
 import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.ServicoJpaRepository;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,6 +29,11 @@ public class ServicoRepositoryImpl implements ServicoRepository {
         return jpaRepository.findById(id);
     }
 
+    @Override
+    public List<Servico> findAllById(Collection<UUID> ids) {
+        return jpaRepository.findAllById(ids);
+    }
+
     @Override
     public void deleteById(UUID id) {
         jpaRepository.deleteById(id);
@@ -0,0 +1,31 @@
+package br.com.grupo99.oficinaservice.infrastructure.persistence.repository;
+
+import br.com.grupo99.oficinaservice.domain.model.TransicaoStatusOrdemServico;
+import br.com.grupo99.oficinaservice.domain.repository.TransicaoStatusOrdemServicoRepository;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.TransicaoStatusOrdemServicoJpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+@Component
+public class TransicaoStatusOrdemServicoRepositoryImpl implements TransicaoStatusOrdemServicoRepository {
+
+    private final TransicaoStatusOrdemServicoJpaRepository jpaRepository;
+
+    public TransicaoStatusOrdemServicoRepositoryImpl(TransicaoStatusOrdemServicoJpaRepository jpaRepository) {
+        this.jpaRepository = jpaRepository;
+    }
+
+    @Override
+    public void saveAll(List<TransicaoStatusOrdemServico> transicoes) {
+        if (!transicoes.isEmpty()) {
+            jpaRepository.saveAll(transicoes);
+        }
+    }
+
+    @Override
+    public List<TransicaoStatusOrdemServico> findByOrdemServicoId(UUID ordemServicoId) {
+        return jpaRepository.findByOrdemServicoIdOrderByDataTransicaoAsc(ordemServicoId);
+    }
+}
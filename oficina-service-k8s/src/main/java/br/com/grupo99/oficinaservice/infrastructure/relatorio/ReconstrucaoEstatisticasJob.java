@@ -0,0 +1,58 @@
+package br.com.grupo99.oficinaservice.infrastructure.relatorio;
+
+import br.com.grupo99.oficinaservice.application.usecase.ReconstruirEstatisticasServicoUseCase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reconstrói as estatísticas de duração por serviço a partir do histórico de ordens.
+ * <p>
+ * Logo após a subida, e depois periodicamente, preenche os serviços que ainda não têm estatística
+ * reconstruída (serviços novos ou ordens finalizadas antes das estatísticas existirem). Com
+ * {@code cron} configurado, recalcula também todos os serviços, corrigindo desvios de ordens
+ * alteradas fora da aplicação. Cada serviço é reconstruído em sua própria transação.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "oficina.relatorio.estatisticas.reconstrucao.habilitado", havingValue = "true", matchIfMissing = true)
+public class ReconstrucaoEstatisticasJob {
+
+    private final ReconstruirEstatisticasServicoUseCase reconstruirEstatisticas;
+
+    public ReconstrucaoEstatisticasJob(ReconstruirEstatisticasServicoUseCase reconstruirEstatisticas) {
+        this.reconstruirEstatisticas = reconstruirEstatisticas;
+    }
+
+    @Scheduled(initialDelayString = "${oficina.relatorio.estatisticas.reconstrucao.atraso-inicial:PT30S}",
+            fixedDelayString = "${oficina.relatorio.estatisticas.reconstrucao.intervalo:PT10M}")
+    public void reconstruirPendentes() {
+        reconstruir(reconstruirEstatisticas.listarServicosPendentes());
+    }
+
+    @Scheduled(cron = "${oficina.relatorio.estatisticas.reconstrucao.cron:-}")
+    public void reconstruirTodos() {
+        reconstruir(reconstruirEstatisticas.listarTodosServicos());
+    }
+
+    int reconstruir(List<UUID> servicoIds) {
+        int reconstruidos = 0;
+        for (UUID servicoId : servicoIds) {
+            try {
+                reconstruirEstatisticas.reconstruir(servicoId);
+                reconstruidos++;
+            } catch (Exception e) {
+                log.warn("Erro ao reconstruir estatísticas do serviço {}: {}", servicoId, e.getMessage(), e);
+            }
+        }
+        if (!servicoIds.isEmpty()) {
+            log.info("Estatísticas de duração reconstruídas - serviços: {}, falhas: {}",
+                    reconstruidos, servicoIds.size() - reconstruidos);
+        }
+        return reconstruidos;
+    }
+}
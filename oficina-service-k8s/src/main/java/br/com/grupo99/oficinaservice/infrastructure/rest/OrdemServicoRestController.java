@@ -2,24 +2,35 @@ package br.com.grupo99.oficinaservice.infrastructure.rest;
 
 import br.com.grupo99.oficinaservice.adapter.controller.OrdemServicoController;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoDetalhesDTO;
+import br.com.grupo99.oficinaservice.application.dto.OrdemServicoPaginaDTO;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoRequestDTO;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoResponseDTO;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoStatusUpdateRequestDTO;
+import br.com.grupo99.oficinaservice.application.dto.ResumoOrdensServicoDTO;
+import br.com.grupo99.oficinaservice.application.dto.TransicaoStatusResponseDTO;
 import br.com.grupo99.oficinaservice.application.exception.OrdemServicoAtivaException;
 import br.com.grupo99.oficinaservice.domain.model.Perfil;
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
 import br.com.grupo99.oficinaservice.infrastructure.security.annotation.RequiresRole;
 import br.com.grupo99.oficinaservice.infrastructure.security.jwt.JwtUserDetails;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
@@ -38,9 +49,11 @@ import java.util.UUID;
 public class OrdemServicoRestController {
 
     private final OrdemServicoController ordemServicoController;
+    private final ObjectWriter exportacaoWriter;
 
-    public OrdemServicoRestController(OrdemServicoController ordemServicoController) {
+    public OrdemServicoRestController(OrdemServicoController ordemServicoController, ObjectMapper objectMapper) {
         this.ordemServicoController = ordemServicoController;
+        this.exportacaoWriter = RespostaNdjson.writer(objectMapper);
     }
 
     @PostMapping
@@ -64,6 +77,42 @@ public class OrdemServicoRestController {
         return ResponseEntity.ok(ordemServicoController.listarTodos());
     }
 
+    @GetMapping("/pagina")
+    @RequiresRole({Perfil.MECANICO, Perfil.ADMIN})
+    @Operation(summary = "Lista Ordens de Serviço paginadas",
+            description = "Filtra por status e ordena por prioridade e data de criação. Use o 'proximoCursor' retornado para buscar a página seguinte.")
+    public ResponseEntity<OrdemServicoPaginaDTO> getPagina(
+            @RequestParam(required = false) List<StatusOS> status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite
+    ) {
+        return ResponseEntity.ok(ordemServicoController.listarPagina(status, cursor, limite));
+    }
+
+    @GetMapping("/resumo")
+    @RequiresRole({Perfil.MECANICO, Perfil.ADMIN})
+    @Operation(summary = "Resume as Ordens de Serviço por status",
+            description = "Quantidade atual de OS em cada status, em andamento e no total, lida dos contadores em memória sem consultar o banco.")
+    public ResponseEntity<ResumoOrdensServicoDTO> getResumo() {
+        return ResponseEntity.ok(ordemServicoController.resumir());
+    }
+
+    @GetMapping("/exportacao")
+    @RequiresRole({Perfil.MECANICO, Perfil.ADMIN})
+    @Operation(summary = "Exporta Ordens de Serviço em NDJSON",
+            description = "Transmite o histórico de OS (uma por linha, em ordem de criação) à medida que é lido do banco. "
+                    + "Filtra opcionalmente pelo intervalo de datas de criação (inclusivo) e por status.")
+    public void exportar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @RequestParam(required = false) List<StatusOS> status,
+            HttpServletResponse response
+    ) throws IOException {
+        RespostaNdjson linhas = RespostaNdjson.abrir(exportacaoWriter, response);
+        ordemServicoController.exportar(dataInicio, dataFim, status, linhas::escrever);
+        linhas.fechar();
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Busca detalhes de uma Ordem de Serviço", description = "Clientes podem ver apenas suas próprias ordens")
     public ResponseEntity<OrdemServicoDetalhesDTO> getById(
@@ -90,12 +139,22 @@ public class OrdemServicoRestController {
     @Operation(summary = "Atualiza o status de uma Ordem de Serviço", description = "Apenas mecânicos e administradores podem atualizar status")
     public ResponseEntity<OrdemServicoResponseDTO> updateStatus(
             @PathVariable UUID id, 
-            @Valid @RequestBody OrdemServicoStatusUpdateRequestDTO requestDTO
+            @Valid @RequestBody OrdemServicoStatusUpdateRequestDTO requestDTO,
+            @AuthenticationPrincipal JwtUserDetails userDetails
     ) {
-        OrdemServicoResponseDTO response = ordemServicoController.atualizarStatus(id, requestDTO.novoStatus());
+        String responsavel = (userDetails != null) ? userDetails.getUsername() : null;
+        OrdemServicoResponseDTO response = ordemServicoController.atualizarStatus(id, requestDTO.novoStatus(), responsavel);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/historico-status")
+    @RequiresRole({Perfil.MECANICO, Perfil.ADMIN})
+    @Operation(summary = "Lista o histórico de status de uma Ordem de Serviço",
+            description = "Mudanças de status da mais antiga para a mais recente, com o tempo passado no status anterior e o responsável.")
+    public ResponseEntity<List<TransicaoStatusResponseDTO>> getHistoricoStatus(@PathVariable UUID id) {
+        return ResponseEntity.ok(ordemServicoController.buscarHistoricoStatus(id));
+    }
+
     @ExceptionHandler(OrdemServicoAtivaException.class)
     public ResponseEntity<?> handleOrdemServicoAtivaException(OrdemServicoAtivaException ex) {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(
@@ -2,14 +2,21 @@ package br.com.grupo99.oficinaservice.infrastructure.rest;
 
 import br.com.grupo99.oficinaservice.adapter.controller.RelatorioController;
 import br.com.grupo99.oficinaservice.application.dto.TempoMedioServicoResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.UUID;
 
 /**
@@ -22,9 +29,11 @@ import java.util.UUID;
 public class RelatorioRestController {
 
     private final RelatorioController relatorioController;
+    private final ObjectWriter relatorioWriter;
 
-    public RelatorioRestController(RelatorioController relatorioController) {
+    public RelatorioRestController(RelatorioController relatorioController, ObjectMapper objectMapper) {
         this.relatorioController = relatorioController;
+        this.relatorioWriter = RespostaNdjson.writer(objectMapper);
     }
 
     @GetMapping("/tempo-medio/servicos/{servicoId}")
@@ -33,4 +42,18 @@ public class RelatorioRestController {
         TempoMedioServicoResponseDTO response = relatorioController.calcularTempoMedioPorServico(servicoId);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/tempo-medio/servicos")
+    @Operation(summary = "Calcula o tempo de execução de todos os serviços em NDJSON",
+            description = "Transmite, um serviço por linha, a quantidade de ordens finalizadas, o tempo médio, a mediana "
+                    + "e o percentil 90. Filtra opcionalmente pelo intervalo de datas de finalização (inclusivo).")
+    public void getTemposPorServico(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            HttpServletResponse response
+    ) throws IOException {
+        RespostaNdjson linhas = RespostaNdjson.abrir(relatorioWriter, response);
+        relatorioController.calcularTemposPorServico(dataInicio, dataFim, linhas::escrever);
+        linhas.fechar();
+    }
 }
@@ -0,0 +1,69 @@
+package br.com.grupo99.oficinaservice.infrastructure.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Resposta NDJSON escrita direto no corpo HTTP, um objeto por linha, à medida que os objetos são
+ * produzidos.
+ * <p>
+ * A primeira linha é enviada imediatamente e as seguintes em blocos de {@value #LINHAS_POR_FLUSH}.
+ * Nada é enviado antes da primeira linha, então uma validação que falhe antes dela ainda pode ser
+ * respondida com o erro pelo {@code GlobalExceptionHandler}; por isso {@link #fechar()} deve ser
+ * chamado só quando a escrita termina sem erro, e não em try-with-resources.
+ */
+final class RespostaNdjson {
+
+    /** Quantidade de linhas escritas entre cada envio parcial. */
+    static final int LINHAS_POR_FLUSH = 100;
+
+    private final JsonGenerator gerador;
+    private final ObjectWriter writer;
+    private int linhas;
+
+    private RespostaNdjson(JsonGenerator gerador, ObjectWriter writer) {
+        this.gerador = gerador;
+        this.writer = writer;
+    }
+
+    /**
+     * Writer para as respostas NDJSON; o envio parcial é controlado pela resposta, não a cada
+     * objeto serializado.
+     */
+    static ObjectWriter writer(ObjectMapper objectMapper) {
+        return objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    static RespostaNdjson abrir(ObjectWriter writer, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        JsonGenerator gerador = writer.createGenerator(response.getOutputStream());
+        // Sem o separador padrão (" ") entre valores raiz: cada linha começa no próprio objeto
+        gerador.setRootValueSeparator(null);
+        return new RespostaNdjson(gerador, writer);
+    }
+
+    void escrever(Object valor) {
+        try {
+            writer.writeValue(gerador, valor);
+            gerador.writeRaw('\n');
+            if (linhas++ % LINHAS_POR_FLUSH == 0) {
+                gerador.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void fechar() throws IOException {
+        gerador.close();
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.grupo99.oficinaservice.infrastructure.security.authorization;
+
+import br.com.grupo99.oficinaservice.domain.model.Perfil;
+import br.com.grupo99.oficinaservice.infrastructure.security.annotation.RequiresRole;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Política de um método de controller resolvida a partir de {@link RequiresRole}: perfis aceitos
+ * e mensagens de negação já montadas para cada perfil do usuário.
+ */
+final class PoliticaPerfis {
+
+    private final String metodo;
+    private final EnumSet<Perfil> perfisNecessarios;
+    private final String perfisNecessariosTexto;
+    private final Map<Perfil, String> mensagensNegacao;
+    private final String mensagemSemPerfil;
+
+    private PoliticaPerfis(String metodo, RequiresRole requiresRole) {
+        this.metodo = metodo;
+        this.perfisNecessarios = requiresRole.value().length == 0
+                ? EnumSet.noneOf(Perfil.class)
+                : EnumSet.copyOf(Arrays.asList(requiresRole.value()));
+        this.perfisNecessariosTexto = Arrays.toString(requiresRole.value());
+        this.mensagensNegacao = new EnumMap<>(Perfil.class);
+        for (Perfil perfil : Perfil.values()) {
+            mensagensNegacao.put(perfil, mensagem(requiresRole, perfil));
+        }
+        this.mensagemSemPerfil = mensagem(requiresRole, null);
+    }
+
+    static PoliticaPerfis de(String metodo, RequiresRole requiresRole) {
+        return new PoliticaPerfis(metodo, requiresRole);
+    }
+
+    private String mensagem(RequiresRole requiresRole, Perfil perfilUsuario) {
+        return requiresRole.message().isEmpty()
+                ? String.format("Acesso negado. Perfis necessários: %s. Perfil do usuário: %s",
+                        perfisNecessariosTexto, perfilUsuario)
+                : requiresRole.message();
+    }
+
+    boolean permite(Perfil perfil) {
+        return perfil != null && perfisNecessarios.contains(perfil);
+    }
+
+    String mensagemNegacao(Perfil perfilUsuario) {
+        return perfilUsuario == null ? mensagemSemPerfil : mensagensNegacao.get(perfilUsuario);
+    }
+
+    /**
+     * Nome do método protegido no formato {@code Classe.metodo}, usado nos logs.
+     */
+    String getMetodo() {
+        return metodo;
+    }
+
+    Set<Perfil> getPerfisNecessarios() {
+        return perfisNecessarios;
+    }
+
+    String getPerfisNecessariosTexto() {
+        return perfisNecessariosTexto;
+    }
+}
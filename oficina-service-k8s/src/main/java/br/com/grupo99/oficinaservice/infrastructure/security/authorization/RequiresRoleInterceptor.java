@@ -0,0 +1,131 @@
+package br.com.grupo99.oficinaservice.infrastructure.security.authorization;
+
+import br.com.grupo99.oficinaservice.domain.model.Perfil;
+import br.com.grupo99.oficinaservice.infrastructure.security.annotation.RequiresRole;
+import br.com.grupo99.oficinaservice.infrastructure.security.jwt.JwtUserDetails;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aplica {@link RequiresRole} antes da execução dos métodos dos controllers.
+ * <p>
+ * A anotação de cada handler é resolvida uma única vez (na inicialização, a partir dos métodos
+ * registrados no {@link RequestMappingHandlerMapping}) e guardada como {@link PoliticaPerfis}.
+ * A anotação no método tem precedência sobre a da classe. Por requisição resta apenas uma
+ * consulta ao mapa e um {@code EnumSet.contains}.
+ */
+@Component
+public class RequiresRoleInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequiresRoleInterceptor.class);
+
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+    private final Map<Method, Optional<PoliticaPerfis>> politicas = new ConcurrentHashMap<>();
+
+    public RequiresRoleInterceptor(
+            @Qualifier("requestMappingHandlerMapping") ObjectProvider<RequestMappingHandlerMapping> handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void construir() {
+        RequestMappingHandlerMapping mapping = handlerMapping.getIfAvailable();
+        if (mapping != null) {
+            construir(mapping.getHandlerMethods().values());
+        }
+    }
+
+    void construir(Collection<HandlerMethod> handlerMethods) {
+        int protegidos = 0;
+        for (HandlerMethod handlerMethod : handlerMethods) {
+            Optional<PoliticaPerfis> politica = resolver(handlerMethod);
+            politicas.put(handlerMethod.getMethod(), politica);
+            if (politica.isPresent()) {
+                protegidos++;
+            }
+        }
+        logger.info("Políticas de @RequiresRole resolvidas para {} de {} métodos", protegidos, handlerMethods.size());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            PoliticaPerfis politica = politicaDe(handlerMethod);
+            if (politica != null) {
+                verificar(politica);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Política do handler; métodos que não estavam registrados na inicialização são resolvidos
+     * na primeira chamada.
+     */
+    PoliticaPerfis politicaDe(HandlerMethod handlerMethod) {
+        Optional<PoliticaPerfis> politica = politicas.get(handlerMethod.getMethod());
+        if (politica == null) {
+            politica = politicas.computeIfAbsent(handlerMethod.getMethod(), m -> resolver(handlerMethod));
+        }
+        return politica.orElse(null);
+    }
+
+    private static Optional<PoliticaPerfis> resolver(HandlerMethod handlerMethod) {
+        RequiresRole requiresRole = handlerMethod.getMethodAnnotation(RequiresRole.class);
+        if (requiresRole == null) {
+            requiresRole = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RequiresRole.class);
+        }
+        if (requiresRole == null) {
+            return Optional.empty();
+        }
+        Method method = handlerMethod.getMethod();
+        String nome = handlerMethod.getBeanType().getSimpleName() + "." + method.getName();
+        return Optional.of(PoliticaPerfis.de(nome, requiresRole));
+    }
+
+    private static void verificar(PoliticaPerfis politica) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || !authentication.isAuthenticated()) {
+            logger.warn("Tentativa de acesso não autenticado ao método: {}", politica.getMetodo());
+            throw new AccessDeniedException("Usuário não autenticado");
+        }
+
+        if (!(authentication.getPrincipal() instanceof JwtUserDetails userDetails)) {
+            logger.error("Principal não é JwtUserDetails no método: {}", politica.getMetodo());
+            throw new AccessDeniedException("Token de autenticação inválido");
+        }
+
+        Perfil perfil = userDetails.getPerfil();
+        if (!politica.permite(perfil)) {
+            logger.warn("Acesso negado ao método: {}. Usuário: {}, Perfil: {}, Perfis necessários: {}",
+                    politica.getMetodo(), userDetails.getUsername(), perfil, politica.getPerfisNecessariosTexto());
+            throw new AccessDeniedException(politica.mensagemNegacao(perfil));
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Acesso permitido ao método: {}. Usuário: {}, Perfil: {}",
+                    politica.getMetodo(), userDetails.getUsername(), perfil);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.grupo99.oficinaservice.infrastructure.security.authorization;
+
+import br.com.grupo99.oficinaservice.domain.model.Perfil;
+import io.micrometer.core.instrument.Counter;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Entrada da {@link TabelaAutorizacaoRotas}: perfis que podem chamar um método HTTP em um template de rota.
+ * Tudo o que a verificação precisa (inclusive o corpo da resposta 403 e o contador) é montado na inicialização.
+ */
+public final class RotaAutorizacao {
+
+    private final RequestMethod metodo;
+    private final String template;
+    private final EnumSet<Perfil> perfisPermitidos;
+    private final String corpoNegacao;
+    private final Counter negacoes;
+
+    RotaAutorizacao(RequestMethod metodo, String template, EnumSet<Perfil> perfisPermitidos,
+                    String mensagemNegacao, Counter negacoes) {
+        this.metodo = metodo;
+        this.template = template;
+        this.perfisPermitidos = perfisPermitidos;
+        this.corpoNegacao = mensagemNegacao == null ? null : "{\"error\":\"" + mensagemNegacao + "\"}";
+        this.negacoes = negacoes;
+    }
+
+    public boolean permite(Perfil perfil) {
+        return perfil != null && perfisPermitidos.contains(perfil);
+    }
+
+    /**
+     * Contabiliza um acesso negado nesta rota (métrica {@code oficina.autorizacao.negacoes}).
+     */
+    public void registrarNegacao() {
+        if (negacoes != null) {
+            negacoes.increment();
+        }
+    }
+
+    public RequestMethod getMetodo() {
+        return metodo;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public Set<Perfil> getPerfisPermitidos() {
+        return perfisPermitidos;
+    }
+
+    /**
+     * Corpo JSON da resposta 403, ou {@code null} se todos os perfis são permitidos.
+     */
+    public String getCorpoNegacao() {
+        return corpoNegacao;
+    }
+}
@@ -0,0 +1,245 @@
+package br.com.grupo99.oficinaservice.infrastructure.security.authorization;
+
+import br.com.grupo99.oficinaservice.domain.model.Perfil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tabela de autorização por rota, montada na inicialização a partir de todos os endpoints dos
+ * controllers em {@code infrastructure.rest}.
+ * <p>
+ * Cada par (método HTTP, template de rota) recebe o conjunto de perfis permitidos. Os templates
+ * ficam em uma árvore de segmentos, e a consulta percorre a URI por índices, sem regex e sem
+ * alocar objetos por requisição.
+ */
+@Component
+public class TabelaAutorizacaoRotas {
+
+    private static final Logger logger = LoggerFactory.getLogger(TabelaAutorizacaoRotas.class);
+
+    static final String PACOTE_CONTROLLERS = "br.com.grupo99.oficinaservice.infrastructure.rest";
+
+    private static final String MENSAGEM_APENAS_PROPRIAS_OS = "Acesso negado. Clientes só podem consultar suas ordens de serviço.";
+    private static final String MENSAGEM_LISTAGEM = "Acesso negado. Clientes não podem listar todas as ordens de serviço.";
+
+    private static final List<String> PREFIXOS_RESTRITOS_A_CLIENTE = List.of(
+            "/api/v1/clientes", "/api/v1/veiculos", "/api/v1/pecas", "/api/v1/servicos");
+    private static final Set<String> LISTAGENS_DE_OS = Set.of(
+            "/api/v1/ordens-servico", "/api/v1/ordens-servico/pagina", "/api/v1/ordens-servico/exportacao");
+    private static final String OS_POR_ID = "/api/v1/ordens-servico/{id}";
+
+    private static final RequestMethod[] METODOS = RequestMethod.values();
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+    private volatile No raiz;
+
+    public TabelaAutorizacaoRotas(MeterRegistry meterRegistry,
+                                  @Qualifier("requestMappingHandlerMapping") ObjectProvider<RequestMappingHandlerMapping> handlerMapping) {
+        this.meterRegistry = meterRegistry;
+        this.handlerMapping = handlerMapping;
+    }
+
+    /**
+     * Par (método, template) de um endpoint exposto.
+     */
+    record Endpoint(RequestMethod metodo, String template) {
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void construir() {
+        RequestMappingHandlerMapping mapping = handlerMapping.getIfAvailable();
+        if (mapping != null) {
+            construir(endpointsDosControllers(mapping.getHandlerMethods()));
+        }
+    }
+
+    void construir(Collection<Endpoint> endpoints) {
+        No novaRaiz = new No();
+        for (Endpoint endpoint : endpoints) {
+            novaRaiz.inserir(endpoint.template(), 0, criarRota(endpoint));
+        }
+        raiz = novaRaiz;
+        logger.info("Tabela de autorização montada com {} rotas", endpoints.size());
+    }
+
+    /**
+     * Busca a regra da rota que atende à requisição pelo caminho dentro da aplicação, como o
+     * Spring MVC resolve o handler: sem o context path e os parâmetros de segmento ({@code ;}),
+     * decodificado e com barras repetidas unidas. A URI bruta poderia não encontrar a rota (ou
+     * encontrar outra) para uma requisição que o controller ainda atende.
+     *
+     * @param request Requisição HTTP
+     * @return A regra da rota, ou {@code null} se nenhum endpoint mapeado atende à requisição
+     */
+    public RotaAutorizacao buscar(HttpServletRequest request) {
+        return buscar(request.getMethod(), UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+    }
+
+    /**
+     * Busca a regra da rota que atende ao caminho.
+     *
+     * @param metodo Método HTTP da requisição
+     * @param uri Caminho dentro da aplicação, já normalizado (sem context path nem query string)
+     * @return A regra da rota, ou {@code null} se nenhum endpoint mapeado atende à requisição
+     */
+    public RotaAutorizacao buscar(String metodo, String uri) {
+        No atual = raiz;
+        RequestMethod requestMethod = RequestMethod.resolve(metodo);
+        if (atual == null || requestMethod == null || uri == null || uri.isEmpty() || uri.charAt(0) != '/') {
+            return null;
+        }
+        return localizar(atual, uri, 1, requestMethod.ordinal());
+    }
+
+    private static RotaAutorizacao localizar(No no, String uri, int inicio, int metodo) {
+        int fim = uri.indexOf('/', inicio);
+        if (fim < 0) {
+            fim = uri.length();
+        }
+        int tamanho = fim - inicio;
+        if (tamanho == 0) {
+            return null;
+        }
+        // Segmentos literais têm precedência sobre variáveis, como no Spring MVC
+        for (int i = 0; i < no.literais.length; i++) {
+            String literal = no.literais[i];
+            if (literal.length() == tamanho && uri.regionMatches(inicio, literal, 0, tamanho)) {
+                RotaAutorizacao rota = continuar(no.filhosLiterais[i], uri, fim, metodo);
+                if (rota != null) {
+                    return rota;
+                }
+            }
+        }
+        return no.variavel == null ? null : continuar(no.variavel, uri, fim, metodo);
+    }
+
+    private static RotaAutorizacao continuar(No no, String uri, int fim, int metodo) {
+        if (fim == uri.length()) {
+            return no.rotas[metodo];
+        }
+        return localizar(no, uri, fim + 1, metodo);
+    }
+
+    static List<Endpoint> endpointsDosControllers(Map<RequestMappingInfo, HandlerMethod> handlerMethods) {
+        List<Endpoint> endpoints = new ArrayList<>();
+        handlerMethods.forEach((info, handlerMethod) -> {
+            if (!handlerMethod.getBeanType().getPackageName().equals(PACOTE_CONTROLLERS)) {
+                return;
+            }
+            Set<RequestMethod> metodos = info.getMethodsCondition().getMethods();
+            Collection<RequestMethod> aplicaveis = metodos.isEmpty() ? Arrays.asList(METODOS) : metodos;
+            for (String template : info.getPatternValues()) {
+                for (RequestMethod metodo : aplicaveis) {
+                    endpoints.add(new Endpoint(metodo, template));
+                }
+            }
+        });
+        return endpoints;
+    }
+
+    private RotaAutorizacao criarRota(Endpoint endpoint) {
+        EnumSet<Perfil> permitidos = EnumSet.allOf(Perfil.class);
+        String mensagem = restricaoParaCliente(endpoint);
+        Counter negacoes = null;
+        if (mensagem != null) {
+            permitidos.remove(Perfil.CLIENTE);
+            negacoes = Counter.builder("oficina.autorizacao.negacoes")
+                    .description("Requisições negadas pela tabela de autorização")
+                    .tag("service", "oficina-service")
+                    .tag("metodo", endpoint.metodo().name())
+                    .tag("rota", endpoint.template())
+                    .register(meterRegistry);
+        }
+        return new RotaAutorizacao(endpoint.metodo(), endpoint.template(), permitidos, mensagem, negacoes);
+    }
+
+    /**
+     * Política de acesso do perfil CLIENTE, aplicada uma vez por rota: clientes só consultam
+     * as próprias OS e não acessam cadastros nem listagens completas.
+     *
+     * @return Mensagem de negação, ou {@code null} se o cliente pode acessar a rota
+     */
+    private static String restricaoParaCliente(Endpoint endpoint) {
+        String template = endpoint.template();
+        if (OS_POR_ID.equals(template)) {
+            return endpoint.metodo() == RequestMethod.GET ? null : MENSAGEM_APENAS_PROPRIAS_OS;
+        }
+        if (LISTAGENS_DE_OS.contains(template)) {
+            return MENSAGEM_LISTAGEM;
+        }
+        for (String prefixo : PREFIXOS_RESTRITOS_A_CLIENTE) {
+            if (template.equals(prefixo) || template.startsWith(prefixo + "/")) {
+                return MENSAGEM_APENAS_PROPRIAS_OS;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Nó da árvore de segmentos. Poucos filhos por nó, então arrays com busca linear bastam.
+     */
+    private static final class No {
+        private String[] literais = new String[0];
+        private No[] filhosLiterais = new No[0];
+        private No variavel;
+        private final RotaAutorizacao[] rotas = new RotaAutorizacao[METODOS.length];
+
+        void inserir(String template, int inicio, RotaAutorizacao rota) {
+            if (inicio < template.length() && template.charAt(inicio) == '/') {
+                inicio++;
+            }
+            if (inicio >= template.length()) {
+                rotas[rota.getMetodo().ordinal()] = rota;
+                return;
+            }
+            int fim = template.indexOf('/', inicio);
+            if (fim < 0) {
+                fim = template.length();
+            }
+            String segmento = template.substring(inicio, fim);
+            filho(segmento).inserir(template, fim, rota);
+        }
+
+        private No filho(String segmento) {
+            if (segmento.startsWith("{") || segmento.contains("*")) {
+                if (variavel == null) {
+                    variavel = new No();
+                }
+                return variavel;
+            }
+            for (int i = 0; i < literais.length; i++) {
+                if (literais[i].equals(segmento)) {
+                    return filhosLiterais[i];
+                }
+            }
+            No novo = new No();
+            literais = Arrays.copyOf(literais, literais.length + 1);
+            filhosLiterais = Arrays.copyOf(filhosLiterais, filhosLiterais.length + 1);
+            literais[literais.length - 1] = segmento;
+            filhosLiterais[filhosLiterais.length - 1] = novo;
+            return novo;
+        }
+    }
+}
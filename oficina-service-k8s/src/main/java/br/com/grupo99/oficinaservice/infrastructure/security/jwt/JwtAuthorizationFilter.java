@@ -1,5 +1,7 @@
 package br.com.grupo99.oficinaservice.infrastructure.security.jwt;
 
+import br.com.grupo99.oficinaservice.infrastructure.security.authorization.RotaAutorizacao;
+import br.com.grupo99.oficinaservice.infrastructure.security.authorization.TabelaAutorizacaoRotas;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,20 +13,22 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
 
 /**
  * Filtro de autorização que valida o acesso baseado em roles e clienteId.
  * - CLIENTE: só pode acessar suas próprias ordens de serviço (GET /api/v1/ordens-servico/{id} onde o clienteId do token == clienteId da OS)
  * - MECANICO/ADMIN: acesso total a todas as operações
+ * As regras por rota ficam na {@link TabelaAutorizacaoRotas}.
  */
 @Component
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final JwtClaimsVerifier claimsVerifier;
+    private final TabelaAutorizacaoRotas tabelaAutorizacao;
 
-    public JwtAuthorizationFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    public JwtAuthorizationFilter(JwtClaimsVerifier claimsVerifier, TabelaAutorizacaoRotas tabelaAutorizacao) {
+        this.claimsVerifier = claimsVerifier;
+        this.tabelaAutorizacao = tabelaAutorizacao;
     }
 
     @Override
@@ -43,9 +47,6 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Extrai o token
-        String jwt = authHeader.substring(7);
-        
         // Verifica se o usuário está autenticado
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -53,56 +54,25 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
             return;
         }
 
-        // Extrai perfil e pessoaId do token
-        String perfil = jwtUtil.extractPerfil(jwt);
-        String pessoaId = jwtUtil.extractPessoaId(jwt);
+        // Reaproveita o usuário já verificado pelo JwtRequestFilter; senão, consulta o verificador (com cache)
+        JwtUserDetails usuario = (authentication.getPrincipal() instanceof JwtUserDetails autenticado)
+                ? autenticado
+                : claimsVerifier.verificar(authHeader.substring(7));
 
-        // Se for MECANICO ou ADMIN, permite acesso total
-        if ("MECANICO".equals(perfil) || "ADMIN".equals(perfil)) {
-            filterChain.doFilter(request, response);
+        // Consulta a regra pré-compilada da rota (montada na inicialização a partir dos controllers)
+        RotaAutorizacao rota = tabelaAutorizacao.buscar(request);
+        if (rota != null && !rota.permite(usuario.getPerfil())) {
+            rota.registrarNegacao();
+            response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            response.setContentType("application/json");
+            response.getWriter().write(rota.getCorpoNegacao());
             return;
         }
 
-        // Se for CLIENTE, valida o acesso
-        if ("CLIENTE".equals(perfil)) {
-            String requestURI = request.getRequestURI();
-            String method = request.getMethod();
-
-            // CLIENTE só pode fazer GET em suas próprias ordens de serviço
-            if (requestURI.matches("/api/v1/ordens-servico/[a-f0-9\\-]+")) {
-                if ("GET".equals(method)) {
-                    // Armazena o pessoaId no request para validação posterior no controller
-                    request.setAttribute("pessoaId", pessoaId);
-                    request.setAttribute("perfil", perfil);
-                    filterChain.doFilter(request, response);
-                    return;
-                } else {
-                    // CLIENTE não pode criar, atualizar ou deletar ordens de serviço
-                    response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                    response.setContentType("application/json");
-                    response.getWriter().write("{\"error\":\"Acesso negado. Clientes só podem consultar suas ordens de serviço.\"}");
-                    return;
-                }
-            }
-
-            // CLIENTE não pode acessar listagem completa de ordens de serviço
-            if ("/api/v1/ordens-servico".equals(requestURI)) {
-                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                response.setContentType("application/json");
-                response.getWriter().write("{\"error\":\"Acesso negado. Clientes não podem listar todas as ordens de serviço.\"}");
-                return;
-            }
-
-            // CLIENTE não pode acessar outros endpoints (clientes, veículos, peças, serviços)
-            if (requestURI.startsWith("/api/v1/clientes") || 
-                requestURI.startsWith("/api/v1/veiculos") ||
-                requestURI.startsWith("/api/v1/pecas") ||
-                requestURI.startsWith("/api/v1/servicos")) {
-                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                response.setContentType("application/json");
-                response.getWriter().write("{\"error\":\"Acesso negado. Clientes só podem consultar suas ordens de serviço.\"}");
-                return;
-            }
+        if (usuario.isCliente()) {
+            // Armazena o pessoaId no request para validação posterior no controller
+            request.setAttribute("pessoaId", usuario.getPessoaId().toString());
+            request.setAttribute("perfil", usuario.getPerfil().name());
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,107 @@
+package br.com.grupo99.oficinaservice.infrastructure.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Verifica tokens JWT uma única vez e guarda o resultado até a expiração do token.
+ * <p>
+ * A chave do cache é o SHA-256 do token, para não manter tokens em memória: um acerto
+ * garante que exatamente os mesmos bytes já tiveram a assinatura verificada. Tokens
+ * inválidos nunca são armazenados.
+ */
+@Component
+public class JwtClaimsVerifier {
+
+    private final JwtUtil jwtUtil;
+    private final int capacidade;
+    private final LongSupplier relogio;
+    private final Map<String, TokenVerificado> cache = new ConcurrentHashMap<>();
+
+    private record TokenVerificado(JwtUserDetails usuario, long expiraEm) {
+    }
+
+    public JwtClaimsVerifier(JwtUtil jwtUtil, @Value("${jwt.cache.capacidade:10000}") int capacidade) {
+        this(jwtUtil, capacidade, System::currentTimeMillis);
+    }
+
+    JwtClaimsVerifier(JwtUtil jwtUtil, int capacidade, LongSupplier relogio) {
+        this.jwtUtil = jwtUtil;
+        this.capacidade = capacidade;
+        this.relogio = relogio;
+    }
+
+    /**
+     * Retorna o usuário do token, verificando assinatura e expiração apenas na primeira vez.
+     *
+     * @param token Token JWT sem o prefixo "Bearer "
+     * @return JwtUserDetails com informações do usuário
+     * @throws io.jsonwebtoken.JwtException se o token for inválido ou estiver expirado
+     * @throws IllegalArgumentException se faltar alguma claim obrigatória
+     */
+    public JwtUserDetails verificar(String token) {
+        String chave = digest(token);
+        long agora = relogio.getAsLong();
+
+        TokenVerificado verificado = cache.get(chave);
+        if (verificado != null) {
+            if (verificado.expiraEm() > agora) {
+                return verificado.usuario();
+            }
+            cache.remove(chave, verificado);
+        }
+
+        Claims claims = jwtUtil.parseClaims(token);
+        JwtUserDetails usuario = jwtUtil.toUserDetails(claims);
+        Date expiracao = claims.getExpiration();
+        if (expiracao != null && reservarEspaco(agora)) {
+            cache.put(chave, new TokenVerificado(usuario, expiracao.getTime()));
+        }
+        return usuario;
+    }
+
+    /**
+     * Remove periodicamente os tokens expirados, mesmo os que não voltaram a ser usados.
+     */
+    @Scheduled(fixedDelayString = "${jwt.cache.limpeza:PT1M}")
+    public void removerExpirados() {
+        removerExpirados(relogio.getAsLong());
+    }
+
+    int tamanho() {
+        return cache.size();
+    }
+
+    private void removerExpirados(long agora) {
+        cache.values().removeIf(verificado -> verificado.expiraEm() <= agora);
+    }
+
+    private boolean reservarEspaco(long agora) {
+        if (cache.size() < capacidade) {
+            return true;
+        }
+        removerExpirados(agora);
+        // Cheio de tokens ainda válidos: o token é verificado a cada uso, sem crescer o cache
+        return cache.size() < capacidade;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
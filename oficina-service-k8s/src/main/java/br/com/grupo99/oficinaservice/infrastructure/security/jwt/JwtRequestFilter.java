@@ -21,7 +21,10 @@ import java.io.IOException;
  * Seguindo os princípios:
  * - Single Responsibility: Apenas valida e extrai informações do JWT
  * - Open/Closed: Extensível via configuração, fechado para modificação
- * - Dependency Inversion: Depende de abstrações (JwtUtil)
+ * - Dependency Inversion: Depende de abstrações (JwtClaimsVerifier)
+ *
+ * O usuário verificado fica no SecurityContext, de onde o JwtAuthorizationFilter o lê sem
+ * validar o token de novo.
  */
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
@@ -30,10 +33,10 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
 
-    private final JwtUtil jwtUtil;
+    private final JwtClaimsVerifier claimsVerifier;
 
-    public JwtRequestFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    public JwtRequestFilter(JwtClaimsVerifier claimsVerifier) {
+        this.claimsVerifier = claimsVerifier;
     }
 
     @Override
@@ -54,39 +57,34 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         try {
             // Extrai o token removendo o prefixo "Bearer "
             final String jwt = authHeader.substring(BEARER_PREFIX.length());
-            
-            // Extrai informações do usuário do token
-            final JwtUserDetails userDetails = jwtUtil.extractUserDetails(jwt);
-            
+
             // Se já existe uma autenticação no contexto, não sobrescreve
             if (SecurityContextHolder.getContext().getAuthentication() != null) {
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            // Valida o token
-            if (jwtUtil.isTokenValid(jwt, userDetails)) {
-                // Cria o objeto de autenticação
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                
-                // Adiciona detalhes da requisição
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                // Define a autenticação no contexto do Spring Security
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                
-                logger.debug("Usuário autenticado: {} com perfil: {}", 
-                    userDetails.getUsername(), 
-                    userDetails.getPerfil()
-                );
-            } else {
-                logger.warn("Token JWT inválido para usuário: {}", userDetails.getUsername());
-            }
-            
+            // Verifica assinatura e expiração (uma única vez por token) e extrai o usuário
+            final JwtUserDetails userDetails = claimsVerifier.verificar(jwt);
+
+            // Cria o objeto de autenticação
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities()
+            );
+
+            // Adiciona detalhes da requisição
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            // Define a autenticação no contexto do Spring Security
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+
+            logger.debug("Usuário autenticado: {} com perfil: {}",
+                userDetails.getUsername(),
+                userDetails.getPerfil()
+            );
+
         } catch (Exception e) {
             logger.error("Erro ao processar token JWT: {}", e.getMessage());
             // Não bloqueia a requisição, deixa o Spring Security lidar com a falta de autenticação
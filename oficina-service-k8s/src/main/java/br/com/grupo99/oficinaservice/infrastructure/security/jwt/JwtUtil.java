@@ -1,6 +1,7 @@
 package br.com.grupo99.oficinaservice.infrastructure.security.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -24,6 +25,10 @@ public class JwtUtil {
     @Value("${jwt.expiration.ms}")
     private long jwtExpiration;
 
+    // Derivados do segredo na primeira utilização e reaproveitados em todas as validações
+    private volatile Key signInKey;
+    private volatile JwtParser parser;
+
     /**
      * Extrai o nome de utilizador do token JWT.
      */
@@ -35,7 +40,11 @@ public class JwtUtil {
      * Extrai o pessoaId do token JWT.
      */
     public String extractPessoaId(String token) {
-        String pessoaId = extractClaim(token, claims -> claims.get("pessoaId", String.class));
+        return extractPessoaId(parseClaims(token));
+    }
+
+    private String extractPessoaId(Claims claims) {
+        String pessoaId = claims.get("pessoaId", String.class);
         if (pessoaId == null || pessoaId.trim().isEmpty()) {
             throw new IllegalArgumentException("Token JWT não contém claim 'pessoaId'");
         }
@@ -46,7 +55,11 @@ public class JwtUtil {
      * Extrai o número de documento do token JWT.
      */
     public String extractNumeroDocumento(String token) {
-        String numeroDocumento = extractClaim(token, claims -> claims.get("numeroDocumento", String.class));
+        return extractNumeroDocumento(parseClaims(token));
+    }
+
+    private String extractNumeroDocumento(Claims claims) {
+        String numeroDocumento = claims.get("numeroDocumento", String.class);
         if (numeroDocumento == null || numeroDocumento.trim().isEmpty()) {
             throw new IllegalArgumentException("Token JWT não contém claim 'numeroDocumento'");
         }
@@ -57,7 +70,11 @@ public class JwtUtil {
      * Extrai o tipo de pessoa do token JWT.
      */
     public String extractTipoPessoa(String token) {
-        String tipoPessoa = extractClaim(token, claims -> claims.get("tipoPessoa", String.class));
+        return extractTipoPessoa(parseClaims(token));
+    }
+
+    private String extractTipoPessoa(Claims claims) {
+        String tipoPessoa = claims.get("tipoPessoa", String.class);
         if (tipoPessoa == null || tipoPessoa.trim().isEmpty()) {
             throw new IllegalArgumentException("Token JWT não contém claim 'tipoPessoa'");
         }
@@ -80,7 +97,11 @@ public class JwtUtil {
      * @throws IllegalArgumentException se o perfil não estiver presente no token
      */
     public String extractPerfil(String token) {
-        String perfil = extractClaim(token, claims -> claims.get("perfil", String.class));
+        return extractPerfil(parseClaims(token));
+    }
+
+    private String extractPerfil(Claims claims) {
+        String perfil = claims.get("perfil", String.class);
         if (perfil == null || perfil.trim().isEmpty()) {
             throw new IllegalArgumentException("Token JWT não contém claim 'perfil'");
         }
@@ -94,21 +115,31 @@ public class JwtUtil {
      * @return JwtUserDetails com informações do usuário
      */
     public JwtUserDetails extractUserDetails(String token) {
-        String username = extractUsername(token);
-        String pessoaId = extractPessoaId(token);
-        String numeroDocumento = extractNumeroDocumento(token);
-        String tipoPessoa = extractTipoPessoa(token);
-        String cargo = extractCargo(token);
-        String perfil = extractPerfil(token);
-        
-        return JwtUserDetails.from(username, pessoaId, numeroDocumento, tipoPessoa, cargo, perfil);
+        return toUserDetails(parseClaims(token));
+    }
+
+    /**
+     * Cria um JwtUserDetails a partir de claims já verificadas.
+     *
+     * @param claims Claims retornadas por {@link #parseClaims(String)}
+     * @return JwtUserDetails com informações do usuário
+     */
+    public JwtUserDetails toUserDetails(Claims claims) {
+        return JwtUserDetails.from(
+                claims.getSubject(),
+                extractPessoaId(claims),
+                extractNumeroDocumento(claims),
+                extractTipoPessoa(claims),
+                claims.get("cargo", String.class),
+                extractPerfil(claims)
+        );
     }
 
     /**
      * Extrai uma reivindicação específica do token JWT usando uma função de resolução.
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
@@ -136,28 +167,40 @@ public class JwtUtil {
      * Valida se um token JWT é válido para um determinado utilizador.
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        final Claims claims = parseClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+    /**
+     * Verifica a assinatura e a expiração do token e retorna todas as suas claims.
+     *
+     * @throws io.jsonwebtoken.JwtException se o token for inválido ou estiver expirado
+     */
+    public Claims parseClaims(String token) {
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
+    private JwtParser getParser() {
+        JwtParser atual = parser;
+        if (atual == null) {
+            // JwtParser é imutável e thread-safe; construções concorrentes são equivalentes
+            atual = Jwts.parserBuilder()
+                    .setSigningKey(getSignInKey())
+                    .build();
+            parser = atual;
+        }
+        return atual;
+    }
+
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key atual = signInKey;
+        if (atual == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+            atual = Keys.hmacShaKeyFor(keyBytes);
+            signInKey = atual;
+        }
+        return atual;
     }
 }
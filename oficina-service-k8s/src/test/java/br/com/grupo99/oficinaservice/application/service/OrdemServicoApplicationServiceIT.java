@@ -1,6 +1,7 @@
 package br.com.grupo99.oficinaservice.application.service;
 
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoDetalhesDTO;
+import br.com.grupo99.oficinaservice.application.dto.OrdemServicoPaginaDTO;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoRequestDTO;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoResponseDTO;
 import br.com.grupo99.oficinaservice.application.exception.BusinessException;
@@ -15,6 +16,7 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -135,6 +137,28 @@ class OrdemServicoApplicationServiceIT {
         assertThat(lista).hasSize(2);
     }
 
+    @Test
+    @DisplayName("Dado OS em vários status, Quando listar paginado, Então deve filtrar, ordenar por prioridade e seguir o cursor")
+    void givenOsInVariousStatus_whenListPaginated_thenShouldFilterOrderAndFollowCursor() {
+        // Given
+        OrdemServico recebidaAntiga = salvarOs(StatusOS.RECEBIDA, LocalDateTime.of(2024, 1, 1, 8, 0));
+        OrdemServico recebidaNova = salvarOs(StatusOS.RECEBIDA, LocalDateTime.of(2024, 1, 2, 8, 0));
+        OrdemServico emExecucao = salvarOs(StatusOS.EM_EXECUCAO, LocalDateTime.of(2024, 1, 3, 8, 0));
+        OrdemServico diagnostico = salvarOs(StatusOS.EM_DIAGNOSTICO, LocalDateTime.of(2024, 1, 1, 8, 0));
+        salvarOs(StatusOS.ENTREGUE, LocalDateTime.of(2024, 1, 1, 7, 0));
+
+        // When
+        OrdemServicoPaginaDTO primeira = osService.execute(null, null, 2);
+        OrdemServicoPaginaDTO segunda = osService.execute(null, primeira.proximoCursor(), 2);
+
+        // Then
+        assertThat(primeira.itens()).extracting(OrdemServicoResponseDTO::id)
+                .containsExactly(emExecucao.getId(), diagnostico.getId());
+        assertThat(segunda.itens()).extracting(OrdemServicoResponseDTO::id)
+                .containsExactly(recebidaAntiga.getId(), recebidaNova.getId());
+        assertThat(segunda.proximoCursor()).isNull();
+    }
+
     @Test
     @DisplayName("Dado uma OS existente, Quando atualizar o status para um estado válido, Então o status deve ser atualizado")
     void givenExistingOs_whenUpdateStatusToValidState_thenShouldUpdateStatus() {
@@ -161,4 +185,11 @@ class OrdemServicoApplicationServiceIT {
         });
         assertThat(exception.getMessage()).contains("OS não pode ser finalizada pois não está em execução");
     }
-}
\ No newline at end of file
+
+    private OrdemServico salvarOs(StatusOS status, LocalDateTime dataCriacao) {
+        OrdemServico os = new OrdemServico(cliente.getId(), veiculo.getId());
+        os.setStatus(status);
+        os.setDataCriacao(dataCriacao);
+        return osRepository.save(os);
+    }
+}
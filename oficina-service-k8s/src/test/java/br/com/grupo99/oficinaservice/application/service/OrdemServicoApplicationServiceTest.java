@@ -1,25 +1,38 @@
 package br.com.grupo99.oficinaservice.application.service;
 
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoDetalhesDTO;
+import br.com.grupo99.oficinaservice.application.dto.OrdemServicoPaginaDTO;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoRequestDTO;
 import br.com.grupo99.oficinaservice.application.dto.OrdemServicoResponseDTO;
+import br.com.grupo99.oficinaservice.application.dto.ResumoOrdensServicoDTO;
+import br.com.grupo99.oficinaservice.application.dto.TransicaoStatusResponseDTO;
 import br.com.grupo99.oficinaservice.application.exception.BusinessException;
 import br.com.grupo99.oficinaservice.application.exception.OrdemServicoAtivaException;
 import br.com.grupo99.oficinaservice.application.exception.ResourceNotFoundException;
+import br.com.grupo99.oficinaservice.application.util.CursorUtils;
 import br.com.grupo99.oficinaservice.domain.model.*;
 import br.com.grupo99.oficinaservice.domain.repository.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -50,6 +63,11 @@ class OrdemServicoApplicationServiceTest {
     @Mock private PecaRepository pecaRepository;
     @Mock private ServicoRepository servicoRepository;
     @Mock private NotificationService notificationService;
+    @Mock private EstatisticaServicoRepository estatisticaServicoRepository;
+    @Mock private TransicaoStatusOrdemServicoRepository transicaoStatusRepository;
+    @Mock private PainelStatusOrdemServico painelStatus;
+
+    @Captor private ArgumentCaptor<List<TransicaoStatusOrdemServico>> transicoesGravadas;
 
     @InjectMocks private OrdemServicoApplicationService service;
 
@@ -81,6 +99,11 @@ class OrdemServicoApplicationServiceTest {
         ordemServico.setId(UUID.randomUUID());
     }
 
+    private OrdemServicoResumo criarResumo(StatusOS status, LocalDateTime dataCriacao) {
+        return new OrdemServicoResumo(UUID.randomUUID(), "João Silva", "ABC-1234", status,
+                BigDecimal.ZERO, dataCriacao, status.getPrioridade());
+    }
+
     @Test
     @DisplayName("Deve criar ordem de serviço com sucesso")
     void deveCriarOrdemServicoComSucesso() {
@@ -94,8 +117,8 @@ class OrdemServicoApplicationServiceTest {
 
         when(clienteRepository.findByCpfCnpj(cliente.getPessoa().getNumeroDocumento())).thenReturn(Optional.of(cliente));
         when(veiculoRepository.findByPlaca(veiculo.getPlaca())).thenReturn(Optional.of(veiculo));
-        when(servicoRepository.findById(servico.getId())).thenReturn(Optional.of(servico));
-        when(pecaRepository.findById(peca.getId())).thenReturn(Optional.of(peca));
+        when(servicoRepository.findAllById(anyCollection())).thenReturn(List.of(servico));
+        when(pecaRepository.findAllById(anyCollection())).thenReturn(List.of(peca));
         when(ordemServicoRepository.save(any(OrdemServico.class))).thenReturn(ordemServico);
 
         // When
@@ -109,6 +132,7 @@ class OrdemServicoApplicationServiceTest {
         assertThat(response.status()).isEqualTo(StatusOS.RECEBIDA);
 
         verify(ordemServicoRepository).save(any(OrdemServico.class));
+        verify(painelStatus).registrarTransicao(null, StatusOS.RECEBIDA);
     }
 
     @Test
@@ -182,7 +206,7 @@ class OrdemServicoApplicationServiceTest {
 
         when(clienteRepository.findByCpfCnpj(cliente.getPessoa().getNumeroDocumento())).thenReturn(Optional.of(cliente));
         when(veiculoRepository.findByPlaca(veiculo.getPlaca())).thenReturn(Optional.of(veiculo));
-        when(servicoRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(servicoRepository.findAllById(anyCollection())).thenReturn(List.of());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, () -> service.execute(request));
@@ -201,27 +225,198 @@ class OrdemServicoApplicationServiceTest {
 
         when(clienteRepository.findByCpfCnpj(cliente.getPessoa().getNumeroDocumento())).thenReturn(Optional.of(cliente));
         when(veiculoRepository.findByPlaca(veiculo.getPlaca())).thenReturn(Optional.of(veiculo));
-        when(servicoRepository.findById(servico.getId())).thenReturn(Optional.of(servico));
-        when(pecaRepository.findById(any(UUID.class))).thenReturn(Optional.empty());
+        when(servicoRepository.findAllById(anyCollection())).thenReturn(List.of(servico));
+        when(pecaRepository.findAllById(anyCollection())).thenReturn(List.of());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, () -> service.execute(request));
     }
 
+    @Test
+    @DisplayName("Deve carregar serviços e peças em lote e informar todos os IDs ausentes de uma vez")
+    void deveInformarTodosOsItensAusentesDeUmaVez() {
+        // Given
+        UUID servicoAusente1 = UUID.randomUUID();
+        UUID servicoAusente2 = UUID.randomUUID();
+        UUID pecaAusente = UUID.randomUUID();
+        OrdemServicoRequestDTO request = new OrdemServicoRequestDTO(
+                cliente.getPessoa().getNumeroDocumento(),
+                veiculo.getPlaca(),
+                List.of(servicoAusente1, servico.getId(), servicoAusente2),
+                List.of(peca.getId(), pecaAusente)
+        );
+
+        when(clienteRepository.findByCpfCnpj(cliente.getPessoa().getNumeroDocumento())).thenReturn(Optional.of(cliente));
+        when(veiculoRepository.findByPlaca(veiculo.getPlaca())).thenReturn(Optional.of(veiculo));
+        when(servicoRepository.findAllById(anyCollection())).thenReturn(List.of(servico));
+        when(pecaRepository.findAllById(anyCollection())).thenReturn(List.of(peca));
+
+        // When
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> service.execute(request));
+
+        // Then
+        assertThat(exception.getMessage())
+                .contains(servicoAusente1.toString(), servicoAusente2.toString(), pecaAusente.toString())
+                .doesNotContain(servico.getId().toString(), peca.getId().toString());
+        verify(servicoRepository, times(1)).findAllById(anyCollection());
+        verify(pecaRepository, times(1)).findAllById(anyCollection());
+        verify(servicoRepository, never()).findById(any());
+        verify(pecaRepository, never()).findById(any());
+        verify(ordemServicoRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve somar o valor total de todos os itens, inclusive itens repetidos")
+    void deveSomarValorTotalDeTodosOsItens() {
+        // Given
+        OrdemServicoRequestDTO request = new OrdemServicoRequestDTO(
+                cliente.getPessoa().getNumeroDocumento(),
+                veiculo.getPlaca(),
+                List.of(servico.getId(), servico.getId()),
+                List.of(peca.getId(), peca.getId(), peca.getId())
+        );
+
+        when(clienteRepository.findByCpfCnpj(cliente.getPessoa().getNumeroDocumento())).thenReturn(Optional.of(cliente));
+        when(veiculoRepository.findByPlaca(veiculo.getPlaca())).thenReturn(Optional.of(veiculo));
+        when(servicoRepository.findAllById(anyCollection())).thenReturn(List.of(servico));
+        when(pecaRepository.findAllById(anyCollection())).thenReturn(List.of(peca));
+        when(ordemServicoRepository.save(any(OrdemServico.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        OrdemServicoResponseDTO response = service.execute(request);
+
+        // Then: 2 x 100,00 + 3 x 50,00
+        assertThat(response.valorTotal()).isEqualByComparingTo("350.00");
+        verify(pecaRepository).reservarEstoque(Map.of(peca.getId(), 3));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar a criação quando a reserva atômica de estoque falhar")
+    void deveRejeitarCriacaoQuandoReservaDeEstoqueFalhar() {
+        // Given
+        OrdemServicoRequestDTO request = new OrdemServicoRequestDTO(
+                cliente.getPessoa().getNumeroDocumento(),
+                veiculo.getPlaca(),
+                List.of(servico.getId()),
+                List.of(peca.getId())
+        );
+
+        when(clienteRepository.findByCpfCnpj(cliente.getPessoa().getNumeroDocumento())).thenReturn(Optional.of(cliente));
+        when(veiculoRepository.findByPlaca(veiculo.getPlaca())).thenReturn(Optional.of(veiculo));
+        when(servicoRepository.findAllById(anyCollection())).thenReturn(List.of(servico));
+        when(pecaRepository.findAllById(anyCollection())).thenReturn(List.of(peca));
+        when(pecaRepository.reservarEstoque(Map.of(peca.getId(), 1))).thenReturn(Set.of(peca.getId()));
+
+        // When
+        BusinessException exception = assertThrows(BusinessException.class, () -> service.execute(request));
+
+        // Then
+        assertThat(exception.getMessage()).contains("Estoque insuficiente", peca.getNome());
+        verify(ordemServicoRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Deve listar todas as ordens de serviço")
     void deveListarTodasAsOrdensDeServico() {
         // Given
-        when(ordemServicoRepository.findAll()).thenReturn(List.of(ordemServico));
-        when(clienteRepository.findById(cliente.getId())).thenReturn(Optional.of(cliente));
-        when(veiculoRepository.findById(veiculo.getId())).thenReturn(Optional.of(veiculo));
+        OrdemServicoResumo resumo = criarResumo(StatusOS.RECEBIDA, LocalDateTime.of(2024, 1, 1, 10, 0));
+        when(ordemServicoRepository.findResumos(StatusOS.ATIVOS)).thenReturn(List.of(resumo));
 
         // When
         List<OrdemServicoResponseDTO> response = service.execute();
 
         // Then
         assertThat(response).hasSize(1);
-        verify(ordemServicoRepository).findAll();
+        assertThat(response.get(0).clienteNome()).isEqualTo("João Silva");
+        assertThat(response.get(0).placaVeiculo()).isEqualTo("ABC-1234");
+        verify(ordemServicoRepository).findResumos(StatusOS.ATIVOS);
+        verifyNoInteractions(clienteRepository, veiculoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve indicar cliente e veículo não encontrados na listagem")
+    void deveIndicarClienteEVeiculoNaoEncontradosNaListagem() {
+        // Given
+        OrdemServicoResumo orfa = new OrdemServicoResumo(UUID.randomUUID(), null, null, StatusOS.RECEBIDA,
+                BigDecimal.ZERO, LocalDateTime.now(), StatusOS.RECEBIDA.getPrioridade());
+        when(ordemServicoRepository.findResumos(StatusOS.ATIVOS)).thenReturn(List.of(orfa));
+
+        // When
+        List<OrdemServicoResponseDTO> response = service.execute();
+
+        // Then
+        assertThat(response.get(0).clienteNome()).isEqualTo("Cliente não encontrado");
+        assertThat(response.get(0).placaVeiculo()).isEqualTo("Veículo não encontrado");
+    }
+
+    @Test
+    @DisplayName("Deve listar a primeira página de OS em andamento e retornar cursor da próxima")
+    void deveListarPrimeiraPaginaComCursorDaProxima() {
+        // Given
+        OrdemServicoResumo os1 = criarResumo(StatusOS.EM_EXECUCAO, LocalDateTime.of(2024, 1, 1, 10, 0));
+        OrdemServicoResumo os2 = criarResumo(StatusOS.RECEBIDA, LocalDateTime.of(2024, 1, 2, 10, 0));
+        OrdemServicoResumo os3 = criarResumo(StatusOS.RECEBIDA, LocalDateTime.of(2024, 1, 3, 10, 0));
+        when(ordemServicoRepository.findPagina(StatusOS.ATIVOS, null, 3)).thenReturn(List.of(os1, os2, os3));
+
+        // When
+        OrdemServicoPaginaDTO pagina = service.execute(null, null, 2);
+
+        // Then
+        assertThat(pagina.itens()).extracting(OrdemServicoResponseDTO::id).containsExactly(os1.id(), os2.id());
+        assertThat(pagina.proximoCursor()).isNotNull();
+        assertThat(CursorUtils.decodificar(pagina.proximoCursor())).isEqualTo(OrdemServicoCursor.from(os2));
+    }
+
+    @Test
+    @DisplayName("Deve continuar a listagem a partir do cursor informado e não retornar cursor na última página")
+    void deveContinuarListagemAPartirDoCursor() {
+        // Given
+        OrdemServicoResumo anterior = criarResumo(StatusOS.EM_EXECUCAO, LocalDateTime.of(2024, 1, 1, 10, 0));
+        OrdemServicoResumo proxima = criarResumo(StatusOS.FINALIZADA, LocalDateTime.of(2024, 1, 2, 10, 0));
+        OrdemServicoCursor cursor = OrdemServicoCursor.from(anterior);
+        List<StatusOS> filtro = List.of(StatusOS.EM_EXECUCAO, StatusOS.FINALIZADA);
+        when(ordemServicoRepository.findPagina(filtro, cursor, 21)).thenReturn(List.of(proxima));
+
+        // When
+        OrdemServicoPaginaDTO pagina = service.execute(filtro, CursorUtils.codificar(cursor), null);
+
+        // Then
+        assertThat(pagina.itens()).extracting(OrdemServicoResponseDTO::id).containsExactly(proxima.id());
+        assertThat(pagina.proximoCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar cursor inválido e limite fora da faixa permitida")
+    void deveRejeitarCursorInvalidoELimiteForaDaFaixa() {
+        assertThrows(BusinessException.class, () -> service.execute(null, "nao-e-um-cursor", 10));
+        assertThrows(BusinessException.class, () -> service.execute(null, null, 0));
+        assertThrows(BusinessException.class, () -> service.execute(null, null, 101));
+        verify(ordemServicoRepository, never()).findPagina(anyList(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve exportar todas as OS do intervalo de datas para o consumidor")
+    void deveExportarOrdensDoIntervaloParaOConsumidor() {
+        // Given
+        OrdemServicoResumo entregue = criarResumo(StatusOS.ENTREGUE, LocalDateTime.of(2024, 1, 31, 18, 0));
+        when(ordemServicoRepository.streamParaExportacao(List.of(StatusOS.values()),
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0)))
+                .thenReturn(Stream.of(entregue));
+        List<OrdemServicoResponseDTO> exportadas = new ArrayList<>();
+
+        // When
+        service.execute(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null, exportadas::add);
+
+        // Then
+        assertThat(exportadas).extracting(OrdemServicoResponseDTO::id).containsExactly(entregue.id());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar exportação com data inicial posterior à final")
+    void deveRejeitarExportacaoComIntervaloInvalido() {
+        assertThrows(BusinessException.class, () -> service.execute(
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), List.of(StatusOS.ENTREGUE), dto -> { }));
+        verify(ordemServicoRepository, never()).streamParaExportacao(anyList(), any(), any());
     }
 
     @Test
@@ -272,6 +467,61 @@ class OrdemServicoApplicationServiceTest {
         assertThat(response).isNotNull();
         assertThat(response.id()).isEqualTo(ordemId);
         verify(ordemServicoRepository).save(any(OrdemServico.class));
+        verify(painelStatus).registrarTransicao(argThat((TransicaoStatusOrdemServico transicao) ->
+                transicao.getStatusAnterior() == StatusOS.RECEBIDA && transicao.getStatusNovo() == StatusOS.EM_DIAGNOSTICO));
+    }
+
+    @Test
+    @DisplayName("Deve gravar a transição de status com o responsável e o tempo no status anterior")
+    void deveGravarTransicaoDeStatusNoHistorico() {
+        // Given
+        ordemServico.setDataCriacao(LocalDateTime.now().minusMinutes(30));
+        when(ordemServicoRepository.findById(ordemServico.getId())).thenReturn(Optional.of(ordemServico));
+        when(ordemServicoRepository.save(any(OrdemServico.class))).thenReturn(ordemServico);
+        when(clienteRepository.findById(cliente.getId())).thenReturn(Optional.of(cliente));
+        when(veiculoRepository.findById(veiculo.getId())).thenReturn(Optional.of(veiculo));
+
+        // When
+        service.execute(ordemServico.getId(), StatusOS.EM_DIAGNOSTICO, "mecanico@oficina.com");
+
+        // Then
+        verify(transicaoStatusRepository).saveAll(transicoesGravadas.capture());
+        assertThat(transicoesGravadas.getValue()).singleElement().satisfies(transicao -> {
+            assertThat(transicao.getOrdemServicoId()).isEqualTo(ordemServico.getId());
+            assertThat(transicao.getStatusAnterior()).isEqualTo(StatusOS.RECEBIDA);
+            assertThat(transicao.getStatusNovo()).isEqualTo(StatusOS.EM_DIAGNOSTICO);
+            assertThat(transicao.getResponsavel()).isEqualTo("mecanico@oficina.com");
+            assertThat(transicao.getDuracaoStatusAnteriorMs()).isGreaterThanOrEqualTo(30 * 60_000L);
+        });
+        verify(painelStatus).registrarTransicao(transicoesGravadas.getValue().get(0));
+        assertThat(ordemServico.retirarTransicoesPendentes()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve listar o histórico de status da ordem")
+    void deveListarHistoricoDeStatus() {
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 8, 0);
+        when(transicaoStatusRepository.findByOrdemServicoId(ordemServico.getId())).thenReturn(List.of(
+                new TransicaoStatusOrdemServico(ordemServico.getId(), StatusOS.RECEBIDA, StatusOS.EM_DIAGNOSTICO,
+                        inicio.plusMinutes(45), inicio, "mecanico")));
+
+        List<TransicaoStatusResponseDTO> historico = service.buscarHistorico(ordemServico.getId());
+
+        assertThat(historico).singleElement().satisfies(transicao -> {
+            assertThat(transicao.statusNovo()).isEqualTo(StatusOS.EM_DIAGNOSTICO);
+            assertThat(transicao.duracaoStatusAnteriorMs()).isEqualTo(45 * 60_000L);
+        });
+        verify(ordemServicoRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("Deve lançar exceção ao listar histórico de ordem inexistente")
+    void deveLancarExcecaoAoListarHistoricoDeOrdemInexistente() {
+        UUID ordemId = UUID.randomUUID();
+        when(transicaoStatusRepository.findByOrdemServicoId(ordemId)).thenReturn(List.of());
+        when(ordemServicoRepository.findById(ordemId)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.buscarHistorico(ordemId));
     }
 
     @Test
@@ -285,6 +535,27 @@ class OrdemServicoApplicationServiceTest {
 
         // When & Then
         assertThrows(BusinessException.class, () -> service.execute(ordemId, statusInvalido));
+        verifyNoInteractions(painelStatus);
+    }
+
+    @Test
+    @DisplayName("Deve resumir as ordens por status a partir do painel")
+    void deveResumirOrdensPorStatus() {
+        Map<StatusOS, Long> contagens = new EnumMap<>(StatusOS.class);
+        for (StatusOS status : StatusOS.values()) {
+            contagens.put(status, 0L);
+        }
+        contagens.put(StatusOS.RECEBIDA, 3L);
+        contagens.put(StatusOS.EM_EXECUCAO, 2L);
+        contagens.put(StatusOS.ENTREGUE, 10L);
+        when(painelStatus.contagens()).thenReturn(contagens);
+
+        ResumoOrdensServicoDTO resumo = service.resumir();
+
+        assertThat(resumo.porStatus()).containsEntry(StatusOS.RECEBIDA, 3L).containsEntry(StatusOS.CANCELADA, 0L);
+        assertThat(resumo.ativas()).isEqualTo(5);
+        assertThat(resumo.total()).isEqualTo(15);
+        verifyNoInteractions(ordemServicoRepository);
     }
 
     @Test
@@ -361,8 +632,8 @@ class OrdemServicoApplicationServiceTest {
         );
         when(clienteRepository.findByCpfCnpj(cliente.getPessoa().getNumeroDocumento())).thenReturn(Optional.of(cliente));
         when(veiculoRepository.findByPlaca(veiculo.getPlaca())).thenReturn(Optional.of(veiculo));
-        when(servicoRepository.findById(servico.getId())).thenReturn(Optional.of(servico));
-        when(pecaRepository.findById(peca.getId())).thenReturn(Optional.of(peca));
+        when(servicoRepository.findAllById(anyCollection())).thenReturn(List.of(servico));
+        when(pecaRepository.findAllById(anyCollection())).thenReturn(List.of(peca));
         when(ordemServicoRepository.save(any(OrdemServico.class))).thenReturn(ordemServico);
         // When
         OrdemServicoResponseDTO response = service.execute(request);
@@ -418,6 +689,30 @@ class OrdemServicoApplicationServiceTest {
         verify(notificationService, times(1)).notificarAtualizacaoStatusOrdemServico(ordemServico, cliente);
     }
 
+    @Test
+    @DisplayName("Dado uma ordem com serviço repetido, quando finalizar, então a duração deve ser contada uma vez por serviço")
+    void dadoOrdemComServicoRepetido_quandoFinalizar_entaoRegistraDuracaoUmaVezPorServico() {
+        // Given
+        ordemServico.adicionarServico(servico, 1);
+        ordemServico.adicionarServico(servico, 2);
+        ordemServico.setDataCriacao(LocalDateTime.now().minusMinutes(90));
+        ordemServico.iniciarDiagnostico();
+        ordemServico.aguardarAprovacao();
+        ordemServico.aprovar();
+        EstatisticaServico estatistica = new EstatisticaServico(servico.getId());
+        when(ordemServicoRepository.findById(ordemServico.getId())).thenReturn(Optional.of(ordemServico));
+        when(ordemServicoRepository.save(any(OrdemServico.class))).thenReturn(ordemServico);
+        when(clienteRepository.findById(cliente.getId())).thenReturn(Optional.of(cliente));
+        when(veiculoRepository.findById(veiculo.getId())).thenReturn(Optional.of(veiculo));
+        when(estatisticaServicoRepository.bloquearParaAtualizacao(Set.of(servico.getId()))).thenReturn(List.of(estatistica));
+        // When
+        service.execute(ordemServico.getId(), StatusOS.FINALIZADA);
+        // Then
+        assertThat(estatistica.getQuantidade()).isEqualTo(1);
+        assertThat(estatistica.getSomaMinutos()).isEqualTo(90);
+        verify(estatisticaServicoRepository).save(estatistica);
+    }
+
     @Test
     @DisplayName("Dado uma ordem de serviço já finalizada, quando tentar finalizar novamente, então deve lançar exceção")
     void dadoOrdemServicoFinalizada_quandoFinalizarNovamente_entaoLancaExcecao() {
@@ -86,6 +86,8 @@ class RelatorioApplicationServiceIT {
         osRepository.save(os2);
 
         // Média esperada: (60 + 120) / 2 = 90 minutos
+        // As OS foram gravadas já finalizadas, então as estatísticas vêm da reconstrução pelo histórico
+        relatorioService.reconstruir(servicoAnalisado.getId());
 
         // When (Quando)
         TempoMedioServicoResponseDTO response = relatorioService.execute(servicoAnalisado.getId());
@@ -94,6 +96,8 @@ class RelatorioApplicationServiceIT {
         assertThat(response).isNotNull();
         assertThat(response.totalOrdensAnalisadas()).isEqualTo(2);
         assertThat(response.tempoMedioFormatado()).isEqualTo("1 horas e 30 minutos");
+        assertThat(response.tempoMinimoMinutos()).isEqualTo(60);
+        assertThat(response.tempoMaximoMinutos()).isEqualTo(120);
     }
 
     @Test
@@ -0,0 +1,48 @@
+package br.com.grupo99.oficinaservice.application.util;
+
+import br.com.grupo99.oficinaservice.application.util.ValidadorDocumento.Tipo;
+import br.com.grupo99.oficinaservice.application.util.ValidadorDocumentoTest.LegadoDocumento;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Custo por chamada da validação em passada única comparado à implementação anterior com regex.
+ * Roda só com {@code mvn test -P benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Validação de documento por chamada")
+class ValidadorDocumentoBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidadorDocumentoBenchmark.class);
+    private static final int ITERACOES = 200_000;
+
+    @Test
+    @DisplayName("Passada única comparada à implementação com regex")
+    void passadaUnicaComparadaARegex() {
+        String[] documentos = {"529.982.247-25", "11.222.333/0001-81", "52998224726", "11222333000181"};
+        long regex = Long.MAX_VALUE;
+        long passadaUnica = Long.MAX_VALUE;
+        int validos = 0;
+
+        for (int rodada = 0; rodada < 5; rodada++) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) {
+                validos += LegadoDocumento.constraintValida(documentos[i & 3]) ? 1 : 0;
+            }
+            regex = Math.min(regex, (System.nanoTime() - inicio) / ITERACOES);
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) {
+                validos += ValidadorDocumento.identificarComMascara(documentos[i & 3]) != Tipo.INVALIDO ? 1 : 0;
+            }
+            passadaUnica = Math.min(passadaUnica, (System.nanoTime() - inicio) / ITERACOES);
+        }
+
+        // validos entra no log para que o JIT não descarte os laços
+        log.info("Validação de documento por chamada - regex: {} ns, passada única: {} ns ({} válidos)",
+                regex, passadaUnica, validos);
+    }
+}
@@ -0,0 +1,188 @@
+package br.com.grupo99.oficinaservice.application.util;
+
+import br.com.grupo99.oficinaservice.application.util.ValidadorDocumento.Tipo;
+import br.com.grupo99.oficinaservice.application.validator.DocumentoConstraintValidator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ValidadorDocumento - Testes Unitários")
+class ValidadorDocumentoTest {
+
+    private static final String ALFABETO = "0123456789012345678901234567890123456789./-./- aX\t";
+
+    @Test
+    @DisplayName("Deve identificar CPF e CNPJ com e sem máscara")
+    void deveIdentificarCpfECnpj() {
+        assertThat(ValidadorDocumento.identificar("52998224725")).isEqualTo(Tipo.CPF);
+        assertThat(ValidadorDocumento.identificar("529.982.247-25")).isEqualTo(Tipo.CPF);
+        assertThat(ValidadorDocumento.identificar("11222333000181")).isEqualTo(Tipo.CNPJ);
+        assertThat(ValidadorDocumento.identificarComMascara("11.222.333/0001-81")).isEqualTo(Tipo.CNPJ);
+        assertThat(ValidadorDocumento.identificar(new StringBuilder("111.444.777-35"))).isEqualTo(Tipo.CPF);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar dígitos verificadores errados, dígitos repetidos e tamanhos inválidos")
+    void deveRejeitarDocumentosInvalidos() {
+        assertThat(ValidadorDocumento.identificar("52998224726")).isEqualTo(Tipo.INVALIDO);
+        assertThat(ValidadorDocumento.identificar("11222333000182")).isEqualTo(Tipo.INVALIDO);
+        assertThat(ValidadorDocumento.identificar("00000000000")).isEqualTo(Tipo.INVALIDO);
+        assertThat(ValidadorDocumento.identificar("11111111111111")).isEqualTo(Tipo.INVALIDO);
+        assertThat(ValidadorDocumento.identificar("123456789012")).isEqualTo(Tipo.INVALIDO);
+        assertThat(ValidadorDocumento.identificar("")).isEqualTo(Tipo.INVALIDO);
+        assertThat(ValidadorDocumento.identificar(null)).isEqualTo(Tipo.INVALIDO);
+        assertThat(ValidadorDocumento.identificarComMascara("529 982 247 25")).isEqualTo(Tipo.INVALIDO);
+        assertThat(ValidadorDocumento.identificar("529 982 247 25")).isEqualTo(Tipo.CPF);
+    }
+
+    @Test
+    @DisplayName("Deve ser equivalente às implementações com regex para entradas aleatórias")
+    void deveSerEquivalenteAsImplementacoesAnteriores() {
+        DocumentoConstraintValidator validator = new DocumentoConstraintValidator();
+        Random random = new Random(20241017L);
+
+        for (int i = 0; i < 200_000; i++) {
+            String documento = gerarDocumento(random);
+
+            assertThat(validator.isValid(documento, null))
+                    .as("DocumentoConstraintValidator para '%s'", documento)
+                    .isEqualTo(LegadoDocumento.constraintValida(documento));
+            assertThat(DocumentoUtils.removerMascara(documento))
+                    .as("removerMascara para '%s'", documento)
+                    .isEqualTo(LegadoDocumento.removerMascara(documento));
+            assertThat(ValidadorDocumento.identificar(documento) != Tipo.INVALIDO)
+                    .as("identificar para '%s'", documento)
+                    .isEqualTo(LegadoDocumento.digitosValidos(documento.replaceAll("\\D", "")));
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve alocar memória na validação")
+    void naoDeveAlocarMemoriaNaValidacao() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String cpf = "529.982.247-25";
+        String cnpj = "11.222.333/0001-81";
+        int validos = 0;
+        for (int i = 0; i < 10_000; i++) {
+            validos += ValidadorDocumento.identificarComMascara(i % 2 == 0 ? cpf : cnpj) != Tipo.INVALIDO ? 1 : 0;
+        }
+
+        long antes = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            validos += ValidadorDocumento.identificarComMascara(i % 2 == 0 ? cpf : cnpj) != Tipo.INVALIDO ? 1 : 0;
+        }
+        long alocado = threads.getCurrentThreadAllocatedBytes() - antes;
+
+        assertThat(validos).isEqualTo(110_000);
+        assertThat(alocado).isLessThan(1024);
+    }
+
+    private static String gerarDocumento(Random random) {
+        StringBuilder sb = new StringBuilder();
+        switch (random.nextInt(4)) {
+            case 0 -> sb.append(comDigitos(random, 9, new int[]{10, 11}));
+            case 1 -> sb.append(comDigitos(random, 12, new int[]{5, 6}));
+            case 2 -> sb.append(String.valueOf(random.nextInt(10)).repeat(random.nextBoolean() ? 11 : 14));
+            default -> {
+                int tamanho = random.nextInt(20);
+                for (int i = 0; i < tamanho; i++) {
+                    sb.append(ALFABETO.charAt(random.nextInt(ALFABETO.length())));
+                }
+            }
+        }
+        // Mutações: troca de dígito, máscara e ruído
+        if (sb.length() > 0 && random.nextInt(4) == 0) {
+            sb.setCharAt(random.nextInt(sb.length()), (char) ('0' + random.nextInt(10)));
+        }
+        int insercoes = random.nextInt(4);
+        for (int i = 0; i < insercoes; i++) {
+            sb.insert(random.nextInt(sb.length() + 1), ALFABETO.charAt(40 + random.nextInt(ALFABETO.length() - 40)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Gera um CPF (9 dígitos base) ou CNPJ (12 dígitos base) com os dígitos verificadores corretos.
+     */
+    private static String comDigitos(Random random, int base, int[] pesosIniciais) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < base; i++) {
+            sb.append(random.nextInt(10));
+        }
+        for (int dv = 0; dv < 2; dv++) {
+            int soma = 0;
+            int peso = pesosIniciais[dv];
+            for (int i = 0; i < sb.length(); i++) {
+                soma += (sb.charAt(i) - '0') * peso;
+                peso = base == 9 ? peso - 1 : (peso == 2 ? 9 : peso - 1);
+            }
+            int resto = soma % 11;
+            sb.append(resto < 2 ? 0 : 11 - resto);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Implementações anteriores (com regex), mantidas como referência para o teste de equivalência
+     * e para o {@code ValidadorDocumentoBenchmark}.
+     */
+    static final class LegadoDocumento {
+
+        static boolean constraintValida(String documento) {
+            if (documento == null || documento.isBlank()) {
+                return true;
+            }
+            if (!documento.matches("[\\d./-]+")) {
+                return false;
+            }
+            return digitosValidos(documento.replaceAll("[^\\d]", ""));
+        }
+
+        static String removerMascara(String documento) {
+            return documento.replaceAll("[.\\-/]", "");
+        }
+
+        static boolean digitosValidos(String numeros) {
+            if (numeros.length() == 11) {
+                if (numeros.matches("(\\d)\\1{10}")) {
+                    return false;
+                }
+                return digito(numeros, 9) == calcular(numeros, 9, 10) && digito(numeros, 10) == calcular(numeros, 10, 11);
+            }
+            if (numeros.length() == 14) {
+                if (numeros.matches("(\\d)\\1{13}")) {
+                    return false;
+                }
+                return digito(numeros, 12) == calcular(numeros, new int[]{5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2})
+                        && digito(numeros, 13) == calcular(numeros, new int[]{6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2});
+            }
+            return false;
+        }
+
+        private static int calcular(String numero, int casas, int pesoInicial) {
+            int soma = 0;
+            for (int i = 0; i < casas; i++) {
+                soma += digito(numero, i) * (pesoInicial - i);
+            }
+            int resto = soma % 11;
+            return resto < 2 ? 0 : 11 - resto;
+        }
+
+        private static int calcular(String numero, int[] pesos) {
+            int soma = 0;
+            for (int i = 0; i < pesos.length; i++) {
+                soma += digito(numero, i) * pesos[i];
+            }
+            int resto = soma % 11;
+            return resto < 2 ? 0 : 11 - resto;
+        }
+
+        private static int digito(String str, int posicao) {
+            return str.charAt(posicao) - '0';
+        }
+    }
+}
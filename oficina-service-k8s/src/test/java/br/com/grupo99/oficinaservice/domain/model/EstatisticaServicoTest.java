@@ -0,0 +1,69 @@
+package br.com.grupo99.oficinaservice.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Teste Unitário da Entidade EstatisticaServico")
+class EstatisticaServicoTest {
+
+    private final LocalDateTime agora = LocalDateTime.of(2024, 5, 10, 18, 0);
+
+    @Test
+    @DisplayName("Deve acumular quantidade, soma, mínimo e máximo")
+    void deveAcumularDuracoes() {
+        EstatisticaServico estatistica = new EstatisticaServico(UUID.randomUUID());
+
+        assertTrue(estatistica.registrar(agora.minusMinutes(60), agora));
+        assertTrue(estatistica.registrar(agora.minusMinutes(30), agora));
+        assertTrue(estatistica.registrar(agora.minusMinutes(150), agora));
+
+        assertEquals(3, estatistica.getQuantidade());
+        assertEquals(240, estatistica.getSomaMinutos());
+        assertEquals(30, estatistica.getMinimoMinutos());
+        assertEquals(150, estatistica.getMaximoMinutos());
+        assertEquals(80.0, estatistica.getMediaMinutos());
+        assertEquals(60.0, estatistica.percentilMinutos(0.5), 60 / 16.0);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar ordens sem data de criação ou de finalização")
+    void deveIgnorarOrdensSemDatas() {
+        EstatisticaServico estatistica = new EstatisticaServico(UUID.randomUUID());
+
+        assertFalse(estatistica.registrar(agora, null));
+        assertFalse(estatistica.registrar(null, agora));
+
+        assertEquals(0, estatistica.getQuantidade());
+        assertEquals(0.0, estatistica.getMediaMinutos());
+        assertNull(estatistica.percentilMinutos(0.9));
+    }
+
+    @Test
+    @DisplayName("Percentil deve ficar entre o mínimo e o máximo registrados")
+    void percentilDeveFicarEntreMinimoEMaximo() {
+        EstatisticaServico estatistica = new EstatisticaServico(UUID.randomUUID());
+        estatistica.registrar(agora.minusMinutes(1_000), agora);
+
+        assertEquals(1_000, estatistica.percentilMinutos(0.99));
+    }
+
+    @Test
+    @DisplayName("Reiniciar deve zerar os valores e a data de reconstrução")
+    void reiniciarDeveZerarValores() {
+        EstatisticaServico estatistica = new EstatisticaServico(UUID.randomUUID());
+        estatistica.registrar(agora.minusMinutes(45), agora);
+        estatistica.marcarReconstruida(agora);
+
+        estatistica.reiniciar();
+
+        assertEquals(0, estatistica.getQuantidade());
+        assertEquals(0, estatistica.getSomaMinutos());
+        assertNull(estatistica.getMinimoMinutos());
+        assertNull(estatistica.getReconstruidaEm());
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.grupo99.oficinaservice.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Teste Unitário do HistogramaDuracao")
+class HistogramaDuracaoTest {
+
+    @Test
+    @DisplayName("Cada duração deve cair em uma faixa que a contém, com erro de até 1/16")
+    void faixasDevemConterADuracao() {
+        int faixaAnterior = -1;
+        for (long minutos = 0; minutos < (1L << 21); minutos++) {
+            int faixa = HistogramaDuracao.faixa(minutos);
+            assertTrue(faixa == faixaAnterior || faixa == faixaAnterior + 1, "faixas devem ser contíguas");
+            faixaAnterior = faixa;
+            long pontoMedio = HistogramaDuracao.pontoMedio(faixa);
+            if (Math.abs(pontoMedio - minutos) > minutos / 16.0) {
+                fail(minutos + " minutos representado por " + pontoMedio);
+            }
+        }
+        assertEquals(HistogramaDuracao.FAIXAS - 1, faixaAnterior);
+        assertEquals(HistogramaDuracao.FAIXAS - 1, HistogramaDuracao.faixa(Long.MAX_VALUE));
+        assertEquals(0, HistogramaDuracao.faixa(-5));
+    }
+
+    @Test
+    @DisplayName("Percentis devem ficar a até 1/16 do valor exato")
+    void percentisDevemSerAproximados() {
+        Random random = new Random(42);
+        long[] duracoes = new long[10_000];
+        HistogramaDuracao histograma = new HistogramaDuracao();
+        for (int i = 0; i < duracoes.length; i++) {
+            // Distribuição com cauda longa, como a das ordens de serviço
+            duracoes[i] = (long) Math.exp(3 + random.nextGaussian() * 1.5);
+            histograma.registrar(duracoes[i]);
+        }
+        Arrays.sort(duracoes);
+
+        for (double p : new double[]{0.5, 0.9, 0.99}) {
+            long exato = duracoes[(int) Math.ceil(p * duracoes.length) - 1];
+            assertEquals(exato, histograma.percentil(p), exato / 16.0, "p" + (int) (p * 100));
+        }
+        assertEquals(duracoes.length, histograma.total());
+    }
+
+    @Test
+    @DisplayName("Mesclar deve equivaler a registrar tudo em um único histograma")
+    void mesclarDeveSomarContagens() {
+        HistogramaDuracao a = new HistogramaDuracao();
+        HistogramaDuracao b = new HistogramaDuracao();
+        HistogramaDuracao unico = new HistogramaDuracao();
+        for (long minutos = 0; minutos < 5_000; minutos += 7) {
+            (minutos % 2 == 0 ? a : b).registrar(minutos);
+            unico.registrar(minutos);
+        }
+
+        a.mesclar(b);
+
+        assertEquals(unico, a);
+    }
+
+    @Test
+    @DisplayName("Deve serializar e restaurar as contagens")
+    void deveSerializarERestaurar() {
+        HistogramaDuracao histograma = new HistogramaDuracao();
+        histograma.registrar(3);
+        histograma.registrar(480);
+        histograma.registrar(10_000);
+
+        byte[] bytes = histograma.paraBytes();
+
+        assertEquals(HistogramaDuracao.TAMANHO_BYTES, bytes.length);
+        assertEquals(histograma, HistogramaDuracao.deBytes(bytes));
+        assertEquals(0, HistogramaDuracao.deBytes(null).total());
+        assertThrows(IllegalArgumentException.class, () -> HistogramaDuracao.deBytes(new byte[10]));
+    }
+
+    @Test
+    @DisplayName("Histograma vazio não tem percentil")
+    void histogramaVazioNaoTemPercentil() {
+        assertEquals(-1, new HistogramaDuracao().percentil(0.5));
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -212,4 +214,51 @@ class OrdemServicoTest {
         // When & Then
         assertThrows(IllegalStateException.class, () -> os.finalizar());
     }
+
+    @Test
+    @DisplayName("Deve registrar cada transição de status com o tempo no status anterior")
+    void deveRegistrarTransicoesDeStatus() {
+        os.setId(UUID.randomUUID());
+        os.setDataCriacao(LocalDateTime.now().minusHours(1));
+        os.definirResponsavelAlteracao("mecanico");
+
+        os.iniciarDiagnostico();
+        os.aguardarAprovacao();
+        os.aprovar();
+        os.finalizar();
+        os.entregar();
+
+        List<TransicaoStatusOrdemServico> transicoes = os.retirarTransicoesPendentes();
+        assertEquals(5, transicoes.size());
+        assertEquals(StatusOS.RECEBIDA, transicoes.get(0).getStatusAnterior());
+        assertEquals(StatusOS.ENTREGUE, transicoes.get(4).getStatusNovo());
+        assertTrue(transicoes.get(0).getDuracaoStatusAnteriorMs() >= 3_600_000L);
+        for (TransicaoStatusOrdemServico transicao : transicoes) {
+            assertEquals(os.getId(), transicao.getOrdemServicoId());
+            assertEquals("mecanico", transicao.getResponsavel());
+            assertNotNull(transicao.getDuracaoStatusAnteriorMs());
+        }
+        assertEquals(transicoes.get(3).getDataTransicao(), os.getDataFinalizacao());
+        assertEquals(os.getDataEntrega(), os.getDataStatus());
+        assertTrue(os.retirarTransicoesPendentes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Transição sem início conhecido do status anterior deve ficar sem duração")
+    void transicaoSemInicioConhecidoDeveFicarSemDuracao() {
+        // OS que mudou de status antes do histórico existir
+        os.setStatus(StatusOS.EM_EXECUCAO);
+
+        os.finalizar();
+
+        assertNull(os.retirarTransicoesPendentes().get(0).getDuracaoStatusAnteriorMs());
+    }
+
+    @Test
+    @DisplayName("Transição inválida não deve ser registrada")
+    void transicaoInvalidaNaoDeveSerRegistrada() {
+        assertThrows(IllegalStateException.class, () -> os.entregar());
+
+        assertTrue(os.retirarTransicoesPendentes().isEmpty());
+    }
 }
@@ -12,8 +12,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.EmailOutboxJpaRepository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -41,7 +40,7 @@ class EmailNotificationServiceTest {
 
 
     @Mock
-    private JavaMailSender mailSender;
+    private EmailOutboxJpaRepository outboxRepository;
 
     @Mock
     private ClienteRepository clienteRepository;
@@ -93,18 +92,18 @@ class EmailNotificationServiceTest {
         emailNotificationService.notificarClienteParaAprovacao(ordemServico);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
-
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        assertEquals("nao-responda@oficina.com", capturedMessage.getFrom());
-        assertEquals("joao.silva@email.com", capturedMessage.getTo()[0]);
-        assertTrue(capturedMessage.getSubject().contains("Orçamento da sua Ordem de Serviço"));
-        assertTrue(capturedMessage.getText().contains("Olá, João Silva!"));
-        assertTrue(capturedMessage.getText().matches("(?s).*Valor Total: R\\$ 500([.,]00).*"));
-        assertTrue(capturedMessage.getText().contains("O orçamento para a sua Ordem de Serviço está pronto para aprovação."));
-        assertTrue(capturedMessage.getText().contains("Atenciosamente,"));
-        assertTrue(capturedMessage.getText().contains("Equipe da Oficina"));
+        ArgumentCaptor<EmailOutbox> messageCaptor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(outboxRepository).save(messageCaptor.capture());
+
+        EmailOutbox capturedMessage = messageCaptor.getValue();
+        assertEquals("nao-responda@oficina.com", capturedMessage.getRemetente());
+        assertEquals("joao.silva@email.com", capturedMessage.getDestinatario());
+        assertTrue(capturedMessage.getAssunto().contains("Orçamento da sua Ordem de Serviço"));
+        assertTrue(capturedMessage.getCorpo().contains("Olá, João Silva!"));
+        assertTrue(capturedMessage.getCorpo().matches("(?s).*Valor Total: R\\$ 500([.,]00).*"));
+        assertTrue(capturedMessage.getCorpo().contains("O orçamento para a sua Ordem de Serviço está pronto para aprovação."));
+        assertTrue(capturedMessage.getCorpo().contains("Atenciosamente,"));
+        assertTrue(capturedMessage.getCorpo().contains("Equipe da Oficina"));
         verify(clienteRepository).findById(clienteId);
     }
 
@@ -118,13 +117,13 @@ class EmailNotificationServiceTest {
         emailNotificationService.notificarClienteParaAprovacao(ordemServico);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutbox> messageCaptor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(outboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
+        EmailOutbox capturedMessage = messageCaptor.getValue();
         String expectedSubjectPrefix = "Orçamento da sua Ordem de Serviço #" + 
             ordemServicoId.toString().substring(0, 8);
-        assertEquals(expectedSubjectPrefix, capturedMessage.getSubject());
+        assertEquals(expectedSubjectPrefix, capturedMessage.getAssunto());
     }
 
     @Test
@@ -137,11 +136,11 @@ class EmailNotificationServiceTest {
         emailNotificationService.notificarClienteParaAprovacao(ordemServico);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutbox> messageCaptor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(outboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        String messageText = capturedMessage.getText();
+        EmailOutbox capturedMessage = messageCaptor.getValue();
+        String messageText = capturedMessage.getCorpo();
         assertTrue(messageText.contains("Olá, João Silva!"));
         assertTrue(messageText.matches("(?s).*Valor Total: R\\$ 500([.,]00).*"));
         assertTrue(messageText.contains("O orçamento para a sua Ordem de Serviço está pronto para aprovação."));
@@ -161,7 +160,7 @@ class EmailNotificationServiceTest {
         emailNotificationService.notificarClienteParaAprovacao(ordemServico);
 
         // Assert
-        verify(mailSender, never()).send(any(SimpleMailMessage.class));
+        verify(outboxRepository, never()).save(any(EmailOutbox.class));
         verify(clienteRepository).findById(clienteId);
     }
 
@@ -176,7 +175,7 @@ class EmailNotificationServiceTest {
         emailNotificationService.notificarClienteParaAprovacao(ordemServico);
 
         // Assert
-        verify(mailSender, never()).send(any(SimpleMailMessage.class));
+        verify(outboxRepository, never()).save(any(EmailOutbox.class));
         verify(clienteRepository).findById(clienteId);
     }
 
@@ -191,7 +190,7 @@ class EmailNotificationServiceTest {
         emailNotificationService.notificarClienteParaAprovacao(ordemServico);
 
         // Assert
-        verify(mailSender, never()).send(any(SimpleMailMessage.class));
+        verify(outboxRepository, never()).save(any(EmailOutbox.class));
         verify(clienteRepository).findById(clienteId);
     }
 
@@ -205,23 +204,41 @@ class EmailNotificationServiceTest {
         emailNotificationService.notificarClienteParaAprovacao(ordemServico);
 
         // Assert
-        verify(mailSender, never()).send(any(SimpleMailMessage.class));
+        verify(outboxRepository, never()).save(any(EmailOutbox.class));
         verify(clienteRepository).findById(clienteId);
     }
 
     @Test
-    @DisplayName("Deve capturar exceção quando houver erro no envio do email")
-    void deveCapturaExcecaoQuandoHouverErroNoEnvioDoEmail() {
+    @DisplayName("Deve propagar erro ao gravar na outbox para desfazer a transação do chamador")
+    void devePropagarErroAoGravarNaOutbox() {
         // Arrange
         when(clienteRepository.findById(clienteId)).thenReturn(Optional.of(cliente));
-        doThrow(new RuntimeException("Erro de conexão SMTP"))
-            .when(mailSender).send(any(SimpleMailMessage.class));
+        doThrow(new RuntimeException("Erro de banco"))
+            .when(outboxRepository).save(any(EmailOutbox.class));
 
         // Act & Assert
-        assertDoesNotThrow(() -> emailNotificationService.notificarClienteParaAprovacao(ordemServico));
+        assertThrows(RuntimeException.class, () -> emailNotificationService.notificarClienteParaAprovacao(ordemServico));
 
         verify(clienteRepository).findById(clienteId);
-        verify(mailSender).send(any(SimpleMailMessage.class));
+        verify(outboxRepository).save(any(EmailOutbox.class));
+    }
+
+    @Test
+    @DisplayName("Deve enfileirar email de atualização de status como pendente")
+    void deveEnfileirarEmailDeAtualizacaoDeStatusComoPendente() {
+        // Act
+        emailNotificationService.notificarAtualizacaoStatusOrdemServico(ordemServico, cliente);
+
+        // Assert
+        ArgumentCaptor<EmailOutbox> messageCaptor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(outboxRepository).save(messageCaptor.capture());
+
+        EmailOutbox capturedMessage = messageCaptor.getValue();
+        assertEquals("joao.silva@email.com", capturedMessage.getDestinatario());
+        assertEquals("Atualização de Status da OS #" + ordemServicoId.toString().substring(0, 8), capturedMessage.getAssunto());
+        assertTrue(capturedMessage.getCorpo().contains("EM_DIAGNOSTICO"));
+        assertEquals(StatusEmailOutbox.PENDENTE, capturedMessage.getStatus());
+        assertEquals(0, capturedMessage.getTentativas());
     }
 
     @Test
@@ -235,11 +252,11 @@ class EmailNotificationServiceTest {
         emailNotificationService.notificarClienteParaAprovacao(ordemServico);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutbox> messageCaptor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(outboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        assertTrue(capturedMessage.getText().matches("(?s).*Valor Total: R\\$ 1250([.,]75).*"));
+        EmailOutbox capturedMessage = messageCaptor.getValue();
+        assertTrue(capturedMessage.getCorpo().matches("(?s).*Valor Total: R\\$ 1250([.,]75).*"));
     }
 
     @Test
@@ -253,11 +270,11 @@ class EmailNotificationServiceTest {
         emailNotificationService.notificarClienteParaAprovacao(ordemServico);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutbox> messageCaptor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(outboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        assertTrue(capturedMessage.getText().matches("(?s).*Valor Total: R\\$ 1000([.,]00).*"));
+        EmailOutbox capturedMessage = messageCaptor.getValue();
+        assertTrue(capturedMessage.getCorpo().matches("(?s).*Valor Total: R\\$ 1000([.,]00).*"));
     }
 
     @Test
@@ -270,11 +287,11 @@ class EmailNotificationServiceTest {
         emailNotificationService.notificarClienteParaAprovacao(ordemServico);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutbox> messageCaptor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(outboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        assertEquals("nao-responda@oficina.com", capturedMessage.getFrom());
+        EmailOutbox capturedMessage = messageCaptor.getValue();
+        assertEquals("nao-responda@oficina.com", capturedMessage.getRemetente());
     }
 
     @Test
@@ -288,16 +305,16 @@ class EmailNotificationServiceTest {
         emailNotificationService.notificarClienteParaAprovacao(ordemServico);
 
         // Assert
-        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
-        verify(mailSender).send(messageCaptor.capture());
+        ArgumentCaptor<EmailOutbox> messageCaptor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(outboxRepository).save(messageCaptor.capture());
 
-        SimpleMailMessage capturedMessage = messageCaptor.getValue();
-        assertTrue(capturedMessage.getText().contains("Olá, A!"));
+        EmailOutbox capturedMessage = messageCaptor.getValue();
+        assertTrue(capturedMessage.getCorpo().contains("Olá, A!"));
 
         // Teste com nome muito longo
         cliente.getPessoa().setName("João Carlos da Silva Santos de Oliveira Junior");
         emailNotificationService.notificarClienteParaAprovacao(ordemServico);
 
-        verify(mailSender, times(2)).send(any(SimpleMailMessage.class));
+        verify(outboxRepository, times(2)).save(any(EmailOutbox.class));
     }
 }
\ No newline at end of file
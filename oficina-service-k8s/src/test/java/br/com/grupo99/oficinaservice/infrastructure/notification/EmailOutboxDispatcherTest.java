@@ -0,0 +1,196 @@
+package br.com.grupo99.oficinaservice.infrastructure.notification;
+
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.EmailOutboxJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Despacho da outbox contra um servidor SMTP em processo, com cada etapa em sua própria transação.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = EmailOutboxDispatcherTest.Config.class)
+@ActiveProfiles("test")
+@DisplayName("Teste de Integração - Despacho da outbox de e-mails")
+class EmailOutboxDispatcherTest {
+
+    private static final int CONCORRENCIA = 2;
+
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = EmailOutbox.class)
+    @EnableJpaRepositories(basePackageClasses = EmailOutboxJpaRepository.class, includeFilters =
+            @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = EmailOutboxJpaRepository.class))
+    static class Config {
+    }
+
+    @Autowired private EmailOutboxJpaRepository outboxRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private SmtpStandIn smtp;
+    private SimpleMeterRegistry meterRegistry;
+    // Os gauges guardam referência fraca ao estado do dispatcher, que precisa sobreviver ao GC até as asserções
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new SmtpStandIn();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        smtp.close();
+        outboxRepository.deleteAll();
+    }
+
+    private EmailOutboxDispatcher criarDispatcher(int porta, int maxTentativas) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(porta);
+        mailSender.getJavaMailProperties().setProperty("mail.smtp.connectiontimeout", "5000");
+        mailSender.getJavaMailProperties().setProperty("mail.smtp.timeout", "5000");
+        dispatcher = new EmailOutboxDispatcher(outboxRepository, mailSender, transactionManager, meterRegistry,
+                50, CONCORRENCIA, maxTentativas, Duration.ofSeconds(10), Duration.ofMinutes(30), Duration.ofMinutes(5));
+        return dispatcher;
+    }
+
+    private EmailOutbox enfileirar(String destinatario) {
+        return outboxRepository.save(new EmailOutbox("nao-responda@oficina.com", destinatario, "Assunto", "Corpo"));
+    }
+
+    private double gauge(String nome) {
+        return meterRegistry.get(nome).gauge().value();
+    }
+
+    @Test
+    @DisplayName("Deve entregar todo o lote reaproveitando uma conexão SMTP por partição")
+    void deveEntregarLoteReaproveitandoConexoes() {
+        List<String> destinatarios = IntStream.range(0, 10).mapToObj(i -> "cliente" + i + "@email.com").toList();
+        destinatarios.forEach(this::enfileirar);
+
+        criarDispatcher(smtp.porta(), 8).despachar();
+
+        assertThat(smtp.destinatariosEntregues()).containsExactlyInAnyOrderElementsOf(destinatarios);
+        assertThat(smtp.conexoes()).isEqualTo(CONCORRENCIA);
+        assertThat(outboxRepository.findAll())
+                .allSatisfy(email -> {
+                    assertThat(email.getStatus()).isEqualTo(StatusEmailOutbox.ENVIADO);
+                    assertThat(email.getEnviadoEm()).isNotNull();
+                });
+        assertThat(gauge("oficina.email.outbox.profundidade")).isZero();
+        assertThat(meterRegistry.get("oficina.email.outbox.enviados.total").counter().count()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Deve reagendar com backoff apenas o e-mail recusado e reenviá-lo quando chegar a hora")
+    void deveReagendarEmailRecusadoComBackoff() {
+        enfileirar("aceito@email.com");
+        EmailOutbox recusado = enfileirar("recusado@email.com");
+        smtp.recusar("recusado@email.com");
+        EmailOutboxDispatcher dispatcher = criarDispatcher(smtp.porta(), 8);
+
+        LocalDateTime antes = LocalDateTime.now();
+        dispatcher.despachar();
+
+        EmailOutbox reagendado = outboxRepository.findById(recusado.getId()).orElseThrow();
+        assertThat(reagendado.getStatus()).isEqualTo(StatusEmailOutbox.PENDENTE);
+        assertThat(reagendado.getTentativas()).isEqualTo(1);
+        assertThat(reagendado.getUltimoErro()).isNotBlank();
+        assertThat(reagendado.getProximaTentativaEm()).isAfterOrEqualTo(antes.plusSeconds(10));
+        assertThat(smtp.destinatariosEntregues()).containsExactly("aceito@email.com");
+        assertThat(gauge("oficina.email.outbox.profundidade")).isEqualTo(1);
+
+        // Ainda dentro do backoff: nada é reenviado
+        dispatcher.despachar();
+        assertThat(smtp.destinatariosEntregues()).containsExactly("aceito@email.com");
+    }
+
+    @Test
+    @DisplayName("Deve reagendar cada e-mail recusado mesmo quando há mensagens idênticas na mesma conexão")
+    void deveReagendarEmailsIdenticosRecusados() {
+        // Quatro e-mails iguais em duas partições: cada envio leva duas mensagens idênticas
+        List<EmailOutbox> recusados = IntStream.range(0, 4).mapToObj(i -> enfileirar("recusado@email.com")).toList();
+        smtp.recusar("recusado@email.com");
+
+        criarDispatcher(smtp.porta(), 8).despachar();
+
+        assertThat(outboxRepository.findAllById(recusados.stream().map(EmailOutbox::getId).toList()))
+                .hasSize(4)
+                .allSatisfy(email -> {
+                    assertThat(email.getStatus()).isEqualTo(StatusEmailOutbox.PENDENTE);
+                    assertThat(email.getTentativas()).isEqualTo(1);
+                    assertThat(email.getEnviadoEm()).isNull();
+                });
+        assertThat(meterRegistry.get("oficina.email.outbox.enviados.total").counter().count()).isZero();
+        assertThat(meterRegistry.get("oficina.email.outbox.falhas.total").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Deve descartar o e-mail ao esgotar as tentativas")
+    void deveDescartarEmailAoEsgotarTentativas() {
+        EmailOutbox email = enfileirar("recusado@email.com");
+        smtp.recusar("recusado@email.com");
+
+        criarDispatcher(smtp.porta(), 1).despachar();
+
+        assertThat(outboxRepository.findById(email.getId()).orElseThrow().getStatus()).isEqualTo(StatusEmailOutbox.FALHOU);
+        assertThat(meterRegistry.get("oficina.email.outbox.descartados.total").counter().count()).isEqualTo(1);
+        assertThat(gauge("oficina.email.outbox.profundidade")).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve manter o lote pendente quando o servidor SMTP estiver indisponível")
+    void deveManterLotePendenteQuandoSmtpIndisponivel() throws Exception {
+        int portaFechada;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            portaFechada = socket.getLocalPort();
+        }
+        enfileirar("cliente1@email.com");
+        enfileirar("cliente2@email.com");
+
+        criarDispatcher(portaFechada, 8).despachar();
+
+        assertThat(outboxRepository.findAll())
+                .allSatisfy(email -> {
+                    assertThat(email.getStatus()).isEqualTo(StatusEmailOutbox.PENDENTE);
+                    assertThat(email.getTentativas()).isEqualTo(1);
+                });
+        assertThat(gauge("oficina.email.outbox.profundidade")).isEqualTo(2);
+        assertThat(gauge("oficina.email.outbox.atraso.segundos")).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Deve dobrar a espera a cada tentativa respeitando o limite máximo")
+    void deveDobrarEsperaRespeitandoLimite() {
+        EmailOutboxDispatcher dispatcher = criarDispatcher(smtp.porta(), 8);
+
+        assertThat(dispatcher.calcularBackoff(1)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(dispatcher.calcularBackoff(2)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(dispatcher.calcularBackoff(4)).isEqualTo(Duration.ofSeconds(80));
+        assertThat(dispatcher.calcularBackoff(20)).isEqualTo(Duration.ofMinutes(30));
+    }
+}
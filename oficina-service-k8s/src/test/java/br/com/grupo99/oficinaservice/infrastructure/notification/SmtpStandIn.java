@@ -0,0 +1,116 @@
+package br.com.grupo99.oficinaservice.infrastructure.notification;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP mínimo, em processo, para testes de envio de e-mail.
+ * Aceita qualquer remetente e recusa com 550 os destinatários marcados em {@link #recusar(String)}.
+ */
+class SmtpStandIn implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final AtomicInteger conexoes = new AtomicInteger();
+    private final List<String> destinatariosEntregues = new CopyOnWriteArrayList<>();
+    private final Set<String> recusados = ConcurrentHashMap.newKeySet();
+
+    SmtpStandIn() throws IOException {
+        serverSocket = new ServerSocket(0);
+        // Threads de plataforma: o cliente SMTP fica preso ao carrier (blocos synchronized) e, com
+        // poucos núcleos, um servidor em virtual threads não teria onde rodar
+        Thread.ofPlatform().daemon().start(this::aceitarConexoes);
+    }
+
+    int porta() {
+        return serverSocket.getLocalPort();
+    }
+
+    int conexoes() {
+        return conexoes.get();
+    }
+
+    List<String> destinatariosEntregues() {
+        return destinatariosEntregues;
+    }
+
+    void recusar(String destinatario) {
+        recusados.add(destinatario);
+    }
+
+    private void aceitarConexoes() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                conexoes.incrementAndGet();
+                Thread.ofPlatform().daemon().start(() -> atender(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void atender(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            responder(out, "220 localhost SMTP de testes");
+            String destinatario = null;
+            String linha;
+            while ((linha = in.readLine()) != null) {
+                String comando = linha.toUpperCase(Locale.ROOT);
+                if (comando.startsWith("EHLO") || comando.startsWith("HELO")) {
+                    responder(out, "250 localhost");
+                } else if (comando.startsWith("MAIL FROM")) {
+                    destinatario = null;
+                    responder(out, "250 OK");
+                } else if (comando.startsWith("RCPT TO")) {
+                    String endereco = linha.substring(linha.indexOf('<') + 1, linha.indexOf('>'));
+                    if (recusados.contains(endereco)) {
+                        responder(out, "550 Destinatário recusado");
+                    } else {
+                        destinatario = endereco;
+                        responder(out, "250 OK");
+                    }
+                } else if (comando.equals("DATA")) {
+                    responder(out, "354 Fim com <CRLF>.<CRLF>");
+                    while ((linha = in.readLine()) != null && !linha.equals(".")) {
+                        // descarta o conteúdo da mensagem
+                    }
+                    destinatariosEntregues.add(destinatario);
+                    responder(out, "250 OK");
+                } else if (comando.equals("RSET") || comando.equals("NOOP")) {
+                    destinatario = null;
+                    responder(out, "250 OK");
+                } else if (comando.equals("QUIT")) {
+                    responder(out, "221 Até logo");
+                    return;
+                } else {
+                    responder(out, "502 Comando não implementado");
+                }
+            }
+        } catch (IOException e) {
+            // conexão encerrada pelo cliente
+        }
+    }
+
+    private static void responder(PrintWriter out, String resposta) {
+        out.print(resposta + "\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.grupo99.oficinaservice.infrastructure.observability;
+
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import br.com.grupo99.oficinaservice.domain.model.TransicaoStatusOrdemServico;
+import br.com.grupo99.oficinaservice.domain.repository.ContagemStatusOrdemServico;
+import br.com.grupo99.oficinaservice.domain.repository.OrdemServicoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ContadoresStatusOrdemServico - gauges de OS por status")
+class ContadoresStatusOrdemServicoTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrdemServicoRepository ordemServicoRepository = mock(OrdemServicoRepository.class);
+    private ContadoresStatusOrdemServico contadores;
+
+    @BeforeEach
+    void setUp() {
+        when(ordemServicoRepository.contarPorStatus()).thenReturn(List.of(
+                new ContagemStatusOrdemServico(StatusOS.RECEBIDA, 3),
+                new ContagemStatusOrdemServico(StatusOS.EM_EXECUCAO, 2),
+                new ContagemStatusOrdemServico(StatusOS.ENTREGUE, 10)));
+        contadores = new ContadoresStatusOrdemServico(ordemServicoRepository, new MetricsService(meterRegistry));
+        contadores.carregar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private double gauge(String nome) {
+        return meterRegistry.get("oficina.ordem_servico." + nome + ".quantidade").gauge().value();
+    }
+
+    @Test
+    @DisplayName("Deve carregar a contagem do banco e publicar nos gauges")
+    void deveCarregarContagemDoBanco() {
+        assertThat(contadores.contagens())
+                .containsEntry(StatusOS.RECEBIDA, 3L)
+                .containsEntry(StatusOS.EM_DIAGNOSTICO, 0L)
+                .hasSize(StatusOS.values().length);
+        assertThat(gauge("recebida")).isEqualTo(3.0);
+        assertThat(gauge("ativas")).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("Gauges devem continuar publicando após coleta de lixo")
+    void gaugesDevemSobreviverAoGc() {
+        System.gc();
+
+        assertThat(gauge("entregue")).isEqualTo(10.0);
+        assertThat(gauge("ativas")).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("Deve mover a OS entre status e atualizar as ativas")
+    void deveMoverOrdemEntreStatus() {
+        contadores.registrarTransicao(null, StatusOS.RECEBIDA);
+        contadores.registrarTransicao(StatusOS.EM_EXECUCAO, StatusOS.FINALIZADA);
+
+        assertThat(contadores.contagens())
+                .containsEntry(StatusOS.RECEBIDA, 4L)
+                .containsEntry(StatusOS.EM_EXECUCAO, 1L)
+                .containsEntry(StatusOS.FINALIZADA, 1L);
+        assertThat(gauge("ativas")).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("Dentro de uma transação, a contagem só muda após o commit")
+    void deveAplicarTransicaoSomenteAposCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        contadores.registrarTransicao(StatusOS.RECEBIDA, StatusOS.EM_DIAGNOSTICO);
+        assertThat(contadores.contagens()).containsEntry(StatusOS.RECEBIDA, 3L);
+
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        sincronizacoes.forEach(TransactionSynchronization::afterCommit);
+        assertThat(contadores.contagens())
+                .containsEntry(StatusOS.RECEBIDA, 2L)
+                .containsEntry(StatusOS.EM_DIAGNOSTICO, 1L);
+    }
+
+    @Test
+    @DisplayName("Reconciliação deve corrigir contadores divergentes do banco")
+    void reconciliacaoDeveCorrigirDivergencias() {
+        contadores.registrarTransicao(null, StatusOS.RECEBIDA);
+
+        assertThat(contadores.reconciliar()).isTrue();
+        assertThat(contadores.contagens()).containsEntry(StatusOS.RECEBIDA, 3L);
+        assertThat(contadores.reconciliar()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Transição do histórico deve alimentar o timer do status anterior")
+    void transicaoDeveAlimentarTimerDoStatusAnterior() {
+        LocalDateTime agora = LocalDateTime.now();
+        contadores.registrarTransicao(new TransicaoStatusOrdemServico(
+                UUID.randomUUID(), StatusOS.EM_DIAGNOSTICO, StatusOS.AGUARDANDO_APROVACAO, agora, agora.minusMinutes(40), null));
+        contadores.registrarTransicao(new TransicaoStatusOrdemServico(
+                UUID.randomUUID(), StatusOS.EM_DIAGNOSTICO, StatusOS.AGUARDANDO_APROVACAO, agora, null, null));
+
+        Timer diagnostico = meterRegistry.get("oficina.ordem_servico.status.diagnostico.tempo").timer();
+        assertThat(diagnostico.count()).isEqualTo(1);
+        assertThat(diagnostico.totalTime(TimeUnit.MINUTES)).isEqualTo(40.0);
+        assertThat(contadores.contagens()).containsEntry(StatusOS.AGUARDANDO_APROVACAO, 2L);
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.grupo99.oficinaservice.infrastructure.observability;
+
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import ch.qos.logback.classic.Level;
+import com.newrelic.api.agent.NewRelic;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Custo da instrumentação por atualização de status, comparado à instrumentação anterior.
+ * Roda só com {@code mvn test -P benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Instrumentação por atualização de status")
+class OrdemServicoMonitoringAspectBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(OrdemServicoMonitoringAspectBenchmark.class);
+    private static final String METRICS_LOGGER = "br.com.grupo99.oficinaservice.metrics";
+    private static final Logger loggerAnterior = LoggerFactory.getLogger(OrdemServicoMonitoringAspect.class);
+    private static final Logger metricsLoggerAnterior = LoggerFactory.getLogger(METRICS_LOGGER);
+    private static final int ITERACOES = 200_000;
+
+    @Test
+    @DisplayName("Instrumentação anterior comparada à atual com log amostrado em 1%")
+    void custoPorAtualizacao() throws Throwable {
+        // Logs de INFO ligados, mas sem appender: mede a montagem dos eventos, não a escrita
+        ch.qos.logback.classic.Logger aspectLogger = silenciar(OrdemServicoMonitoringAspect.class.getName());
+        ch.qos.logback.classic.Logger metricsLogger = silenciar(METRICS_LOGGER);
+        try {
+            MeterRegistry meterRegistry = new SimpleMeterRegistry();
+            OrdemServicoMonitoringAspect amostrado = new OrdemServicoMonitoringAspect(
+                    meterRegistry, new MetricsService(meterRegistry), 0.01);
+            ProceedingJoinPoint joinPoint = joinPoint(new Object[]{UUID.randomUUID(), StatusOS.EM_EXECUCAO});
+
+            long anterior = 0;
+            long atual = 0;
+            for (int rodada = 0; rodada < 3; rodada++) {
+                long inicio = System.nanoTime();
+                for (int i = 0; i < ITERACOES; i++) {
+                    monitorarComoAntes(joinPoint);
+                }
+                anterior = (System.nanoTime() - inicio) / ITERACOES;
+
+                inicio = System.nanoTime();
+                for (int i = 0; i < ITERACOES; i++) {
+                    amostrado.monitorAtualizacaoStatus(joinPoint);
+                }
+                atual = (System.nanoTime() - inicio) / ITERACOES;
+            }
+
+            log.info("Instrumentação por atualização de status - anterior: {} ns, atual (log em 1%): {} ns",
+                    anterior, atual);
+        } finally {
+            restaurar(aspectLogger);
+            restaurar(metricsLogger);
+        }
+    }
+
+    /**
+     * Instrumentação anterior da atualização de status, mantida só como referência de custo.
+     */
+    private static Object monitorarComoAntes(ProceedingJoinPoint joinPoint) throws Throwable {
+        long startTime = System.currentTimeMillis();
+        Object[] args = joinPoint.getArgs();
+        String operationId = UUID.randomUUID().toString();
+        Object result = joinPoint.proceed();
+        long duration = System.currentTimeMillis() - startTime;
+        UUID ordemServicoId = (UUID) args[0];
+        String novoStatus = args[1].toString();
+        NewRelic.recordMetric("Custom/OrdemServico/AtualizacaoStatus/" + novoStatus + "/Duration", duration);
+        NewRelic.incrementCounter("Custom/OrdemServico/AtualizacaoStatus/" + novoStatus + "/Count");
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("event", "status_atualizado");
+        metrics.put("operationId", operationId);
+        metrics.put("ordemServicoId", ordemServicoId);
+        metrics.put("novoStatus", novoStatus);
+        metrics.put("duration_ms", duration);
+        metricsLoggerAnterior.info("Status atualizado: {}", metrics);
+        loggerAnterior.info("Status da ordem de serviço atualizado - ID: {} - Novo Status: {} - duração: {}ms",
+                ordemServicoId, novoStatus, duration);
+        return result;
+    }
+
+    /**
+     * Join point sem Mockito, para que o custo do mock não domine a medição.
+     */
+    private static ProceedingJoinPoint joinPoint(Object[] args) {
+        return (ProceedingJoinPoint) Proxy.newProxyInstance(ProceedingJoinPoint.class.getClassLoader(),
+                new Class<?>[]{ProceedingJoinPoint.class}, (proxy, method, methodArgs) -> switch (method.getName()) {
+                    case "getArgs" -> args.clone();
+                    case "proceed" -> Boolean.TRUE;
+                    default -> null;
+                });
+    }
+
+    private static ch.qos.logback.classic.Logger silenciar(String nome) {
+        ch.qos.logback.classic.Logger logger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(nome);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        return logger;
+    }
+
+    private static void restaurar(ch.qos.logback.classic.Logger logger) {
+        logger.setLevel(null);
+        logger.setAdditive(true);
+    }
+}
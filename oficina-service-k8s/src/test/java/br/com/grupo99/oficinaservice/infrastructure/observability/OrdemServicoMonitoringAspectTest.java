@@ -0,0 +1,112 @@
+package br.com.grupo99.oficinaservice.infrastructure.observability;
+
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("OrdemServicoMonitoringAspect - instrumentação de criação e status")
+class OrdemServicoMonitoringAspectTest {
+
+    private static final String METRICS_LOGGER = "br.com.grupo99.oficinaservice.metrics";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private OrdemServicoMonitoringAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        aspect = new OrdemServicoMonitoringAspect(meterRegistry, new MetricsService(meterRegistry), 1.0);
+    }
+
+    private long contagemTimer(String nome) {
+        return meterRegistry.get("oficina.ordem_servico." + nome + ".tempo").timer().count();
+    }
+
+    private double contador(String nome) {
+        return meterRegistry.get("oficina.ordem_servico." + nome).counter().count();
+    }
+
+    @Test
+    @DisplayName("Deve medir a criação e devolver o resultado do use case")
+    void deveMedirCriacao() throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.proceed()).thenReturn("criada");
+
+        assertThat(aspect.monitorCriacaoOrdemServico(joinPoint)).isEqualTo("criada");
+
+        assertThat(contagemTimer("criacao")).isEqualTo(1);
+        assertThat(contador("criadas.total")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Deve medir a atualização de status, inclusive sem status nos argumentos")
+    void deveMedirAtualizacaoDeStatus() throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getArgs())
+                .thenReturn(new Object[]{UUID.randomUUID(), StatusOS.EM_EXECUCAO, "mecanico"})
+                .thenReturn(new Object[]{UUID.randomUUID(), null});
+        when(joinPoint.proceed()).thenReturn("atualizada");
+
+        assertThat(aspect.monitorAtualizacaoStatus(joinPoint)).isEqualTo("atualizada");
+        assertThat(aspect.monitorAtualizacaoStatus(joinPoint)).isEqualTo("atualizada");
+
+        assertThat(contagemTimer("atualizacao")).isEqualTo(2);
+        assertThat(contador("atualizadas.total")).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Deve contar o erro e repassar a exceção sem registrar a duração")
+    void deveContarErroNaAtualizacao() throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{UUID.randomUUID(), StatusOS.FINALIZADA});
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("transição inválida"));
+
+        assertThatThrownBy(() -> aspect.monitorAtualizacaoStatus(joinPoint))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(contagemTimer("atualizacao")).isZero();
+        assertThat(contador("erros.atualizacao")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Deve logar o detalhe só na fração amostrada das atualizações")
+    void deveAmostrarLogDeDetalhe() throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{UUID.randomUUID(), StatusOS.EM_EXECUCAO});
+        when(joinPoint.proceed()).thenReturn("atualizada");
+        ch.qos.logback.classic.Logger metricsLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(METRICS_LOGGER);
+        ListAppender<ILoggingEvent> eventos = new ListAppender<>();
+        eventos.start();
+        metricsLogger.addAppender(eventos);
+        try {
+            OrdemServicoMonitoringAspect semAmostragem = new OrdemServicoMonitoringAspect(
+                    meterRegistry, new MetricsService(meterRegistry), 0.0);
+            for (int i = 0; i < 10; i++) {
+                semAmostragem.monitorAtualizacaoStatus(joinPoint);
+            }
+            assertThat(eventos.list).isEmpty();
+
+            aspect.monitorAtualizacaoStatus(joinPoint);
+            assertThat(eventos.list).singleElement()
+                    .extracting(ILoggingEvent::getFormattedMessage).asString()
+                    .contains("event=status_atualizado", "novoStatus=EM_EXECUCAO");
+        } finally {
+            metricsLogger.detachAppender(eventos);
+        }
+
+        assertThat(contagemTimer("atualizacao")).isEqualTo(11);
+    }
+}
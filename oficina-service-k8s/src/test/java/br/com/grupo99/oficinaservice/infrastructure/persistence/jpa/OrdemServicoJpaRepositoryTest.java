@@ -0,0 +1,281 @@
+package br.com.grupo99.oficinaservice.infrastructure.persistence.jpa;
+
+import br.com.grupo99.oficinaservice.application.dto.OrdemServicoRequestDTO;
+import br.com.grupo99.oficinaservice.application.dto.OrdemServicoResponseDTO;
+import br.com.grupo99.oficinaservice.application.service.NotificationService;
+import br.com.grupo99.oficinaservice.application.service.PainelStatusOrdemServico;
+import br.com.grupo99.oficinaservice.application.service.OrdemServicoApplicationService;
+import br.com.grupo99.oficinaservice.domain.model.*;
+import br.com.grupo99.oficinaservice.domain.repository.*;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.repository.OrdemServicoRepositoryImpl;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.repository.PecaRepositoryImpl;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.repository.ServicoRepositoryImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.test.context.transaction.BeforeTransaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Garante que a listagem e a criação de OS são resolvidas com um número constante de comandos SQL,
+ * independente da quantidade de ordens ou de itens (regressão de problemas N+1).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ContextConfiguration(classes = OrdemServicoJpaRepositoryTest.Config.class)
+@ActiveProfiles("test")
+@DisplayName("Teste de Persistência - OrdemServico")
+class OrdemServicoJpaRepositoryTest {
+
+    private static final int QUANTIDADE_ORDENS = 50;
+
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = OrdemServico.class)
+    @EnableJpaRepositories(basePackageClasses = OrdemServicoJpaRepository.class, includeFilters =
+            @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                    classes = {OrdemServicoJpaRepository.class, ServicoJpaRepository.class, PecaJpaRepository.class}))
+    static class Config {
+    }
+
+    @Autowired private OrdemServicoJpaRepository jpaRepository;
+    @Autowired private ServicoJpaRepository servicoJpaRepository;
+    @Autowired private PecaJpaRepository pecaJpaRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    /**
+     * Os testes usam o dialeto do PostgreSQL, que omite o NULLS LAST da listagem por ser o padrão dele;
+     * o H2 passa a ordenar nulos da mesma forma (fora da transação do teste, que o SET confirmaria).
+     */
+    @BeforeTransaction
+    void ordenarNulosComoPostgreSql() {
+        jdbcTemplate.execute("SET DEFAULT_NULL_ORDERING HIGH");
+    }
+
+    @AfterTransaction
+    void restaurarOrdenacaoDeNulos() {
+        jdbcTemplate.execute("SET DEFAULT_NULL_ORDERING LOW");
+    }
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < QUANTIDADE_ORDENS; i++) {
+            Pessoa pessoa = new Pessoa(String.format("%011d", i), TipoPessoa.FISICA, "Cliente " + i,
+                    "cliente" + i + "@email.com", "senha123", Perfil.CLIENTE);
+            entityManager.persist(pessoa);
+            Cliente cliente = entityManager.persist(new Cliente(pessoa));
+            Veiculo veiculo = new Veiculo("PLC-" + i, "Marca", "Modelo", 2020);
+            veiculo.setCliente(cliente);
+            entityManager.persist(veiculo);
+
+            OrdemServico ordem = new OrdemServico(cliente.getId(), veiculo.getId());
+            ordem.setDataCriacao(LocalDateTime.of(2024, 1, 1, 8, 0).plusMinutes(i));
+            entityManager.persist(ordem);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Deve listar o resumo das OS com nome do cliente e placa em um único comando SQL")
+    void deveListarResumosEmUmaUnicaConsulta() {
+        List<OrdemServicoResumo> resumos = jpaRepository.findResumos(StatusOS.ATIVOS);
+
+        assertThat(resumos).hasSize(QUANTIDADE_ORDENS);
+        assertThat(resumos.get(0).clienteNome()).isEqualTo("Cliente 0");
+        assertThat(resumos.get(0).placaVeiculo()).isEqualTo("PLC-0");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve contar as OS por status em um único comando SQL")
+    void deveContarPorStatusEmUmaUnicaConsulta() {
+        jdbcTemplate.update("UPDATE ordem_servico SET status = 'ENTREGUE' WHERE id IN "
+                + "(SELECT id FROM ordem_servico ORDER BY data_criacao LIMIT 20)");
+        statistics.clear();
+
+        List<ContagemStatusOrdemServico> contagens = jpaRepository.contarPorStatus();
+
+        assertThat(contagens).containsExactlyInAnyOrder(
+                new ContagemStatusOrdemServico(StatusOS.RECEBIDA, QUANTIDADE_ORDENS - 20),
+                new ContagemStatusOrdemServico(StatusOS.ENTREGUE, 20));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve manter número constante de comandos SQL no fluxo de listagem da aplicação")
+    void deveManterNumeroConstanteDeComandosNaListagem() {
+        ClienteRepository clienteRepository = mock(ClienteRepository.class);
+        VeiculoRepository veiculoRepository = mock(VeiculoRepository.class);
+        OrdemServicoApplicationService service = new OrdemServicoApplicationService(
+                new OrdemServicoRepositoryImpl(jpaRepository), clienteRepository, veiculoRepository,
+                mock(PecaRepository.class), mock(ServicoRepository.class), mock(NotificationService.class),
+                mock(EstatisticaServicoRepository.class), mock(TransicaoStatusOrdemServicoRepository.class),
+                mock(PainelStatusOrdemServico.class));
+
+        List<OrdemServicoResponseDTO> lista = service.execute();
+        long comandosListagem = statistics.getPrepareStatementCount();
+        statistics.clear();
+        service.execute(null, null, 20);
+        long comandosPagina = statistics.getPrepareStatementCount();
+
+        assertThat(lista).hasSize(QUANTIDADE_ORDENS);
+        assertThat(comandosListagem).isEqualTo(1);
+        assertThat(comandosPagina).isEqualTo(1);
+        verifyNoInteractions(clienteRepository, veiculoRepository);
+    }
+
+    @Test
+    @DisplayName("Deve percorrer a exportação por cursor filtrando intervalo de datas e status")
+    void deveExportarPorCursorComFiltros() {
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 8, 10);
+        LocalDateTime fim = LocalDateTime.of(2024, 1, 1, 8, 20);
+
+        List<OrdemServicoResumo> noIntervalo;
+        try (Stream<OrdemServicoResumo> stream = jpaRepository.streamParaExportacao(List.of(StatusOS.RECEBIDA), inicio, fim)) {
+            noIntervalo = stream.toList();
+        }
+        long semFiltroDeData;
+        try (Stream<OrdemServicoResumo> stream = jpaRepository.streamParaExportacao(List.of(StatusOS.values()), null, null)) {
+            semFiltroDeData = stream.count();
+        }
+        long outroStatus;
+        try (Stream<OrdemServicoResumo> stream = jpaRepository.streamParaExportacao(List.of(StatusOS.ENTREGUE), null, null)) {
+            outroStatus = stream.count();
+        }
+
+        assertThat(noIntervalo).hasSize(10);
+        assertThat(noIntervalo.get(0).clienteNome()).isEqualTo("Cliente 10");
+        assertThat(noIntervalo).extracting(OrdemServicoResumo::dataCriacao).isSorted();
+        assertThat(semFiltroDeData).isEqualTo(QUANTIDADE_ORDENS);
+        assertThat(outroStatus).isZero();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve criar OS com muitos itens usando uma consulta IN por tipo e inserções em lote")
+    void deveCriarOrdemComItensEmLote() {
+        Pessoa pessoa = new Pessoa("99999999999", TipoPessoa.FISICA, "Frota", "frota@email.com", "senha123", Perfil.CLIENTE);
+        entityManager.persist(pessoa);
+        Cliente cliente = entityManager.persist(new Cliente(pessoa));
+        Veiculo veiculo = new Veiculo("FRT-0001", "Marca", "Modelo", 2022);
+        veiculo.setCliente(cliente);
+        entityManager.persist(veiculo);
+
+        List<UUID> servicosIds = new ArrayList<>();
+        List<UUID> pecasIds = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            servicosIds.add(entityManager.persist(new Servico("Serviço " + i, new BigDecimal("10.00"))).getId());
+            pecasIds.add(entityManager.persist(new Peca("Peça " + i, "Fabricante", new BigDecimal("5.00"), 10)).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        ClienteRepository clienteRepository = mock(ClienteRepository.class);
+        VeiculoRepository veiculoRepository = mock(VeiculoRepository.class);
+        when(clienteRepository.findByCpfCnpj("99999999999")).thenReturn(Optional.of(cliente));
+        when(veiculoRepository.findByPlaca("FRT-0001")).thenReturn(Optional.of(veiculo));
+        OrdemServicoApplicationService service = new OrdemServicoApplicationService(
+                new OrdemServicoRepositoryImpl(jpaRepository), clienteRepository, veiculoRepository,
+                new PecaRepositoryImpl(pecaJpaRepository, jdbcTemplate), new ServicoRepositoryImpl(servicoJpaRepository),
+                mock(NotificationService.class),
+                mock(EstatisticaServicoRepository.class), mock(TransicaoStatusOrdemServicoRepository.class),
+                mock(PainelStatusOrdemServico.class));
+        statistics.clear();
+
+        OrdemServicoResponseDTO criada = service.execute(
+                new OrdemServicoRequestDTO("99999999999", "FRT-0001", servicosIds, pecasIds));
+        entityManager.flush();
+
+        // 3 consultas (OS ativa, serviços, peças) + INSERT da OS + 1 lote por tabela de itens;
+        // a baixa de estoque é um único lote JDBC fora do Hibernate (verificada abaixo)
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(6);
+        assertThat(criada.valorTotal()).isEqualByComparingTo("450.00");
+        entityManager.clear();
+        OrdemServico persistida = jpaRepository.findById(criada.id()).orElseThrow();
+        assertThat(persistida.getServicos()).hasSize(30);
+        assertThat(persistida.getPecas()).hasSize(30);
+        assertThat(pecaJpaRepository.findAllById(pecasIds)).allSatisfy(peca -> assertThat(peca.getEstoque()).isEqualTo(9));
+    }
+
+    @Test
+    @DisplayName("Deve paginar por keyset incluindo as OS ainda sem prioridade, listadas por último")
+    void devePaginarIncluindoOrdensSemPrioridade() {
+        List<UUID> ids = jpaRepository.findResumos(StatusOS.ATIVOS).stream().map(OrdemServicoResumo::id).toList();
+        // A mais nova entra em execução; as duas mais antigas ficam sem prioridade, como as gravadas antes do preenchimento
+        jdbcTemplate.update("UPDATE ordem_servico SET status = 'EM_EXECUCAO', prioridade = 1 WHERE id = ?",
+                ids.get(QUANTIDADE_ORDENS - 1));
+        jdbcTemplate.update("UPDATE ordem_servico SET prioridade = NULL WHERE id IN (?, ?)", ids.get(0), ids.get(1));
+        List<UUID> esperados = new ArrayList<>();
+        esperados.add(ids.get(QUANTIDADE_ORDENS - 1));
+        esperados.addAll(ids.subList(2, QUANTIDADE_ORDENS - 1));
+        esperados.addAll(ids.subList(0, 2));
+
+        // Páginas de 7: a sétima termina na primeira OS sem prioridade e a oitava traz a segunda
+        List<UUID> percorridos = new ArrayList<>();
+        List<OrdemServicoCursor> cursores = new ArrayList<>();
+        List<OrdemServicoResumo> pagina = jpaRepository.findPrimeiraPagina(StatusOS.ATIVOS, Limit.of(7));
+        while (!pagina.isEmpty()) {
+            pagina.forEach(resumo -> percorridos.add(resumo.id()));
+            OrdemServicoCursor cursor = OrdemServicoCursor.from(pagina.get(pagina.size() - 1));
+            cursores.add(cursor);
+            pagina = jpaRepository.findPaginaApos(StatusOS.ATIVOS, cursor.prioridade(), cursor.dataCriacao(), cursor.id(),
+                    Limit.of(7));
+        }
+
+        assertThat(percorridos).containsExactlyElementsOf(esperados);
+        assertThat(cursores).hasSize(8);
+        assertThat(cursores.get(6).id()).isEqualTo(ids.get(0));
+        assertThat(cursores.get(6).prioridade()).isEqualTo(OrdemServicoCursor.SEM_PRIORIDADE);
+    }
+
+    @Test
+    @DisplayName("Deve retornar OS mesmo quando cliente e veículo não existem mais")
+    void deveRetornarOrdemSemClienteOuVeiculo() {
+        OrdemServico orfa = new OrdemServico(UUID.randomUUID(), UUID.randomUUID());
+        orfa.setDataCriacao(LocalDateTime.of(2023, 1, 1, 8, 0));
+        entityManager.persistAndFlush(orfa);
+
+        List<OrdemServicoResumo> pagina = jpaRepository.findPrimeiraPagina(StatusOS.ATIVOS, Limit.of(1));
+
+        assertThat(pagina).singleElement().satisfies(resumo -> {
+            assertThat(resumo.id()).isEqualTo(orfa.getId());
+            assertThat(resumo.clienteNome()).isNull();
+            assertThat(resumo.placaVeiculo()).isNull();
+        });
+    }
+}
@@ -0,0 +1,264 @@
+package br.com.grupo99.oficinaservice.infrastructure.persistence.repository;
+
+import br.com.grupo99.oficinaservice.application.service.RelatorioApplicationService;
+import br.com.grupo99.oficinaservice.domain.model.EstatisticaServico;
+import br.com.grupo99.oficinaservice.domain.model.OrdemServico;
+import br.com.grupo99.oficinaservice.domain.model.Servico;
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import br.com.grupo99.oficinaservice.domain.repository.DuracaoOrdemServico;
+import br.com.grupo99.oficinaservice.domain.repository.TempoPorServico;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.EstatisticaServicoJpaRepository;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.OrdemServicoJpaRepository;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.ServicoJpaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Atualização concorrente das estatísticas de um mesmo serviço e reconstrução a partir do
+ * histórico, cada operação em sua própria transação.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = EstatisticaServicoRepositoryImplTest.Config.class)
+@ActiveProfiles("test")
+@DisplayName("Teste de Persistência - EstatisticaServico")
+class EstatisticaServicoRepositoryImplTest {
+
+    private static final int THREADS = 8;
+    private static final int FINALIZACOES_POR_THREAD = 25;
+
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = EstatisticaServico.class)
+    @EnableJpaRepositories(basePackageClasses = EstatisticaServicoJpaRepository.class, includeFilters =
+            @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+                    EstatisticaServicoJpaRepository.class, ServicoJpaRepository.class, OrdemServicoJpaRepository.class}))
+    static class Config {
+    }
+
+    @Autowired private EstatisticaServicoJpaRepository jpaRepository;
+    @Autowired private ServicoJpaRepository servicoJpaRepository;
+    @Autowired private OrdemServicoJpaRepository ordemServicoJpaRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private EstatisticaServicoRepositoryImpl estatisticaRepository;
+    private RelatorioApplicationService relatorioService;
+    private TransactionTemplate transactionTemplate;
+    private Servico servico;
+    private final LocalDateTime agora = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        estatisticaRepository = new EstatisticaServicoRepositoryImpl(jpaRepository, jdbcTemplate);
+        relatorioService = new RelatorioApplicationService(new ServicoRepositoryImpl(servicoJpaRepository), estatisticaRepository);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        servico = servicoJpaRepository.save(new Servico("Troca de Óleo", new BigDecimal("80.00")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ordemServicoJpaRepository.deleteAll();
+        jpaRepository.deleteAll();
+        servicoJpaRepository.deleteAll();
+    }
+
+    private void finalizar(long minutos) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (EstatisticaServico estatistica : estatisticaRepository.bloquearParaAtualizacao(List.of(servico.getId()))) {
+                estatistica.registrar(agora.minusMinutes(minutos), agora);
+                estatisticaRepository.save(estatistica);
+            }
+        });
+    }
+
+    private void salvarOrdem(StatusOS status, Long minutos, Servico... servicos) {
+        salvarOrdem(status, agora, minutos, servicos);
+    }
+
+    private void salvarOrdem(StatusOS status, LocalDateTime finalizacao, Long minutos, Servico... servicos) {
+        OrdemServico ordem = new OrdemServico(UUID.randomUUID(), UUID.randomUUID());
+        for (Servico s : servicos) {
+            ordem.adicionarServico(s, 1);
+        }
+        ordem.setStatus(status);
+        ordem.setDataCriacao(minutos == null ? finalizacao : finalizacao.minusMinutes(minutos));
+        ordem.setDataFinalizacao(minutos == null ? null : finalizacao);
+        ordemServicoJpaRepository.save(ordem);
+    }
+
+    private List<TempoPorServico> temposPorServico(LocalDateTime inicio, LocalDateTime fim) {
+        return transactionTemplate.execute(status -> {
+            try (Stream<TempoPorServico> tempos = estatisticaRepository.streamTemposPorServico(inicio, fim)) {
+                return tempos.toList();
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Não deve perder finalizações concorrentes do mesmo serviço")
+    void naoDevePerderFinalizacoesConcorrentes() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> resultados = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long minutos = 10L * (t + 1);
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < FINALIZACOES_POR_THREAD; i++) {
+                    finalizar(minutos);
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> resultado : resultados) {
+            resultado.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        EstatisticaServico estatistica = jpaRepository.findById(servico.getId()).orElseThrow();
+        assertThat(estatistica.getQuantidade()).isEqualTo(THREADS * FINALIZACOES_POR_THREAD);
+        // 25 * (10 + 20 + ... + 80)
+        assertThat(estatistica.getSomaMinutos()).isEqualTo(FINALIZACOES_POR_THREAD * 360L);
+        assertThat(estatistica.getMinimoMinutos()).isEqualTo(10);
+        assertThat(estatistica.getMaximoMinutos()).isEqualTo(80);
+        assertThat(estatistica.percentilMinutos(1.0)).isEqualTo(80);
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir a partir das ordens finalizadas e entregues que contêm o serviço")
+    void deveReconstruirAPartirDoHistorico() {
+        Servico outroServico = servicoJpaRepository.save(new Servico("Alinhamento", new BigDecimal("60.00")));
+        salvarOrdem(StatusOS.FINALIZADA, 60L, servico);
+        salvarOrdem(StatusOS.ENTREGUE, 120L, servico, outroServico);
+        salvarOrdem(StatusOS.FINALIZADA, 30L, servico, servico);
+        salvarOrdem(StatusOS.EM_EXECUCAO, null, servico);
+        salvarOrdem(StatusOS.FINALIZADA, null, servico);
+        salvarOrdem(StatusOS.FINALIZADA, 500L, outroServico);
+        finalizar(9_999); // valor incremental anterior, descartado pela reconstrução
+
+        assertThat(estatisticaRepository.findServicosSemReconstrucao())
+                .containsExactlyInAnyOrder(servico.getId(), outroServico.getId());
+
+        transactionTemplate.executeWithoutResult(status -> relatorioService.reconstruir(servico.getId()));
+
+        EstatisticaServico estatistica = jpaRepository.findById(servico.getId()).orElseThrow();
+        assertThat(estatistica.getQuantidade()).isEqualTo(3);
+        assertThat(estatistica.getSomaMinutos()).isEqualTo(210);
+        assertThat(estatistica.getMinimoMinutos()).isEqualTo(30);
+        assertThat(estatistica.getMaximoMinutos()).isEqualTo(120);
+        assertThat(estatistica.getReconstruidaEm()).isNotNull();
+        assertThat(estatisticaRepository.findServicosSemReconstrucao()).containsExactly(outroServico.getId());
+
+        // Finalizações após a reconstrução continuam sendo somadas
+        finalizar(90);
+        assertThat(transactionTemplate.execute(status -> relatorioService.execute(servico.getId())).tempoMedioFormatado())
+                .isEqualTo("1 horas e 15 minutos");
+    }
+
+    @Test
+    @DisplayName("Deve agregar quantidade, média, mediana e p90 de todos os serviços no período")
+    void deveAgregarTemposDeTodosOsServicos() {
+        Servico alinhamento = servicoJpaRepository.save(new Servico("Alinhamento", new BigDecimal("60.00")));
+        Servico semOrdens = servicoJpaRepository.save(new Servico("Polimento", new BigDecimal("150.00")));
+        for (long minutos = 10; minutos <= 100; minutos += 10) {
+            salvarOrdem(StatusOS.ENTREGUE, minutos, servico);
+        }
+        salvarOrdem(StatusOS.FINALIZADA, 40L, alinhamento, alinhamento);
+        salvarOrdem(StatusOS.FINALIZADA, 80L, alinhamento, servico);
+        salvarOrdem(StatusOS.EM_EXECUCAO, null, alinhamento);
+        salvarOrdem(StatusOS.FINALIZADA, null, alinhamento);
+        salvarOrdem(StatusOS.ENTREGUE, agora.minusDays(10), 500L, alinhamento);
+
+        List<TempoPorServico> tempos = temposPorServico(agora.minusDays(1), agora.plusDays(1));
+
+        // Ordenado pela descrição: Alinhamento, Polimento, Troca de Óleo
+        assertThat(tempos).extracting(TempoPorServico::servicoId)
+                .containsExactly(alinhamento.getId(), semOrdens.getId(), servico.getId());
+        assertThat(tempos.get(0).totalOrdens()).isEqualTo(2);
+        assertThat(tempos.get(0).mediaMinutos()).isEqualTo(60.0);
+        assertThat(tempos.get(0).medianaMinutos()).isEqualTo(60.0);
+        assertThat(tempos.get(1).totalOrdens()).isZero();
+        assertThat(tempos.get(1).mediaMinutos()).isNull();
+        assertThat(tempos.get(1).p90Minutos()).isNull();
+        // 10, 20, ..., 100 e a ordem de 80 minutos compartilhada com o alinhamento
+        assertThat(tempos.get(2).totalOrdens()).isEqualTo(11);
+        assertThat(tempos.get(2).medianaMinutos()).isEqualTo(60.0);
+        assertThat(tempos.get(2).p90Minutos()).isEqualTo(90.0);
+
+        assertThat(temposPorServico(null, null).get(0).totalOrdens()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Consulta agregada deve produzir os mesmos totais e médias que as durações por serviço")
+    void consultaAgregadaDeveSerEquivalenteAsDuracoesPorServico() {
+        List<Servico> servicos = new ArrayList<>(List.of(servico));
+        for (int i = 1; i < 4; i++) {
+            servicos.add(servicoJpaRepository.save(new Servico("Serviço " + i, BigDecimal.TEN)));
+        }
+        Random random = new Random(7);
+        for (int i = 0; i < 60; i++) {
+            Servico primeiro = servicos.get(random.nextInt(servicos.size()));
+            Servico segundo = servicos.get(random.nextInt(servicos.size()));
+            Servico[] daOrdem = i % 2 == 0 && segundo != primeiro
+                    ? new Servico[]{primeiro, segundo}
+                    : new Servico[]{primeiro};
+            if (i % 10 == 0) {
+                salvarOrdem(StatusOS.EM_EXECUCAO, null, daOrdem);
+            } else {
+                salvarOrdem(i % 3 == 0 ? StatusOS.FINALIZADA : StatusOS.ENTREGUE, agora.minusMinutes(i),
+                        30L + random.nextInt(600), daOrdem);
+            }
+        }
+
+        List<TempoPorServico> agregados = temposPorServico(null, null);
+
+        assertThat(agregados).hasSize(servicos.size());
+        for (TempoPorServico tempo : agregados) {
+            List<Long> duracoes = transactionTemplate.execute(status -> {
+                try (Stream<DuracaoOrdemServico> porServico = estatisticaRepository.streamDuracoesFinalizadas(tempo.servicoId())) {
+                    return porServico
+                            .map(d -> Duration.between(d.dataCriacao(), d.dataFinalizacao()).toMinutes())
+                            .toList();
+                }
+            });
+            assertThat(tempo.totalOrdens()).as("total de %s", tempo.servicoDescricao()).isEqualTo(duracoes.size());
+            assertThat(tempo.mediaMinutos()).as("média de %s", tempo.servicoDescricao())
+                    .isCloseTo(duracoes.stream().mapToLong(Long::longValue).average().orElseThrow(), within(0.01));
+            assertThat(tempo.p90Minutos()).isGreaterThanOrEqualTo(tempo.medianaMinutos());
+        }
+    }
+}
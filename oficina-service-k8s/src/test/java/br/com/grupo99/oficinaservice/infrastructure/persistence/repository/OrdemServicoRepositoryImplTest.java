@@ -4,6 +4,8 @@ import br.com.grupo99.oficinaservice.domain.model.Cliente;
 import br.com.grupo99.oficinaservice.domain.model.OrdemServico;
 import br.com.grupo99.oficinaservice.domain.model.StatusOS;
 import br.com.grupo99.oficinaservice.domain.repository.ClienteRepository;
+import br.com.grupo99.oficinaservice.domain.repository.OrdemServicoCursor;
+import br.com.grupo99.oficinaservice.domain.repository.OrdemServicoResumo;
 import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.OrdemServicoJpaRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -162,59 +165,75 @@ class OrdemServicoRepositoryImplTest {
     }
 
     @Test
-    @DisplayName("Deve listar todas as ordens de serviço ordenadas por status e data de criação")
+    @DisplayName("Deve listar as ordens de serviço em andamento delegando filtro e ordenação ao banco")
     void shouldFindAllOrdensServicoOrdered() {
         // Given
         OrdemServico os1 = new OrdemServico(UUID.randomUUID(), UUID.randomUUID());
-        os1.setStatus(StatusOS.RECEBIDA);
-        os1.setDataCriacao(LocalDateTime.of(2023, 1, 1, 10, 0));
-
+        os1.setStatus(StatusOS.EM_EXECUCAO);
         OrdemServico os2 = new OrdemServico(UUID.randomUUID(), UUID.randomUUID());
-        os2.setStatus(StatusOS.EM_DIAGNOSTICO);
-        os2.setDataCriacao(LocalDateTime.of(2023, 1, 2, 10, 0));
-
-        OrdemServico os3 = new OrdemServico(UUID.randomUUID(), UUID.randomUUID());
-        os3.setStatus(StatusOS.AGUARDANDO_APROVACAO);
-        os3.setDataCriacao(LocalDateTime.of(2023, 1, 3, 10, 0));
-
-        OrdemServico os4 = new OrdemServico(UUID.randomUUID(), UUID.randomUUID());
-        os4.setStatus(StatusOS.EM_EXECUCAO);
-        os4.setDataCriacao(LocalDateTime.of(2023, 1, 4, 10, 0));
-
-        OrdemServico os5 = new OrdemServico(UUID.randomUUID(), UUID.randomUUID());
-        os5.setStatus(StatusOS.EM_EXECUCAO);
-        os5.setDataCriacao(LocalDateTime.of(2023, 1, 1, 9, 0)); // Mais antiga entre EM_EXECUCAO
-
-        List<OrdemServico> ordens = Arrays.asList(os1, os2, os3, os4, os5);
-        when(jpaRepository.findAll()).thenReturn(ordens);
+        os2.setStatus(StatusOS.RECEBIDA);
+        when(jpaRepository.findByStatusInOrderByPrioridadeAscDataCriacaoAscIdAsc(StatusOS.ATIVOS))
+                .thenReturn(List.of(os1, os2));
 
         // When
         List<OrdemServico> result = ordemServicoRepository.findAll();
 
         // Then
-        assertThat(result).hasSize(5);
-        // Esperado: EM_EXECUCAO (mais antiga), EM_EXECUCAO, AGUARDANDO_APROVACAO, EM_DIAGNOSTICO, RECEBIDA
-        assertThat(result.get(0)).isEqualTo(os5); // EM_EXECUCAO mais antiga
-        assertThat(result.get(1)).isEqualTo(os4); // EM_EXECUCAO mais nova
-        assertThat(result.get(2)).isEqualTo(os3); // AGUARDANDO_APROVACAO
-        assertThat(result.get(3)).isEqualTo(os2); // EM_DIAGNOSTICO
-        assertThat(result.get(4)).isEqualTo(os1); // RECEBIDA
-        verify(jpaRepository).findAll();
+        assertThat(result).containsExactly(os1, os2);
+        verify(jpaRepository).findByStatusInOrderByPrioridadeAscDataCriacaoAscIdAsc(StatusOS.ATIVOS);
+        verify(jpaRepository, never()).findAll();
     }
 
     @Test
     @DisplayName("Deve retornar lista vazia quando não há ordens de serviço")
     void shouldReturnEmptyListWhenNoOrdensServico() {
         // Given
-        when(jpaRepository.findAll()).thenReturn(List.of());
+        when(jpaRepository.findByStatusInOrderByPrioridadeAscDataCriacaoAscIdAsc(StatusOS.ATIVOS)).thenReturn(List.of());
 
         // When
         List<OrdemServico> result = ordemServicoRepository.findAll();
 
         // Then
         assertThat(result).isEmpty();
-        
-        verify(jpaRepository).findAll();
+    }
+
+    @Test
+    @DisplayName("Deve listar o resumo das ordens de serviço com a consulta projetada")
+    void shouldFindResumos() {
+        // Given
+        OrdemServicoResumo resumo = new OrdemServicoResumo(UUID.randomUUID(), "Cliente", "ABC-1234",
+                StatusOS.RECEBIDA, BigDecimal.ZERO, LocalDateTime.now(), StatusOS.RECEBIDA.getPrioridade());
+        when(jpaRepository.findResumos(StatusOS.ATIVOS)).thenReturn(List.of(resumo));
+
+        // When
+        List<OrdemServicoResumo> result = ordemServicoRepository.findResumos(StatusOS.ATIVOS);
+
+        // Then
+        assertThat(result).containsExactly(resumo);
+        verify(jpaRepository).findResumos(StatusOS.ATIVOS);
+    }
+
+    @Test
+    @DisplayName("Deve buscar a primeira página sem cursor e as seguintes a partir do keyset")
+    void shouldFindPaginaUsingKeyset() {
+        // Given
+        List<StatusOS> status = List.of(StatusOS.RECEBIDA);
+        OrdemServicoCursor cursor = OrdemServicoCursor.from(ordemServico);
+        OrdemServicoResumo resumo = new OrdemServicoResumo(ordemServico.getId(), "Cliente", "ABC-1234",
+                StatusOS.RECEBIDA, BigDecimal.ZERO, ordemServico.getDataCriacao(), ordemServico.getPrioridade());
+        when(jpaRepository.findPrimeiraPagina(status, Limit.of(10))).thenReturn(List.of(resumo));
+        when(jpaRepository.findPaginaApos(status, cursor.prioridade(), cursor.dataCriacao(), cursor.id(), Limit.of(10)))
+                .thenReturn(List.of());
+
+        // When
+        List<OrdemServicoResumo> primeira = ordemServicoRepository.findPagina(status, null, 10);
+        List<OrdemServicoResumo> seguinte = ordemServicoRepository.findPagina(status, cursor, 10);
+
+        // Then
+        assertThat(primeira).containsExactly(resumo);
+        assertThat(OrdemServicoCursor.from(resumo)).isEqualTo(cursor);
+        assertThat(seguinte).isEmpty();
+        assertThat(cursor.prioridade()).isEqualTo(StatusOS.RECEBIDA.getPrioridade());
     }
 
     @Test
@@ -243,29 +262,4 @@ class OrdemServicoRepositoryImplTest {
         assertThat(ordens).isEqualTo(ordensEsperadas);
         verify(jpaRepository).findByClienteId(cliente.getId());
     }
-
-    @Test
-    @DisplayName("Deve excluir logicamente ordens de serviço FINALIZADA e ENTREGUE da listagem")
-    void shouldExcludeFinalizadaAndEntregueFromFindAll() {
-        OrdemServico osFinalizada = new OrdemServico(UUID.randomUUID(), UUID.randomUUID());
-        osFinalizada.setStatus(StatusOS.FINALIZADA);
-        osFinalizada.setDataCriacao(LocalDateTime.of(2023, 1, 5, 10, 0));
-
-        OrdemServico osEntregue = new OrdemServico(UUID.randomUUID(), UUID.randomUUID());
-        osEntregue.setStatus(StatusOS.ENTREGUE);
-        osEntregue.setDataCriacao(LocalDateTime.of(2023, 1, 6, 10, 0));
-
-        OrdemServico osRecebida = new OrdemServico(UUID.randomUUID(), UUID.randomUUID());
-        osRecebida.setStatus(StatusOS.RECEBIDA);
-        osRecebida.setDataCriacao(LocalDateTime.of(2023, 1, 7, 10, 0));
-
-        List<OrdemServico> ordens = Arrays.asList(osFinalizada, osEntregue, osRecebida);
-        when(jpaRepository.findAll()).thenReturn(ordens);
-
-        List<OrdemServico> result = ordemServicoRepository.findAll();
-
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0)).isEqualTo(osRecebida);
-        verify(jpaRepository).findAll();
-    }
 }
@@ -9,11 +9,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -37,6 +41,9 @@ class PecaRepositoryImplTest {
     @Mock
     private PecaJpaRepository jpaRepository;
 
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     @InjectMocks
     private PecaRepositoryImpl pecaRepository;
 
@@ -179,4 +186,36 @@ class PecaRepositoryImplTest {
         assertThat(existe).isFalse();
         verify(jpaRepository, times(1)).existsById(idInexistente);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve reservar estoque em um único lote, em ordem de ID, e retornar as peças sem estoque suficiente")
+    @SuppressWarnings("unchecked")
+    void deveReservarEstoqueEmLoteERetornarPecasSemEstoque() {
+        // Given
+        UUID primeiraPeca = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        UUID pecaSemEstoque = UUID.fromString("00000000-0000-0000-0000-000000000002");
+        Map<UUID, Integer> quantidades = new LinkedHashMap<>();
+        quantidades.put(pecaSemEstoque, 5);
+        quantidades.put(primeiraPeca, 2);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+
+        // When
+        Set<UUID> semEstoque = pecaRepository.reservarEstoque(quantidades);
+
+        // Then
+        assertThat(semEstoque).containsExactly(pecaSemEstoque);
+        verify(jdbcTemplate, times(1)).batchUpdate(
+                eq("UPDATE peca SET estoque = estoque - ? WHERE id = ? AND estoque >= ?"),
+                argThat((List<Object[]> parametros) -> parametros.size() == 2
+                        && parametros.get(0)[0].equals(2) && parametros.get(0)[1].equals(primeiraPeca)
+                        && parametros.get(0)[2].equals(2)
+                        && parametros.get(1)[1].equals(pecaSemEstoque)));
+    }
+
+    @Test
+    @DisplayName("Não deve acessar o banco ao reservar estoque sem peças")
+    void naoDeveAcessarBancoAoReservarSemPecas() {
+        assertThat(pecaRepository.reservarEstoque(Map.of())).isEmpty();
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
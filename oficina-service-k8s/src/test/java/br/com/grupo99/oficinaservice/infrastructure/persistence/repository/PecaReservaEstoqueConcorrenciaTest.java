@@ -0,0 +1,134 @@
+package br.com.grupo99.oficinaservice.infrastructure.persistence.repository;
+
+import br.com.grupo99.oficinaservice.domain.model.Peca;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.PecaJpaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reserva concorrente de estoque de uma mesma peça ("SKU quente"), cada tentativa em sua própria transação.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = PecaReservaEstoqueConcorrenciaTest.Config.class)
+@ActiveProfiles("test")
+@DisplayName("Teste de Concorrência - Reserva de estoque de Peca")
+class PecaReservaEstoqueConcorrenciaTest {
+
+    private static final Logger log = LoggerFactory.getLogger(PecaReservaEstoqueConcorrenciaTest.class);
+
+    private static final int ESTOQUE_INICIAL = 200;
+    private static final int THREADS = 8;
+    private static final int TENTATIVAS_POR_THREAD = 50;
+
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Peca.class)
+    @EnableJpaRepositories(basePackageClasses = PecaJpaRepository.class, includeFilters =
+            @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = PecaJpaRepository.class))
+    static class Config {
+    }
+
+    @Autowired private PecaJpaRepository jpaRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private PecaRepositoryImpl pecaRepository;
+    private TransactionTemplate transactionTemplate;
+    private UUID pecaId;
+
+    @BeforeEach
+    void setUp() {
+        pecaRepository = new PecaRepositoryImpl(jpaRepository, jdbcTemplate);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        pecaId = jpaRepository.save(new Peca("Filtro de Óleo", "Bosch", new BigDecimal("35.00"), ESTOQUE_INICIAL)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jpaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Não deve vender mais que o estoque sob concorrência na mesma peça")
+    void naoDeveVenderMaisQueOEstoqueSobConcorrencia() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Integer>> resultados = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            resultados.add(executor.submit(() -> {
+                largada.await();
+                int reservadas = 0;
+                for (int i = 0; i < TENTATIVAS_POR_THREAD; i++) {
+                    Boolean reservou = transactionTemplate.execute(status ->
+                            pecaRepository.reservarEstoque(Map.of(pecaId, 1)).isEmpty());
+                    if (Boolean.TRUE.equals(reservou)) {
+                        reservadas++;
+                    }
+                }
+                return reservadas;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        int totalReservado = 0;
+        for (Future<Integer> resultado : resultados) {
+            totalReservado += resultado.get(60, TimeUnit.SECONDS);
+        }
+        long duracaoNanos = System.nanoTime() - inicio;
+        executor.shutdown();
+
+        int tentativas = THREADS * TENTATIVAS_POR_THREAD;
+        log.info("Reserva concorrente: {} tentativas em {} threads, {} reservas, {} tentativas/s",
+                tentativas, THREADS, totalReservado,
+                String.format("%.0f", tentativas / (duracaoNanos / 1_000_000_000.0)));
+
+        assertThat(totalReservado).isEqualTo(ESTOQUE_INICIAL);
+        assertThat(jpaRepository.findById(pecaId).orElseThrow().getEstoque()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve desfazer a reserva de todas as peças quando a transação é revertida")
+    void deveDesfazerReservasNoRollback() {
+        UUID outraPeca = jpaRepository.save(new Peca("Pastilha", "Bosch", new BigDecimal("80.00"), 1)).getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertThat(pecaRepository.reservarEstoque(Map.of(pecaId, 5, outraPeca, 2))).containsExactly(outraPeca);
+            status.setRollbackOnly();
+        });
+
+        assertThat(jpaRepository.findById(pecaId).orElseThrow().getEstoque()).isEqualTo(ESTOQUE_INICIAL);
+        assertThat(jpaRepository.findById(outraPeca).orElseThrow().getEstoque()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,160 @@
+package br.com.grupo99.oficinaservice.infrastructure.persistence.repository;
+
+import br.com.grupo99.oficinaservice.domain.model.EstatisticaServico;
+import br.com.grupo99.oficinaservice.domain.model.Servico;
+import br.com.grupo99.oficinaservice.domain.repository.DuracaoOrdemServico;
+import br.com.grupo99.oficinaservice.domain.repository.TempoPorServico;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.EstatisticaServicoJpaRepository;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.ServicoJpaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compara o relatório de tempo de todos os serviços em uma única consulta agregada com uma
+ * consulta de durações por serviço agregada na aplicação.
+ * <p>
+ * Roda só com {@code mvn test -P benchmark}; para medir com o histórico completo use
+ * {@code -Dbenchmark.relatorio.ordens=1000000} (e heap de pelo menos 2 GB para o H2 em memória).
+ * A equivalência dos resultados é coberta, com poucos dados, pelo {@link EstatisticaServicoRepositoryImplTest}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = TempoPorServicoBenchmark.Config.class)
+@ActiveProfiles("test")
+@DisplayName("Benchmark - Relatório de tempo por serviço")
+class TempoPorServicoBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(TempoPorServicoBenchmark.class);
+
+    private static final int ORDENS = Integer.getInteger("benchmark.relatorio.ordens", 20_000);
+    private static final int SERVICOS = 40;
+    private static final int LOTE = 5_000;
+
+    private static final String SQL_INSERIR_ORDEM = """
+            INSERT INTO ordem_servico (id, cliente_id, veiculo_id, status, prioridade, valor_total, data_criacao, data_finalizacao)
+            VALUES (?, ?, ?, ?, 5, 0, ?, ?)
+            """;
+    private static final String SQL_INSERIR_ITEM = """
+            INSERT INTO item_servico (id, servico_id, quantidade, valor_unitario, valor_total, ordem_servico_id)
+            VALUES (?, ?, 1, 10, 10, ?)
+            """;
+
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = EstatisticaServico.class)
+    @EnableJpaRepositories(basePackageClasses = EstatisticaServicoJpaRepository.class, includeFilters =
+            @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+                    EstatisticaServicoJpaRepository.class, ServicoJpaRepository.class}))
+    static class Config {
+    }
+
+    @Autowired private EstatisticaServicoJpaRepository jpaRepository;
+    @Autowired private ServicoJpaRepository servicoJpaRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM item_servico");
+        jdbcTemplate.update("DELETE FROM ordem_servico");
+        servicoJpaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Consulta agregada comparada a uma consulta por serviço")
+    void consultaAgregadaComparadaAUmaConsultaPorServico() {
+        List<UUID> servicos = new ArrayList<>();
+        for (int i = 0; i < SERVICOS; i++) {
+            servicos.add(servicoJpaRepository.save(new Servico("Serviço " + i, BigDecimal.TEN)).getId());
+        }
+        long inicioCarga = System.nanoTime();
+        carregarHistorico(servicos);
+        long cargaMs = Duration.ofNanos(System.nanoTime() - inicioCarga).toMillis();
+
+        EstatisticaServicoRepositoryImpl repository = new EstatisticaServicoRepositoryImpl(jpaRepository, jdbcTemplate);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        long inicio = System.nanoTime();
+        List<TempoPorServico> agregados = transactionTemplate.execute(status -> {
+            try (Stream<TempoPorServico> tempos = repository.streamTemposPorServico(null, null)) {
+                return tempos.toList();
+            }
+        });
+        long agregadoMs = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+
+        inicio = System.nanoTime();
+        Map<UUID, Long> porServico = transactionTemplate.execute(status -> servicos.stream()
+                .collect(Collectors.toMap(id -> id, id -> {
+                    try (Stream<DuracaoOrdemServico> duracoes = repository.streamDuracoesFinalizadas(id)) {
+                        return duracoes.count();
+                    }
+                })));
+        long porServicoMs = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+
+        log.info("Relatório de tempo por serviço: {} ordens e {} serviços carregados em {} ms; "
+                        + "consulta agregada {} ms ({} linhas), uma consulta por serviço {} ms ({} linhas)",
+                ORDENS, SERVICOS, cargaMs, agregadoMs, agregados.size(), porServicoMs, porServico.size());
+    }
+
+    /**
+     * Cada ordem tem um ou dois serviços e dura entre 30 e 630 minutos; uma em cada dez ainda está
+     * em execução e não entra no relatório.
+     */
+    private void carregarHistorico(List<UUID> servicos) {
+        Random random = new Random(7);
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 8, 0);
+        List<Object[]> ordens = new ArrayList<>(LOTE);
+        List<Object[]> itens = new ArrayList<>(LOTE * 2);
+        for (int i = 0; i < ORDENS; i++) {
+            UUID ordemId = UUID.randomUUID();
+            LocalDateTime finalizacao = base.plusMinutes(i);
+            boolean emExecucao = i % 10 == 0;
+            ordens.add(new Object[]{ordemId, UUID.randomUUID(), UUID.randomUUID(), emExecucao ? "EM_EXECUCAO" : "ENTREGUE",
+                    Timestamp.valueOf(finalizacao.minusMinutes(30 + random.nextInt(600))),
+                    emExecucao ? null : Timestamp.valueOf(finalizacao)});
+            UUID primeiro = servicos.get(random.nextInt(SERVICOS));
+            itens.add(new Object[]{UUID.randomUUID(), primeiro, ordemId});
+            UUID segundo = servicos.get(random.nextInt(SERVICOS));
+            if (i % 2 == 0 && !segundo.equals(primeiro)) {
+                itens.add(new Object[]{UUID.randomUUID(), segundo, ordemId});
+            }
+            if (ordens.size() == LOTE || i == ORDENS - 1) {
+                jdbcTemplate.batchUpdate(SQL_INSERIR_ORDEM, ordens);
+                jdbcTemplate.batchUpdate(SQL_INSERIR_ITEM, itens);
+                ordens.clear();
+                itens.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package br.com.grupo99.oficinaservice.infrastructure.persistence.repository;
+
+import br.com.grupo99.oficinaservice.domain.model.OrdemServico;
+import br.com.grupo99.oficinaservice.domain.model.StatusOS;
+import br.com.grupo99.oficinaservice.domain.model.TransicaoStatusOrdemServico;
+import br.com.grupo99.oficinaservice.infrastructure.persistence.jpa.TransicaoStatusOrdemServicoJpaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ContextConfiguration(classes = TransicaoStatusOrdemServicoRepositoryImplTest.Config.class)
+@ActiveProfiles("test")
+@DisplayName("Teste de Persistência - TransicaoStatusOrdemServico")
+class TransicaoStatusOrdemServicoRepositoryImplTest {
+
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = TransicaoStatusOrdemServico.class)
+    @EnableJpaRepositories(basePackageClasses = TransicaoStatusOrdemServicoJpaRepository.class, includeFilters =
+            @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = TransicaoStatusOrdemServicoJpaRepository.class))
+    static class Config {
+    }
+
+    @Autowired private TransicaoStatusOrdemServicoJpaRepository jpaRepository;
+    @Autowired private TestEntityManager entityManager;
+
+    private TransicaoStatusOrdemServicoRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new TransicaoStatusOrdemServicoRepositoryImpl(jpaRepository);
+    }
+
+    private OrdemServico ordemPersistida() {
+        OrdemServico ordem = entityManager.persist(new OrdemServico(UUID.randomUUID(), UUID.randomUUID()));
+        ordem.retirarTransicoesPendentes();
+        return ordem;
+    }
+
+    @Test
+    @DisplayName("Deve gravar as transições e devolver a linha do tempo de uma OS em ordem")
+    void deveDevolverLinhaDoTempoEmOrdem() {
+        OrdemServico ordem = ordemPersistida();
+        OrdemServico outra = ordemPersistida();
+        ordem.setDataCriacao(LocalDateTime.now().minusHours(3));
+        ordem.definirResponsavelAlteracao("mecanico");
+        ordem.iniciarDiagnostico();
+        ordem.aguardarAprovacao();
+        outra.iniciarDiagnostico();
+
+        repository.saveAll(outra.retirarTransicoesPendentes());
+        // Gravadas fora de ordem: a linha do tempo é ordenada pela data da transição
+        repository.saveAll(ordem.retirarTransicoesPendentes().reversed());
+        repository.saveAll(List.of());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TransicaoStatusOrdemServico> linhaDoTempo = repository.findByOrdemServicoId(ordem.getId());
+
+        assertThat(linhaDoTempo).extracting(TransicaoStatusOrdemServico::getStatusNovo)
+                .containsExactly(StatusOS.EM_DIAGNOSTICO, StatusOS.AGUARDANDO_APROVACAO);
+        assertThat(linhaDoTempo.get(0).getDuracaoStatusAnteriorMs()).isGreaterThanOrEqualTo(3 * 3_600_000L);
+        assertThat(linhaDoTempo).allSatisfy(transicao -> assertThat(transicao.getResponsavel()).isEqualTo("mecanico"));
+        assertThat(repository.findByOrdemServicoId(outra.getId())).hasSize(1);
+    }
+}
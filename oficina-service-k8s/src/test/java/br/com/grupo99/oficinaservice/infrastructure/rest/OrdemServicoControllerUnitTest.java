@@ -2,6 +2,7 @@ package br.com.grupo99.oficinaservice.infrastructure.rest;
 
 import br.com.grupo99.oficinaservice.adapter.controller.OrdemServicoController;
 import br.com.grupo99.oficinaservice.application.dto.*;
+import br.com.grupo99.oficinaservice.application.exception.BusinessException;
 import br.com.grupo99.oficinaservice.application.exception.ResourceNotFoundException;
 import br.com.grupo99.oficinaservice.domain.model.StatusOS;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,19 +12,27 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -49,8 +58,10 @@ class OrdemServicoRestControllerUnitTest {
     @InjectMocks
     private OrdemServicoRestController ordemServicoRestController;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     private MockMvc mockMvc;
-    private ObjectMapper objectMapper;
 
     private UUID ordemServicoId;
     private OrdemServicoRequestDTO ordemServicoRequestDTO;
@@ -62,8 +73,6 @@ class OrdemServicoRestControllerUnitTest {
         mockMvc = MockMvcBuilders.standaloneSetup(ordemServicoRestController)
                 .setControllerAdvice(new br.com.grupo99.oficinaservice.infrastructure.rest.handler.GlobalExceptionHandler())
                 .build();
-        objectMapper = new ObjectMapper();
-        
         ordemServicoId = UUID.randomUUID();
         
         ordemServicoRequestDTO = new OrdemServicoRequestDTO(
@@ -208,7 +217,7 @@ class OrdemServicoRestControllerUnitTest {
                 LocalDateTime.now()
         );
 
-        when(ordemServicoController.atualizarStatus(eq(ordemServicoId), eq(StatusOS.EM_EXECUCAO)))
+        when(ordemServicoController.atualizarStatus(eq(ordemServicoId), eq(StatusOS.EM_EXECUCAO), any()))
                 .thenReturn(updatedResponse);
 
         // When & Then
@@ -219,7 +228,7 @@ class OrdemServicoRestControllerUnitTest {
                 .andExpect(jsonPath("$.id").value(ordemServicoId.toString()))
                 .andExpect(jsonPath("$.status").value("EM_EXECUCAO"));
 
-        verify(ordemServicoController).atualizarStatus(eq(ordemServicoId), eq(StatusOS.EM_EXECUCAO));
+        verify(ordemServicoController).atualizarStatus(eq(ordemServicoId), eq(StatusOS.EM_EXECUCAO), any());
     }
 
     @Test
@@ -301,7 +310,7 @@ class OrdemServicoRestControllerUnitTest {
         OrdemServicoStatusUpdateRequestDTO statusUpdateDTO = 
                 new OrdemServicoStatusUpdateRequestDTO(StatusOS.FINALIZADA);
 
-        when(ordemServicoController.atualizarStatus(eq(ordemServicoId), eq(StatusOS.FINALIZADA)))
+        when(ordemServicoController.atualizarStatus(eq(ordemServicoId), eq(StatusOS.FINALIZADA), any()))
                 .thenThrow(new ResourceNotFoundException("Ordem de serviço não encontrada"));
 
         // When & Then
@@ -310,7 +319,55 @@ class OrdemServicoRestControllerUnitTest {
                         .content(objectMapper.writeValueAsString(statusUpdateDTO)))
                 .andExpect(status().isNotFound());
 
-        verify(ordemServicoController).atualizarStatus(eq(ordemServicoId), eq(StatusOS.FINALIZADA));
+        verify(ordemServicoController).atualizarStatus(eq(ordemServicoId), eq(StatusOS.FINALIZADA), any());
+    }
+
+    @Test
+    @DisplayName("Deve exportar ordens de serviço em NDJSON, uma por linha")
+    @SuppressWarnings("unchecked")
+    void shouldExportOrdensServicoAsNdjson() throws Exception {
+        // Given
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        LocalDate fim = LocalDate.of(2024, 1, 31);
+        doAnswer(invocation -> {
+            Consumer<OrdemServicoResponseDTO> consumidor = invocation.getArgument(3);
+            consumidor.accept(ordemServicoResponseDTO);
+            consumidor.accept(ordemServicoResponseDTO);
+            consumidor.accept(ordemServicoResponseDTO);
+            return null;
+        }).when(ordemServicoController).exportar(eq(inicio), eq(fim), eq(List.of(StatusOS.ENTREGUE)), any(Consumer.class));
+
+        // When & Then
+        String corpo = mockMvc.perform(get("/api/v1/ordens-servico/exportacao")
+                        .param("dataInicio", "2024-01-01")
+                        .param("dataFim", "2024-01-31")
+                        .param("status", "ENTREGUE"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] linhas = corpo.split("\n");
+        assertThat(linhas).hasSize(3);
+        for (String linha : linhas) {
+            assertThat(linha).startsWith("{").endsWith("}");
+            assertThat(objectMapper.readTree(linha).get("id").asText())
+                    .isEqualTo(ordemServicoId.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 na exportação com intervalo de datas inválido")
+    @SuppressWarnings("unchecked")
+    void shouldReturn400WhenExportRangeIsInvalid() throws Exception {
+        // Given
+        doThrow(new BusinessException("A data inicial não pode ser posterior à data final."))
+                .when(ordemServicoController).exportar(any(), any(), any(), any(Consumer.class));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/ordens-servico/exportacao")
+                        .param("dataInicio", "2024-02-01")
+                        .param("dataFim", "2024-01-01"))
+                .andExpect(status().isBadRequest());
     }
 
     // Adicionar método auxiliar para statusDescricao
@@ -325,7 +382,39 @@ class OrdemServicoRestControllerUnitTest {
             case CANCELADA -> "Cancelada";
         };
     }
-}
 
+    @Test
+    @DisplayName("Deve retornar o resumo das ordens de serviço por status")
+    void shouldReturnResumoPorStatus() throws Exception {
+        // Given
+        Map<StatusOS, Long> porStatus = new EnumMap<>(StatusOS.class);
+        porStatus.put(StatusOS.RECEBIDA, 4L);
+        porStatus.put(StatusOS.FINALIZADA, 1L);
+        when(ordemServicoController.resumir()).thenReturn(ResumoOrdensServicoDTO.fromContagens(porStatus));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/ordens-servico/resumo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.porStatus.RECEBIDA").value(4))
+                .andExpect(jsonPath("$.ativas").value(4))
+                .andExpect(jsonPath("$.total").value(5));
+    }
 
+    @Test
+    @DisplayName("Deve listar o histórico de status da ordem de serviço")
+    void shouldReturnHistoricoStatus() throws Exception {
+        // Given
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 8, 0);
+        when(ordemServicoController.buscarHistoricoStatus(ordemServicoId)).thenReturn(List.of(
+                new TransicaoStatusResponseDTO(StatusOS.RECEBIDA, StatusOS.EM_DIAGNOSTICO, inicio, 60_000L, "mecanico"),
+                new TransicaoStatusResponseDTO(StatusOS.EM_DIAGNOSTICO, StatusOS.AGUARDANDO_APROVACAO,
+                        inicio.plusHours(2), 7_200_000L, "mecanico")));
 
+        // When & Then
+        mockMvc.perform(get("/api/v1/ordens-servico/{id}/historico-status", ordemServicoId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].statusNovo").value("EM_DIAGNOSTICO"))
+                .andExpect(jsonPath("$[1].duracaoStatusAnteriorMs").value(7_200_000))
+                .andExpect(jsonPath("$[1].responsavel").value("mecanico"));
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.grupo99.oficinaservice.infrastructure.rest;
+
+import br.com.grupo99.oficinaservice.adapter.controller.RelatorioController;
+import br.com.grupo99.oficinaservice.application.dto.TempoPorServicoResponseDTO;
+import br.com.grupo99.oficinaservice.application.exception.BusinessException;
+import br.com.grupo99.oficinaservice.infrastructure.rest.handler.GlobalExceptionHandler;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Testes unitários para RelatorioRestController")
+class RelatorioRestControllerUnitTest {
+
+    @Mock
+    private RelatorioController relatorioController;
+
+    @InjectMocks
+    private RelatorioRestController relatorioRestController;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(relatorioRestController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Deve transmitir o tempo de cada serviço em NDJSON, um por linha")
+    @SuppressWarnings("unchecked")
+    void shouldStreamTemposPorServicoAsNdjson() throws Exception {
+        // Given
+        List<TempoPorServicoResponseDTO> tempos = new ArrayList<>();
+        for (int i = 0; i < RespostaNdjson.LINHAS_POR_FLUSH + 2; i++) {
+            tempos.add(new TempoPorServicoResponseDTO(UUID.randomUUID(), "Serviço " + i, i,
+                    i + " minutos", (double) i, (double) i, (double) i));
+        }
+        doAnswer(invocation -> {
+            Consumer<TempoPorServicoResponseDTO> consumidor = invocation.getArgument(2);
+            tempos.forEach(consumidor);
+            return null;
+        }).when(relatorioController).calcularTemposPorServico(
+                eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 1, 31)), any(Consumer.class));
+
+        // When
+        String corpo = mockMvc.perform(get("/api/v1/relatorios/tempo-medio/servicos")
+                        .param("dataInicio", "2024-01-01")
+                        .param("dataFim", "2024-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        // Then
+        assertThat(corpo).endsWith("\n");
+        String[] linhas = corpo.split("\n");
+        assertThat(linhas).hasSize(tempos.size());
+        for (int i = 0; i < linhas.length; i++) {
+            assertThat(linhas[i]).startsWith("{").endsWith("}");
+            JsonNode linha = objectMapper.readTree(linhas[i]);
+            assertThat(linha.get("servicoId").asText()).isEqualTo(tempos.get(i).servicoId().toString());
+            assertThat(linha.get("totalOrdensAnalisadas").asLong()).isEqualTo(i);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve retornar 400 no relatório com intervalo de datas inválido")
+    @SuppressWarnings("unchecked")
+    void shouldReturn400WhenRangeIsInvalid() throws Exception {
+        // Given
+        doThrow(new BusinessException("A data inicial não pode ser posterior à data final."))
+                .when(relatorioController).calcularTemposPorServico(any(), any(), any(Consumer.class));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/relatorios/tempo-medio/servicos")
+                        .param("dataInicio", "2024-02-01")
+                        .param("dataFim", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.grupo99.oficinaservice.infrastructure.security.authorization;
+
+import br.com.grupo99.oficinaservice.domain.model.Perfil;
+import br.com.grupo99.oficinaservice.infrastructure.security.annotation.RequiresRole;
+import br.com.grupo99.oficinaservice.infrastructure.security.jwt.JwtUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Custo da verificação de {@link RequiresRole} por chamada, com as políticas já resolvidas.
+ * Roda só com {@code mvn test -P benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Verificação de @RequiresRole por chamada")
+class RequiresRoleInterceptorBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(RequiresRoleInterceptorBenchmark.class);
+    private static final int ITERACOES = 200_000;
+
+    @RequiresRole({Perfil.MECANICO, Perfil.ADMIN})
+    static class ControllerProtegido {
+        public void listar() {
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Custo por chamada com perfil autorizado")
+    @SuppressWarnings("unchecked")
+    void custoPorChamada() throws Exception {
+        RequiresRoleInterceptor interceptor = new RequiresRoleInterceptor(mock(ObjectProvider.class));
+        HandlerMethod listar = new HandlerMethod(new ControllerProtegido(),
+                ControllerProtegido.class.getMethod("listar"));
+        interceptor.construir(List.of(listar));
+
+        JwtUserDetails usuario = JwtUserDetails.from("usuario", UUID.randomUUID().toString(),
+                "12345678901", "FISICA", null, Perfil.MECANICO.name());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        long porChamada = Long.MAX_VALUE;
+        for (int rodada = 0; rodada < 5; rodada++) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) {
+                interceptor.preHandle(request, response, listar);
+            }
+            porChamada = Math.min(porChamada, (System.nanoTime() - inicio) / ITERACOES);
+        }
+
+        log.info("Verificação de @RequiresRole por chamada: {} ns", porChamada);
+    }
+}
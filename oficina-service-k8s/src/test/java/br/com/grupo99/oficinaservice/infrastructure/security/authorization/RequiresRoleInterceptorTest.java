@@ -0,0 +1,152 @@
+package br.com.grupo99.oficinaservice.infrastructure.security.authorization;
+
+import br.com.grupo99.oficinaservice.domain.model.Perfil;
+import br.com.grupo99.oficinaservice.infrastructure.security.annotation.RequiresRole;
+import br.com.grupo99.oficinaservice.infrastructure.security.jwt.JwtUserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("RequiresRoleInterceptor - Testes Unitários")
+class RequiresRoleInterceptorTest {
+
+    @RequiresRole({Perfil.MECANICO, Perfil.ADMIN})
+    static class ControllerProtegido {
+        public void listar() {
+        }
+
+        @RequiresRole(Perfil.ADMIN)
+        public void excluir() {
+        }
+
+        @RequiresRole(value = Perfil.ADMIN, message = "Somente administradores")
+        public void auditar() {
+        }
+    }
+
+    static class ControllerAberto {
+        public void consultar() {
+        }
+    }
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private RequiresRoleInterceptor interceptor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        interceptor = new RequiresRoleInterceptor(mock(ObjectProvider.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static HandlerMethod handler(Object controller, String metodo) throws NoSuchMethodException {
+        return new HandlerMethod(controller, controller.getClass().getMethod(metodo));
+    }
+
+    private static void autenticar(Perfil perfil) {
+        JwtUserDetails usuario = JwtUserDetails.from("usuario", UUID.randomUUID().toString(),
+                "12345678901", "FISICA", null, perfil.name());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a anotação da classe aos métodos sem anotação própria")
+    void deveAplicarAnotacaoDaClasse() throws Exception {
+        HandlerMethod listar = handler(new ControllerProtegido(), "listar");
+
+        autenticar(Perfil.MECANICO);
+        assertThat(interceptor.preHandle(request, response, listar)).isTrue();
+
+        autenticar(Perfil.CLIENTE);
+        assertThatThrownBy(() -> interceptor.preHandle(request, response, listar))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessage("Acesso negado. Perfis necessários: [MECANICO, ADMIN]. Perfil do usuário: CLIENTE");
+    }
+
+    @Test
+    @DisplayName("Deve dar precedência à anotação do método sobre a da classe")
+    void deveDarPrecedenciaAnotacaoDoMetodo() throws Exception {
+        HandlerMethod excluir = handler(new ControllerProtegido(), "excluir");
+
+        autenticar(Perfil.MECANICO);
+        assertThatThrownBy(() -> interceptor.preHandle(request, response, excluir))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessage("Acesso negado. Perfis necessários: [ADMIN]. Perfil do usuário: MECANICO");
+
+        autenticar(Perfil.ADMIN);
+        assertThat(interceptor.preHandle(request, response, excluir)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve usar a mensagem personalizada da anotação")
+    void deveUsarMensagemPersonalizada() throws Exception {
+        HandlerMethod auditar = handler(new ControllerProtegido(), "auditar");
+        autenticar(Perfil.CLIENTE);
+
+        assertThatThrownBy(() -> interceptor.preHandle(request, response, auditar))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessage("Somente administradores");
+    }
+
+    @Test
+    @DisplayName("Deve negar acesso sem autenticação ou com principal de outro tipo")
+    void deveNegarSemAutenticacaoValida() throws Exception {
+        HandlerMethod listar = handler(new ControllerProtegido(), "listar");
+
+        assertThatThrownBy(() -> interceptor.preHandle(request, response, listar))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessage("Usuário não autenticado");
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("usuario", null, List.of()));
+        assertThatThrownBy(() -> interceptor.preHandle(request, response, listar))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessage("Token de autenticação inválido");
+    }
+
+    @Test
+    @DisplayName("Deve liberar métodos sem @RequiresRole e handlers que não são métodos de controller")
+    void deveLiberarMetodosSemAnotacao() throws Exception {
+        assertThat(interceptor.preHandle(request, response, handler(new ControllerAberto(), "consultar"))).isTrue();
+        assertThat(interceptor.preHandle(request, response, new Object())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve resolver as políticas uma única vez na inicialização")
+    void deveResolverPoliticasNaInicializacao() throws Exception {
+        HandlerMethod listar = handler(new ControllerProtegido(), "listar");
+        HandlerMethod consultar = handler(new ControllerAberto(), "consultar");
+        interceptor.construir(List.of(listar, consultar));
+
+        PoliticaPerfis politica = interceptor.politicaDe(listar);
+
+        assertThat(politica.getPerfisNecessarios()).containsExactlyInAnyOrder(Perfil.MECANICO, Perfil.ADMIN);
+        assertThat(interceptor.politicaDe(handler(new ControllerProtegido(), "listar"))).isSameAs(politica);
+        assertThat(interceptor.politicaDe(consultar)).isNull();
+
+        autenticar(Perfil.MECANICO);
+        assertThat(interceptor.preHandle(request, response, listar)).isTrue();
+    }
+}
@@ -0,0 +1,152 @@
+package br.com.grupo99.oficinaservice.infrastructure.security.authorization;
+
+import br.com.grupo99.oficinaservice.domain.model.Perfil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("TabelaAutorizacaoRotas - Testes Unitários")
+class TabelaAutorizacaoRotasTest {
+
+    private static final String ID = "3f2b9c7e-1d4a-4b8e-9f00-0a1b2c3d4e5f";
+
+    private SimpleMeterRegistry meterRegistry;
+    private TabelaAutorizacaoRotas tabela;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tabela = new TabelaAutorizacaoRotas(meterRegistry, mock(ObjectProvider.class));
+        tabela.construir(List.of(
+                endpoint(RequestMethod.POST, "/api/v1/ordens-servico"),
+                endpoint(RequestMethod.GET, "/api/v1/ordens-servico"),
+                endpoint(RequestMethod.GET, "/api/v1/ordens-servico/pagina"),
+                endpoint(RequestMethod.GET, "/api/v1/ordens-servico/exportacao"),
+                endpoint(RequestMethod.GET, "/api/v1/ordens-servico/{id}"),
+                endpoint(RequestMethod.DELETE, "/api/v1/ordens-servico/{id}"),
+                endpoint(RequestMethod.PATCH, "/api/v1/ordens-servico/{id}/status"),
+                endpoint(RequestMethod.GET, "/api/v1/clientes/{id}"),
+                endpoint(RequestMethod.PATCH, "/api/v1/pecas/{id}/estoque"),
+                endpoint(RequestMethod.GET, "/api/v1/relatorios/tempo-medio/servicos/{servicoId}")
+        ));
+    }
+
+    private static TabelaAutorizacaoRotas.Endpoint endpoint(RequestMethod metodo, String template) {
+        return new TabelaAutorizacaoRotas.Endpoint(metodo, template);
+    }
+
+    @Test
+    @DisplayName("Deve permitir ao cliente apenas a consulta de uma OS específica")
+    void devePermitirAoClienteApenasConsultaDeOs() {
+        RotaAutorizacao consulta = tabela.buscar("GET", "/api/v1/ordens-servico/" + ID);
+        RotaAutorizacao exclusao = tabela.buscar("DELETE", "/api/v1/ordens-servico/" + ID);
+
+        assertThat(consulta.getTemplate()).isEqualTo("/api/v1/ordens-servico/{id}");
+        assertThat(consulta.permite(Perfil.CLIENTE)).isTrue();
+        assertThat(exclusao.permite(Perfil.CLIENTE)).isFalse();
+        assertThat(exclusao.permite(Perfil.MECANICO)).isTrue();
+        assertThat(exclusao.getCorpoNegacao()).contains("Clientes só podem consultar suas ordens de serviço");
+    }
+
+    @Test
+    @DisplayName("Deve priorizar segmentos literais sobre variáveis")
+    void devePriorizarSegmentosLiterais() {
+        RotaAutorizacao pagina = tabela.buscar("GET", "/api/v1/ordens-servico/pagina");
+
+        assertThat(pagina.getTemplate()).isEqualTo("/api/v1/ordens-servico/pagina");
+        assertThat(pagina.permite(Perfil.CLIENTE)).isFalse();
+        assertThat(pagina.permite(Perfil.ADMIN)).isTrue();
+        assertThat(pagina.getCorpoNegacao()).contains("não podem listar");
+    }
+
+    @Test
+    @DisplayName("Deve voltar para o segmento variável quando o literal não leva a nenhuma rota")
+    void deveVoltarParaSegmentoVariavel() {
+        RotaAutorizacao status = tabela.buscar("PATCH", "/api/v1/ordens-servico/pagina/status");
+
+        assertThat(status.getTemplate()).isEqualTo("/api/v1/ordens-servico/{id}/status");
+    }
+
+    @Test
+    @DisplayName("Deve buscar pelo caminho dentro da aplicação, sem context path nem parâmetros de segmento")
+    void deveBuscarPeloCaminhoNormalizadoDaRequisicao() {
+        MockHttpServletRequest comContexto = new MockHttpServletRequest("GET", "/oficina/api/v1/clientes/" + ID);
+        comContexto.setContextPath("/oficina");
+        MockHttpServletRequest comParametros = new MockHttpServletRequest("GET", "/api/v1/clientes;x=1/" + ID + ";jsessionid=abc");
+        MockHttpServletRequest comBarrasRepetidas = new MockHttpServletRequest("GET", "/api//v1/clientes/" + ID);
+        MockHttpServletRequest codificada = new MockHttpServletRequest("GET", "/api/v1/%63lientes/" + ID);
+
+        for (MockHttpServletRequest request : List.of(comContexto, comParametros, comBarrasRepetidas, codificada)) {
+            RotaAutorizacao rota = tabela.buscar(request);
+            assertThat(rota).as(request.getRequestURI()).isNotNull();
+            assertThat(rota.getTemplate()).isEqualTo("/api/v1/clientes/{id}");
+            assertThat(rota.permite(Perfil.CLIENTE)).isFalse();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve negar ao cliente os cadastros e liberar os demais perfis")
+    void deveNegarCadastrosAoCliente() {
+        assertThat(tabela.buscar("GET", "/api/v1/clientes/" + ID).permite(Perfil.CLIENTE)).isFalse();
+        assertThat(tabela.buscar("PATCH", "/api/v1/pecas/" + ID + "/estoque").permite(Perfil.CLIENTE)).isFalse();
+        assertThat(tabela.buscar("GET", "/api/v1/relatorios/tempo-medio/servicos/" + ID).permite(Perfil.CLIENTE)).isTrue();
+        assertThat(tabela.buscar("GET", "/api/v1/clientes/" + ID).getPerfisPermitidos())
+                .containsExactlyInAnyOrder(Perfil.MECANICO, Perfil.ADMIN);
+    }
+
+    @Test
+    @DisplayName("Deve retornar nulo para rotas ou métodos não mapeados")
+    void deveRetornarNuloParaRotasNaoMapeadas() {
+        assertThat(tabela.buscar("PUT", "/api/v1/ordens-servico/" + ID)).isNull();
+        assertThat(tabela.buscar("GET", "/api/v1/ordens-servico/")).isNull();
+        assertThat(tabela.buscar("GET", "/api/v1/inexistente")).isNull();
+        assertThat(tabela.buscar("GET", "/api/v1/ordens-servico//" + ID)).isNull();
+        assertThat(tabela.buscar("FOO", "/api/v1/ordens-servico")).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve contar negações por rota e método")
+    void deveContarNegacoesPorRota() {
+        RotaAutorizacao rota = tabela.buscar("GET", "/api/v1/clientes/" + ID);
+
+        rota.registrarNegacao();
+        rota.registrarNegacao();
+
+        assertThat(meterRegistry.get("oficina.autorizacao.negacoes")
+                .tag("rota", "/api/v1/clientes/{id}")
+                .tag("metodo", "GET")
+                .counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.find("oficina.autorizacao.negacoes").tag("rota", "/api/v1/ordens-servico/{id}")
+                .tag("metodo", "GET").counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("Não deve alocar memória na consulta")
+    void naoDeveAlocarMemoriaNaConsulta() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String uri = "/api/v1/ordens-servico/" + ID;
+        for (int i = 0; i < 10_000; i++) {
+            tabela.buscar("GET", uri);
+        }
+
+        long antes = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            tabela.buscar("GET", uri);
+        }
+        long alocado = threads.getCurrentThreadAllocatedBytes() - antes;
+
+        // Margem para a própria medição; 1 objeto por consulta somaria mais de 1 MB
+        assertThat(alocado).isLessThan(1024);
+    }
+}
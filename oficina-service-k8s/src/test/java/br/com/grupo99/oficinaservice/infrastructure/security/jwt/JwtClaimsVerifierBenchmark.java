@@ -0,0 +1,62 @@
+package br.com.grupo99.oficinaservice.infrastructure.security.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Custo da verificação de JWT por requisição, com e sem o cache do {@link JwtClaimsVerifier}.
+ * Roda só com {@code mvn test -P benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("Benchmark - Verificação de JWT por requisição")
+class JwtClaimsVerifierBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtClaimsVerifierBenchmark.class);
+    private static final int ITERACOES = 20_000;
+
+    @Test
+    @DisplayName("Custo por requisição com e sem cache")
+    void custoPorRequisicao() {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secretKey",
+                "dGVzdGVzZWNyZXRrZXl0ZXN0ZXNlY3JldGtleXRlc3Rlc2VjcmV0a2V5dGVzdGVzZWNyZXRrZXl0ZXN0ZXNlY3JldGtleQ==");
+        ReflectionTestUtils.setField(util, "jwtExpiration", 3_600_000L);
+        JwtClaimsVerifier verifier = new JwtClaimsVerifier(util, 100, System::currentTimeMillis);
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("pessoaId", UUID.randomUUID().toString());
+        claims.put("numeroDocumento", "12345678901");
+        claims.put("tipoPessoa", "FISICA");
+        claims.put("perfil", "CLIENTE");
+        String token = util.generateToken(claims,
+                User.withUsername("cliente").password("senha").authorities(Collections.emptyList()).build());
+
+        long semCache = 0;
+        long comCache = 0;
+        for (int rodada = 0; rodada < 3; rodada++) {
+            long inicio = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) {
+                util.toUserDetails(util.parseClaims(token));
+            }
+            semCache = (System.nanoTime() - inicio) / ITERACOES;
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < ITERACOES; i++) {
+                verifier.verificar(token);
+            }
+            comCache = (System.nanoTime() - inicio) / ITERACOES;
+        }
+
+        log.info("Verificação de JWT por requisição - sem cache: {} ns, com cache: {} ns", semCache, comCache);
+    }
+}
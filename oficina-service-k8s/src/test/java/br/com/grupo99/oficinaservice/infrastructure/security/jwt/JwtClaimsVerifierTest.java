@@ -0,0 +1,111 @@
+package br.com.grupo99.oficinaservice.infrastructure.security.jwt;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DisplayName("JwtClaimsVerifier - Testes Unitários")
+class JwtClaimsVerifierTest {
+
+    private static final long UMA_HORA_MS = 3_600_000L;
+
+    private JwtUtil jwtUtil;
+    private AtomicLong agora;
+    private JwtClaimsVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JwtUtil());
+        ReflectionTestUtils.setField(jwtUtil, "secretKey",
+                "dGVzdGVzZWNyZXRrZXl0ZXN0ZXNlY3JldGtleXRlc3Rlc2VjcmV0a2V5dGVzdGVzZWNyZXRrZXl0ZXN0ZXNlY3JldGtleQ==");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", UMA_HORA_MS);
+        agora = new AtomicLong(System.currentTimeMillis());
+        verifier = new JwtClaimsVerifier(jwtUtil, 100, agora::get);
+    }
+
+    private String gerarToken(String username) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("pessoaId", UUID.randomUUID().toString());
+        claims.put("numeroDocumento", "12345678901");
+        claims.put("tipoPessoa", "FISICA");
+        claims.put("perfil", "CLIENTE");
+        return jwtUtil.generateToken(claims, User.withUsername(username).password("senha").authorities(Collections.emptyList()).build());
+    }
+
+    @Test
+    @DisplayName("Deve verificar o token uma única vez e reaproveitar o resultado")
+    void deveVerificarTokenUmaUnicaVez() {
+        String token = gerarToken("cliente");
+
+        JwtUserDetails primeiro = verifier.verificar(token);
+        JwtUserDetails segundo = verifier.verificar(token);
+
+        assertThat(primeiro.getUsername()).isEqualTo("cliente");
+        assertThat(primeiro.getPerfil().name()).isEqualTo("CLIENTE");
+        assertThat(segundo).isSameAs(primeiro);
+        verify(jwtUtil, times(1)).parseClaims(token);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token adulterado sem armazená-lo")
+    void deveRejeitarTokenAdulterado() {
+        String token = gerarToken("cliente");
+        String adulterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> verifier.verificar(adulterado)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> verifier.verificar(adulterado)).isInstanceOf(JwtException.class);
+        assertThat(verifier.tamanho()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve descartar a entrada do cache quando o token expira")
+    void deveDescartarEntradaQuandoTokenExpira() {
+        String token = gerarToken("cliente");
+        verifier.verificar(token);
+
+        agora.addAndGet(UMA_HORA_MS + 1_000);
+        verifier.removerExpirados();
+
+        assertThat(verifier.tamanho()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve verificar de novo um token cuja entrada já expirou no cache")
+    void deveVerificarDeNovoTokenExpiradoNoCache() {
+        String token = gerarToken("cliente");
+        verifier.verificar(token);
+
+        agora.addAndGet(UMA_HORA_MS + 1_000);
+        // O relógio do parser é o real, então o token ainda é aceito e volta ao cache
+        verifier.verificar(token);
+
+        verify(jwtUtil, times(2)).parseClaims(token);
+    }
+
+    @Test
+    @DisplayName("Não deve ultrapassar a capacidade do cache")
+    void naoDeveUltrapassarCapacidade() {
+        JwtClaimsVerifier pequeno = new JwtClaimsVerifier(jwtUtil, 2, agora::get);
+
+        for (int i = 0; i < 5; i++) {
+            pequeno.verificar(gerarToken("usuario" + i));
+        }
+
+        assertThat(pequeno.tamanho()).isEqualTo(2);
+    }
+}
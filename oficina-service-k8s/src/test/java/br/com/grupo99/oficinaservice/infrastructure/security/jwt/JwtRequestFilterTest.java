@@ -1,6 +1,7 @@
 package br.com.grupo99.oficinaservice.infrastructure.security.jwt;
 
 import br.com.grupo99.oficinaservice.infrastructure.security.UserDetailsServiceImpl;
+import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -46,7 +47,7 @@ class JwtRequestFilterTest {
 
 
     @Mock
-    private JwtUtil jwtUtil;
+    private JwtClaimsVerifier claimsVerifier;
 
     // UserDetailsService não é mais usado após refatoração
 
@@ -99,16 +100,14 @@ class JwtRequestFilterTest {
         JwtUserDetails mockUserDetails = createMockJwtUserDetails();
         
         when(request.getHeader("Authorization")).thenReturn(authHeader);
-        when(jwtUtil.extractUserDetails(validToken)).thenReturn(mockUserDetails);
+        when(claimsVerifier.verificar(validToken)).thenReturn(mockUserDetails);
         when(securityContext.getAuthentication()).thenReturn(null);
-        when(jwtUtil.isTokenValid(validToken, mockUserDetails)).thenReturn(true);
 
         // When
         jwtRequestFilter.doFilterInternal(request, response, filterChain);
 
         // Then
-        verify(jwtUtil).extractUserDetails(validToken);
-        verify(jwtUtil).isTokenValid(validToken, mockUserDetails);
+        verify(claimsVerifier).verificar(validToken);
         verify(securityContext).setAuthentication(any());
         verify(filterChain).doFilter(request, response);
     }
@@ -124,7 +123,7 @@ class JwtRequestFilterTest {
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil, never()).extractUserDetails(anyString());
+        verify(claimsVerifier, never()).verificar(anyString());
         // UserDetailsService não é mais usado
         verify(securityContext, never()).setAuthentication(any());
     }
@@ -140,7 +139,7 @@ class JwtRequestFilterTest {
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil, never()).extractUserDetails(anyString());
+        verify(claimsVerifier, never()).verificar(anyString());
         // UserDetailsService não é mais usado
         verify(securityContext, never()).setAuthentication(any());
     }
@@ -151,27 +150,25 @@ class JwtRequestFilterTest {
         // Given
         String authHeader = "Bearer " + validToken;
         when(request.getHeader("Authorization")).thenReturn(authHeader);
-        when(jwtUtil.extractUserDetails(validToken)).thenThrow(new RuntimeException("Token inválido"));
+        when(claimsVerifier.verificar(validToken)).thenThrow(new RuntimeException("Token inválido"));
 
         // When
         jwtRequestFilter.doFilterInternal(request, response, filterChain);
 
         // Then
-        verify(jwtUtil).extractUserDetails(validToken);
+        verify(claimsVerifier).verificar(validToken);
         verify(filterChain).doFilter(request, response);
         verify(securityContext, never()).setAuthentication(any());
     }
 
     @Test
-    @DisplayName("Deve continuar filter chain quando usuário já está autenticado")
+    @DisplayName("Não deve verificar o token quando usuário já está autenticado")
     void deveContinuarFilterChainQuandoUsuarioJaEstaAutenticado() throws ServletException, IOException {
         // Given
         String authHeader = "Bearer " + validToken;
         Authentication existingAuth = mock(Authentication.class);
-        JwtUserDetails mockUserDetails = createMockJwtUserDetails();
-        
+
         when(request.getHeader("Authorization")).thenReturn(authHeader);
-        lenient().when(jwtUtil.extractUserDetails(validToken)).thenReturn(mockUserDetails);
         when(securityContext.getAuthentication()).thenReturn(existingAuth);
 
         // When
@@ -179,6 +176,7 @@ class JwtRequestFilterTest {
 
         // Then
         verify(filterChain).doFilter(request, response);
+        verify(claimsVerifier, never()).verificar(anyString());
         verify(securityContext, never()).setAuthentication(any());
     }
 
@@ -187,19 +185,16 @@ class JwtRequestFilterTest {
     void deveContinuarFilterChainQuandoTokenEhInvalido() throws ServletException, IOException {
         // Given
         String authHeader = "Bearer " + validToken;
-        JwtUserDetails mockUserDetails = createMockJwtUserDetails();
-        
+
         when(request.getHeader("Authorization")).thenReturn(authHeader);
-        when(jwtUtil.extractUserDetails(validToken)).thenReturn(mockUserDetails);
         when(securityContext.getAuthentication()).thenReturn(null);
-        when(jwtUtil.isTokenValid(validToken, mockUserDetails)).thenReturn(false);
+        when(claimsVerifier.verificar(validToken)).thenThrow(new ExpiredJwtException(null, null, "Token expirado"));
 
         // When
         jwtRequestFilter.doFilterInternal(request, response, filterChain);
 
         // Then
-        verify(jwtUtil).extractUserDetails(validToken);
-        verify(jwtUtil).isTokenValid(validToken, mockUserDetails);
+        verify(claimsVerifier).verificar(validToken);
         verify(filterChain).doFilter(request, response);
         verify(securityContext, never()).setAuthentication(any());
     }
@@ -213,16 +208,14 @@ class JwtRequestFilterTest {
         JwtUserDetails mockUserDetails = createMockJwtUserDetails();
         
         when(request.getHeader("Authorization")).thenReturn(authHeader);
-        when(jwtUtil.extractUserDetails(tokenValue)).thenReturn(mockUserDetails);
+        when(claimsVerifier.verificar(tokenValue)).thenReturn(mockUserDetails);
         when(securityContext.getAuthentication()).thenReturn(null);
-        when(jwtUtil.isTokenValid(tokenValue, mockUserDetails)).thenReturn(true);
 
         // When
         jwtRequestFilter.doFilterInternal(request, response, filterChain);
 
         // Then
-        verify(jwtUtil).extractUserDetails(tokenValue);
-        verify(jwtUtil).isTokenValid(tokenValue, mockUserDetails);
+        verify(claimsVerifier).verificar(tokenValue);
     }
 
     @Test
@@ -233,9 +226,8 @@ class JwtRequestFilterTest {
         JwtUserDetails mockUserDetails = createMockJwtUserDetails();
         
         when(request.getHeader("Authorization")).thenReturn(authHeader);
-        when(jwtUtil.extractUserDetails(validToken)).thenReturn(mockUserDetails);
+        when(claimsVerifier.verificar(validToken)).thenReturn(mockUserDetails);
         when(securityContext.getAuthentication()).thenReturn(null);
-        when(jwtUtil.isTokenValid(validToken, mockUserDetails)).thenReturn(true);
 
         // When
         jwtRequestFilter.doFilterInternal(request, response, filterChain);
@@ -264,16 +256,15 @@ class JwtRequestFilterTest {
         JwtUserDetails mockUserDetails = createMockJwtUserDetails();
         
         when(request.getHeader("Authorization")).thenReturn(authHeader);
-        when(jwtUtil.extractUserDetails("   " + validToken)).thenReturn(mockUserDetails);
+        when(claimsVerifier.verificar("   " + validToken)).thenReturn(mockUserDetails);
         when(securityContext.getAuthentication()).thenReturn(null);
-        when(jwtUtil.isTokenValid("   " + validToken, mockUserDetails)).thenReturn(true);
 
         // When
         jwtRequestFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         verify(filterChain).doFilter(request, response);
-        verify(jwtUtil).extractUserDetails("   " + validToken);
+        verify(claimsVerifier).verificar("   " + validToken);
     }
 
     @Test
@@ -282,7 +273,7 @@ class JwtRequestFilterTest {
         // Given
         String authHeader = "Bearer " + validToken;
         when(request.getHeader("Authorization")).thenReturn(authHeader);
-        when(jwtUtil.extractUserDetails(validToken)).thenThrow(new RuntimeException("Token inválido"));
+        when(claimsVerifier.verificar(validToken)).thenThrow(new RuntimeException("Token inválido"));
 
         // When
         jwtRequestFilter.doFilterInternal(request, response, filterChain);